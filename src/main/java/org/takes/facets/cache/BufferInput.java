@@ -0,0 +1,84 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.cache;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Input stream reading a byte buffer.
+ *
+ * <p>The class is NOT thread-safe.
+ *
+ * @since 2.0
+ */
+final class BufferInput extends InputStream {
+
+    /**
+     * The buffer.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Ctor.
+     * @param buf The buffer, which will be read from its position
+     */
+    BufferInput(final ByteBuffer buf) {
+        super();
+        this.buffer = buf;
+    }
+
+    @Override
+    public int read() {
+        int next = -1;
+        if (this.buffer.hasRemaining()) {
+            next = this.buffer.get() & 0xFF;
+        }
+        return next;
+    }
+
+    @Override
+    public int read(final byte[] buf, final int off, final int len) {
+        int total = -1;
+        if (this.buffer.hasRemaining() || len == 0) {
+            total = Math.min(len, this.buffer.remaining());
+            this.buffer.get(buf, off, total);
+        }
+        return total;
+    }
+
+    @Override
+    public long skip(final long num) {
+        final int total = (int) Math.max(
+            0L, Math.min(num, this.buffer.remaining())
+        );
+        this.buffer.position(this.buffer.position() + total);
+        return total;
+    }
+
+    @Override
+    public int available() {
+        return this.buffer.remaining();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.cache;
+
+import java.io.IOException;
+import org.takes.misc.Opt;
+
+/**
+ * Storage of cached responses, used by {@link TkCache}.
+ *
+ * <p>Keys are request fingerprints, made by {@link TkCache}. An
+ * implementation may drop any entry at any time, but it must never
+ * return an entry which is not {@link Cached#fresh(long)} anymore.
+ *
+ * <p>All implementations of this interface must be thread-safe.
+ *
+ * @since 2.0
+ */
+public interface Cache {
+
+    /**
+     * Find a fresh entry.
+     * @param key Request fingerprint
+     * @return Entry, if it is found
+     * @throws IOException If fails
+     */
+    Opt<Cached> get(String key) throws IOException;
+
+    /**
+     * Save an entry, replacing the previous one, if any.
+     * @param key Request fingerprint
+     * @param entry Entry
+     * @throws IOException If fails
+     */
+    void put(String key, Cached entry) throws IOException;
+}
@@ -0,0 +1,202 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.takes.Response;
+import org.takes.rs.ResponseOf;
+
+/**
+ * Response saved in a {@link Cache}, with its head and body.
+ *
+ * <p>An entry either keeps a response or, when the response had
+ * {@code Vary} header, only the names of the request headers its
+ * variants are keyed by (see {@link #variants()}).
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@ToString(of = {"head", "vary", "expires"})
+@EqualsAndHashCode
+public final class Cached {
+
+    /**
+     * When it was created, in milliseconds since epoch.
+     */
+    private final long created;
+
+    /**
+     * When it expires, in milliseconds since epoch.
+     */
+    private final long expires;
+
+    /**
+     * Names of request headers from {@code Vary}, lower case.
+     */
+    private final List<String> vary;
+
+    /**
+     * Lines of the head, empty when it only lists variants.
+     */
+    private final List<String> head;
+
+    /**
+     * Body.
+     */
+    private final ByteBuffer body;
+
+    /**
+     * Ctor, for an entry which only lists variants.
+     * @param made When it was created, in milliseconds since epoch
+     * @param expiry When it expires, in milliseconds since epoch
+     * @param names Names of request headers from {@code Vary}
+     */
+    public Cached(final long made, final long expiry,
+        final List<String> names) {
+        this(
+            made, expiry, names, Collections.emptyList(),
+            ByteBuffer.allocate(0)
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param made When it was created, in milliseconds since epoch
+     * @param expiry When it expires, in milliseconds since epoch
+     * @param names Names of request headers from {@code Vary}
+     * @param lines Lines of the head
+     * @param bytes Body, from its position to its limit
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Cached(final long made, final long expiry,
+        final List<String> names, final List<String> lines,
+        final ByteBuffer bytes) {
+        this.created = made;
+        this.expires = expiry;
+        this.vary = Collections.unmodifiableList(new ArrayList<>(names));
+        this.head = Collections.unmodifiableList(new ArrayList<>(lines));
+        this.body = bytes.asReadOnlyBuffer();
+    }
+
+    /**
+     * When it was created.
+     * @return Milliseconds since epoch
+     */
+    public long created() {
+        return this.created;
+    }
+
+    /**
+     * When it expires.
+     * @return Milliseconds since epoch
+     */
+    public long expires() {
+        return this.expires;
+    }
+
+    /**
+     * Is it still fresh?
+     * @param now Current time, in milliseconds since epoch
+     * @return TRUE if it can be served
+     */
+    public boolean fresh(final long now) {
+        return now < this.expires;
+    }
+
+    /**
+     * Does it only list the headers its variants are keyed by?
+     * @return TRUE if there is no response here
+     */
+    public boolean variants() {
+        return this.head.isEmpty();
+    }
+
+    /**
+     * Names of request headers the response varies by.
+     * @return Names in lower case, empty if it doesn't vary
+     */
+    public List<String> vary() {
+        return this.vary;
+    }
+
+    /**
+     * Lines of the head.
+     * @return Lines
+     */
+    public List<String> head() {
+        return this.head;
+    }
+
+    /**
+     * Body.
+     * @return Read-only buffer, positioned at the start of the body
+     */
+    public ByteBuffer body() {
+        return this.body.duplicate();
+    }
+
+    /**
+     * Approximate amount of memory it takes.
+     * @return Bytes
+     */
+    public long size() {
+        long size = this.body.remaining();
+        for (final String line : this.head) {
+            size += line.length() + 2L;
+        }
+        for (final String name : this.vary) {
+            size += name.length() + 2L;
+        }
+        return size;
+    }
+
+    /**
+     * Make a response out of it, with {@code Age} header.
+     * @param now Current time, in milliseconds since epoch
+     * @return Response
+     */
+    public Response response(final long now) {
+        final List<String> lines = new ArrayList<>(this.head.size() + 1);
+        for (final String line : this.head) {
+            if (!line.toLowerCase(Locale.ENGLISH).startsWith("age:")) {
+                lines.add(line);
+            }
+        }
+        lines.add(
+            String.format(
+                "Age: %d", Math.max(0L, now - this.created) / 1000L
+            )
+        );
+        return new ResponseOf(
+            () -> lines, () -> new BufferInput(this.body())
+        );
+    }
+}
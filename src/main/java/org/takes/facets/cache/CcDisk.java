@@ -0,0 +1,576 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.ToString;
+import org.takes.misc.Opt;
+
+/**
+ * Cache on disk, which survives restarts.
+ *
+ * <p>Entries are appended to a data file and found through an index,
+ * which is an open addressing hash table of request fingerprints.
+ * Both files are mapped to memory, and bodies of entries are served
+ * straight from the mapped data file, without copying. The cache may
+ * be used on its own:
+ *
+ * <pre> final Take take = new TkCache(
+ *   new TkCatalogue(),
+ *   new CcDisk(new File("/var/cache/app"), 10_000, 256 &lt;&lt; 20),
+ *   TimeUnit.HOURS.toMillis(1L)
+ * );</pre>
+ *
+ * <p>Or behind a cache in memory, see {@link CcTiered}.
+ *
+ * <p>Entries are never modified: saving an entry again appends a new
+ * copy and points the index to it. When the data file has no room
+ * for a new entry or the index is three quarters full, the cache is
+ * compacted: stale entries are dropped and the others are copied to
+ * a new data file, the ones that live longer first, as long as they
+ * fit. The previous data file is deleted, but the responses which are
+ * still being read from it stay valid, since its memory stays mapped.
+ *
+ * <p>Entries saved right before a crash may be lost, since the files
+ * are not forced to disk on every write.
+ *
+ * <p>The index file is locked as long as the cache is open, so that
+ * only one instance, in one process, uses the directory. Another one
+ * fails to open it, until the first one is closed: during a rolling
+ * deploy give the new instance its own directory or close the old one
+ * first. The size of the data file is saved in the index, and the
+ * cache opened with another size starts from scratch.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 2.0
+ */
+@ToString(of = {"dir", "capacity", "slots"})
+@SuppressWarnings("PMD.TooManyMethods")
+public final class CcDisk implements Cache, Closeable {
+
+    /**
+     * Marker of the index file.
+     */
+    private static final int MAGIC = 0x54414b43;
+
+    /**
+     * Size of the index header: magic, slots, generation, end, used,
+     * capacity.
+     */
+    private static final int HEADER = 32;
+
+    /**
+     * Size of an index slot: hash, offset, length, expiration.
+     */
+    private static final int SLOT = 32;
+
+    /**
+     * Offset of the number of slots in the header.
+     */
+    private static final int SLOTS = 4;
+
+    /**
+     * Offset of the generation of the data file in the header.
+     */
+    private static final int GEN = 8;
+
+    /**
+     * Offset of the end of the data in the header.
+     */
+    private static final int END = 12;
+
+    /**
+     * Offset of the number of used slots in the header.
+     */
+    private static final int USED = 16;
+
+    /**
+     * Offset of the maximum size of the data file in the header.
+     */
+    private static final int CAPACITY = 20;
+
+    /**
+     * Directory.
+     */
+    private final File dir;
+
+    /**
+     * Maximum size of the data file.
+     */
+    private final int capacity;
+
+    /**
+     * Number of slots in the index, a power of two.
+     */
+    private final int slots;
+
+    /**
+     * Channel of the index file, which holds the lock.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The index, mapped.
+     */
+    private final MappedByteBuffer index;
+
+    /**
+     * Lock, exclusive for writing.
+     */
+    private final ReadWriteLock lock;
+
+    /**
+     * The data file, mapped.
+     */
+    private MappedByteBuffer data;
+
+    /**
+     * Ctor, for 10K entries and 256Mb.
+     * @param path Directory
+     * @throws IOException If fails
+     */
+    public CcDisk(final File path) throws IOException {
+        // @checkstyle MagicNumberCheck (1 line)
+        this(path, 10_000, 256 << 20);
+    }
+
+    /**
+     * Ctor.
+     * @param path Directory
+     * @param entries Maximum number of entries
+     * @param bytes Maximum size of the data file
+     * @throws IOException If fails
+     */
+    public CcDisk(final File path, final int entries, final int bytes)
+        throws IOException {
+        this.dir = path;
+        this.capacity = bytes;
+        // @checkstyle MagicNumberCheck (1 line)
+        int size = 16;
+        while (size < entries * 2) {
+            size <<= 1;
+        }
+        this.slots = size;
+        this.lock = new ReentrantReadWriteLock();
+        if (!path.isDirectory() && !path.mkdirs()) {
+            throw new IOException(
+                String.format("Can't create directory %s", path)
+            );
+        }
+        this.channel = CcDisk.locked(new File(path, "index"));
+        try {
+            this.index = this.channel.map(
+                FileChannel.MapMode.READ_WRITE,
+                0L, CcDisk.HEADER + size * CcDisk.SLOT
+            );
+            final File file = this.file(this.index.getInt(CcDisk.GEN));
+            if (this.index.getInt(0) != CcDisk.MAGIC
+                || this.index.getInt(CcDisk.SLOTS) != size
+                || this.index.getInt(CcDisk.CAPACITY) != bytes
+                || file.length() < this.index.getInt(CcDisk.END)) {
+                this.reset();
+            }
+            this.data = CcDisk.map(
+                this.file(this.index.getInt(CcDisk.GEN)), bytes
+            );
+        } catch (final IOException ex) {
+            this.channel.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Opt<Cached> get(final String key) {
+        final byte[] name = key.getBytes(StandardCharsets.UTF_8);
+        final long hash = CcDisk.hash(name);
+        this.lock.readLock().lock();
+        try {
+            final int pos = this.probe(hash, name);
+            final Opt<Cached> found;
+            if (this.index.getLong(pos) != 0L
+                && this.index.getLong(pos + 16) > System.currentTimeMillis()) {
+                found = new Opt.Single<>(
+                    CcDisk.decode(this.data, this.index.getInt(pos + 8))
+                );
+            } else {
+                found = new Opt.Empty<>();
+            }
+            return found;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(final String key, final Cached entry) throws IOException {
+        final byte[] name = key.getBytes(StandardCharsets.UTF_8);
+        final byte[] record = CcDisk.encode(name, entry);
+        if (record.length <= this.capacity / 4) {
+            final long hash = CcDisk.hash(name);
+            this.lock.writeLock().lock();
+            try {
+                int pos = this.probe(hash, name);
+                if (this.index.getInt(CcDisk.END) + record.length
+                    > this.capacity
+                    || this.index.getLong(pos) == 0L
+                    && this.index.getInt(CcDisk.USED) >= this.slots * 3 / 4) {
+                    this.compact(record.length);
+                    pos = this.probe(hash, name);
+                }
+                final int end = this.index.getInt(CcDisk.END);
+                final ByteBuffer target = this.data.duplicate();
+                target.position(end);
+                target.put(record);
+                if (this.index.getLong(pos) == 0L) {
+                    this.index.putInt(
+                        CcDisk.USED, this.index.getInt(CcDisk.USED) + 1
+                    );
+                }
+                CcDisk.slot(
+                    this.index, pos, hash, end, record.length, entry.expires()
+                );
+                this.index.putInt(CcDisk.END, end + record.length);
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Release the lock of the directory.
+     *
+     * <p>The cache must not be used after that.
+     *
+     * @throws IOException If fails
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Find the slot of the key, or the empty slot where it may go.
+     * @param hash Hash of the key
+     * @param name The key
+     * @return Position of the slot in the index
+     */
+    private int probe(final long hash, final byte[] name) {
+        final int mask = this.slots - 1;
+        int idx = (int) (hash ^ hash >>> 32) & mask;
+        int pos = CcDisk.HEADER + idx * CcDisk.SLOT;
+        while (this.index.getLong(pos) != 0L
+            && (this.index.getLong(pos) != hash
+            || !CcDisk.named(this.data, this.index.getInt(pos + 8), name))) {
+            idx = idx + 1 & mask;
+            pos = CcDisk.HEADER + idx * CcDisk.SLOT;
+        }
+        return pos;
+    }
+
+    /**
+     * Move fresh entries to a new data file, leaving some room.
+     * @param room How much room to leave
+     * @throws IOException If fails
+     */
+    private void compact(final int room) throws IOException {
+        final long now = System.currentTimeMillis();
+        final List<long[]> live = new ArrayList<>(0);
+        for (int idx = 0; idx < this.slots; ++idx) {
+            final int pos = CcDisk.HEADER + idx * CcDisk.SLOT;
+            if (this.index.getLong(pos) != 0L
+                && this.index.getLong(pos + 16) > now) {
+                live.add(
+                    new long[] {
+                        this.index.getLong(pos),
+                        this.index.getInt(pos + 8),
+                        this.index.getInt(pos + 12),
+                        this.index.getLong(pos + 16),
+                    }
+                );
+            }
+            CcDisk.slot(this.index, pos, 0L, 0, 0, 0L);
+        }
+        live.sort(Comparator.comparingLong((long[] slot) -> -slot[3]));
+        final int gen = this.index.getInt(CcDisk.GEN) + 1;
+        final File before = this.file(gen - 1);
+        final MappedByteBuffer next = CcDisk.map(this.file(gen), this.capacity);
+        final int mask = this.slots - 1;
+        int end = 0;
+        int used = 0;
+        for (final long[] slot : live) {
+            final int len = (int) slot[2];
+            if (end + len > this.capacity - room
+                || used + 1 >= this.slots * 3 / 4) {
+                break;
+            }
+            final byte[] record = new byte[len];
+            final ByteBuffer source = this.data.duplicate();
+            source.position((int) slot[1]);
+            source.get(record);
+            final ByteBuffer target = next.duplicate();
+            target.position(end);
+            target.put(record);
+            int idx = (int) (slot[0] ^ slot[0] >>> 32) & mask;
+            while (this.index.getLong(CcDisk.HEADER + idx * CcDisk.SLOT)
+                != 0L) {
+                idx = idx + 1 & mask;
+            }
+            CcDisk.slot(
+                this.index, CcDisk.HEADER + idx * CcDisk.SLOT,
+                slot[0], end, len, slot[3]
+            );
+            end += len;
+            ++used;
+        }
+        this.data = next;
+        this.index.putInt(CcDisk.GEN, gen);
+        this.index.putInt(CcDisk.END, end);
+        this.index.putInt(CcDisk.USED, used);
+        if (!before.delete() && before.exists()) {
+            before.deleteOnExit();
+        }
+    }
+
+    /**
+     * Start from scratch, with an empty index and a new data file.
+     */
+    private void reset() {
+        final int gen = this.index.getInt(CcDisk.GEN) + 1;
+        for (int pos = 0; pos < this.index.capacity(); pos += Long.BYTES) {
+            this.index.putLong(pos, 0L);
+        }
+        this.index.putInt(0, CcDisk.MAGIC);
+        this.index.putInt(CcDisk.SLOTS, this.slots);
+        this.index.putInt(CcDisk.GEN, gen);
+        this.index.putInt(CcDisk.CAPACITY, this.capacity);
+        final File[] files = this.dir.listFiles(
+            (folder, name) -> name.startsWith("data.")
+        );
+        if (files != null) {
+            for (final File file : files) {
+                if (!file.delete()) {
+                    file.deleteOnExit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Data file of the generation.
+     * @param gen Generation
+     * @return File
+     */
+    private File file(final int gen) {
+        return new File(this.dir, String.format("data.%d", gen));
+    }
+
+    /**
+     * Fill the slot.
+     * @param index Index
+     * @param pos Position of the slot
+     * @param hash Hash of the key
+     * @param offset Offset of the record in the data file
+     * @param len Length of the record
+     * @param expires When the entry expires
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static void slot(final ByteBuffer index, final int pos,
+        final long hash, final int offset, final int len,
+        final long expires) {
+        index.putLong(pos, hash);
+        index.putInt(pos + 8, offset);
+        index.putInt(pos + 12, len);
+        index.putLong(pos + 16, expires);
+    }
+
+    /**
+     * Is the record at this offset saved by this key?
+     * @param data Data file
+     * @param offset Offset of the record
+     * @param name The key
+     * @return TRUE if it is
+     */
+    private static boolean named(final ByteBuffer data, final int offset,
+        final byte[] name) {
+        boolean same = data.getInt(offset + 4) == name.length;
+        for (int idx = 0; same && idx < name.length; ++idx) {
+            same = data.get(offset + 8 + idx) == name[idx];
+        }
+        return same;
+    }
+
+    /**
+     * Record of an entry: length, key, times, vary, head and body.
+     * @param name The key
+     * @param entry The entry
+     * @return Bytes
+     * @throws IOException If fails
+     */
+    private static byte[] encode(final byte[] name, final Cached entry)
+        throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(baos);
+        out.writeInt(0);
+        out.writeInt(name.length);
+        out.write(name);
+        out.writeLong(entry.created());
+        out.writeLong(entry.expires());
+        final List<List<String>> parts = Arrays.asList(
+            entry.vary(), entry.head()
+        );
+        for (final List<String> lines : parts) {
+            out.writeInt(lines.size());
+            for (final String line : lines) {
+                final byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+        final ByteBuffer body = entry.body();
+        final byte[] bytes = new byte[body.remaining()];
+        body.get(bytes);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.flush();
+        final byte[] record = baos.toByteArray();
+        ByteBuffer.wrap(record).putInt(0, record.length - Integer.BYTES);
+        return record;
+    }
+
+    /**
+     * Entry from its record, with the body in the data file.
+     * @param data Data file
+     * @param offset Offset of the record
+     * @return Entry
+     */
+    private static Cached decode(final ByteBuffer data, final int offset) {
+        final ByteBuffer buf = data.duplicate();
+        buf.position(offset + 8 + data.getInt(offset + 4));
+        final long created = buf.getLong();
+        final long expires = buf.getLong();
+        final List<String> vary = CcDisk.lines(buf);
+        final List<String> head = CcDisk.lines(buf);
+        final int len = buf.getInt();
+        final ByteBuffer body = buf.slice();
+        body.limit(len);
+        return new Cached(created, expires, vary, head, body);
+    }
+
+    /**
+     * Read lines.
+     * @param buf Buffer
+     * @return Lines
+     */
+    private static List<String> lines(final ByteBuffer buf) {
+        final int count = buf.getInt();
+        final List<String> lines = new ArrayList<>(count);
+        for (int idx = 0; idx < count; ++idx) {
+            final byte[] bytes = new byte[buf.getInt()];
+            buf.get(bytes);
+            lines.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return lines;
+    }
+
+    /**
+     * FNV-1a hash of the key, never zero.
+     * @param name The key
+     * @return Hash
+     */
+    private static long hash(final byte[] name) {
+        // @checkstyle MagicNumberCheck (6 lines)
+        long hash = 0xcbf29ce484222325L;
+        for (final byte part : name) {
+            hash ^= part & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        if (hash == 0L) {
+            hash = 1L;
+        }
+        return hash;
+    }
+
+    /**
+     * Open the file and lock it.
+     * @param file File
+     * @return Channel, which holds the lock
+     * @throws IOException If the file is locked already
+     */
+    private static FileChannel locked(final File file) throws IOException {
+        final FileChannel channel = FileChannel.open(
+            file.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE
+        );
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (final OverlappingFileLockException ex) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IOException(
+                String.format(
+                    "Cache in %s is used by another instance",
+                    file.getParent()
+                )
+            );
+        }
+        return channel;
+    }
+
+    /**
+     * Map the file to memory, growing it if necessary.
+     * @param file File
+     * @param size Size to map
+     * @return Mapped buffer
+     * @throws IOException If fails
+     */
+    private static MappedByteBuffer map(final File file, final int size)
+        throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            FileChannel channel = raf.getChannel()) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0L, size);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.ToString;
+import org.takes.misc.Opt;
+
+/**
+ * Cache in memory, with least recently used entries evicted first.
+ *
+ * <p>The cache is bounded by the number of entries and by their total
+ * size in bytes. Keys are spread over a few stripes, each of them being
+ * an independent LRU map with its own lock and its own share of the
+ * bounds, so that concurrent lookups of different keys rarely wait for
+ * each other:
+ *
+ * <pre> final CcMemory cache = new CcMemory(10_000, 64L &lt;&lt; 20);
+ * final Take take = new TkCache(
+ *   new TkCatalogue(), cache, TimeUnit.MINUTES.toMillis(5L)
+ * );</pre>
+ *
+ * <p>Hits, misses and evictions are counted. A lookup of an entry
+ * which only lists variants (see {@link Cached#variants()}) is not
+ * counted as a hit, since the request still needs the lookup of
+ * the variant.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 2.0
+ */
+@ToString(of = {"hit", "miss", "evicted"})
+public final class CcMemory implements Cache {
+
+    /**
+     * Stripes.
+     */
+    private final CcMemory.Stripe[] stripes;
+
+    /**
+     * Hits.
+     */
+    private final LongAdder hit;
+
+    /**
+     * Misses.
+     */
+    private final LongAdder miss;
+
+    /**
+     * Evictions.
+     */
+    private final LongAdder evicted;
+
+    /**
+     * Ctor, for 10K entries and 64Mb.
+     */
+    public CcMemory() {
+        // @checkstyle MagicNumberCheck (1 line)
+        this(10_000, 64L << 20);
+    }
+
+    /**
+     * Ctor.
+     * @param entries Maximum number of entries
+     * @param bytes Maximum total size of entries
+     */
+    public CcMemory(final int entries, final long bytes) {
+        // @checkstyle MagicNumberCheck (1 line)
+        this(entries, bytes, Math.max(1, Math.min(16, entries / 64)));
+    }
+
+    /**
+     * Ctor.
+     * @param entries Maximum number of entries
+     * @param bytes Maximum total size of entries
+     * @param count Number of stripes
+     */
+    public CcMemory(final int entries, final long bytes, final int count) {
+        this.stripes = new CcMemory.Stripe[count];
+        for (int idx = 0; idx < count; ++idx) {
+            this.stripes[idx] = new CcMemory.Stripe(
+                Math.max(1, entries / count), bytes / count
+            );
+        }
+        this.hit = new LongAdder();
+        this.miss = new LongAdder();
+        this.evicted = new LongAdder();
+    }
+
+    @Override
+    public Opt<Cached> get(final String key) {
+        final Cached entry = this.stripe(key).get(
+            key, System.currentTimeMillis()
+        );
+        final Opt<Cached> found;
+        if (entry == null) {
+            this.miss.increment();
+            found = new Opt.Empty<>();
+        } else {
+            if (!entry.variants()) {
+                this.hit.increment();
+            }
+            found = new Opt.Single<>(entry);
+        }
+        return found;
+    }
+
+    @Override
+    public void put(final String key, final Cached entry) {
+        this.evicted.add(this.stripe(key).put(key, entry));
+    }
+
+    /**
+     * How many lookups found a response.
+     * @return Number of hits
+     */
+    public long hits() {
+        return this.hit.sum();
+    }
+
+    /**
+     * How many lookups found nothing.
+     * @return Number of misses
+     */
+    public long misses() {
+        return this.miss.sum();
+    }
+
+    /**
+     * How many entries were dropped to stay within the bounds.
+     * @return Number of evictions
+     */
+    public long evictions() {
+        return this.evicted.sum();
+    }
+
+    /**
+     * Number of entries.
+     * @return Entries
+     */
+    public int size() {
+        int size = 0;
+        for (final CcMemory.Stripe stripe : this.stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Total size of entries.
+     * @return Bytes
+     */
+    public long bytes() {
+        long bytes = 0L;
+        for (final CcMemory.Stripe stripe : this.stripes) {
+            bytes += stripe.bytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Stripe for the key.
+     * @param key Key
+     * @return Stripe
+     */
+    private CcMemory.Stripe stripe(final String key) {
+        final int hash = key.hashCode();
+        return this.stripes[
+            ((hash ^ hash >>> 16) & Integer.MAX_VALUE) % this.stripes.length
+        ];
+    }
+
+    /**
+     * One stripe, an LRU map with its own bounds.
+     *
+     * <p>The class is thread-safe.
+     *
+     * @since 2.0
+     */
+    private static final class Stripe {
+
+        /**
+         * Entries, in the order of access.
+         */
+        private final Map<String, Cached> map;
+
+        /**
+         * Maximum number of entries.
+         */
+        private final int entries;
+
+        /**
+         * Maximum total size.
+         */
+        private final long max;
+
+        /**
+         * Total size now.
+         */
+        private long total;
+
+        /**
+         * Ctor.
+         * @param count Maximum number of entries
+         * @param bytes Maximum total size
+         */
+        Stripe(final int count, final long bytes) {
+            // @checkstyle MagicNumberCheck (1 line)
+            this.map = new LinkedHashMap<>(16, 0.75f, true);
+            this.entries = count;
+            this.max = bytes;
+        }
+
+        /**
+         * Find a fresh entry.
+         * @param key Key
+         * @param now Current time
+         * @return Entry or NULL
+         */
+        synchronized Cached get(final String key, final long now) {
+            Cached entry = this.map.get(key);
+            if (entry != null && !entry.fresh(now)) {
+                this.map.remove(key);
+                this.total -= entry.size();
+                entry = null;
+            }
+            return entry;
+        }
+
+        /**
+         * Save an entry and evict the eldest ones, if necessary.
+         * @param key Key
+         * @param entry Entry
+         * @return How many entries were evicted
+         */
+        synchronized int put(final String key, final Cached entry) {
+            int evicted = 0;
+            if (entry.size() <= this.max) {
+                final Cached before = this.map.put(key, entry);
+                if (before != null) {
+                    this.total -= before.size();
+                }
+                this.total += entry.size();
+                final Iterator<Cached> eldest = this.map.values().iterator();
+                while (this.map.size() > this.entries
+                    || this.total > this.max) {
+                    this.total -= eldest.next().size();
+                    eldest.remove();
+                    ++evicted;
+                }
+            } else {
+                final Cached before = this.map.remove(key);
+                if (before != null) {
+                    this.total -= before.size();
+                }
+            }
+            return evicted;
+        }
+
+        /**
+         * Number of entries.
+         * @return Entries
+         */
+        synchronized int size() {
+            return this.map.size();
+        }
+
+        /**
+         * Total size.
+         * @return Bytes
+         */
+        synchronized long bytes() {
+            return this.total;
+        }
+    }
+}
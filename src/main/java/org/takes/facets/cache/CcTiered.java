@@ -0,0 +1,110 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.takes.misc.Opt;
+
+/**
+ * Two caches, a fast one in front of a larger one.
+ *
+ * <p>Entries are saved in both. An entry missing in the first cache
+ * is looked up in the second one and, if found, copied to the first,
+ * with its body copied to the heap, so that the first cache doesn't
+ * keep a file of {@link CcDisk} mapped after it's compacted:
+ *
+ * <pre> final Take take = new TkCache(
+ *   new TkCatalogue(),
+ *   new CcTiered(
+ *     new CcMemory(1000, 16L &lt;&lt; 20),
+ *     new CcDisk(new File("/var/cache/app"))
+ *   ),
+ *   TimeUnit.HOURS.toMillis(1L)
+ * );</pre>
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@ToString
+@EqualsAndHashCode
+public final class CcTiered implements Cache {
+
+    /**
+     * The first cache.
+     */
+    private final Cache first;
+
+    /**
+     * The second cache.
+     */
+    private final Cache second;
+
+    /**
+     * Ctor.
+     * @param fast The first cache
+     * @param large The second cache
+     */
+    public CcTiered(final Cache fast, final Cache large) {
+        this.first = fast;
+        this.second = large;
+    }
+
+    @Override
+    public Opt<Cached> get(final String key) throws IOException {
+        Opt<Cached> found = this.first.get(key);
+        if (!found.has()) {
+            found = this.second.get(key);
+            if (found.has()) {
+                found = new Opt.Single<>(CcTiered.copy(found.get()));
+                this.first.put(key, found.get());
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void put(final String key, final Cached entry) throws IOException {
+        this.first.put(key, entry);
+        this.second.put(key, entry);
+    }
+
+    /**
+     * Entry with its body copied to the heap.
+     * @param entry Entry, which may be backed by a mapped file
+     * @return Entry
+     */
+    private static Cached copy(final Cached entry) {
+        final ByteBuffer body = entry.body();
+        final byte[] bytes = new byte[body.remaining()];
+        body.get(bytes);
+        return new Cached(
+            entry.created(), entry.expires(), entry.vary(), entry.head(),
+            ByteBuffer.wrap(bytes)
+        );
+    }
+}
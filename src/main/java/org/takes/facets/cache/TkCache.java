@@ -0,0 +1,370 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.cactoos.list.ListOf;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.misc.Opt;
+import org.takes.rq.RqHeaders;
+import org.takes.rq.RqHref;
+import org.takes.rq.RqMethod;
+import org.takes.rs.ResponseOf;
+import org.takes.rs.RsHeaders;
+import org.takes.rs.RsStatus;
+
+/**
+ * Take that caches responses of another take.
+ *
+ * <p>Responses to {@code GET} and {@code HEAD} requests are read
+ * entirely, head and body, and saved in a {@link Cache}, keyed by the
+ * method, the URI and the values of the request headers listed in
+ * {@code Vary} header of the response. While an entry is fresh, the
+ * same request is served from the cache, with {@code Age} header,
+ * and the original take is not called:
+ *
+ * <pre> final Take take = new TkCache(
+ *   new TkFork(new FkRegex("/catalogue", new TkCatalogue())),
+ *   new CcMemory(10_000, 64L &lt;&lt; 20),
+ *   TimeUnit.MINUTES.toMillis(5L)
+ * );</pre>
+ *
+ * <p>Freshness comes from {@code s-maxage} or {@code max-age} directive
+ * of {@code Cache-Control} header of the response, or, when there is
+ * none, from the TTL given to the constructor. Responses with
+ * {@code no-store}, {@code no-cache} or {@code private} directive,
+ * with {@code Set-Cookie} header, with {@code Vary: *}, with a status
+ * which is not cacheable by default, or with a body larger than the
+ * limit are not saved. Requests with {@code Authorization} header or
+ * {@code no-store} directive are never served from the cache or saved
+ * in it; requests with {@code no-cache} directive go to the original
+ * take and refresh the entry.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@ToString(of = {"origin", "cache"})
+@EqualsAndHashCode
+public final class TkCache implements Take {
+
+    /**
+     * Statuses which are cacheable by default, by RFC 7231.
+     */
+    private static final Collection<Integer> STATUSES = new HashSet<>(
+        Arrays.asList(
+            HttpURLConnection.HTTP_OK,
+            HttpURLConnection.HTTP_NOT_AUTHORITATIVE,
+            HttpURLConnection.HTTP_NO_CONTENT,
+            HttpURLConnection.HTTP_MULT_CHOICE,
+            HttpURLConnection.HTTP_MOVED_PERM,
+            HttpURLConnection.HTTP_NOT_FOUND,
+            HttpURLConnection.HTTP_BAD_METHOD,
+            HttpURLConnection.HTTP_GONE,
+            HttpURLConnection.HTTP_REQ_TOO_LONG,
+            HttpURLConnection.HTTP_NOT_IMPLEMENTED
+        )
+    );
+
+    /**
+     * Original take.
+     */
+    private final Take origin;
+
+    /**
+     * Cache.
+     */
+    private final Cache cache;
+
+    /**
+     * Freshness of responses without max-age, in milliseconds.
+     */
+    private final long ttl;
+
+    /**
+     * Maximum size of a body to save.
+     */
+    private final int max;
+
+    /**
+     * Ctor, caching only responses with max-age.
+     * @param take Original take
+     */
+    public TkCache(final Take take) {
+        this(take, 0L);
+    }
+
+    /**
+     * Ctor.
+     * @param take Original take
+     * @param fresh Freshness of responses without max-age, in milliseconds
+     */
+    public TkCache(final Take take, final long fresh) {
+        this(take, new CcMemory(), fresh);
+    }
+
+    /**
+     * Ctor.
+     * @param take Original take
+     * @param storage Cache
+     * @param fresh Freshness of responses without max-age, in milliseconds
+     */
+    public TkCache(final Take take, final Cache storage, final long fresh) {
+        // @checkstyle MagicNumberCheck (1 line)
+        this(take, storage, fresh, 1 << 20);
+    }
+
+    /**
+     * Ctor.
+     * @param take Original take
+     * @param storage Cache
+     * @param fresh Freshness of responses without max-age, in milliseconds
+     * @param limit Maximum size of a body to save
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public TkCache(final Take take, final Cache storage, final long fresh,
+        final int limit) {
+        this.origin = take;
+        this.cache = storage;
+        this.ttl = fresh;
+        this.max = limit;
+    }
+
+    @Override
+    public Response act(final Request req) throws Exception {
+        final String method = new RqMethod.Base(req).method();
+        final RqHeaders headers = new RqHeaders.Base(req);
+        final List<String> control = TkCache.tokens(
+            headers.header("Cache-Control")
+        );
+        final Response response;
+        if (!RqMethod.GET.equals(method) && !RqMethod.HEAD.equals(method)
+            || control.contains("no-store")
+            || !headers.header("Authorization").isEmpty()) {
+            response = this.origin.act(req);
+        } else {
+            final String key = String.format(
+                "%s %s", method, new RqHref.Base(req).href()
+            );
+            Opt<Cached> found = new Opt.Empty<>();
+            if (!control.contains("no-cache")
+                && !TkCache.tokens(headers.header("Pragma"))
+                    .contains("no-cache")) {
+                found = this.cache.get(key);
+                if (found.has() && found.get().variants()) {
+                    found = this.cache.get(
+                        TkCache.variant(key, found.get().vary(), headers)
+                    );
+                }
+            }
+            if (found.has() && !found.get().variants()) {
+                response = found.get().response(System.currentTimeMillis());
+            } else {
+                response = this.fetched(req, key, headers);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Get the response from the original take and save it, if possible.
+     * @param req Request
+     * @param key Key of the request
+     * @param headers Headers of the request
+     * @return Response
+     * @throws Exception If fails
+     */
+    private Response fetched(final Request req, final String key,
+        final RqHeaders headers) throws Exception {
+        final Response res = this.origin.act(req);
+        final long fresh = this.freshness(res);
+        Response response = res;
+        if (fresh > 0L) {
+            final List<String> vary = TkCache.tokens(
+                new RsHeaders.Base(res).header("Vary")
+            );
+            if (!vary.contains("*")) {
+                final List<String> head = new ListOf<>(res.head());
+                final InputStream body = res.body();
+                final byte[] bytes = TkCache.prefix(body, this.max + 1);
+                if (bytes.length > this.max) {
+                    response = new ResponseOf(
+                        head,
+                        new SequenceInputStream(
+                            new ByteArrayInputStream(bytes), body
+                        )
+                    );
+                } else {
+                    body.close();
+                    final long now = System.currentTimeMillis();
+                    final Cached entry = new Cached(
+                        now, now + fresh, vary, head, ByteBuffer.wrap(bytes)
+                    );
+                    if (vary.isEmpty()) {
+                        this.cache.put(key, entry);
+                    } else {
+                        this.cache.put(key, new Cached(now, now + fresh, vary));
+                        this.cache.put(
+                            TkCache.variant(key, vary, headers), entry
+                        );
+                    }
+                    response = new ResponseOf(
+                        head, new BufferInput(entry.body())
+                    );
+                }
+            }
+        }
+        return response;
+    }
+
+    /**
+     * For how long the response may be served from the cache.
+     * @param res Response
+     * @return Milliseconds, zero or less if it must not be saved
+     * @throws IOException If fails
+     */
+    private long freshness(final Response res) throws IOException {
+        final RsHeaders headers = new RsHeaders.Base(res);
+        final List<String> control = TkCache.tokens(
+            headers.header("Cache-Control")
+        );
+        long fresh = -1L;
+        if (TkCache.STATUSES.contains(new RsStatus.Base(res).status())
+            && headers.header("Set-Cookie").isEmpty()
+            && !control.contains("no-store")
+            && !control.contains("no-cache")
+            && !control.contains("private")) {
+            fresh = TkCache.seconds(control, "s-maxage=");
+            if (fresh < 0L) {
+                fresh = TkCache.seconds(control, "max-age=");
+            }
+            if (fresh < 0L) {
+                fresh = this.ttl;
+            } else {
+                // @checkstyle MagicNumberCheck (1 line)
+                fresh *= 1000L;
+            }
+        }
+        return fresh;
+    }
+
+    /**
+     * Key of the variant of the response.
+     * @param key Key of the request
+     * @param vary Names of headers the response varies by
+     * @param headers Headers of the request
+     * @return Key
+     * @throws IOException If fails
+     */
+    private static String variant(final String key, final List<String> vary,
+        final RqHeaders headers) throws IOException {
+        final StringBuilder text = new StringBuilder(key);
+        for (final String name : vary) {
+            text.append('\n').append(name).append(": ")
+                .append(String.join(", ", headers.header(name)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Value of a directive, in seconds.
+     * @param control Directives
+     * @param prefix Name of the directive, with equals sign
+     * @return Seconds or -1 if the directive is absent or broken
+     */
+    private static long seconds(final List<String> control,
+        final String prefix) {
+        long seconds = -1L;
+        for (final String token : control) {
+            if (token.startsWith(prefix)) {
+                try {
+                    seconds = Long.parseLong(
+                        token.substring(prefix.length()).replace("\"", "")
+                    );
+                } catch (final NumberFormatException ex) {
+                    seconds = 0L;
+                }
+            }
+        }
+        return seconds;
+    }
+
+    /**
+     * Comma separated tokens of header values, trimmed and in lower case.
+     * @param values Header values
+     * @return Tokens
+     */
+    private static List<String> tokens(final List<String> values) {
+        final List<String> tokens = new ArrayList<>(values.size());
+        for (final String value : values) {
+            for (final String token : value.split(",")) {
+                final String trimmed = token.trim();
+                if (!trimmed.isEmpty()) {
+                    tokens.add(trimmed.toLowerCase(Locale.ENGLISH));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Read the beginning of the stream.
+     * @param input Stream
+     * @param limit Maximum amount of bytes to read
+     * @return Bytes, less than the limit only if the stream is over
+     * @throws IOException If fails
+     */
+    private static byte[] prefix(final InputStream input, final int limit)
+        throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        // @checkstyle MagicNumberCheck (1 line)
+        final byte[] buf = new byte[8192];
+        int total = 0;
+        int len = 0;
+        while (len >= 0 && total < limit) {
+            len = input.read(buf, 0, Math.min(buf.length, limit - total));
+            if (len > 0) {
+                output.write(buf, 0, len);
+                total += len;
+            }
+        }
+        return output.toByteArray();
+    }
+}
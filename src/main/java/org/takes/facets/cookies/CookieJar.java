@@ -0,0 +1,205 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.cookies;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.takes.Request;
+
+/**
+ * Cookies of a request, parsed once.
+ *
+ * <p>All "Cookie" headers are parsed in one pass over their
+ * characters, according to RFC 6265, into a map of names and values.
+ * When a name shows up more than once, the last value wins, and a name
+ * without a value removes it. Names are case-sensitive, unless they are
+ * asked to be lowered.
+ *
+ * <p>{@link RqCookies.Base} makes one jar when its cookies are asked
+ * for the first time and reuses it after that, and so does every
+ * {@link RqCookies.Base} that decorates it.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @link <a href="https://www.rfc-editor.org/rfc/rfc6265#section-5.4">RFC 6265</a>
+ * @since 2.0
+ */
+final class CookieJar {
+
+    /**
+     * Prefix of the header, in lower case.
+     */
+    private static final String PREFIX = "cookie:";
+
+    /**
+     * Are names lowered?
+     */
+    private final boolean lower;
+
+    /**
+     * Cookies, by names.
+     */
+    private final Map<String, String> map;
+
+    /**
+     * Ctor.
+     * @param hdrs Values of all "Cookie" headers
+     * @param lwr Lower names?
+     */
+    private CookieJar(final List<String> hdrs, final boolean lwr) {
+        this.lower = lwr;
+        this.map = Collections.unmodifiableMap(CookieJar.parse(hdrs, lwr));
+    }
+
+    /**
+     * Cookies of the request.
+     * @param req The request
+     * @param lower Lower names?
+     * @return Cookies
+     * @throws IOException If fails
+     */
+    static CookieJar of(final Request req, final boolean lower)
+        throws IOException {
+        final List<String> hdrs = new ArrayList<>(1);
+        for (final String line : req.head()) {
+            if (line.regionMatches(
+                true, 0, CookieJar.PREFIX, 0, CookieJar.PREFIX.length()
+            )) {
+                hdrs.add(line.substring(CookieJar.PREFIX.length()));
+            }
+        }
+        return new CookieJar(hdrs, lower);
+    }
+
+    /**
+     * Value of the cookie.
+     * @param name Name of the cookie
+     * @return Value or NULL if it's absent
+     */
+    String value(final CharSequence name) {
+        String key = name.toString();
+        if (this.lower) {
+            key = key.toLowerCase(Locale.ENGLISH);
+        }
+        return this.map.get(key);
+    }
+
+    /**
+     * All cookies.
+     * @return Map of names and values
+     */
+    Map<String, String> map() {
+        return this.map;
+    }
+
+    /**
+     * Parse all headers.
+     * @param hdrs Values of all "Cookie" headers
+     * @param lower Lower names?
+     * @return Cookies, by names
+     */
+    private static Map<String, String> parse(final List<String> hdrs,
+        final boolean lower) {
+        final Map<String, String> cookies = new LinkedHashMap<>(0);
+        for (final String hdr : hdrs) {
+            int start = 0;
+            while (start < hdr.length()) {
+                int end = hdr.indexOf(';', start);
+                if (end < 0) {
+                    end = hdr.length();
+                }
+                CookieJar.pair(hdr, start, end, lower, cookies);
+                start = end + 1;
+            }
+        }
+        return cookies;
+    }
+
+    /**
+     * Parse one pair of name and value.
+     * @param hdr Header value
+     * @param start Where the pair starts
+     * @param end Where the pair ends
+     * @param lower Lower names?
+     * @param cookies Where to put it
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static void pair(final String hdr, final int start,
+        final int end, final boolean lower,
+        final Map<String, String> cookies) {
+        int split = hdr.indexOf('=', start);
+        if (split < 0 || split > end) {
+            split = end;
+        }
+        String name = CookieJar.trimmed(hdr, start, split);
+        if (!name.isEmpty()) {
+            if (lower) {
+                name = name.toLowerCase(Locale.ENGLISH);
+            }
+            String value = "";
+            if (split < end) {
+                value = CookieJar.trimmed(hdr, split + 1, end);
+            }
+            if (value.isEmpty()) {
+                cookies.remove(name);
+            } else {
+                cookies.put(name, value);
+            }
+        }
+    }
+
+    /**
+     * Part of the header without spaces and tabs around it.
+     * @param hdr Header value
+     * @param start Where the part starts
+     * @param end Where the part ends
+     * @return The part
+     */
+    private static String trimmed(final String hdr, final int start,
+        final int end) {
+        int left = start;
+        while (left < end && CookieJar.space(hdr.charAt(left))) {
+            ++left;
+        }
+        int right = end;
+        while (right > left && CookieJar.space(hdr.charAt(right - 1))) {
+            --right;
+        }
+        return hdr.substring(left, right);
+    }
+
+    /**
+     * Is it a space or a tab?
+     * @param chr The character
+     * @return TRUE if it is
+     */
+    private static boolean space(final char chr) {
+        return chr == ' ' || chr == '\t';
+    }
+}
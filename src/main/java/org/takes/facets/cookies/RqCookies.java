@@ -25,17 +25,15 @@ package org.takes.facets.cookies;
 
 import java.io.IOException;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import lombok.EqualsAndHashCode;
+import org.cactoos.Scalar;
+import org.cactoos.scalar.IoChecked;
+import org.cactoos.scalar.Sticky;
+import org.cactoos.scalar.Synced;
 import org.cactoos.text.FormattedText;
-import org.cactoos.text.Lowered;
-import org.cactoos.text.TextOf;
-import org.cactoos.text.Trimmed;
-import org.cactoos.text.UncheckedText;
 import org.takes.Request;
 import org.takes.misc.VerboseIterable;
-import org.takes.rq.RqHeaders;
 import org.takes.rq.RqWrap;
 
 /**
@@ -63,31 +61,71 @@ public interface RqCookies extends Request {
     /**
      * Request decorator, for HTTP cookies parsing.
      *
+     * <p>Cookie names are case-sensitive, as RFC 6265 requires. For
+     * compatibility with older versions, they may be lowered, and then
+     * they are found by any case.
+     *
+     * <p>The "Cookie" headers are parsed once, when a cookie is asked
+     * for the first time, and the result is reused by all the other
+     * calls on this decorator. When it decorates another
+     * {@code RqCookies.Base} with the same lowering, it reuses the cookies
+     * of that one, so takes that pass it down, like
+     * {@link org.takes.facets.flash.TkFlash}, let the takes and passes
+     * after them parse the request only once.
+     *
      * <p>The class is immutable and thread-safe.
      * @since 0.14
      */
-    @EqualsAndHashCode(callSuper = true)
+    @EqualsAndHashCode(callSuper = true, of = "lower")
     final class Base extends RqWrap implements RqCookies {
+        /**
+         * Lower cookie names?
+         */
+        private final boolean lower;
+
+        /**
+         * Cookies, parsed once.
+         */
+        private final Scalar<CookieJar> jar;
+
         /**
          * Ctor.
          * @param req Original request
          */
         public Base(final Request req) {
+            this(req, false);
+        }
+
+        /**
+         * Ctor.
+         * @param req Original request
+         * @param lowered Lower cookie names and find them by any case?
+         */
+        public Base(final Request req, final boolean lowered) {
+            this(req, lowered, RqCookies.Base.jar(req, lowered));
+        }
+
+        /**
+         * Ctor.
+         * @param req Original request
+         * @param lowered Lower cookie names and find them by any case?
+         * @param cookies Cookies, parsed once
+         */
+        private Base(final Request req, final boolean lowered,
+            final Scalar<CookieJar> cookies) {
             super(req);
+            this.lower = lowered;
+            this.jar = cookies;
         }
 
         @Override
         public Iterable<String> cookie(final CharSequence key)
             throws IOException {
-            final Map<String, String> map = this.map();
-            final String value = map.getOrDefault(
-                new UncheckedText(
-                    new Lowered(key.toString())
-                ).asString(),
-                ""
-            );
+            final CookieJar cookies = new IoChecked<>(this.jar).value();
+            final String value = cookies.value(key);
             final Iterable<String> iter;
-            if (value.isEmpty()) {
+            if (value == null) {
+                final Map<String, String> map = cookies.map();
                 iter = new VerboseIterable<>(
                     Collections.emptyList(),
                     new FormattedText(
@@ -109,38 +147,27 @@ public interface RqCookies extends Request {
 
         @Override
         public Iterable<String> names() throws IOException {
-            return this.map().keySet();
+            return new IoChecked<>(this.jar).value().map().keySet();
         }
 
         /**
-         * Parse them all in a map.
-         * @return Map of them
-         * @throws IOException If fails
+         * Cookies of the request, shared with it if it parses them already.
+         * @param req Request
+         * @param lowered Lower cookie names?
+         * @return Cookies, parsed once
          */
-        private Map<String, String> map() throws IOException {
-            final Map<String, String> map = new HashMap<>(0);
-            final Iterable<String> values =
-                new RqHeaders.Base(this).header("Cookie");
-            for (final String value : values) {
-                for (final String pair : value.split(";")) {
-                    final String[] parts = pair.split("=", 2);
-                    final String key =
-                        new UncheckedText(
-                            new Lowered(new Trimmed(new TextOf(parts[0])))
-                        ).asString();
-                    if (parts.length > 1 && !parts[1].isEmpty()) {
-                        map.put(
-                            key,
-                            new UncheckedText(
-                                new Trimmed(new TextOf(parts[1]))
-                            ).asString()
-                        );
-                    } else {
-                        map.remove(key);
-                    }
-                }
+        private static Scalar<CookieJar> jar(final Request req,
+            final boolean lowered) {
+            final Scalar<CookieJar> cookies;
+            if (req instanceof RqCookies.Base
+                && ((RqCookies.Base) req).lower == lowered) {
+                cookies = ((RqCookies.Base) req).jar;
+            } else {
+                cookies = new Synced<>(
+                    new Sticky<>(() -> CookieJar.of(req, lowered))
+                );
             }
-            return map;
+            return cookies;
         }
     }
 }
@@ -52,6 +52,9 @@ import org.takes.facets.cookies.RsWithCookie;
  *  ).start(Exit.NEVER);
  * }</pre>
  *
+ * <p>The request goes to the "take" decorated with
+ * {@link RqCookies.Base}, so that its cookies are parsed only once.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.1
@@ -95,14 +98,14 @@ public final class TkFlash implements Take {
         final Response response;
         if (values.hasNext()) {
             response = new RsWithCookie(
-                this.origin.act(request),
+                this.origin.act(cookies),
                 this.cookie,
                 "deleted",
                 "Path=/",
                 "Expires=Thu, 01 Jan 1970 00:00:00 GMT"
             );
         } else {
-            response = this.origin.act(request);
+            response = this.origin.act(cookies);
         }
         return response;
     }
@@ -24,9 +24,7 @@
 package org.takes.facets.fork;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Iterator;
+import java.util.Locale;
 import java.util.regex.Pattern;
 import lombok.EqualsAndHashCode;
 import org.cactoos.text.Lowered;
@@ -54,6 +52,10 @@ import org.takes.rq.RqHeaders;
  * <p>Empty string as an encoding means that the fork should match
  * in any case.
  *
+ * <p>Quality values are respected: "gzip;q=0" means that gzip
+ * is not acceptable, while "*" accepts any encoding, which is not
+ * listed explicitly.
+ *
  * <p>The class is immutable and thread-safe.
  * @see org.takes.facets.fork.RsFork
  * @since 0.10
@@ -90,32 +92,73 @@ public final class FkEncoding implements Fork {
 
     @Override
     public Opt<Response> route(final Request req) throws IOException {
-        final Iterator<String> headers =
-            new RqHeaders.Base(req).header("Accept-Encoding").iterator();
         final Opt<Response> resp;
-        if (this.encoding.isEmpty()) {
+        if (this.encoding.isEmpty() || this.accepted(req)) {
             resp = new Opt.Single<>(this.origin);
-        } else if (headers.hasNext()) {
-            final Collection<String> items = Arrays.asList(
-                FkEncoding.ENCODING_SEP.split(
-                    new UncheckedText(
-                        new Lowered(
-                            new Trimmed(
-                                new TextOf(headers.next())
-                            )
-                        )
-                    ).asString()
-                )
-            );
-            if (items.contains(this.encoding)) {
-                resp = new Opt.Single<>(this.origin);
-            } else {
-                resp = new Opt.Empty<>();
-            }
         } else {
             resp = new Opt.Empty<>();
         }
         return resp;
     }
 
+    /**
+     * Is the encoding accepted by the client?
+     *
+     * <p>The encoding is accepted when it's listed with a positive
+     * quality value, or when it's not listed, but "*" is, with
+     * a positive quality value.
+     *
+     * @param req Request
+     * @return TRUE if it is
+     * @throws IOException If fails
+     */
+    private boolean accepted(final Request req) throws IOException {
+        double exact = -1.0d;
+        double any = -1.0d;
+        for (final String header
+            : new RqHeaders.Base(req).header("Accept-Encoding")) {
+            for (final String item : FkEncoding.ENCODING_SEP.split(
+                header.trim().toLowerCase(Locale.ENGLISH)
+            )) {
+                final int semi = item.indexOf(';');
+                final String name;
+                final double quality;
+                if (semi < 0) {
+                    name = item;
+                    quality = 1.0d;
+                } else {
+                    name = item.substring(0, semi).trim();
+                    quality = FkEncoding.quality(item.substring(semi + 1));
+                }
+                if (name.equals(this.encoding)
+                    || name.equals(String.format("x-%s", this.encoding))) {
+                    exact = Math.max(exact, quality);
+                } else if ("*".equals(name)) {
+                    any = quality;
+                }
+            }
+        }
+        return exact > 0.0d || (exact < 0.0d && any > 0.0d);
+    }
+
+    /**
+     * Quality value from the parameters of the item.
+     * @param params Parameters, like "q=0.5"
+     * @return Quality, 1.0 if absent, 0.0 if broken
+     */
+    private static double quality(final String params) {
+        double quality = 1.0d;
+        for (final String param : params.split(";")) {
+            final String trimmed = param.trim();
+            if (trimmed.startsWith("q=")) {
+                try {
+                    quality = Double.parseDouble(trimmed.substring(2));
+                } catch (final NumberFormatException ex) {
+                    quality = 0.0d;
+                }
+            }
+        }
+        return quality;
+    }
+
 }
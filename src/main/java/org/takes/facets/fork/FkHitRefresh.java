@@ -37,6 +37,7 @@ import org.takes.Request;
 import org.takes.Response;
 import org.takes.Take;
 import org.takes.misc.Opt;
+import org.takes.misc.TempStorage;
 import org.takes.rq.RqHeaders;
 
 /**
@@ -194,9 +195,9 @@ public final class FkHitRefresh implements Fork {
         public File touchedFile() throws IOException {
             if (this.flag.isEmpty()) {
                 this.lock.writeLock().lock();
-                final File file = File.createTempFile("take", ".txt");
-                file.deleteOnExit();
-                this.flag.add(file);
+                this.flag.add(
+                    TempStorage.shared().create().releasedWith(this).file()
+                );
                 this.lock.writeLock().unlock();
                 this.touch();
             }
@@ -202,7 +202,39 @@ public final class FkRegex implements Fork {
 
     @Override
     public Opt<Response> route(final Request req) throws Exception {
-        String path = new RqHref.Base(req).href().path();
+        return this.route(req, new RqHref.Base(req).href().path());
+    }
+
+    /**
+     * Pattern of this fork.
+     * @return Pattern
+     */
+    Pattern pattern() {
+        return this.pattern;
+    }
+
+    /**
+     * Whether a trailing slash is removed before matching.
+     * @return TRUE if removed
+     */
+    boolean removesSlash() {
+        return this.removeslash;
+    }
+
+    /**
+     * Route the request by its already known path.
+     *
+     * <p>{@link FkRouter} parses the path once and calls this
+     * method for each candidate fork.
+     *
+     * @param req Request
+     * @param href Path of the request URI
+     * @return Response, if the path matches
+     * @throws Exception If fails
+     */
+    Opt<Response> route(final Request req, final String href)
+        throws Exception {
+        String path = href;
         if (
             this.removeslash
                 && path.length() > 1
@@ -0,0 +1,134 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.fork;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import lombok.EqualsAndHashCode;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.misc.Opt;
+import org.takes.rq.RqMethod;
+
+/**
+ * Fork by HTTP method and regular expression pattern.
+ *
+ * <p>It is {@link FkMethods} and {@link FkRegex} in one fork:
+ *
+ * <pre> Take take = new TkFork(
+ *   new FkRoute("GET", "/user/([^/]+)", new TkUser()),
+ *   new FkRoute("PUT,POST", "/user/([^/]+)", new TkSaveUser())
+ * );</pre>
+ *
+ * <p>{@link TkFork} and {@link FkRouter} put such routes into the leaves
+ * of their tree of paths, keyed by method, so a request
+ * doesn't even try the routes of other methods.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ * @see FkRouter
+ */
+@EqualsAndHashCode
+public final class FkRoute implements Fork {
+
+    /**
+     * Methods to match.
+     */
+    private final Collection<String> mtds;
+
+    /**
+     * Path to match.
+     */
+    private final FkRegex regex;
+
+    /**
+     * Ctor.
+     * @param mtd Method, or a few of them, separated by commas
+     * @param ptn Pattern
+     * @param tke Take
+     */
+    public FkRoute(final String mtd, final String ptn, final Take tke) {
+        this(mtd, new FkRegex(ptn, tke));
+    }
+
+    /**
+     * Ctor.
+     * @param mtd Method, or a few of them, separated by commas
+     * @param ptn Pattern
+     * @param tke Take
+     */
+    public FkRoute(final String mtd, final String ptn, final TkRegex tke) {
+        this(mtd, new FkRegex(ptn, tke));
+    }
+
+    /**
+     * Ctor.
+     * @param mtd Method, or a few of them, separated by commas
+     * @param fork Fork by path
+     */
+    public FkRoute(final String mtd, final FkRegex fork) {
+        this(Arrays.asList(mtd.split(",")), fork);
+    }
+
+    /**
+     * Ctor.
+     * @param methods Methods
+     * @param fork Fork by path
+     */
+    public FkRoute(final Collection<String> methods, final FkRegex fork) {
+        this.mtds = Collections.unmodifiableCollection(methods);
+        this.regex = fork;
+    }
+
+    @Override
+    public Opt<Response> route(final Request req) throws Exception {
+        final Opt<Response> resp;
+        if (this.mtds.contains(new RqMethod.Base(req).method())) {
+            resp = this.regex.route(req);
+        } else {
+            resp = new Opt.Empty<>();
+        }
+        return resp;
+    }
+
+    /**
+     * Methods to match.
+     * @return Methods
+     */
+    Collection<String> methods() {
+        return this.mtds;
+    }
+
+    /**
+     * Fork by path.
+     * @return Fork
+     */
+    FkRegex path() {
+        return this.regex;
+    }
+
+}
@@ -0,0 +1,627 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.fork;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.misc.Opt;
+import org.takes.rq.RqHref;
+import org.takes.rq.RqMethod;
+
+/**
+ * Fork that compiles its forks into a tree of paths.
+ *
+ * <p>It routes exactly like {@link FkChain}: the first fork that
+ * returns a response wins. But {@link FkRegex} and {@link FkRoute}
+ * forks with simple patterns, made only of literal segments and
+ * one-segment groups like {@code ([^/]+)} or {@code (\d+)}, don't
+ * take part in the scan. They are placed into a tree, keyed by segments
+ * of the path, with HTTP methods of {@link FkRoute} in its leaves.
+ * A request walks the tree once and only the forks found there
+ * run their patterns, for example:
+ *
+ * <pre> Fork fork = new FkRouter(
+ *   new FkRegex("/", new TkIndex()),
+ *   new FkRegex("/robots\\.txt", new TkRobots()),
+ *   new FkRoute("GET", "/user/([^/]+)", new TkUser()),
+ *   new FkRoute("POST", "/user/([^/]+)", new TkSaveUser()),
+ *   new FkRegex("/file(.*)", new TkFiles())
+ * );</pre>
+ *
+ * <p>Here, {@code /file(.*)} needs a real regular expression, so it
+ * is matched in its turn, just as {@link FkChain} would do.
+ * Forks of other types are asked in their turn as well. Since found
+ * forks still match their own patterns, {@link RqRegex#matcher()} gives
+ * the same groups as with {@link FkChain}.
+ *
+ * <p>{@link FkTypes} forks placed one after another are asked together,
+ * in the turn of the first of them: the "Accept" header is parsed once
+ * and the fork with the highest "q" priority wins. If priorities
+ * are equal, the first fork wins, as in {@link FkChain}.
+ *
+ * <p>{@link TkFork} routes through this class. The tree is built
+ * once, in the constructor, so don't call
+ * {@link FkRegex#setRemoveTrailingSlash(boolean)} on forks
+ * already given to it.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ * @see TkFork
+ * @see FkRoute
+ */
+public final class FkRouter implements Fork {
+
+    /**
+     * Group that matches one segment of a path.
+     */
+    private static final Pattern PARAM = Pattern.compile(
+        new StringBuilder("\\((?:\\?<[a-zA-Z][a-zA-Z0-9]*>)?")
+            .append("(?:\\[\\^[^\\[\\]\\\\&]*/[^\\[\\]\\\\&]*\\]")
+            .append("|\\[-?[a-zA-Z0-9_]+(?:-[a-zA-Z0-9_]+)*-?\\]")
+            .append("|\\\\d|\\\\w)[+*]\\)")
+            .toString()
+    );
+
+    /**
+     * Literal segment, with escaped characters, if any.
+     */
+    private static final Pattern LITERAL = Pattern.compile(
+        "(?:[^\\\\^$.|?*+()\\[\\]{}]|\\\\[^a-zA-Z0-9/])*"
+    );
+
+    /**
+     * Flags that don't stop a pattern from being put into the tree.
+     */
+    private static final int FLAGS = Pattern.CASE_INSENSITIVE
+        | Pattern.DOTALL;
+
+    /**
+     * Routes, in the order of forks.
+     */
+    private final List<FkRouter.Route> routes;
+
+    /**
+     * Root of the tree.
+     */
+    private final FkRouter.Node root;
+
+    /**
+     * Positions of forks that are in the tree.
+     */
+    private final BitSet indexed;
+
+    /**
+     * Positions of forks that are not in the tree.
+     */
+    private final BitSet others;
+
+    /**
+     * Ctor.
+     * @param forks Forks
+     */
+    public FkRouter(final Fork... forks) {
+        this(Arrays.asList(forks));
+    }
+
+    /**
+     * Ctor.
+     * @param forks Forks
+     */
+    public FkRouter(final Collection<Fork> forks) {
+        this.root = new FkRouter.Node();
+        this.indexed = new BitSet();
+        this.others = new BitSet();
+        this.routes = FkRouter.compile(
+            forks, this.root, this.indexed, this.others
+        );
+    }
+
+    @Override
+    public Opt<Response> route(final Request req) throws Exception {
+        final FkRouter.Lookup lookup = new FkRouter.Lookup(req, this.root);
+        Opt<Response> response = new Opt.Empty<>();
+        int idx = this.next(lookup, 0);
+        while (idx >= 0) {
+            final Opt<Response> current = this.routes.get(idx).route(lookup);
+            if (current.has()) {
+                response = current;
+                break;
+            }
+            idx = this.next(lookup, idx + 1);
+        }
+        return response;
+    }
+
+    /**
+     * Position of the next fork to ask: either one that is not
+     * in the tree, or one the tree found for the request.
+     *
+     * <p>The tree is looked up only when the next fork is in it, so
+     * forks above it see the request just as {@link FkChain} would
+     * show it to them.
+     *
+     * @param lookup Lookup of the request
+     * @param from Position to start from
+     * @return Position or -1, if there are no more forks to ask
+     * @throws IOException If fails
+     */
+    private int next(final FkRouter.Lookup lookup, final int from)
+        throws IOException {
+        final int other = this.others.nextSetBit(from);
+        final int tree = this.indexed.nextSetBit(from);
+        final int pos;
+        if (tree < 0 || (other >= 0 && other < tree)) {
+            pos = other;
+        } else {
+            final int found = lookup.found().nextSetBit(tree);
+            if (found < 0 || (other >= 0 && other < found)) {
+                pos = other;
+            } else {
+                pos = found;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Compile forks into routes, filling the tree.
+     * @param forks Forks
+     * @param tree Root of the tree
+     * @param inside Positions of forks put into the tree
+     * @param rest Positions of forks left out of the tree
+     * @return Routes
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static List<FkRouter.Route> compile(
+        final Collection<Fork> forks, final FkRouter.Node tree,
+        final BitSet inside, final BitSet rest) {
+        final List<FkRouter.Route> list = new ArrayList<>(forks.size());
+        List<FkTypes> types = new ArrayList<>(0);
+        for (final Fork fork : forks) {
+            final int idx = list.size();
+            final FkRouter.Route route;
+            if (fork instanceof FkTypes) {
+                if (types.isEmpty()) {
+                    rest.set(idx);
+                    route = new FkRouter.Negotiation(types);
+                } else {
+                    route = new FkRouter.Opaque(fork);
+                }
+                types.add((FkTypes) fork);
+            } else if (fork instanceof FkRoute) {
+                final FkRoute rte = (FkRoute) fork;
+                final List<String> segments = FkRouter.segments(rte.path());
+                if (segments.isEmpty()) {
+                    rest.set(idx);
+                    route = new FkRouter.Opaque(fork);
+                } else {
+                    final FkRouter.Node leaf = tree.node(segments, 0);
+                    for (final String mtd : rte.methods()) {
+                        leaf.method(mtd).set(idx);
+                    }
+                    inside.set(idx);
+                    route = new FkRouter.Scan(rte.path());
+                }
+            } else if (fork instanceof FkRegex) {
+                final FkRegex regex = (FkRegex) fork;
+                final List<String> segments = FkRouter.segments(regex);
+                if (segments.isEmpty()) {
+                    rest.set(idx);
+                } else {
+                    tree.node(segments, 0).any().set(idx);
+                    inside.set(idx);
+                }
+                route = new FkRouter.Scan(regex);
+            } else {
+                rest.set(idx);
+                route = new FkRouter.Opaque(fork);
+            }
+            if (!(fork instanceof FkTypes) && !types.isEmpty()) {
+                types = new ArrayList<>(0);
+            }
+            list.add(route);
+        }
+        return list;
+    }
+
+    /**
+     * Split the pattern of the fork into segments, if all of them
+     * are literals or one-segment groups.
+     * @param regex Fork
+     * @return Segments or empty list, if the pattern needs regex matching
+     */
+    private static List<String> segments(final FkRegex regex) {
+        final Pattern ptn = regex.pattern();
+        final String text = ptn.pattern();
+        final List<String> segments = new ArrayList<>(1);
+        StringBuilder segment = new StringBuilder(text.length());
+        boolean cls = false;
+        boolean esc = false;
+        for (int pos = 0; pos < text.length(); ++pos) {
+            final char chr = text.charAt(pos);
+            if (chr == '/' && !cls && !esc) {
+                segments.add(segment.toString());
+                segment = new StringBuilder(text.length());
+            } else {
+                segment.append(chr);
+            }
+            if (esc) {
+                esc = false;
+            } else if (chr == '\\') {
+                esc = true;
+            } else if (chr == '[') {
+                cls = true;
+            } else if (chr == ']') {
+                cls = false;
+            }
+        }
+        segments.add(segment.toString());
+        boolean simple = regex.removesSlash()
+            && (ptn.flags() & ~FkRouter.FLAGS) == 0;
+        for (final String item : segments) {
+            simple = simple && (FkRouter.LITERAL.matcher(item).matches()
+                || FkRouter.PARAM.matcher(item).matches());
+        }
+        final List<String> result;
+        if (simple) {
+            result = segments;
+        } else {
+            result = Collections.emptyList();
+        }
+        return result;
+    }
+
+    /**
+     * Lower case ASCII letters, the only ones
+     * {@link Pattern#CASE_INSENSITIVE} folds.
+     * @param text Text
+     * @return Text in lower case
+     */
+    private static String lower(final String text) {
+        final char[] chars = text.toCharArray();
+        for (int pos = 0; pos < chars.length; ++pos) {
+            if (chars[pos] >= 'A' && chars[pos] <= 'Z') {
+                chars[pos] = (char) (chars[pos] + 'a' - 'A');
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Route of one fork.
+     *
+     * @since 2.0
+     */
+    private interface Route {
+        /**
+         * Route the request.
+         * @param lookup Lookup of the request
+         * @return Response, if any
+         * @throws Exception If fails
+         */
+        Opt<Response> route(FkRouter.Lookup lookup) throws Exception;
+    }
+
+    /**
+     * Fork asked in its turn.
+     *
+     * @since 2.0
+     */
+    private static final class Opaque implements FkRouter.Route {
+        /**
+         * Fork.
+         */
+        private final Fork fork;
+
+        /**
+         * Ctor.
+         * @param frk Fork
+         */
+        Opaque(final Fork frk) {
+            this.fork = frk;
+        }
+
+        @Override
+        public Opt<Response> route(final FkRouter.Lookup lookup)
+            throws Exception {
+            return this.fork.route(lookup.request());
+        }
+    }
+
+    /**
+     * Regular expression, matched against the path parsed once.
+     *
+     * @since 2.0
+     */
+    private static final class Scan implements FkRouter.Route {
+        /**
+         * Fork.
+         */
+        private final FkRegex fork;
+
+        /**
+         * Ctor.
+         * @param frk Fork
+         */
+        Scan(final FkRegex frk) {
+            this.fork = frk;
+        }
+
+        @Override
+        public Opt<Response> route(final FkRouter.Lookup lookup)
+            throws Exception {
+            return this.fork.route(lookup.request(), lookup.href());
+        }
+    }
+
+    /**
+     * Forks by types, asked together.
+     *
+     * @since 2.0
+     */
+    private static final class Negotiation implements FkRouter.Route {
+        /**
+         * Forks, in their order.
+         */
+        private final List<FkTypes> forks;
+
+        /**
+         * Ctor.
+         * @param frks Forks
+         */
+        Negotiation(final List<FkTypes> frks) {
+            this.forks = frks;
+        }
+
+        @Override
+        public Opt<Response> route(final FkRouter.Lookup lookup)
+            throws Exception {
+            return FkTypes.negotiated(this.forks, lookup.request());
+        }
+    }
+
+    /**
+     * Node of the tree, for one segment of a path.
+     *
+     * <p>The class is mutable while the tree is being built
+     * and immutable after that.
+     *
+     * @since 2.0
+     */
+    private static final class Node {
+        /**
+         * Children by literal segments, in lower case.
+         */
+        private final Map<String, FkRouter.Node> literals;
+
+        /**
+         * Child for any segment, or NULL.
+         */
+        private FkRouter.Node param;
+
+        /**
+         * Routes ending here, for any method.
+         */
+        private final BitSet all;
+
+        /**
+         * Routes ending here, by method.
+         */
+        private final Map<String, BitSet> methods;
+
+        /**
+         * Ctor.
+         */
+        Node() {
+            this.literals = new HashMap<>(0);
+            this.all = new BitSet();
+            this.methods = new HashMap<>(0);
+        }
+
+        /**
+         * Find or create the node of the segments.
+         * @param segments Segments
+         * @param pos Position of the segment of this node's child
+         * @return Node
+         */
+        FkRouter.Node node(final List<String> segments, final int pos) {
+            final FkRouter.Node node;
+            if (pos == segments.size()) {
+                node = this;
+            } else {
+                final String segment = segments.get(pos);
+                final FkRouter.Node child;
+                if (FkRouter.PARAM.matcher(segment).matches()) {
+                    if (this.param == null) {
+                        this.param = new FkRouter.Node();
+                    }
+                    child = this.param;
+                } else {
+                    child = this.literals.computeIfAbsent(
+                        FkRouter.lower(segment.replaceAll("\\\\(.)", "$1")),
+                        key -> new FkRouter.Node()
+                    );
+                }
+                node = child.node(segments, pos + 1);
+            }
+            return node;
+        }
+
+        /**
+         * Routes ending here, for any method.
+         * @return Positions of forks
+         */
+        BitSet any() {
+            return this.all;
+        }
+
+        /**
+         * Routes ending here, for the method.
+         * @param mtd Method
+         * @return Positions of forks
+         */
+        BitSet method(final String mtd) {
+            return this.methods.computeIfAbsent(mtd, key -> new BitSet());
+        }
+
+        /**
+         * Collect routes of the path.
+         * @param segments Segments of the path, in lower case
+         * @param pos Position of the segment of this node's child
+         * @param lookup Lookup of the request
+         * @param found Positions of forks found so far
+         * @throws IOException If fails
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        void collect(final String[] segments, final int pos,
+            final FkRouter.Lookup lookup, final BitSet found)
+            throws IOException {
+            if (pos == segments.length) {
+                found.or(this.all);
+                if (!this.methods.isEmpty()) {
+                    final BitSet mtd = this.methods.get(lookup.method());
+                    if (mtd != null) {
+                        found.or(mtd);
+                    }
+                }
+            } else {
+                final FkRouter.Node child = this.literals.get(segments[pos]);
+                if (child != null) {
+                    child.collect(segments, pos + 1, lookup, found);
+                }
+                if (this.param != null) {
+                    this.param.collect(segments, pos + 1, lookup, found);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lookup of one request, which parses its parts once, if needed.
+     *
+     * <p>The class is NOT thread-safe.
+     *
+     * @since 2.0
+     */
+    private static final class Lookup {
+        /**
+         * Request.
+         */
+        private final Request req;
+
+        /**
+         * Root of the tree.
+         */
+        private final FkRouter.Node root;
+
+        /**
+         * Path, once parsed, or NULL.
+         */
+        private String path;
+
+        /**
+         * Method, once parsed, or NULL.
+         */
+        private String mtd;
+
+        /**
+         * Forks found in the tree, once looked up, or NULL.
+         */
+        private BitSet forks;
+
+        /**
+         * Ctor.
+         * @param request Request
+         * @param tree Root of the tree
+         */
+        Lookup(final Request request, final FkRouter.Node tree) {
+            this.req = request;
+            this.root = tree;
+        }
+
+        /**
+         * The request.
+         * @return Request
+         */
+        Request request() {
+            return this.req;
+        }
+
+        /**
+         * Path of the request URI.
+         * @return Path
+         * @throws IOException If fails
+         */
+        String href() throws IOException {
+            if (this.path == null) {
+                this.path = new RqHref.Base(this.req).href().path();
+            }
+            return this.path;
+        }
+
+        /**
+         * Method of the request.
+         * @return Method
+         * @throws IOException If fails
+         */
+        String method() throws IOException {
+            if (this.mtd == null) {
+                this.mtd = new RqMethod.Base(this.req).method();
+            }
+            return this.mtd;
+        }
+
+        /**
+         * Positions of forks the tree has for this request.
+         * @return Positions
+         * @throws IOException If fails
+         */
+        BitSet found() throws IOException {
+            if (this.forks == null) {
+                String href = this.href();
+                if (href.length() > 1
+                    && href.charAt(href.length() - 1) == '/') {
+                    href = href.substring(0, href.length() - 1);
+                }
+                final BitSet found = new BitSet();
+                this.root.collect(
+                    FkRouter.lower(href).split("/", -1), 0, this, found
+                );
+                this.forks = found;
+            }
+            return this.forks;
+        }
+    }
+}
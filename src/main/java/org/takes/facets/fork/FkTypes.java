@@ -24,6 +24,10 @@
 package org.takes.facets.fork;
 
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import lombok.EqualsAndHashCode;
 import org.takes.Request;
 import org.takes.Response;
@@ -34,6 +38,23 @@ import org.takes.rq.RqHeaders;
 /**
  * Fork by types accepted by "Accept" HTTP header.
  *
+ * <p>The fork takes the request if any of its types has a non-zero
+ * "q" priority in the "Accept" header. {@link TkFork} and {@link RsFork}
+ * negotiate among a few such forks placed one after another: the fork with
+ * the highest priority wins, no matter where it is in the list,
+ * for example:
+ *
+ * <pre> Take take = new TkFork(
+ *   new FkTypes("text/html", new TkHtml()),
+ *   new FkTypes("application/json", new TkJson())
+ * );</pre>
+ *
+ * <p>Here, "Accept: application/json, *&#47;*;q=0.1" leads to
+ * {@code TkJson}. If priorities are equal, the first fork wins.
+ *
+ * <p>Parsed "Accept" headers are kept in a small cache, shared by all
+ * instances, since clients send only a few distinct ones.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.6
@@ -42,6 +63,23 @@ import org.takes.rq.RqHeaders;
 @EqualsAndHashCode
 public final class FkTypes implements Fork {
 
+    /**
+     * Maximum number of parsed headers in the cache.
+     */
+    private static final int MAX = 64;
+
+    /**
+     * Types accepted if there is no "Accept" header.
+     */
+    private static final MediaTypes DEFAULT = new MediaTypes("text/html");
+
+    /**
+     * Parsed "Accept" headers, in the order of access.
+     */
+    private static final Map<String, MediaTypes> ACCEPTED =
+        // @checkstyle MagicNumberCheck (1 line)
+        new LinkedHashMap<>(16, 0.75f, true);
+
     /**
      * Types we can deliver.
      */
@@ -91,14 +129,63 @@ public final class FkTypes implements Fork {
     @Override
     public Opt<Response> route(final Request req) throws Exception {
         final Opt<Response> resp;
-        if (FkTypes.accepted(req).contains(this.types)) {
-            if (this.response.has()) {
-                resp = new Opt.Single<>(this.response.get());
-            } else {
-                resp = new Opt.Single<>(this.take.get().act(req));
-            }
+        if (this.quality(FkTypes.accepted(req)) > 0.0d) {
+            resp = this.act(req);
+        } else {
+            resp = new Opt.Empty<>();
+        }
+        return resp;
+    }
+
+    /**
+     * Quality of the best of our types for the client.
+     * @param accepted Types accepted by the client
+     * @return Quality, from zero to one
+     */
+    double quality(final MediaTypes accepted) {
+        return accepted.quality(this.types);
+    }
+
+    /**
+     * Make the response, without checking the types.
+     * @param req Request
+     * @return Response
+     * @throws Exception If fails
+     */
+    Opt<Response> act(final Request req) throws Exception {
+        final Opt<Response> resp;
+        if (this.response.has()) {
+            resp = new Opt.Single<>(this.response.get());
         } else {
+            resp = new Opt.Single<>(this.take.get().act(req));
+        }
+        return resp;
+    }
+
+    /**
+     * Negotiate among forks placed one after another.
+     * @param forks Forks, in their order
+     * @param req Request
+     * @return Response of the fork with the highest quality, if any
+     * @throws Exception If fails
+     */
+    static Opt<Response> negotiated(final List<FkTypes> forks,
+        final Request req) throws Exception {
+        final MediaTypes accepted = FkTypes.accepted(req);
+        double best = 0.0d;
+        int winner = -1;
+        for (int idx = 0; idx < forks.size(); ++idx) {
+            final double quality = forks.get(idx).quality(accepted);
+            if (quality > best) {
+                best = quality;
+                winner = idx;
+            }
+        }
+        final Opt<Response> resp;
+        if (winner < 0) {
             resp = new Opt.Empty<>();
+        } else {
+            resp = forks.get(winner).act(req);
         }
         return resp;
     }
@@ -109,18 +196,46 @@ public final class FkTypes implements Fork {
      * @return Media types
      * @throws IOException If fails
      */
-    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
-    private static MediaTypes accepted(final Request req) throws IOException {
+    static MediaTypes accepted(final Request req) throws IOException {
         MediaTypes list = new MediaTypes();
         final Iterable<String> headers = new RqHeaders.Base(req)
             .header("Accept");
         for (final String hdr : headers) {
-            list = list.merge(new MediaTypes(hdr));
+            if (list.isEmpty()) {
+                list = FkTypes.parsed(hdr);
+            } else {
+                list = list.merge(FkTypes.parsed(hdr));
+            }
         }
         if (list.isEmpty()) {
-            list = new MediaTypes("text/html");
+            list = FkTypes.DEFAULT;
         }
         return list;
     }
 
+    /**
+     * Parse the header, or find it in the cache.
+     * @param header Value of "Accept" header
+     * @return Media types
+     */
+    private static MediaTypes parsed(final String header) {
+        MediaTypes types;
+        synchronized (FkTypes.ACCEPTED) {
+            types = FkTypes.ACCEPTED.get(header);
+        }
+        if (types == null) {
+            types = new MediaTypes(header);
+            synchronized (FkTypes.ACCEPTED) {
+                FkTypes.ACCEPTED.put(header, types);
+                final Iterator<MediaTypes> eldest =
+                    FkTypes.ACCEPTED.values().iterator();
+                while (FkTypes.ACCEPTED.size() > FkTypes.MAX) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return types;
+    }
+
 }
@@ -23,6 +23,7 @@
  */
 package org.takes.facets.fork;
 
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -51,9 +52,12 @@ import org.cactoos.text.UncheckedText;
 final class MediaType implements Comparable<MediaType> {
 
     /**
-     * Pattern matching non-digit symbols.
+     * Pattern matching the "q" parameter.
      */
-    private static final Pattern NON_DIGITS = Pattern.compile("[^0-9\\.]");
+    private static final Pattern QUALITY = Pattern.compile(
+        ";\\s*q\\s*=\\s*([0-9]*(?:\\.[0-9]*)?)",
+        Pattern.CASE_INSENSITIVE
+    );
 
     /**
      * Priority.
@@ -108,6 +112,31 @@ final class MediaType implements Comparable<MediaType> {
             || this.low.equals(type.low));
     }
 
+    /**
+     * Priority, the "q" parameter, from zero to one.
+     * @return Priority
+     */
+    public double priority() {
+        return this.prio;
+    }
+
+    /**
+     * How specific the type is: zero for any type, one for a range
+     * of subtypes, like {@code text/*}, and two for a full type.
+     * @return Specificity
+     */
+    public int specificity() {
+        final String star = "*";
+        int spec = 0;
+        if (!this.high.equals(star)) {
+            ++spec;
+            if (!this.low.equals(star)) {
+                ++spec;
+            }
+        }
+        return spec;
+    }
+
     /**
      * Splits the text parts.
      * @param text The text to be split.
@@ -123,15 +152,14 @@ final class MediaType implements Comparable<MediaType> {
      * @return The priority of the media type.
      */
     private static Double priority(final String text) {
-        final String[] parts = MediaType.split(text);
+        final Matcher matcher = MediaType.QUALITY.matcher(text);
         final Double priority;
-        if (parts.length > 1) {
-            final String num =
-                MediaType.NON_DIGITS.matcher(parts[1]).replaceAll("");
-            if (num.isEmpty()) {
+        if (matcher.find()) {
+            final String num = matcher.group(1);
+            if (num.isEmpty() || ".".equals(num)) {
                 priority = 0.0d;
             } else {
-                priority = Double.parseDouble(num);
+                priority = Math.min(Double.parseDouble(num), 1.0d);
             }
         } else {
             priority = 1.0d;
@@ -171,7 +199,7 @@ final class MediaType implements Comparable<MediaType> {
      */
     private static String[] sectors(final String text) {
         return new UncheckedText(
-            new Lowered(MediaType.split(text)[0])
+            new Trimmed(new Lowered(MediaType.split(text)[0]))
         ).asString()
             .split(
                 "/", 2
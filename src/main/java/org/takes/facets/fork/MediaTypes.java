@@ -105,6 +105,39 @@ final class MediaTypes {
         return contains;
     }
 
+    /**
+     * Quality of the best of the given types, if these are the types
+     * a client accepts.
+     *
+     * <p>Each given type gets the priority of the most specific type
+     * in this list that matches it, as RFC 7231 says:
+     * {@code text/html} wins over {@code text/*}, which wins over
+     * any type. Zero means that none of them are acceptable.
+     *
+     * @param types Types we can deliver
+     * @return Quality, from zero to one
+     */
+    public double quality(final MediaTypes types) {
+        double best = 0.0d;
+        for (final MediaType type : types.list) {
+            int spec = -1;
+            double quality = 0.0d;
+            for (final MediaType mine : this.list) {
+                if (!mine.matches(type)) {
+                    continue;
+                }
+                final int current = mine.specificity();
+                if (current > spec
+                    || (current == spec && mine.priority() > quality)) {
+                    spec = current;
+                    quality = mine.priority();
+                }
+            }
+            best = Math.max(best, quality);
+        }
+        return best;
+    }
+
     /**
      * Merge with this one.
      * @param types Types
@@ -25,7 +25,10 @@ package org.takes.facets.fork;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.takes.HttpException;
@@ -38,6 +41,16 @@ import org.takes.rs.RsWrap;
 /**
  * Response based on forks.
  *
+ * <p>Forks are asked one by one, in their order, as {@link FkChain}
+ * asks them, except {@link FkTypes} forks placed one after another,
+ * which negotiate by the "Accept" header, as in {@link FkRouter}:
+ *
+ * <pre> Response rsp = new RsFork(
+ *   req,
+ *   new FkTypes("text/html", html),
+ *   new FkTypes("application/json", json)
+ * );</pre>
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.6
@@ -79,16 +92,33 @@ public final class RsFork extends RsWrap {
     @SuppressWarnings("PMD.AvoidCatchingGenericException")
     private static Response pick(final Request req,
         final Iterable<Fork> forks) throws IOException {
-        for (final Fork fork : forks) {
-            try {
-                final Opt<Response> rsps = fork.route(req);
-                if (rsps.has()) {
-                    return rsps.get();
+        final Iterator<Fork> iter = forks.iterator();
+        List<FkTypes> types = new ArrayList<>(0);
+        Opt<Response> rsps = new Opt.Empty<>();
+        try {
+            while (!rsps.has() && iter.hasNext()) {
+                final Fork fork = iter.next();
+                if (fork instanceof FkTypes) {
+                    types.add((FkTypes) fork);
+                } else {
+                    if (!types.isEmpty()) {
+                        rsps = FkTypes.negotiated(types, req);
+                        types = new ArrayList<>(0);
+                    }
+                    if (!rsps.has()) {
+                        rsps = fork.route(req);
+                    }
                 }
-                //@checkstyle IllegalCatch (1 line)
-            } catch (final Exception ex) {
-                throw new IOException(ex);
             }
+            if (!rsps.has() && !types.isEmpty()) {
+                rsps = FkTypes.negotiated(types, req);
+            }
+            //@checkstyle IllegalCatch (1 line)
+        } catch (final Exception ex) {
+            throw new IOException(ex);
+        }
+        if (rsps.has()) {
+            return rsps.get();
         }
         throw new HttpException(HttpURLConnection.HTTP_NOT_FOUND);
     }
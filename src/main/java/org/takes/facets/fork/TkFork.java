@@ -54,15 +54,22 @@ import org.takes.misc.Opt;
  * one that reacts will get control. Each "fork" is an implementation
  * of {@link org.takes.facets.fork.Fork}.
  *
+ * <p>Forks are compiled by {@link FkRouter}, once, when the take is
+ * created: {@link FkRegex} and {@link FkRoute} forks with simple
+ * patterns go into a tree of paths, so a request doesn't run the
+ * patterns of all routes above the one it needs. The order of forks
+ * still decides which one gets the request.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.4
  * @see org.takes.facets.fork.FkMethods
  * @see org.takes.facets.fork.FkRegex
  * @see org.takes.facets.fork.FkParams
+ * @see org.takes.facets.fork.FkRouter
  */
 @ToString(of = "forks")
-@EqualsAndHashCode
+@EqualsAndHashCode(of = "forks")
 public final class TkFork implements Take {
 
     /**
@@ -70,6 +77,11 @@ public final class TkFork implements Take {
      */
     private final Collection<Fork> forks;
 
+    /**
+     * Forks, compiled.
+     */
+    private final Fork router;
+
     /**
      * Ctor.
      */
@@ -91,11 +103,12 @@ public final class TkFork implements Take {
      */
     public TkFork(final Collection<Fork> frks) {
         this.forks = new ListOf<>(frks);
+        this.router = new FkRouter(this.forks);
     }
 
     @Override
     public Response act(final Request request) throws Exception {
-        final Opt<Response> response = new FkChain(this.forks).route(request);
+        final Opt<Response> response = this.router.route(request);
         if (response.has()) {
             return response.get();
         }
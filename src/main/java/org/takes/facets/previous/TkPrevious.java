@@ -60,20 +60,21 @@ public final class TkPrevious implements Take {
 
     @Override
     public Response act(final Request req) throws Exception {
-        final Iterator<String> cookies = new RqCookies.Base(req)
+        final RqCookies cookies = new RqCookies.Base(req);
+        final Iterator<String> values = cookies
             .cookie(TkPrevious.class.getSimpleName())
             .iterator();
         final Response response;
-        if (cookies.hasNext()) {
+        if (values.hasNext()) {
             response = new RsWithCookie(
-                new RsRedirect(URLDecoder.decode(cookies.next(), "UTF-8")),
+                new RsRedirect(URLDecoder.decode(values.next(), "UTF-8")),
                 TkPrevious.class.getName(),
                 "",
                 "Path=/",
                 "Expires=Thu, 01 Jan 1970 00:00:00 GMT"
             );
         } else {
-            response = this.origin.act(req);
+            response = this.origin.act(cookies);
         }
         return response;
     }
@@ -91,7 +91,7 @@ public final class TkReturn implements Take {
                 ""
             );
         } else {
-            response = this.origin.act(request);
+            response = this.origin.act(cookies);
         }
         return response;
     }
@@ -23,6 +23,7 @@
  */
 package org.takes.http;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -90,11 +91,12 @@ public final class BkBasic implements Back {
     @Override
     public void accept(final Socket socket) throws IOException {
         try (
-            InputStream input = socket.getInputStream();
+            InputStream raw = socket.getInputStream();
             BufferedOutputStream output = new BufferedOutputStream(
                 socket.getOutputStream()
             )
         ) {
+            final InputStream input = new BkBasic.Buffered(raw);
             while (true) {
                 this.print(
                     BkBasic.addSocketHeaders(
@@ -176,4 +178,25 @@ public final class BkBasic implements Back {
         );
     }
 
+    /**
+     * Buffered stream of the socket, which is not closed when
+     * the body of a request is closed, since the same socket may carry
+     * more requests. The socket stream is closed when the socket is done.
+     * @since 2.0
+     */
+    private static final class Buffered extends BufferedInputStream {
+
+        /**
+         * Ctor.
+         * @param input Socket stream
+         */
+        Buffered(final InputStream input) {
+            super(input);
+        }
+
+        @Override
+        public void close() {
+            // the socket stream is closed by BkBasic#accept()
+        }
+    }
 }
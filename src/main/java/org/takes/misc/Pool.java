@@ -0,0 +1,115 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.misc;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.cactoos.Proc;
+import org.cactoos.Scalar;
+import org.cactoos.proc.UncheckedProc;
+import org.cactoos.scalar.Unchecked;
+
+/**
+ * Bounded pool of reusable objects, which are expensive to create
+ * or hold native resources, like {@link java.util.zip.Inflater}.
+ *
+ * <p>{@link #take()} returns an idle object or makes a new one, so it
+ * never blocks. {@link #give(Object)} resets the object and keeps it
+ * for the next caller; when the pool is already full the object
+ * is disposed instead.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @param <T> Type of objects
+ * @since 2.0
+ */
+public final class Pool<T> {
+
+    /**
+     * Idle objects.
+     */
+    private final BlockingQueue<T> idle;
+
+    /**
+     * How to make a new object.
+     */
+    private final Scalar<T> make;
+
+    /**
+     * How to reset an object before reuse.
+     */
+    private final Proc<T> reset;
+
+    /**
+     * How to dispose an object, which is not needed anymore.
+     */
+    private final Proc<T> dispose;
+
+    /**
+     * Ctor.
+     * @param capacity Maximum number of idle objects
+     * @param make How to make a new object
+     * @param reset How to reset an object before reuse
+     * @param dispose How to dispose an object
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Pool(final int capacity, final Scalar<T> make,
+        final Proc<T> reset, final Proc<T> dispose) {
+        this.idle = new ArrayBlockingQueue<>(capacity);
+        this.make = make;
+        this.reset = reset;
+        this.dispose = dispose;
+    }
+
+    /**
+     * Take an idle object or make a new one.
+     * @return The object
+     */
+    public T take() {
+        T item = this.idle.poll();
+        if (item == null) {
+            item = new Unchecked<>(this.make).value();
+        }
+        return item;
+    }
+
+    /**
+     * Give the object back.
+     * @param item The object, taken before
+     */
+    public void give(final T item) {
+        new UncheckedProc<>(this.reset).exec(item);
+        if (!this.idle.offer(item)) {
+            new UncheckedProc<>(this.dispose).exec(item);
+        }
+    }
+
+    /**
+     * How many idle objects are in the pool now.
+     * @return Number of objects
+     */
+    public int size() {
+        return this.idle.size();
+    }
+}
@@ -0,0 +1,741 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.misc;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Storage of temporary files, used by multipart requests and by
+ * response bodies that have to be kept somewhere.
+ *
+ * <p>Each storage keeps its files in its own sub-directory of the root
+ * directory and holds a lock on it while it's alive. When a storage
+ * starts, a background thread deletes all sub-directories of the root
+ * that are not locked: they are left by processes that are gone.
+ * Nothing is registered with {@link File#deleteOnExit()}, so the JVM
+ * doesn't keep track of every file ever created.
+ *
+ * <p>Every file is an {@link TempStorage.Entry} with a reference
+ * counter. The creator holds the first reference and every stream
+ * opened by {@link TempStorage.Entry#input()} holds one more, until it's
+ * closed. The file is deleted when the last reference is released. If
+ * the owner of an entry can't release it explicitly, it may ask the
+ * storage to release it when the owner is garbage collected, see
+ * {@link TempStorage.Entry#releasedWith(Object)}, or hand it over to
+ * a stream, see {@link TempStorage.Entry#detached()}.
+ *
+ * <p>The total size of the files in the storage is limited by the quota;
+ * an attempt to write beyond it fails with an {@link IOException}.
+ * Optionally, files may be read through memory-mapped buffers, instead
+ * of streams.
+ *
+ * <p>The shared storage, returned by {@link #shared()}, is configured
+ * by system properties: {@code takes.temp.dir} (root directory,
+ * {@code takes} in {@code java.io.tmpdir} by default),
+ * {@code takes.temp.quota} (in bytes, unlimited by default) and
+ * {@code takes.temp.mapped} ({@code false} by default).
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 2.0
+ */
+@SuppressWarnings("PMD.ExcessiveImports")
+public final class TempStorage implements Closeable {
+
+    /**
+     * Name of the lock file.
+     */
+    private static final String LOCK = ".lock";
+
+    /**
+     * Lock of scans for orphans, since file locks of one JVM overlap.
+     */
+    private static final Object SCAN = new Object();
+
+    /**
+     * Root directory.
+     */
+    private final Path root;
+
+    /**
+     * Directory of this storage.
+     */
+    private final Path dir;
+
+    /**
+     * Maximum total size of files, in bytes.
+     */
+    private final long quota;
+
+    /**
+     * Read files through memory-mapped buffers?
+     */
+    private final boolean mapped;
+
+    /**
+     * Total size of files, in bytes.
+     */
+    private final AtomicLong used;
+
+    /**
+     * Queue of owners that are garbage collected.
+     */
+    private final ReferenceQueue<Object> queue;
+
+    /**
+     * Entries to release when their owners are garbage collected.
+     */
+    private final Map<Reference<?>, TempStorage.Entry.Hold> owned;
+
+    /**
+     * Channel of the lock file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Lock of the directory.
+     */
+    private final FileLock lock;
+
+    /**
+     * Background thread.
+     */
+    private final Thread cleaner;
+
+    /**
+     * Ctor.
+     * @param path Root directory
+     * @param max Maximum total size of files, in bytes
+     * @param mmap Read files through memory-mapped buffers
+     * @throws IOException If fails
+     */
+    @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
+    public TempStorage(final Path path, final long max, final boolean mmap)
+        throws IOException {
+        this.root = path;
+        this.dir = path.resolve(UUID.randomUUID().toString());
+        this.quota = max;
+        this.mapped = mmap;
+        this.used = new AtomicLong();
+        this.queue = new ReferenceQueue<>();
+        this.owned = new ConcurrentHashMap<>(0);
+        Files.createDirectories(this.dir);
+        this.channel = FileChannel.open(
+            this.dir.resolve(TempStorage.LOCK),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE
+        );
+        this.lock = this.channel.lock();
+        this.cleaner = new Thread(this::clean, "takes-temp-storage");
+        this.cleaner.setDaemon(true);
+        this.cleaner.start();
+    }
+
+    /**
+     * Storage shared by everybody in this JVM.
+     * @return The storage
+     */
+    public static TempStorage shared() {
+        return TempStorage.Shared.INSTANCE;
+    }
+
+    /**
+     * Create a new empty file.
+     * @return The entry, with one reference held by the caller
+     * @throws IOException If fails
+     */
+    public TempStorage.Entry create() throws IOException {
+        final Path path = this.dir.resolve(
+            String.format("%s.tmp", UUID.randomUUID().toString())
+        );
+        Files.createFile(path);
+        return new TempStorage.Entry(path);
+    }
+
+    /**
+     * Total size of all files in the storage.
+     * @return Size in bytes
+     */
+    public long used() {
+        return this.used.get();
+    }
+
+    /**
+     * Delete directories left by storages that are gone.
+     * @throws IOException If fails
+     */
+    public void orphans() throws IOException {
+        synchronized (TempStorage.SCAN) {
+            try (DirectoryStream<Path> dirs =
+                Files.newDirectoryStream(this.root)) {
+                for (final Path sub : dirs) {
+                    if (!sub.equals(this.dir) && Files.isDirectory(sub)) {
+                        TempStorage.orphan(sub);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.cleaner.interrupt();
+        this.lock.release();
+        this.channel.close();
+        TempStorage.delete(this.dir);
+        this.used.set(0L);
+    }
+
+    /**
+     * Delete the directory if nobody holds its lock.
+     * @param sub The directory
+     * @throws IOException If fails
+     */
+    private static void orphan(final Path sub) throws IOException {
+        final Path file = sub.resolve(TempStorage.LOCK);
+        if (Files.exists(file) && TempStorage.abandoned(file)) {
+            TempStorage.delete(sub);
+        }
+    }
+
+    /**
+     * Nobody holds the lock?
+     * @param file The lock file
+     * @return TRUE if the lock is free
+     * @throws IOException If fails
+     */
+    private static boolean abandoned(final Path file) throws IOException {
+        boolean free;
+        try (FileChannel chnl = FileChannel.open(
+            file, StandardOpenOption.WRITE
+        )) {
+            final FileLock flock = chnl.tryLock();
+            free = flock != null;
+            if (free) {
+                flock.release();
+            }
+        } catch (final OverlappingFileLockException
+            | NoSuchFileException ex) {
+            free = false;
+        }
+        return free;
+    }
+
+    /**
+     * Delete the directory with everything inside, unless somebody
+     * else, like the cleaner thread, has just deleted it.
+     * @param sub The directory
+     * @throws IOException If fails
+     */
+    private static void delete(final Path sub) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(sub)) {
+            for (final Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(sub);
+        } catch (final NoSuchFileException ex) {
+            Files.deleteIfExists(sub);
+        }
+    }
+
+    /**
+     * Delete orphans and then release entries of the owners
+     * that are garbage collected, until interrupted.
+     */
+    private void clean() {
+        final Thread thread = Thread.currentThread();
+        try {
+            this.orphans();
+        } catch (final IOException ex) {
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+        }
+        try {
+            while (!thread.isInterrupted()) {
+                final Reference<?> ref = this.queue.remove();
+                final TempStorage.Entry.Hold hold = this.owned.remove(ref);
+                if (hold != null) {
+                    try {
+                        hold.release();
+                    } catch (final IOException ex) {
+                        thread.getUncaughtExceptionHandler()
+                            .uncaughtException(thread, ex);
+                    }
+                }
+            }
+        } catch (final InterruptedException ex) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * A file in the storage.
+     *
+     * <p>The class is thread-safe.
+     *
+     * @since 2.0
+     */
+    public final class Entry {
+
+        /**
+         * The file.
+         */
+        private final Path path;
+
+        /**
+         * References to the file.
+         */
+        private final AtomicInteger refs;
+
+        /**
+         * Size of the file.
+         */
+        private final AtomicLong size;
+
+        /**
+         * Ctor.
+         * @param file The file
+         */
+        Entry(final Path file) {
+            this.path = file;
+            this.refs = new AtomicInteger(1);
+            this.size = new AtomicLong();
+        }
+
+        /**
+         * The file.
+         * @return File
+         */
+        public File file() {
+            return this.path.toFile();
+        }
+
+        /**
+         * Size of the file, as much as has been written.
+         * @return Size in bytes
+         */
+        public long length() {
+            return this.size.get();
+        }
+
+        /**
+         * Write the content of the file, from the very beginning.
+         * @return Stream to write to, which fails when the quota is exceeded
+         * @throws IOException If fails
+         */
+        public OutputStream output() throws IOException {
+            TempStorage.this.used.addAndGet(-this.size.getAndSet(0L));
+            return new TempStorage.Entry.Counted(
+                Files.newOutputStream(
+                    this.path, StandardOpenOption.TRUNCATE_EXISTING
+                )
+            );
+        }
+
+        /**
+         * Read the content of the file. The stream holds a reference
+         * to the entry, until it's closed.
+         * @return Stream to read from
+         * @throws IOException If fails
+         */
+        public InputStream input() throws IOException {
+            return this.open();
+        }
+
+        /**
+         * Read the content of the file, handing the reference of the
+         * caller over to the stream. The reference is released once:
+         * when the stream is closed or, if it never is, when it's
+         * garbage collected.
+         * @return Stream to read from
+         * @throws IOException If fails
+         */
+        public InputStream detached() throws IOException {
+            final TempStorage.Entry.Released stream;
+            try {
+                stream = this.open();
+            } finally {
+                this.release();
+            }
+            TempStorage.this.owned.put(
+                new PhantomReference<>(stream, TempStorage.this.queue),
+                stream.hold
+            );
+            return stream;
+        }
+
+        /**
+         * Open the file with one more reference, held by the stream.
+         * @return Stream to read from
+         * @throws IOException If fails
+         */
+        @SuppressWarnings("PMD.CloseResource")
+        private TempStorage.Entry.Released open() throws IOException {
+            this.retain();
+            final InputStream stream;
+            try {
+                if (TempStorage.this.mapped
+                    && this.size.get() <= Integer.MAX_VALUE) {
+                    try (FileChannel chnl = FileChannel.open(this.path)) {
+                        stream = new TempStorage.Mapped(
+                            chnl.map(
+                                FileChannel.MapMode.READ_ONLY,
+                                0L, chnl.size()
+                            )
+                        );
+                    }
+                } else {
+                    stream = Channels.newInputStream(
+                        FileChannel.open(this.path)
+                    );
+                }
+            } catch (final IOException ex) {
+                this.release();
+                throw ex;
+            }
+            return new TempStorage.Entry.Released(stream);
+        }
+
+        /**
+         * Take one more reference.
+         */
+        public void retain() {
+            if (this.refs.getAndIncrement() <= 0) {
+                throw new IllegalStateException(
+                    String.format("temporary file %s is deleted", this.path)
+                );
+            }
+        }
+
+        /**
+         * Release a reference and delete the file if it was the last one.
+         * @throws IOException If fails
+         */
+        public void release() throws IOException {
+            if (this.refs.decrementAndGet() == 0) {
+                TempStorage.this.used.addAndGet(-this.size.getAndSet(0L));
+                Files.deleteIfExists(this.path);
+            }
+        }
+
+        /**
+         * Release the reference held by the caller when the owner
+         * is garbage collected.
+         * @param owner The owner
+         * @return This entry
+         */
+        public TempStorage.Entry releasedWith(final Object owner) {
+            TempStorage.this.owned.put(
+                new PhantomReference<>(owner, TempStorage.this.queue),
+                new TempStorage.Entry.Hold()
+            );
+            return this;
+        }
+
+        /**
+         * One reference to the entry, which is released only once.
+         * @since 2.0
+         */
+        private final class Hold {
+
+            /**
+             * Is it released?
+             */
+            private final AtomicBoolean done;
+
+            /**
+             * Ctor.
+             */
+            Hold() {
+                this.done = new AtomicBoolean();
+            }
+
+            /**
+             * Release the reference, unless it's released already.
+             * @throws IOException If fails
+             */
+            void release() throws IOException {
+                if (!this.done.getAndSet(true)) {
+                    Entry.this.release();
+                }
+            }
+        }
+
+        /**
+         * Stream that counts the bytes written and checks the quota.
+         * @since 2.0
+         */
+        private final class Counted extends FilterOutputStream {
+
+            /**
+             * Ctor.
+             * @param origin Original stream
+             */
+            Counted(final OutputStream origin) {
+                super(origin);
+            }
+
+            @Override
+            public void write(final int data) throws IOException {
+                this.reserve(1);
+                this.out.write(data);
+            }
+
+            @Override
+            public void write(final byte[] buf, final int off, final int len)
+                throws IOException {
+                this.reserve(len);
+                this.out.write(buf, off, len);
+            }
+
+            /**
+             * Reserve space for the bytes about to be written.
+             * @param len How many bytes
+             * @throws IOException If the quota is exceeded
+             */
+            private void reserve(final int len) throws IOException {
+                if (TempStorage.this.used.addAndGet(len)
+                    > TempStorage.this.quota) {
+                    TempStorage.this.used.addAndGet(-len);
+                    throw new IOException(
+                        String.format(
+                            "quota of %d bytes for temporary files is exceeded in %s",
+                            TempStorage.this.quota, TempStorage.this.dir
+                        )
+                    );
+                }
+                Entry.this.size.addAndGet(len);
+            }
+        }
+
+        /**
+         * Stream that releases the reference when closed.
+         * @since 2.0
+         */
+        private final class Released extends InputStream {
+
+            /**
+             * Original stream.
+             */
+            private final InputStream origin;
+
+            /**
+             * The reference held by the stream.
+             */
+            private final TempStorage.Entry.Hold hold;
+
+            /**
+             * Ctor.
+             * @param stream Original stream
+             */
+            Released(final InputStream stream) {
+                super();
+                this.origin = stream;
+                this.hold = new TempStorage.Entry.Hold();
+            }
+
+            @Override
+            public int read() throws IOException {
+                return this.origin.read();
+            }
+
+            @Override
+            public int read(final byte[] buf, final int off, final int len)
+                throws IOException {
+                return this.origin.read(buf, off, len);
+            }
+
+            @Override
+            public long skip(final long num) throws IOException {
+                return this.origin.skip(num);
+            }
+
+            @Override
+            public int available() throws IOException {
+                return this.origin.available();
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    this.origin.close();
+                } finally {
+                    this.hold.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stream of a memory-mapped buffer.
+     * @since 2.0
+     */
+    private static final class Mapped extends InputStream {
+
+        /**
+         * The buffer.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * Is it closed?
+         */
+        private boolean closed;
+
+        /**
+         * Ctor.
+         * @param buf The buffer
+         */
+        Mapped(final ByteBuffer buf) {
+            super();
+            this.buffer = buf;
+        }
+
+        @Override
+        public int read() throws IOException {
+            this.ensure();
+            final int data;
+            if (this.buffer.hasRemaining()) {
+                data = this.buffer.get() & 0xff;
+            } else {
+                data = -1;
+            }
+            return data;
+        }
+
+        @Override
+        public int read(final byte[] buf, final int off, final int len)
+            throws IOException {
+            this.ensure();
+            final int count;
+            if (len == 0) {
+                count = 0;
+            } else if (this.buffer.hasRemaining()) {
+                count = Math.min(len, this.buffer.remaining());
+                this.buffer.get(buf, off, count);
+            } else {
+                count = -1;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(final long num) throws IOException {
+            this.ensure();
+            final int count = (int) Math.max(
+                0L, Math.min(num, this.buffer.remaining())
+            );
+            this.buffer.position(this.buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            this.ensure();
+            return this.buffer.remaining();
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+
+        /**
+         * Make sure the stream is not closed.
+         * @throws IOException If it is
+         */
+        private void ensure() throws IOException {
+            if (this.closed) {
+                throw new ClosedChannelException();
+            }
+        }
+    }
+
+    /**
+     * Holder of the shared storage, created on first use.
+     * @since 2.0
+     */
+    private static final class Shared {
+
+        /**
+         * The storage.
+         */
+        private static final TempStorage INSTANCE = TempStorage.Shared.make();
+
+        /**
+         * Ctor.
+         */
+        private Shared() {
+        }
+
+        /**
+         * Make the storage configured by system properties.
+         * @return Storage
+         */
+        private static TempStorage make() {
+            try {
+                return new TempStorage(
+                    Paths.get(
+                        System.getProperty(
+                            "takes.temp.dir",
+                            Paths.get(
+                                System.getProperty("java.io.tmpdir"), "takes"
+                            ).toString()
+                        )
+                    ),
+                    Long.getLong("takes.temp.quota", Long.MAX_VALUE),
+                    Boolean.getBoolean("takes.temp.mapped")
+                );
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
@@ -23,39 +23,79 @@
  */
 package org.takes.rq;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.Charset;
-import org.cactoos.Text;
-import org.cactoos.scalar.Ternary;
-import org.cactoos.scalar.Unchecked;
-import org.cactoos.text.Sub;
-import org.cactoos.text.TextOf;
-import org.cactoos.text.Trimmed;
-import org.cactoos.text.UncheckedText;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import org.takes.HttpException;
 
 /**
  * Input stream from chunked coded http request body.
+ *
+ * <p>The stream reads chunk data straight into the buffer provided
+ * by the caller, moving from one chunk to the next in a loop, and never
+ * reads beyond the end of the chunked body, since the same connection
+ * may carry the next request. Chunk size lines are parsed as they are
+ * read, without building strings. Trailer headers, which may follow
+ * the last chunk, are collected when the end of the body is reached.
+ *
  * @link <a href="https://www.w3.org/Protocols/rfc2616/rfc2616-sec3.html#sec3.6.1">Chunked Transfer Coding</a>
  * @since 0.31.2
  */
 final class ChunkedInputStream extends InputStream {
 
+    /**
+     * Maximum length of a chunk size line or a trailer line.
+     */
+    private static final int LINE = 8192;
+
+    /**
+     * Maximum amount of trailer headers.
+     */
+    private static final int TRAILERS = 100;
+
     /**
      * The inputstream that we're wrapping.
      */
     private final InputStream origin;
 
+    /**
+     * Maximum size of one chunk.
+     */
+    private final long chunk;
+
+    /**
+     * Maximum size of all chunks together.
+     */
+    private final long total;
+
+    /**
+     * Where to put trailer headers.
+     */
+    private final Collection<String> trailers;
+
+    /**
+     * Buffer for trailer lines, allocated once, when trailers come.
+     */
+    private byte[] line;
+
     /**
      * The chunk size.
      */
-    private int size;
+    private long size;
 
     /**
      * The current position within the current chunk.
      */
-    private int pos;
+    private long pos;
+
+    /**
+     * Amount of bytes in all chunks read so far.
+     */
+    private long received;
 
     /**
      * True if we'are at the beginning of stream.
@@ -73,9 +113,26 @@ final class ChunkedInputStream extends InputStream {
      * @param stream The raw input stream
      */
     ChunkedInputStream(final InputStream stream) {
+        this(stream, Long.MAX_VALUE, Long.MAX_VALUE, new LinkedList<>());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param stream The raw input stream
+     * @param max Maximum size of one chunk
+     * @param limit Maximum size of all chunks together
+     * @param trls Where to put trailer headers, when they are read
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    ChunkedInputStream(final InputStream stream, final long max,
+        final long limit, final Collection<String> trls) {
         super();
         this.bof = true;
         this.origin = stream;
+        this.chunk = max;
+        this.total = limit;
+        this.trailers = trls;
     }
 
     @Override
@@ -87,8 +144,11 @@ final class ChunkedInputStream extends InputStream {
         if (this.eof) {
             result = -1;
         } else {
-            ++this.pos;
             result = this.origin.read();
+            if (result < 0) {
+                throw new IOException("chunked stream ended unexpectedly");
+            }
+            ++this.pos;
         }
         return result;
     }
@@ -96,27 +156,29 @@ final class ChunkedInputStream extends InputStream {
     @Override
     public int read(final byte[] buf, final int off, final int len)
         throws IOException {
-        if (!this.eof && this.pos >= this.size) {
-            this.nextChunk();
+        int done = 0;
+        while (done < len && !this.eof) {
+            if (this.pos < this.size) {
+                final int count = this.origin.read(
+                    buf, off + done,
+                    (int) Math.min(len - done, this.size - this.pos)
+                );
+                if (count < 0) {
+                    throw new IOException("chunked stream ended unexpectedly");
+                }
+                this.pos += count;
+                done += count;
+            } else if (done > 0 && this.origin.available() <= 0) {
+                break;
+            } else {
+                this.nextChunk();
+            }
         }
         final int result;
-        if (this.eof) {
+        if (done == 0 && this.eof && len > 0) {
             result = -1;
         } else {
-            final int shift = Math.min(len, this.size - this.pos);
-            final int count = this.origin.read(buf, off, shift);
-            this.pos += count;
-            if (shift == len) {
-                result = len;
-            } else {
-                result = shift + Math.max(
-                    this.read(
-                        buf,
-                        off + shift,
-                    len - shift
-                    ), 0
-                );
-            }
+            result = done;
         }
         return result;
     }
@@ -126,6 +188,19 @@ final class ChunkedInputStream extends InputStream {
         return this.read(buf, 0, buf.length);
     }
 
+    @Override
+    public int available() throws IOException {
+        final int result;
+        if (this.eof) {
+            result = 0;
+        } else {
+            result = (int) Math.min(
+                this.origin.available(), this.size - this.pos
+            );
+        }
+        return result;
+    }
+
     /**
      * Read the CRLF terminator.
      * @throws IOException If an IO error occurs.
@@ -154,185 +229,172 @@ final class ChunkedInputStream extends InputStream {
         if (!this.bof) {
             this.readCrlf();
         }
-        this.size = ChunkedInputStream.chunkSize(this.origin);
+        this.size = this.chunkSize();
         this.bof = false;
-        this.pos = 0;
-        if (this.size == 0) {
-            this.eof = true;
-        }
-    }
-
-    /**
-     * Expects the stream to start with a chunksize in hex with optional
-     * comments after a semicolon. The line must end with a CRLF: "a3; some
-     * comment\r\n" Positions the stream at the start of the next line.
-     * @param stream The new input stream.
-     * @return The chunk size as integer
-     * @throws IOException when the chunk size could not be parsed
-     */
-    private static int chunkSize(final InputStream stream)
-        throws IOException {
-        final ByteArrayOutputStream baos = ChunkedInputStream.sizeLine(stream);
-        final String data = baos.toString(Charset.defaultCharset().name());
-        final int separator = data.indexOf(';');
-        final Text number = new Trimmed(
-            new Unchecked<>(
-                new Ternary<>(
-                    separator > 0,
-                    new Sub(data, 0, separator),
-                    new TextOf(data)
+        this.pos = 0L;
+        if (this.size > this.chunk) {
+            throw new HttpException(
+                HttpURLConnection.HTTP_ENTITY_TOO_LARGE,
+                String.format(
+                    "chunk of %d bytes is larger than %d allowed",
+                    this.size, this.chunk
                 )
-            ).value()
-        );
-        try {
-            return Integer.parseInt(
-                new UncheckedText(
-                    number
-                ).asString(),
-                16
             );
-        } catch (final NumberFormatException ex) {
-            throw new IOException(
+        }
+        this.received += this.size;
+        if (this.received > this.total) {
+            throw new HttpException(
+                HttpURLConnection.HTTP_ENTITY_TOO_LARGE,
                 String.format(
-                    "Bad chunk size: %s",
-                    baos.toString(Charset.defaultCharset().name())
-                ),
-                ex
+                    "chunked body is larger than %d bytes allowed",
+                    this.total
+                )
             );
         }
+        if (this.size == 0L) {
+            this.eof = true;
+            this.readTrailers();
+        }
     }
 
     /**
-     * Possible states of FSM that used to find chunk size.
-     */
-    private enum State {
-        /**
-         * Normal.
-         */
-        NORMAL,
-        /**
-         * If \r was scanned.
-         */
-        R,
-        /**
-         * Inside quoted string.
-         */
-        QUOTED_STRING,
-        /**
-         * End.
-         */
-        END;
-    }
-
-    /**
-     * Extract line with chunk size from stream.
-     * @param stream Input stream.
-     * @return Line with chunk size.
-     * @throws IOException If fails.
+     * Read trailer headers, up to the empty line or the end of stream.
+     * @throws IOException If an IO error occurs.
      */
-    private static ByteArrayOutputStream sizeLine(final InputStream stream)
-        throws IOException {
-        State state = State.NORMAL;
-        final ByteArrayOutputStream result = new ByteArrayOutputStream();
-        while (state != State.END) {
-            state = next(stream, state, result);
+    private void readTrailers() throws IOException {
+        final List<String> found = new LinkedList<>();
+        String line = this.line();
+        while (line != null && !line.isEmpty()) {
+            if (found.size() == ChunkedInputStream.TRAILERS) {
+                throw new HttpException(
+                    HttpURLConnection.HTTP_BAD_REQUEST,
+                    String.format(
+                        "there are more than %d trailers in chunked body",
+                        ChunkedInputStream.TRAILERS
+                    )
+                );
+            }
+            found.add(line);
+            line = this.line();
         }
-        return result;
+        this.trailers.clear();
+        this.trailers.addAll(found);
     }
 
     /**
-     * Get next state for FSM.
-     * @param stream Input stream.
-     * @param state Current state.
-     * @param line Current chunk size line.
-     * @return New state.
-     * @throws IOException If fails.
+     * Read one line, up to CRLF.
+     * @return The line, without CRLF, or NULL if the stream is over
+     * @throws IOException If an IO error occurs.
      */
-    private static State next(final InputStream stream, final State state,
-        final ByteArrayOutputStream line) throws IOException {
-        final int next = stream.read();
-        if (next == -1) {
-            throw new IOException("chunked stream ended unexpectedly");
-        }
-        final State result;
-        switch (state) {
-            case NORMAL:
-                result = nextNormal(state, line, next);
-                break;
-            case R:
-                if (next == '\n') {
-                    result = State.END;
-                } else {
+    private String line() throws IOException {
+        int length = 0;
+        int next = this.origin.read();
+        final String result;
+        if (next < 0) {
+            result = null;
+        } else {
+            if (this.line == null) {
+                this.line = new byte[ChunkedInputStream.LINE];
+            }
+            final byte[] bytes = this.line;
+            while (next != '\r') {
+                if (next < 0 || length == bytes.length) {
                     throw new IOException(
-                        String.format(
-                            "%s%s",
-                            "Protocol violation: Unexpected",
-                            " single newline character in chunk size"
-                        )
+                        "trailer in chunked body is too long or unterminated"
                     );
                 }
-                break;
-            case QUOTED_STRING:
-                result = nextQuoted(stream, state, line, next);
-                break;
-            default:
-                throw new IllegalStateException("Bad state");
+                bytes[length] = (byte) next;
+                ++length;
+                next = this.origin.read();
+            }
+            if (this.origin.read() != '\n') {
+                throw new IOException(
+                    "Protocol violation: CR without LF in chunk trailer"
+                );
+            }
+            result = new String(bytes, 0, length, StandardCharsets.UTF_8);
         }
         return result;
     }
 
     /**
-     * Maintain next symbol for current state = State.NORMAL.
-     * @param state Current state.
-     * @param line Current chunk size line.
-     * @param next Next symbol.
-     * @return New state.
+     * Expects the stream to start with a chunksize in hex with optional
+     * comments after a semicolon. The line must end with a CRLF: "a3; some
+     * comment\r\n" Positions the stream at the start of the next line.
+     * @return The chunk size
+     * @throws IOException when the chunk size could not be parsed
+     * @checkstyle CyclomaticComplexityCheck (100 lines)
      */
-    private static State nextNormal(final State state,
-        final ByteArrayOutputStream line, final int next) {
-        final State result;
-        switch (next) {
-            case '\r':
-                result = State.R;
-                break;
-            case '\"':
-                result = State.QUOTED_STRING;
-                break;
-            default:
-                result = state;
-                line.write(next);
-                break;
+    @SuppressWarnings("PMD.CognitiveComplexity")
+    private long chunkSize() throws IOException {
+        long value = 0L;
+        int digits = 0;
+        int length = 0;
+        boolean gap = false;
+        boolean ext = false;
+        boolean quoted = false;
+        int next = this.origin.read();
+        while (next != '\r' || quoted) {
+            if (next < 0) {
+                throw new IOException("chunked stream ended unexpectedly");
+            }
+            if (next == '\n') {
+                throw ChunkedInputStream.newline();
+            }
+            ++length;
+            if (length > ChunkedInputStream.LINE) {
+                throw new IOException("Bad chunk size: the line is too long");
+            }
+            if (quoted) {
+                if (next == '\\') {
+                    this.origin.read();
+                } else if (next == '"') {
+                    quoted = false;
+                }
+            } else if (ext) {
+                quoted = next == '"';
+            } else if (next == ';') {
+                ext = true;
+            } else if (Character.digit(next, 16) >= 0 && !gap) {
+                value = (value << 4) + Character.digit(next, 16);
+                ++digits;
+                if (digits > 15) {
+                    throw new IOException(
+                        "Bad chunk size: too many hex digits"
+                    );
+                }
+            } else if (next == ' ' || next == '\t') {
+                gap = digits > 0;
+            } else {
+                throw new IOException(
+                    String.format(
+                        "Bad chunk size: unexpected character 0x%02X",
+                        next
+                    )
+                );
+            }
+            next = this.origin.read();
         }
-        return result;
+        if (this.origin.read() != '\n') {
+            throw ChunkedInputStream.newline();
+        }
+        if (digits == 0) {
+            throw new IOException("Bad chunk size: no hex digits");
+        }
+        return value;
     }
 
     /**
-     * Maintain next symbol for current state = State.QUOTED_STRING.
-     * @param stream Input stream.
-     * @param state Current state.
-     * @param line Current chunk size line.
-     * @param next Next symbol.
-     * @return New state.
-     * @throws IOException If fails.
-     * @checkstyle ParameterNumberCheck (3 lines)
+     * Error about CR and LF not following each other in a chunk size line.
+     * @return Exception
      */
-    private static State nextQuoted(final InputStream stream, final State state,
-        final ByteArrayOutputStream line, final int next)
-        throws IOException {
-        final State result;
-        switch (next) {
-            case '\\':
-                result = state;
-                line.write(stream.read());
-                break;
-            case '\"':
-                result = State.NORMAL;
-                break;
-            default:
-                result = state;
-                line.write(next);
-                break;
-        }
-        return result;
+    private static IOException newline() {
+        return new IOException(
+            String.format(
+                "%s%s",
+                "Protocol violation: Unexpected",
+                " single newline character in chunk size"
+            )
+        );
     }
 }
@@ -0,0 +1,265 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import org.takes.Head;
+import org.takes.Request;
+
+/**
+ * Head of a chain of request decorators, which add and remove headers,
+ * kept as one flat vector of lines.
+ *
+ * <p>Each decorator in the chain adds one step to the head of the
+ * request it decorates, sharing the steps below it. The vector is built
+ * once and cached on each level; it is built again only when the head
+ * of the original request, at the bottom of the chain, is a different
+ * object. Iterating it costs O(n), however deep the chain is.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+final class FlatHead implements Head {
+
+    /**
+     * The level below, or NULL at the bottom.
+     */
+    private final FlatHead parent;
+
+    /**
+     * The head of the original request, at the bottom, or NULL.
+     */
+    private final Head base;
+
+    /**
+     * The step of this level.
+     */
+    private final FlatHead.Step step;
+
+    /**
+     * The last vector built, or NULL.
+     */
+    @SuppressWarnings("PMD.AvoidUsingVolatile")
+    private volatile FlatHead.Built built;
+
+    /**
+     * Ctor.
+     * @param below The level below, or NULL
+     * @param origin The head of the original request, or NULL
+     * @param stp The step of this level
+     */
+    private FlatHead(final FlatHead below, final Head origin,
+        final FlatHead.Step stp) {
+        this.parent = below;
+        this.base = origin;
+        this.step = stp;
+    }
+
+    @Override
+    public Iterable<String> head() throws IOException {
+        return this.lines();
+    }
+
+    /**
+     * Head with more headers.
+     * @param req The request
+     * @param headers Headers to add
+     * @return Head
+     */
+    static FlatHead with(final Request req,
+        final Iterable<? extends CharSequence> headers) {
+        return FlatHead.of(
+            req,
+            lines -> {
+                for (final CharSequence header : headers) {
+                    lines.add(header.toString().trim());
+                }
+            }
+        );
+    }
+
+    /**
+     * Head without headers by the name.
+     * @param req The request
+     * @param name Header name
+     * @return Head
+     */
+    static FlatHead without(final Request req, final CharSequence name) {
+        return FlatHead.of(
+            req,
+            lines -> {
+                final String prefix = FlatHead.prefix(name);
+                lines.removeIf(line -> FlatHead.named(line, prefix));
+            }
+        );
+    }
+
+    /**
+     * Head with the header, if there is no header by its name.
+     * @param req The request
+     * @param name Header name
+     * @param value Header value
+     * @return Head
+     */
+    static FlatHead withDefault(final Request req, final CharSequence name,
+        final CharSequence value) {
+        return FlatHead.of(
+            req,
+            lines -> {
+                final String prefix = FlatHead.prefix(name);
+                boolean found = false;
+                for (final String line : lines) {
+                    if (FlatHead.named(line, prefix)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    lines.add(String.format("%s: %s", name, value).trim());
+                }
+            }
+        );
+    }
+
+    /**
+     * Put one more level on top of the request.
+     *
+     * <p>When the request is a chain of decorators, which is already
+     * flat, the new level shares its steps; otherwise the head of the
+     * request becomes the bottom.
+     *
+     * @param req The request
+     * @param stp The step
+     * @return Head
+     */
+    private static FlatHead of(final Request req, final FlatHead.Step stp) {
+        Request origin = req;
+        while (origin instanceof RqWrap) {
+            origin = ((RqWrap) origin).origin();
+        }
+        FlatHead below = null;
+        if (origin instanceof RequestOf) {
+            final Head head = ((RequestOf) origin).source();
+            if (head instanceof FlatHead) {
+                below = (FlatHead) head;
+            }
+        }
+        final FlatHead result;
+        if (below == null) {
+            result = new FlatHead(null, req::head, stp);
+        } else {
+            result = new FlatHead(below, null, stp);
+        }
+        return result;
+    }
+
+    /**
+     * Build the vector of lines, or take it from cache.
+     * @return Lines
+     * @throws IOException If fails
+     */
+    private List<String> lines() throws IOException {
+        final Iterable<String> source;
+        if (this.parent == null) {
+            source = this.base.head();
+        } else {
+            source = this.parent.lines();
+        }
+        FlatHead.Built last = this.built;
+        if (last == null || last.source != source) {
+            final List<String> list = new ArrayList<>(0);
+            for (final String line : source) {
+                list.add(line);
+            }
+            this.step.apply(list);
+            last = new FlatHead.Built(
+                source, Collections.unmodifiableList(list)
+            );
+            this.built = last;
+        }
+        return last.lines;
+    }
+
+    /**
+     * Header prefix, in lower case.
+     * @param name Header name
+     * @return Prefix
+     */
+    private static String prefix(final CharSequence name) {
+        return String.format("%s:", name).toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Does the line start with the prefix, ignoring case?
+     * @param line The line
+     * @param prefix Header prefix, in lower case
+     * @return TRUE if it does
+     */
+    private static boolean named(final String line, final String prefix) {
+        return line.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    /**
+     * Step, which changes the lines.
+     * @since 2.0
+     */
+    private interface Step {
+        /**
+         * Change the lines.
+         * @param lines The lines
+         */
+        void apply(List<String> lines);
+    }
+
+    /**
+     * Vector of lines, built from the source.
+     * @since 2.0
+     */
+    private static final class Built {
+        /**
+         * The lines of the level below, which it's built from.
+         */
+        private final Iterable<String> source;
+
+        /**
+         * The lines.
+         */
+        private final List<String> lines;
+
+        /**
+         * Ctor.
+         * @param src The lines of the level below
+         * @param list The lines
+         */
+        Built(final Iterable<String> src, final List<String> list) {
+            this.source = src;
+            this.lines = list;
+        }
+    }
+}
@@ -0,0 +1,456 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.SequenceInputStream;
+import java.net.HttpURLConnection;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+import org.takes.HttpException;
+import org.takes.misc.Pool;
+
+/**
+ * Input stream that inflates gzip or deflate coded request body.
+ *
+ * <p>The stream decodes the body as it is being read, never holding
+ * more than one buffer of it in memory. The amount of decoded bytes
+ * is limited, to protect against decompression bombs: when the limit
+ * is exceeded the stream fails with {@link HttpException} with
+ * code 413. Broken data fails with code 400.
+ *
+ * <p>Inflaters are taken from a shared pool and given back there
+ * when the stream is closed.
+ *
+ * @link <a href="https://www.rfc-editor.org/rfc/rfc1952">GZIP file format</a>
+ * @since 2.0
+ */
+final class InflatingInputStream extends InflaterInputStream {
+
+    /**
+     * Size of the buffer.
+     */
+    private static final int SIZE = 8192;
+
+    /**
+     * How many idle inflaters to keep in each pool.
+     */
+    private static final int IDLE = 32;
+
+    /**
+     * Pool of inflaters for raw deflate data, used by gzip too.
+     */
+    private static final Pool<Inflater> RAW = new Pool<>(
+        InflatingInputStream.IDLE,
+        () -> new Inflater(true), Inflater::reset, Inflater::end
+    );
+
+    /**
+     * Pool of inflaters for zlib wrapped deflate data.
+     */
+    private static final Pool<Inflater> ZLIB = new Pool<>(
+        InflatingInputStream.IDLE,
+        Inflater::new, Inflater::reset, Inflater::end
+    );
+
+    /**
+     * Gzip header flag: text.
+     */
+    private static final int FTEXT = 1;
+
+    /**
+     * Gzip header flag: header CRC.
+     */
+    private static final int FHCRC = 2;
+
+    /**
+     * Gzip header flag: extra field.
+     */
+    private static final int FEXTRA = 4;
+
+    /**
+     * Gzip header flag: file name.
+     */
+    private static final int FNAME = 8;
+
+    /**
+     * Gzip header flag: comment.
+     */
+    private static final int FCOMMENT = 16;
+
+    /**
+     * Where the inflater goes back to.
+     */
+    private final Pool<Inflater> pool;
+
+    /**
+     * Is it gzip, with header and trailer around the data?
+     */
+    private final boolean gzip;
+
+    /**
+     * Maximum amount of decoded bytes.
+     */
+    private final long limit;
+
+    /**
+     * Checksum of the current gzip member.
+     */
+    private final CRC32 crc;
+
+    /**
+     * Amount of decoded bytes so far.
+     */
+    private long produced;
+
+    /**
+     * Amount of decoded bytes in the current gzip member.
+     */
+    private long member;
+
+    /**
+     * True if the end of the data is reached.
+     */
+    private boolean done;
+
+    /**
+     * True if the stream is closed.
+     */
+    private boolean closed;
+
+    /**
+     * Ctor.
+     * @param stream The coded stream, positioned at the data
+     * @param inflaters Pool of inflaters to use
+     * @param gzp Is it gzip?
+     * @param max Maximum amount of decoded bytes
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private InflatingInputStream(final InputStream stream,
+        final Pool<Inflater> inflaters, final boolean gzp, final long max) {
+        super(stream, inflaters.take(), InflatingInputStream.SIZE);
+        this.pool = inflaters;
+        this.gzip = gzp;
+        this.limit = max;
+        this.crc = new CRC32();
+    }
+
+    /**
+     * Decode gzip coded stream.
+     * @param stream The coded stream
+     * @param max Maximum amount of decoded bytes
+     * @return Decoded stream
+     * @throws IOException If fails
+     */
+    static InputStream gzip(final InputStream stream, final long max)
+        throws IOException {
+        InflatingInputStream.header(
+            stream, InflatingInputStream.next(stream)
+        );
+        return new InflatingInputStream(
+            stream, InflatingInputStream.RAW, true, max
+        );
+    }
+
+    /**
+     * Decode deflate coded stream.
+     *
+     * <p>HTTP says it is zlib wrapped deflate data, but some clients
+     * send raw deflate data, without the zlib header. Both are accepted.
+     *
+     * @param stream The coded stream
+     * @param max Maximum amount of decoded bytes
+     * @return Decoded stream
+     * @throws IOException If fails
+     */
+    static InputStream deflate(final InputStream stream, final long max)
+        throws IOException {
+        final PushbackInputStream input = new PushbackInputStream(stream, 2);
+        final byte[] head = new byte[2];
+        int got = 0;
+        int step = 0;
+        while (got < head.length && step >= 0) {
+            step = input.read(head, got, head.length - got);
+            if (step > 0) {
+                got += step;
+            }
+        }
+        input.unread(head, 0, got);
+        final Pool<Inflater> inflaters;
+        if (got == head.length && InflatingInputStream.zlib(head)) {
+            inflaters = InflatingInputStream.ZLIB;
+        } else {
+            inflaters = InflatingInputStream.RAW;
+        }
+        return new InflatingInputStream(input, inflaters, false, max);
+    }
+
+    @Override
+    public int read(final byte[] buf, final int off, final int len)
+        throws IOException {
+        int got = -1;
+        while (!this.done && got < 0) {
+            try {
+                got = super.read(buf, off, len);
+            } catch (final ZipException | EOFException ex) {
+                throw new HttpException(
+                    HttpURLConnection.HTTP_BAD_REQUEST,
+                    "Broken compressed body",
+                    ex
+                );
+            }
+            if (got < 0) {
+                this.finish();
+            } else {
+                this.count(buf, off, got);
+            }
+        }
+        return got;
+    }
+
+    @Override
+    public int available() throws IOException {
+        final int result;
+        if (this.done) {
+            result = 0;
+        } else {
+            result = super.available();
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!this.closed) {
+            this.closed = true;
+            try {
+                super.close();
+            } finally {
+                this.pool.give(this.inf);
+            }
+        }
+    }
+
+    /**
+     * Count decoded bytes.
+     * @param buf Buffer
+     * @param off Offset of the decoded bytes
+     * @param len Amount of the decoded bytes
+     * @throws HttpException If the limit is exceeded
+     */
+    private void count(final byte[] buf, final int off, final int len)
+        throws HttpException {
+        this.produced += len;
+        if (this.produced > this.limit) {
+            throw new HttpException(
+                HttpURLConnection.HTTP_ENTITY_TOO_LARGE,
+                String.format(
+                    "Decompressed body is larger than %d bytes",
+                    this.limit
+                )
+            );
+        }
+        if (this.gzip) {
+            this.crc.update(buf, off, len);
+            this.member += len;
+        }
+    }
+
+    /**
+     * The inflater reached the end of the data.
+     *
+     * <p>For gzip the trailer is checked and, if another member
+     * follows, the inflater is reset to decode it too.
+     *
+     * @throws IOException If fails
+     */
+    private void finish() throws IOException {
+        if (this.gzip) {
+            final int rest = this.inf.getRemaining();
+            if (rest > 0) {
+                this.in = new SequenceInputStream(
+                    new ByteArrayInputStream(
+                        Arrays.copyOfRange(this.buf, this.len - rest, this.len)
+                    ),
+                    this.in
+                );
+            }
+            this.trailer();
+            final int first = this.in.read();
+            if (first < 0) {
+                this.done = true;
+            } else {
+                InflatingInputStream.header(this.in, first);
+                this.inf.reset();
+                this.crc.reset();
+                this.member = 0L;
+            }
+        } else {
+            this.done = true;
+        }
+    }
+
+    /**
+     * Read and check gzip trailer.
+     * @throws IOException If fails
+     */
+    private void trailer() throws IOException {
+        final long sum = InflatingInputStream.integer(this.in);
+        final long size = InflatingInputStream.integer(this.in);
+        if (sum != this.crc.getValue()) {
+            throw new HttpException(
+                HttpURLConnection.HTTP_BAD_REQUEST,
+                "Wrong CRC in gzip body"
+            );
+        }
+        if (size != (this.member & 0xffffffffL)) {
+            throw new HttpException(
+                HttpURLConnection.HTTP_BAD_REQUEST,
+                "Wrong size in gzip body"
+            );
+        }
+    }
+
+    /**
+     * Read and skip gzip member header.
+     * @param stream The stream
+     * @param first First byte of the header, already read
+     * @throws IOException If fails
+     */
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    private static void header(final InputStream stream, final int first)
+        throws IOException {
+        // @checkstyle MagicNumberCheck (3 lines)
+        if (first != 0x1f || InflatingInputStream.next(stream) != 0x8b
+            || InflatingInputStream.next(stream) != 8) {
+            throw new HttpException(
+                HttpURLConnection.HTTP_BAD_REQUEST,
+                "Not in gzip format"
+            );
+        }
+        final int flags = InflatingInputStream.next(stream);
+        // @checkstyle MagicNumberCheck (1 line)
+        InflatingInputStream.skip(stream, 6);
+        if ((flags & InflatingInputStream.FEXTRA) != 0) {
+            InflatingInputStream.skip(
+                stream,
+                InflatingInputStream.next(stream)
+                    | InflatingInputStream.next(stream) << 8
+            );
+        }
+        if ((flags & InflatingInputStream.FNAME) != 0) {
+            InflatingInputStream.zero(stream);
+        }
+        if ((flags & InflatingInputStream.FCOMMENT) != 0) {
+            InflatingInputStream.zero(stream);
+        }
+        if ((flags & InflatingInputStream.FHCRC) != 0) {
+            InflatingInputStream.skip(stream, 2);
+        }
+        if ((flags & ~(InflatingInputStream.FTEXT | InflatingInputStream.FHCRC
+            | InflatingInputStream.FEXTRA | InflatingInputStream.FNAME
+            | InflatingInputStream.FCOMMENT)) != 0) {
+            throw new HttpException(
+                HttpURLConnection.HTTP_BAD_REQUEST,
+                "Unknown flags in gzip header"
+            );
+        }
+    }
+
+    /**
+     * Is it a zlib header?
+     * @param head First two bytes
+     * @return TRUE if it is
+     */
+    private static boolean zlib(final byte[] head) {
+        final int cmf = head[0] & 0xff;
+        final int flg = head[1] & 0xff;
+        // @checkstyle MagicNumberCheck (1 line)
+        return (cmf & 0x0f) == 8 && (cmf << 8 | flg) % 31 == 0;
+    }
+
+    /**
+     * Read little-endian unsigned 32-bit integer.
+     * @param stream The stream
+     * @return The integer
+     * @throws IOException If fails
+     */
+    private static long integer(final InputStream stream) throws IOException {
+        long value = 0L;
+        // @checkstyle MagicNumberCheck (3 lines)
+        for (int idx = 0; idx < 4; ++idx) {
+            value |= (long) InflatingInputStream.next(stream) << (idx * 8);
+        }
+        return value;
+    }
+
+    /**
+     * Skip bytes up to and including the zero byte.
+     * @param stream The stream
+     * @throws IOException If fails
+     */
+    private static void zero(final InputStream stream) throws IOException {
+        int next = InflatingInputStream.next(stream);
+        while (next != 0) {
+            next = InflatingInputStream.next(stream);
+        }
+    }
+
+    /**
+     * Skip bytes.
+     * @param stream The stream
+     * @param count How many
+     * @throws IOException If fails
+     */
+    private static void skip(final InputStream stream, final int count)
+        throws IOException {
+        for (int idx = 0; idx < count; ++idx) {
+            InflatingInputStream.next(stream);
+        }
+    }
+
+    /**
+     * Read next byte, which must be there.
+     * @param stream The stream
+     * @return The byte
+     * @throws IOException If fails
+     */
+    private static int next(final InputStream stream) throws IOException {
+        final int next = stream.read();
+        if (next < 0) {
+            throw new HttpException(
+                HttpURLConnection.HTTP_BAD_REQUEST,
+                "Unexpected end of compressed body"
+            );
+        }
+        return next;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import org.takes.Body;
+import org.takes.misc.TempStorage;
+
+/**
+ * Body that can be read any number of times.
+ *
+ * <p>The original body is read once, on the first call to
+ * {@link #body()} or {@link #load()}, byte by byte as it is, without
+ * decoding it to text. A small body is kept in memory, in one byte
+ * array, which every new stream reads without copying. A body larger
+ * than the threshold is moved to a temporary file in
+ * the {@link TempStorage}, which is deleted when this object and all
+ * streams opened from it are gone.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 2.0
+ */
+final class ReplayBody implements Body {
+
+    /**
+     * Default maximum amount of bytes to keep in memory.
+     */
+    private static final int THRESHOLD = 64 * 1024;
+
+    /**
+     * Size of the buffer to read with.
+     */
+    private static final int SIZE = 8192;
+
+    /**
+     * Original body.
+     */
+    private final Body origin;
+
+    /**
+     * Maximum amount of bytes to keep in memory.
+     */
+    private final int threshold;
+
+    /**
+     * Storage of temporary files.
+     */
+    private final TempStorage storage;
+
+    /**
+     * Bytes kept in memory, when they are not in a file.
+     */
+    private byte[] bytes;
+
+    /**
+     * Amount of bytes in memory.
+     */
+    private int count;
+
+    /**
+     * Temporary file, when the body is there.
+     */
+    private TempStorage.Entry file;
+
+    /**
+     * Is the original body read already?
+     */
+    private boolean loaded;
+
+    /**
+     * Ctor.
+     * @param body Original body
+     */
+    ReplayBody(final Body body) {
+        this(body, ReplayBody.THRESHOLD, TempStorage.shared());
+    }
+
+    /**
+     * Ctor.
+     * @param body Original body
+     * @param max Maximum amount of bytes to keep in memory
+     * @param temp Storage of temporary files
+     */
+    ReplayBody(final Body body, final int max, final TempStorage temp) {
+        this.origin = body;
+        this.threshold = max;
+        this.storage = temp;
+    }
+
+    @Override
+    public InputStream body() throws IOException {
+        this.load();
+        final InputStream stream;
+        synchronized (this) {
+            if (this.file == null) {
+                stream = new ByteArrayInputStream(this.bytes, 0, this.count);
+            } else {
+                stream = this.file.input();
+            }
+        }
+        return stream;
+    }
+
+    /**
+     * Read the original body, unless it's read already.
+     * @throws IOException If fails
+     */
+    @SuppressWarnings("PMD.AvoidSynchronizedAtMethodLevel")
+    synchronized void load() throws IOException {
+        if (!this.loaded) {
+            final InputStream input = this.origin.body();
+            final long cap = this.threshold + 1L;
+            byte[] buf = new byte[(int) Math.min(ReplayBody.SIZE, cap)];
+            int size = 0;
+            int got = input.read(buf);
+            while (got >= 0 && size + got <= this.threshold) {
+                size += got;
+                if (size == buf.length) {
+                    buf = Arrays.copyOf(
+                        buf, (int) Math.min(buf.length * 2L, cap)
+                    );
+                }
+                got = input.read(buf, size, buf.length - size);
+            }
+            if (got < 0) {
+                this.bytes = buf;
+                this.count = size;
+            } else {
+                this.spill(input, buf, size + got);
+            }
+            this.loaded = true;
+        }
+    }
+
+    /**
+     * Move the body to a temporary file.
+     * @param input The rest of the original body
+     * @param buf Bytes read so far
+     * @param size Amount of them
+     * @throws IOException If fails
+     */
+    private void spill(final InputStream input, final byte[] buf,
+        final int size) throws IOException {
+        final TempStorage.Entry entry = this.storage.create();
+        try (OutputStream output = entry.output()) {
+            output.write(buf, 0, size);
+            int got = input.read(buf);
+            while (got >= 0) {
+                output.write(buf, 0, got);
+                got = input.read(buf);
+            }
+        } catch (final IOException ex) {
+            entry.release();
+            throw ex;
+        }
+        this.file = entry.releasedWith(this);
+    }
+}
@@ -86,6 +86,14 @@ public final class RequestOf implements Request {
         return this.sbody.body();
     }
 
+    /**
+     * Where the head comes from.
+     * @return Head
+     */
+    Head source() {
+        return this.shead;
+    }
+
     @Override
     @SuppressFBWarnings("EQ_UNUSUAL")
     public boolean equals(final Object that) {
@@ -25,47 +25,174 @@ package org.takes.rq;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
 import lombok.EqualsAndHashCode;
+import org.cactoos.iterable.Filtered;
+import org.cactoos.iterable.Joined;
 import org.takes.Request;
 
 /**
  * Request decorator that limits its body, according to
  * the chunk sizes when it is a chunked Transfer-Encoding.
  *
+ * <p>Trailer headers, which may follow the last chunk, are available
+ * through {@link #trailers()} once the body is read to the end. Only
+ * the few of them that are safe to merge, like {@code Content-Digest}
+ * or {@code Server-Timing}, are added to the head of the request too,
+ * as RFC 9110, section 6.5.1, requires: a client must not be able
+ * to send {@code Host}, {@code Content-Length}, {@code Authorization},
+ * {@code Cookie} or any other header after the body.
+ *
+ * <p>Since the body is decoded, the {@code Transfer-Encoding: chunked}
+ * header is removed from the head, so that the request is not decoded
+ * once again by another decorator, like {@link RqGreedy}.
+ *
+ * <p>The sizes of one chunk and of all chunks together may be limited;
+ * when a limit is exceeded the body fails with
+ * {@link org.takes.HttpException} with code 413.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.15
  * @see org.takes.rq.RqPrint
  */
-@EqualsAndHashCode(callSuper = true)
+@EqualsAndHashCode(callSuper = true, exclude = "found")
 public final class RqChunk extends RqWrap {
 
+    /**
+     * Names of trailer headers that are merged into the head, in lower case.
+     */
+    private static final Collection<String> SAFE = new HashSet<>(
+        Arrays.asList(
+            "content-digest",
+            "repr-digest",
+            "digest",
+            "content-md5",
+            "server-timing"
+        )
+    );
+
+    /**
+     * Trailer headers, filled when the body is read.
+     */
+    private final Collection<String> found;
+
     /**
      * Ctor.
      * @param req Original request
      */
     public RqChunk(final Request req) {
+        this(req, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Ctor.
+     * @param req Original request
+     * @param chunk Maximum size of one chunk, in bytes
+     * @param total Maximum size of all chunks together, in bytes
+     */
+    public RqChunk(final Request req, final long chunk, final long total) {
+        this(req, chunk, total, new CopyOnWriteArrayList<>());
+    }
+
+    /**
+     * Ctor.
+     * @param req Original request
+     * @param chunk Maximum size of one chunk, in bytes
+     * @param total Maximum size of all chunks together, in bytes
+     * @param trailers Trailer headers, filled when the body is read
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private RqChunk(final Request req, final long chunk, final long total,
+        final Collection<String> trailers) {
         super(
             new RequestOf(
-                req::head,
-                () -> RqChunk.cap(req)
+                () -> RqChunk.head(req, trailers),
+                () -> RqChunk.cap(req, chunk, total, trailers)
             )
         );
+        this.found = trailers;
     }
 
     /**
-     * Cap the steam.
+     * All trailer headers, which followed the last chunk. They are known
+     * only after the body is read to the end.
+     * @return Trailer headers, as "name: value" lines
+     */
+    public Iterable<String> trailers() {
+        return Collections.unmodifiableCollection(this.found);
+    }
+
+    /**
+     * Head of the decoded request.
      * @param req Request
-     * @return Stream with a cap
+     * @param trailers Trailer headers found so far
+     * @return Head without the chunked Transfer-Encoding, with safe trailers
+     * @throws IOException If fails
+     */
+    private static Iterable<String> head(final Request req,
+        final Collection<String> trailers) throws IOException {
+        final Iterable<String> head;
+        if (RqChunk.chunked(req)) {
+            head = new RqWithoutHeader(req, "Transfer-Encoding").head();
+        } else {
+            head = req.head();
+        }
+        return new Joined<String>(
+            head,
+            new Filtered<>(RqChunk::safe, trailers)
+        );
+    }
+
+    /**
+     * Is the body of the request chunked?
+     * @param req Request
+     * @return TRUE if its Transfer-Encoding is chunked
      * @throws IOException If fails
      */
-    private static InputStream cap(final Request req) throws IOException {
+    private static boolean chunked(final Request req) throws IOException {
         final Iterator<String> hdr = new RqHeaders.Base(req)
             .header("Transfer-Encoding").iterator();
+        return hdr.hasNext()
+            && "chunked".equalsIgnoreCase(hdr.next().trim());
+    }
+
+    /**
+     * Is it safe to merge this trailer into the head?
+     * @param line Trailer header
+     * @return TRUE if its name is in the allow-list
+     */
+    private static boolean safe(final String line) {
+        final int colon = line.indexOf(':');
+        return colon > 0 && RqChunk.SAFE.contains(
+            line.substring(0, colon).trim().toLowerCase(Locale.ENGLISH)
+        );
+    }
+
+    /**
+     * Cap the steam.
+     * @param req Request
+     * @param chunk Maximum size of one chunk, in bytes
+     * @param total Maximum size of all chunks together, in bytes
+     * @param trailers Where to put trailer headers
+     * @return Stream with a cap
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static InputStream cap(final Request req, final long chunk,
+        final long total, final Collection<String> trailers)
+        throws IOException {
         final InputStream result;
-        if (hdr.hasNext() && "chunked".equalsIgnoreCase(hdr.next())) {
-            result = new ChunkedInputStream(req.body());
+        if (RqChunk.chunked(req)) {
+            result = new ChunkedInputStream(
+                req.body(), chunk, total, trailers
+            );
         } else {
             result = req.body();
         }
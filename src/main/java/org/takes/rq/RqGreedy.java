@@ -23,8 +23,6 @@
  */
 package org.takes.rq;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import lombok.EqualsAndHashCode;
 import org.takes.Request;
@@ -32,6 +30,11 @@ import org.takes.Request;
 /**
  * Request decorator, for HTTP request caching.
  *
+ * <p>The body is read right away, as it is, and can be read again
+ * any number of times. A large body is kept in a temporary file,
+ * not in memory. A chunked body is decoded, and its
+ * {@code Transfer-Encoding} header is removed from the head.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.10
@@ -55,12 +58,10 @@ public final class RqGreedy extends RqWrap {
      * @throws IOException If fails
      */
     private static Request consume(final Request req) throws IOException {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        new RqPrint(req).printBody(baos);
-        return new RequestOf(
-            req::head,
-            () -> new ByteArrayInputStream(baos.toByteArray())
-        );
+        final Request decoded = new RqChunk(new RqLengthAware(req));
+        final ReplayBody body = new ReplayBody(decoded);
+        body.load();
+        return new RequestOf(decoded::head, body);
     }
 
 }
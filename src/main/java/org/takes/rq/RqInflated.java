@@ -0,0 +1,164 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import lombok.EqualsAndHashCode;
+import org.takes.HttpException;
+import org.takes.Request;
+
+/**
+ * Request decorator that decodes its body, according to
+ * the Content-Encoding header in its head.
+ *
+ * <p>The body is inflated as it is being read, both "gzip" and
+ * "deflate" codings are supported. The amount of decoded bytes
+ * is limited, to protect against decompression bombs: when the limit
+ * is exceeded the body fails with {@link HttpException}
+ * with code 413. Other codings fail with code 415.
+ *
+ * <p>When the body is coded, its head loses Content-Encoding,
+ * Content-Length and Transfer-Encoding headers, since they don't
+ * describe the decoded body anymore.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ * @see org.takes.rq.RqChunk
+ * @see org.takes.rq.RqLengthAware
+ */
+@EqualsAndHashCode(callSuper = true)
+public final class RqInflated extends RqWrap {
+
+    /**
+     * Default maximum size of the decoded body, in bytes.
+     */
+    private static final long LIMIT = 64L << 20;
+
+    /**
+     * Ctor.
+     * @param req Original request
+     */
+    public RqInflated(final Request req) {
+        this(req, RqInflated.LIMIT);
+    }
+
+    /**
+     * Ctor.
+     * @param req Original request
+     * @param limit Maximum size of the decoded body, in bytes
+     */
+    public RqInflated(final Request req, final long limit) {
+        super(
+            new RequestOf(
+                () -> RqInflated.head(req),
+                () -> RqInflated.decode(req, limit)
+            )
+        );
+    }
+
+    /**
+     * Head of the request.
+     * @param req Request
+     * @return Head without headers of the coded body
+     * @throws IOException If fails
+     */
+    private static Iterable<String> head(final Request req)
+        throws IOException {
+        final Iterable<String> head;
+        if (RqInflated.codings(req).isEmpty()) {
+            head = req.head();
+        } else {
+            head = new RqWithoutHeader(
+                new RqWithoutHeader(
+                    new RqWithoutHeader(req, "Content-Encoding"),
+                    "Content-Length"
+                ),
+                "Transfer-Encoding"
+            ).head();
+        }
+        return head;
+    }
+
+    /**
+     * Decode the body.
+     * @param req Request
+     * @param limit Maximum size of the decoded body, in bytes
+     * @return Decoded stream
+     * @throws IOException If fails
+     */
+    private static InputStream decode(final Request req, final long limit)
+        throws IOException {
+        final List<String> codings = RqInflated.codings(req);
+        InputStream body;
+        if (codings.isEmpty()) {
+            body = req.body();
+        } else {
+            body = new RqChunk(new RqLengthAware(req)).body();
+            for (int idx = codings.size() - 1; idx >= 0; --idx) {
+                final String coding = codings.get(idx);
+                if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                    body = InflatingInputStream.gzip(body, limit);
+                } else if ("deflate".equals(coding)) {
+                    body = InflatingInputStream.deflate(body, limit);
+                } else {
+                    throw new HttpException(
+                        HttpURLConnection.HTTP_UNSUPPORTED_TYPE,
+                        String.format(
+                            "Unsupported Content-Encoding: %s", coding
+                        )
+                    );
+                }
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Codings applied to the body, in the order of application.
+     * @param req Request
+     * @return Codings, lower case, without "identity"
+     * @throws IOException If fails
+     */
+    private static List<String> codings(final Request req)
+        throws IOException {
+        final List<String> codings = new ArrayList<>(1);
+        for (final String value
+            : new RqHeaders.Base(req).header("Content-Encoding")) {
+            for (final String part : value.split(",")) {
+                final String coding = part.trim().toLowerCase(Locale.ENGLISH);
+                if (!coding.isEmpty() && !"identity".equals(coding)) {
+                    codings.add(coding);
+                }
+            }
+        }
+        return codings;
+    }
+
+}
@@ -23,18 +23,19 @@
  */
 package org.takes.rq;
 
-import java.io.InputStream;
 import lombok.EqualsAndHashCode;
-import org.cactoos.Scalar;
-import org.cactoos.io.InputStreamOf;
 import org.cactoos.scalar.IoChecked;
 import org.cactoos.scalar.Sticky;
-import org.cactoos.text.TextOf;
 import org.takes.Request;
 
 /**
  * Request decorator, to prevent multiple calls to {@code body()} method.
  *
+ * <p>The body of the original request is read only once, as it is,
+ * when it is needed for the first time. Then it can be read again
+ * any number of times. A large body is kept in a temporary file,
+ * not in memory.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.36
@@ -53,18 +54,7 @@ public final class RqOnce extends RqWrap {
         super(
             new RequestOf(
                 new IoChecked<>(new Sticky<>(req::head))::value,
-                new IoChecked<>(
-                    new Scalar<InputStream>() {
-                        private final Scalar<String> text = new Sticky<>(
-                            new TextOf(req::body)::asString
-                        );
-
-                        @Override
-                        public InputStream value() throws Exception {
-                            return new InputStreamOf(this.text.value());
-                        }
-                    }
-                )::value
+                new ReplayBody(req::body)
             )
         );
     }
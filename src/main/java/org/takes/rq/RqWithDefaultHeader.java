@@ -28,6 +28,10 @@ import org.takes.Request;
 
 /**
  * Request with default header.
+ *
+ * <p>The header is added only if the original request doesn't
+ * have a header by the same name.
+ *
  * @since 0.31
  */
 public final class RqWithDefaultHeader extends RqWrap {
@@ -42,26 +46,9 @@ public final class RqWithDefaultHeader extends RqWrap {
     public RqWithDefaultHeader(final Request req,
         final String hdr,
         final String val) throws IOException {
-        super(RqWithDefaultHeader.build(req, hdr, val));
-    }
-
-    /**
-     * Builds the request with the default header if it is not already present.
-     * @param req Original request.
-     * @param hdr Header name.
-     * @param val Header value.
-     * @return The new request.
-     * @throws IOException in case of request errors
-     */
-    private static Request build(final Request req,
-        final String hdr, final String val) throws IOException {
-        final Request request;
-        if (new RqHeaders.Base(req).header(hdr).iterator().hasNext()) {
-            request = req;
-        } else {
-            request = new RqWithHeader(req, hdr, val);
-        }
-        return request;
+        super(
+            new RequestOf(FlatHead.withDefault(req, hdr, val), req::body)
+        );
     }
 
 }
@@ -24,12 +24,7 @@
 package org.takes.rq;
 
 import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.List;
 import lombok.EqualsAndHashCode;
-import org.cactoos.text.TextOf;
-import org.cactoos.text.Trimmed;
-import org.cactoos.text.UncheckedText;
 import org.takes.Request;
 
 /**
@@ -58,24 +53,6 @@ public final class RqWithHeaders extends RqWrap {
      */
     public RqWithHeaders(final Request req,
         final Iterable<? extends CharSequence> headers) {
-        super(
-            new RequestOf(
-                () -> {
-                    final List<String> head = new LinkedList<>();
-                    for (final String hdr : req.head()) {
-                        head.add(hdr);
-                    }
-                    for (final CharSequence header : headers) {
-                        head.add(
-                            new UncheckedText(
-                                new Trimmed(new TextOf(header))
-                            ).asString()
-                        );
-                    }
-                    return head;
-                },
-                req::body
-            )
-        );
+        super(new RequestOf(FlatHead.with(req, headers), req::body));
     }
 }
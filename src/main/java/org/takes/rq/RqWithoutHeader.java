@@ -24,11 +24,6 @@
 package org.takes.rq;
 
 import lombok.EqualsAndHashCode;
-import org.cactoos.iterable.Filtered;
-import org.cactoos.scalar.Not;
-import org.cactoos.text.FormattedText;
-import org.cactoos.text.Lowered;
-import org.cactoos.text.StartsWith;
 import org.takes.Request;
 
 /**
@@ -47,24 +42,7 @@ public final class RqWithoutHeader extends RqWrap {
      * @param name Header name
      */
     public RqWithoutHeader(final Request req, final CharSequence name) {
-        super(
-            // @checkstyle AnonInnerLengthCheck (50 lines)
-            new RequestOf(
-                () -> new Filtered<>(
-                    header -> new Not(
-                        new StartsWith(
-                            new Lowered(header),
-                            new FormattedText(
-                                "%s:",
-                                new Lowered(name.toString())
-                            )
-                        )
-                    ).value(),
-                    req.head()
-                ),
-                req::body
-            )
-        );
+        super(new RequestOf(FlatHead.without(req, name), req::body));
     }
 
 }
@@ -61,4 +61,12 @@ public class RqWrap implements Request {
         return this.origin.body();
     }
 
+    /**
+     * The original request.
+     * @return Request
+     */
+    final Request origin() {
+        return this.origin;
+    }
+
 }
@@ -31,6 +31,13 @@ import java.nio.channels.WritableByteChannel;
 /**
  * Copy bytes until boundary reached.
  *
+ * <p>The boundary is found with a Boyer-Moore-Horspool skip table,
+ * so that most of the bytes in the buffer are never compared with it.
+ * When the buffer is over, its tail that may be the beginning of
+ * the boundary is kept and the buffer is refilled from the source.
+ * The capacity of the buffer must be not smaller than the length
+ * of the boundary.
+ *
  * @since 1.19
  */
 public final class CopyBytesUntilBoundary {
@@ -48,7 +55,7 @@ public final class CopyBytesUntilBoundary {
     /**
      * Boundary.
      */
-    private final byte[] boundary;
+    private final Delimiter boundary;
 
     /**
      * Source.
@@ -71,49 +78,84 @@ public final class CopyBytesUntilBoundary {
     ) {
         this.buffer = buffer;
         this.target = target;
-        this.boundary = boundary.clone();
+        this.boundary = new Delimiter(boundary);
         this.src = src;
     }
 
     /**
      * Run pipeline.
      * @throws IOException If problems found in
-     * @checkstyle ExecutableStatementCountCheck (500 lines)
      */
     public void copy() throws IOException {
-        int match = 0;
+        final int length = this.boundary.length();
         boolean cont = true;
         while (cont) {
-            if (!this.buffer.hasRemaining()) {
-                this.buffer.clear();
-                for (int idx = 0; idx < match; ++idx) {
-                    this.buffer.put(this.boundary[idx]);
-                }
-                match = 0;
-                if (this.src.read(this.buffer) == -1) {
-                    break;
-                }
+            final int found = this.find();
+            if (found >= 0) {
+                this.write(found);
+                this.buffer.position(found + length);
+                cont = false;
+            } else {
+                this.write(
+                    Math.max(
+                        this.buffer.position(),
+                        this.buffer.limit() - length + 1
+                    )
+                );
+                this.buffer.compact();
+                final int read = this.src.read(this.buffer);
                 this.buffer.flip();
-            }
-            final ByteBuffer btarget = this.buffer.slice();
-            final int offset = this.buffer.position();
-            btarget.limit(0);
-            while (this.buffer.hasRemaining()) {
-                final byte data = this.buffer.get();
-                if (data == this.boundary[match]) {
-                    ++match;
-                } else if (data == this.boundary[0]) {
-                    match = 1;
-                } else {
-                    match = 0;
-                    btarget.limit(this.buffer.position() - offset);
-                }
-                if (match == this.boundary.length) {
+                if (read < 0) {
+                    this.write(this.buffer.limit());
                     cont = false;
-                    break;
                 }
             }
-            this.target.write(btarget);
         }
     }
+
+    /**
+     * Write the bytes from the position of the buffer till the given
+     * position to the target and move the buffer there.
+     * @param till Position after the last byte to write
+     * @throws IOException If fails
+     */
+    private void write(final int till) throws IOException {
+        final ByteBuffer chunk = this.buffer.duplicate();
+        chunk.limit(till);
+        while (chunk.hasRemaining()) {
+            this.target.write(chunk);
+        }
+        this.buffer.position(till);
+    }
+
+    /**
+     * Find the boundary among the remaining bytes of the buffer.
+     * @return Its absolute position in the buffer or -1 if not found
+     */
+    private int find() {
+        final int found;
+        if (this.buffer.hasArray()) {
+            final int offset = this.buffer.arrayOffset();
+            final int pos = this.boundary.find(
+                this.buffer.array(),
+                offset + this.buffer.position(),
+                offset + this.buffer.limit()
+            );
+            if (pos < 0) {
+                found = -1;
+            } else {
+                found = pos - offset;
+            }
+        } else {
+            final byte[] bytes = new byte[this.buffer.remaining()];
+            this.buffer.duplicate().get(bytes);
+            final int pos = this.boundary.find(bytes, 0, bytes.length);
+            if (pos < 0) {
+                found = -1;
+            } else {
+                found = pos + this.buffer.position();
+            }
+        }
+        return found;
+    }
 }
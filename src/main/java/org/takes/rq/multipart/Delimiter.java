@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq.multipart;
+
+import java.util.Arrays;
+
+/**
+ * Multipart delimiter with a Boyer-Moore-Horspool skip table,
+ * which finds the delimiter in a buffer without looking at every
+ * byte in it.
+ *
+ * <p>For each byte the table says how far the delimiter may be moved
+ * forward when this byte is aligned with the last byte of the delimiter
+ * and the delimiter doesn't match. In a typical upload most bytes
+ * are not in the delimiter at all, so the search moves by the full
+ * length of the delimiter, which is usually 40 to 70 bytes.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+final class Delimiter {
+
+    /**
+     * The bytes to find.
+     */
+    private final byte[] pattern;
+
+    /**
+     * Skip table, indexed by unsigned byte value.
+     */
+    private final int[] skips;
+
+    /**
+     * Ctor.
+     * @param bytes The bytes to find
+     */
+    Delimiter(final byte[] bytes) {
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("delimiter can't be empty");
+        }
+        this.pattern = bytes.clone();
+        this.skips = new int[256];
+        Arrays.fill(this.skips, bytes.length);
+        final int last = bytes.length - 1;
+        for (int idx = 0; idx < last; ++idx) {
+            this.skips[bytes[idx] & 0xff] = last - idx;
+        }
+    }
+
+    /**
+     * Length of the delimiter.
+     * @return Length
+     */
+    int length() {
+        return this.pattern.length;
+    }
+
+    /**
+     * Find the first occurrence of the delimiter in a part of the array.
+     * @param buf The array
+     * @param from The first position to look at
+     * @param till The position after the last one to look at
+     * @return Position of the delimiter or -1 if not found
+     */
+    int find(final byte[] buf, final int from, final int till) {
+        final int last = this.pattern.length - 1;
+        int found = -1;
+        int pos = from;
+        while (pos + last < till) {
+            int idx = last;
+            while (idx >= 0 && buf[pos + idx] == this.pattern[idx]) {
+                --idx;
+            }
+            if (idx < 0) {
+                found = pos;
+                break;
+            }
+            pos += this.skips[buf[pos + last] & 0xff];
+        }
+        return found;
+    }
+}
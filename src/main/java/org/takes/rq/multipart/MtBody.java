@@ -0,0 +1,74 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq.multipart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import org.takes.Body;
+import org.takes.Request;
+import org.takes.rq.RqChunk;
+import org.takes.rq.RqHeaders;
+import org.takes.rq.RqLengthAware;
+
+/**
+ * Body of a multipart request, with its transfer framing removed.
+ *
+ * <p>When the request declares {@code Transfer-Encoding: chunked}
+ * the chunks are decoded and {@code Content-Length} is ignored,
+ * as RFC 7230 requires. Otherwise the body is capped
+ * by {@code Content-Length}.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+final class MtBody implements Body {
+
+    /**
+     * Original request.
+     */
+    private final Request origin;
+
+    /**
+     * Ctor.
+     * @param req Original request
+     */
+    MtBody(final Request req) {
+        this.origin = req;
+    }
+
+    @Override
+    public InputStream body() throws IOException {
+        final Iterator<String> hdr = new RqHeaders.Base(this.origin)
+            .header("Transfer-Encoding").iterator();
+        final InputStream result;
+        if (hdr.hasNext() && "chunked".equalsIgnoreCase(hdr.next().trim())) {
+            result = new RqChunk(this.origin).body();
+        } else {
+            result = new RqLengthAware(this.origin).body();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq.multipart;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.takes.HttpException;
+import org.takes.Request;
+import org.takes.rq.RqHeaders;
+
+/**
+ * Multipart delimiter, as declared in the {@code Content-Type} header.
+ *
+ * <p>The delimiter includes the leading CRLF, as RFC 2046 requires,
+ * so that the parts never contain the line break that precedes
+ * the next boundary.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+final class MtBoundary {
+
+    /**
+     * Pattern to get boundary from header.
+     */
+    private static final Pattern BOUNDARY = Pattern.compile(
+        ".*[^a-z]boundary=([^;]+).*"
+    );
+
+    /**
+     * Original request.
+     */
+    private final Request origin;
+
+    /**
+     * Ctor.
+     * @param req Original request
+     */
+    MtBoundary(final Request req) {
+        this.origin = req;
+    }
+
+    /**
+     * Get the delimiter bytes, which are {@code CRLF--boundary}.
+     * @return Delimiter
+     * @throws IOException If the request is not a multipart one
+     */
+    byte[] bytes() throws IOException {
+        final String header = new RqHeaders.Smart(this.origin)
+            .single("Content-Type");
+        if (!header.toLowerCase(Locale.ENGLISH)
+            .startsWith("multipart/form-data")) {
+            throw new HttpException(
+                HttpURLConnection.HTTP_BAD_REQUEST,
+                String.format(
+                    "RqMtBase can only parse multipart/form-data, while Content-Type specifies a different type: \"%s\"",
+                    header
+                )
+            );
+        }
+        final Matcher matcher = MtBoundary.BOUNDARY.matcher(header);
+        if (!matcher.matches()) {
+            throw new HttpException(
+                HttpURLConnection.HTTP_BAD_REQUEST,
+                String.format(
+                    "boundary is not specified in Content-Type header: \"%s\"",
+                    header
+                )
+            );
+        }
+        return String.format("\r\n--%s", matcher.group(1))
+            .getBytes(StandardCharsets.UTF_8);
+    }
+}
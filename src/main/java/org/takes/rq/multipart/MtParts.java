@@ -0,0 +1,376 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq.multipart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.takes.HttpException;
+import org.takes.Request;
+import org.takes.rq.RequestOf;
+
+/**
+ * Parts of a multipart body, read one after another straight
+ * from the stream, without staging them anywhere.
+ *
+ * <p>The body of a part is available only until the next part
+ * is requested: {@link #hasNext()} skips whatever is left unread
+ * in the current part.
+ *
+ * <p>The class is NOT thread-safe.
+ *
+ * @since 2.0
+ */
+final class MtParts implements Iterator<Request> {
+
+    /**
+     * Minimum size of the buffer.
+     */
+    private static final int BUFFER = 8192;
+
+    /**
+     * Maximum amount of headers in a part.
+     */
+    private static final int HEADERS = 64;
+
+    /**
+     * The first line of the head of the original request.
+     */
+    private final String line;
+
+    /**
+     * Delimiter, which is CRLF, two dashes and the boundary.
+     */
+    private final Delimiter delimiter;
+
+    /**
+     * Source.
+     */
+    private final InputStream src;
+
+    /**
+     * Buffer.
+     */
+    private final byte[] buffer;
+
+    /**
+     * Position of the first unread byte in the buffer.
+     */
+    private int start;
+
+    /**
+     * Position after the last byte in the buffer.
+     */
+    private int end;
+
+    /**
+     * Is the source over?
+     */
+    private boolean eof;
+
+    /**
+     * Is the closing delimiter seen?
+     */
+    private boolean done;
+
+    /**
+     * Is the current part skipped and the next one may be read?
+     */
+    private boolean ready;
+
+    /**
+     * The part being read now, preamble at the beginning.
+     */
+    private MtParts.Part current;
+
+    /**
+     * Ctor.
+     * @param first The first line of the head of the original request
+     * @param dlm Delimiter, which is CRLF, two dashes and the boundary
+     * @param stream Source of the multipart body
+     */
+    MtParts(final String first, final byte[] dlm, final InputStream stream) {
+        this.line = first;
+        this.delimiter = new Delimiter(dlm);
+        this.src = stream;
+        this.buffer = new byte[Math.max(MtParts.BUFFER, dlm.length * 2)];
+        this.buffer[0] = '\r';
+        this.buffer[1] = '\n';
+        this.end = 2;
+        this.current = new MtParts.Part();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!this.ready) {
+            try {
+                this.current.skip();
+                this.done = this.closing();
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            this.ready = true;
+        }
+        return !this.done;
+    }
+
+    @Override
+    public Request next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException(
+                "there are no more parts in the multipart body"
+            );
+        }
+        final List<String> head = new LinkedList<>();
+        head.add(this.line);
+        try {
+            String hdr = this.readLine();
+            while (!hdr.isEmpty()) {
+                if (head.size() > MtParts.HEADERS) {
+                    throw new HttpException(
+                        HttpURLConnection.HTTP_BAD_REQUEST,
+                        String.format(
+                            "too many headers in a part, over %d",
+                            MtParts.HEADERS
+                        )
+                    );
+                }
+                head.add(hdr);
+                hdr = this.readLine();
+            }
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        this.current = new MtParts.Part();
+        this.ready = false;
+        return new RequestOf(head, this.current);
+    }
+
+    /**
+     * Read what follows the delimiter and tell whether it was
+     * the closing one.
+     * @return TRUE if the delimiter is the closing one
+     * @throws IOException If fails
+     */
+    private boolean closing() throws IOException {
+        this.require(2);
+        if (this.end - this.start < 2) {
+            throw new HttpException(
+                HttpURLConnection.HTTP_BAD_REQUEST,
+                "multipart body ended right after a boundary"
+            );
+        }
+        final boolean last = this.buffer[this.start] == '-'
+            && this.buffer[this.start + 1] == '-';
+        if (!last) {
+            this.readLine();
+        }
+        return last;
+    }
+
+    /**
+     * Read one line, up to CRLF, which is not included.
+     * @return The line
+     * @throws IOException If fails
+     */
+    private String readLine() throws IOException {
+        int pos = this.start;
+        int found = -1;
+        while (found < 0) {
+            if (pos >= this.end - 1) {
+                if (this.end - this.start == this.buffer.length || this.eof) {
+                    throw new HttpException(
+                        HttpURLConnection.HTTP_BAD_REQUEST,
+                        String.join(
+                            "",
+                            "line in multipart body is ",
+                            "either too long or unterminated"
+                        )
+                    );
+                }
+                final int before = this.start;
+                this.require(this.end - this.start + 1);
+                pos -= before - this.start;
+            } else if (this.buffer[pos] == '\r'
+                && this.buffer[pos + 1] == '\n') {
+                found = pos;
+            } else {
+                ++pos;
+            }
+        }
+        final String text = new String(
+            this.buffer, this.start, found - this.start, StandardCharsets.UTF_8
+        );
+        this.start = found + 2;
+        return text;
+    }
+
+    /**
+     * Make sure the buffer has at least the given amount of unread
+     * bytes, unless the source is over.
+     * @param count How many bytes are required
+     * @throws IOException If fails
+     */
+    private void require(final int count) throws IOException {
+        while (this.end - this.start < count && !this.eof) {
+            if (this.start > 0) {
+                System.arraycopy(
+                    this.buffer, this.start, this.buffer, 0,
+                    this.end - this.start
+                );
+                this.end -= this.start;
+                this.start = 0;
+            }
+            final int read = this.src.read(
+                this.buffer, this.end, this.buffer.length - this.end
+            );
+            if (read < 0) {
+                this.eof = true;
+            } else {
+                this.end += read;
+            }
+        }
+    }
+
+    /**
+     * Find the delimiter among the unread bytes.
+     * @return Its position in the buffer or -1 if not found
+     */
+    private int find() {
+        return this.delimiter.find(this.buffer, this.start, this.end);
+    }
+
+    /**
+     * Body of one part, which ends right before the delimiter.
+     * @since 2.0
+     */
+    private final class Part extends InputStream {
+
+        /**
+         * Is the delimiter reached?
+         */
+        private boolean over;
+
+        @Override
+        public int read() throws IOException {
+            final byte[] one = new byte[1];
+            final int result;
+            if (this.read(one, 0, 1) < 0) {
+                result = -1;
+            } else {
+                result = one[0] & 0xff;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(final byte[] buf, final int off, final int len)
+            throws IOException {
+            final int result;
+            if (this.over || MtParts.this.current != this) {
+                result = -1;
+            } else if (len == 0) {
+                result = 0;
+            } else {
+                final int avail = this.scan();
+                if (avail < 0) {
+                    result = -1;
+                } else {
+                    result = Math.min(avail, len);
+                    System.arraycopy(
+                        MtParts.this.buffer, MtParts.this.start,
+                        buf, off, result
+                    );
+                    MtParts.this.start += result;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public int available() {
+            final int avail;
+            if (this.over) {
+                avail = 0;
+            } else {
+                avail = Math.max(
+                    0,
+                    MtParts.this.end - MtParts.this.start
+                        - MtParts.this.delimiter.length() + 1
+                );
+            }
+            return avail;
+        }
+
+        /**
+         * Read and ignore the rest of the part.
+         * @throws IOException If fails
+         */
+        void skip() throws IOException {
+            while (!this.over) {
+                final int avail = this.scan();
+                if (avail > 0) {
+                    MtParts.this.start += avail;
+                }
+            }
+        }
+
+        /**
+         * Find out how many bytes may be read before the delimiter.
+         * @return Amount of bytes or -1 if the delimiter is reached
+         * @throws IOException If fails
+         */
+        private int scan() throws IOException {
+            final int length = MtParts.this.delimiter.length();
+            int result = -1;
+            while (!this.over) {
+                MtParts.this.require(length);
+                final int found = MtParts.this.find();
+                if (found == MtParts.this.start) {
+                    MtParts.this.start += length;
+                    this.over = true;
+                } else if (found > MtParts.this.start) {
+                    result = found - MtParts.this.start;
+                    break;
+                } else if (MtParts.this.eof) {
+                    throw new HttpException(
+                        HttpURLConnection.HTTP_BAD_REQUEST,
+                        "closing boundary not found in multipart body"
+                    );
+                } else {
+                    result = MtParts.this.end - MtParts.this.start
+                        - length + 1;
+                    break;
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -23,7 +23,6 @@
  */
 package org.takes.rq.multipart;
 
-import java.io.File;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -31,10 +30,7 @@ import java.net.HttpURLConnection;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
-import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -43,17 +39,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import org.cactoos.scalar.Unchecked;
 import org.cactoos.text.FormattedText;
 import org.cactoos.text.Lowered;
-import org.cactoos.text.StartsWith;
-import org.cactoos.text.TextOf;
 import org.cactoos.text.UncheckedText;
 import org.takes.HttpException;
 import org.takes.Request;
 import org.takes.misc.VerboseIterable;
 import org.takes.rq.RqHeaders;
-import org.takes.rq.RqLengthAware;
 import org.takes.rq.RqMultipart;
 
 /**
@@ -66,12 +58,19 @@ import org.takes.rq.RqMultipart;
  * <p>It is highly recommended to use {@link org.takes.rq.RqGreedy}
  * decorator before passing request to this class.
  *
+ * <p>Parts smaller than the threshold provided to the constructor
+ * are kept in memory, while larger ones are moved to temporary files.
+ * The body may be either capped by {@code Content-Length} or
+ * chunked. If you don't need random access to the parts, take
+ * a look at {@link RqMtStream}, which doesn't stage them at all.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.33
  * @see <a href="http://www.w3.org/TR/html401/interact/forms.html">
  *  Forms in HTML</a>
  * @see org.takes.rq.RqGreedy
+ * @see RqMtStream
  */
 @lombok.EqualsAndHashCode(of = "origin")
 @SuppressWarnings("PMD.ExcessiveImports")
@@ -82,11 +81,14 @@ public final class RqMtBase implements RqMultipart {
     private static final Charset ENCODING = Charset.forName("UTF-8");
 
     /**
-     * Pattern to get boundary from header.
+     * Default maximum size of a part kept in memory, in bytes.
      */
-    private static final Pattern BOUNDARY = Pattern.compile(
-        ".*[^a-z]boundary=([^;]+).*"
-    );
+    private static final int THRESHOLD = 16 * 1024;
+
+    /**
+     * Size of the internal buffer.
+     */
+    private static final int BUFFER = 8192;
 
     /**
      * Pattern to get name from header.
@@ -120,9 +122,24 @@ public final class RqMtBase implements RqMultipart {
      */
     private final Request origin;
 
+    /**
+     * Maximum size of a part kept in memory, in bytes.
+     */
+    private final int threshold;
+
+    /**
+     * Ctor.
+     * @param req Original request
+     * @throws IOException If fails
+     */
+    public RqMtBase(final Request req) throws IOException {
+        this(req, RqMtBase.THRESHOLD);
+    }
+
     /**
      * Ctor.
      * @param req Original request
+     * @param max Maximum size of a part kept in memory, in bytes
      * @throws IOException If fails
      * @todo #950:30m Remove code from this ctor, leaving only
      *  initialization. Currently this constructor access body
@@ -132,12 +149,11 @@ public final class RqMtBase implements RqMultipart {
      *  explicit lazy evaluation for RqMtFake.
      * @checkstyle ExecutableStatementCountCheck (2 lines)
      */
-    public RqMtBase(final Request req) throws IOException {
+    public RqMtBase(final Request req, final int max) throws IOException {
         this.origin = req;
-        this.stream = new RqLengthAware(req).body();
-        this.buffer = ByteBuffer.allocate(
-            Math.min(8192, this.stream.available())
-        );
+        this.threshold = max;
+        this.stream = new MtBody(req).body();
+        this.buffer = ByteBuffer.allocate(RqMtBase.BUFFER);
         this.map = this.requests(req);
     }
 
@@ -193,32 +209,7 @@ public final class RqMtBase implements RqMultipart {
      */
     private Map<String, List<Request>> requests(
         final Request req) throws IOException {
-        final String header = new RqHeaders.Smart(req).single("Content-Type");
-        final Unchecked<Boolean> multipart = new Unchecked<>(
-            new StartsWith(
-                new Lowered(header),
-                new TextOf("multipart/form-data")
-            )
-        );
-        if (!multipart.value()) {
-            throw new HttpException(
-                HttpURLConnection.HTTP_BAD_REQUEST,
-                String.format(
-                    "RqMtBase can only parse multipart/form-data, while Content-Type specifies a different type: \"%s\"",
-                    header
-                )
-            );
-        }
-        final Matcher matcher = RqMtBase.BOUNDARY.matcher(header);
-        if (!matcher.matches()) {
-            throw new HttpException(
-                HttpURLConnection.HTTP_BAD_REQUEST,
-                String.format(
-                    "boundary is not specified in Content-Type header: \"%s\"",
-                    header
-                )
-            );
-        }
+        final byte[] boundary = new MtBoundary(req).bytes();
         final ReadableByteChannel body = Channels.newChannel(this.stream);
         if (body.read(this.buffer) < 0) {
             throw new HttpException(
@@ -226,13 +217,10 @@ public final class RqMtBase implements RqMultipart {
                 "failed to read the request body"
             );
         }
-        final byte[] boundary = String.format(
-            "%s--%s", RqMtBase.CRLF, matcher.group(1)
-        ).getBytes(RqMtBase.ENCODING);
         this.buffer.flip();
         this.buffer.position(boundary.length - 2);
         final Collection<Request> requests = new LinkedList<>();
-        while (this.buffer.hasRemaining()) {
+        while (this.fill(body)) {
             final byte data = this.buffer.get();
             if (data == '-') {
                 break;
@@ -243,10 +231,32 @@ public final class RqMtBase implements RqMultipart {
         return RqMtBase.asMap(requests);
     }
 
+    /**
+     * Make sure there are at least two bytes in the buffer, unless
+     * the body is over.
+     * @param body Origin request body
+     * @return TRUE if there is anything left in the buffer
+     * @throws IOException If fails
+     */
+    private boolean fill(final ReadableByteChannel body) throws IOException {
+        while (this.buffer.remaining() < 2) {
+            this.buffer.compact();
+            final int read = body.read(this.buffer);
+            this.buffer.flip();
+            if (read < 0) {
+                break;
+            }
+        }
+        return this.buffer.hasRemaining();
+    }
+
     /**
      * Make a request.
      *  Scans the origin request until the boundary reached. Caches
-     *  the  content into a temporary file and returns it as a new request.
+     *  the content in memory, or in a temporary file if it's larger
+     *  than the threshold, and returns it as a new request. If the
+     *  copying fails, for example when the quota of temporary files
+     *  is exceeded, the temporary file is released at once.
      * @param boundary Boundary
      * @param body Origin request body
      * @return Request
@@ -254,31 +264,32 @@ public final class RqMtBase implements RqMultipart {
      */
     private Request make(final byte[] boundary,
         final ReadableByteChannel body) throws IOException {
-        final File file = File.createTempFile(
-            RqMultipart.class.getName(), ".tmp"
-        );
-        try (WritableByteChannel channel = Files.newByteChannel(
-            file.toPath(),
-            StandardOpenOption.READ,
-            StandardOpenOption.WRITE
-        )
-        ) {
-            channel.write(
-                ByteBuffer.wrap(
-                    this.head().iterator().next().getBytes(RqMtBase.ENCODING)
-                )
-            );
-            channel.write(
-                ByteBuffer.wrap(RqMtBase.CRLF.getBytes(RqMtBase.ENCODING))
-            );
-            new CopyBytesUntilBoundary(
-                channel,
-                boundary,
-                body,
-                this.buffer
-            ).copy();
+        final SpillChannel channel = new SpillChannel(this.threshold);
+        try {
+            try {
+                channel.write(
+                    ByteBuffer.wrap(
+                        this.head().iterator().next()
+                            .getBytes(RqMtBase.ENCODING)
+                    )
+                );
+                channel.write(
+                    ByteBuffer.wrap(RqMtBase.CRLF.getBytes(RqMtBase.ENCODING))
+                );
+                new CopyBytesUntilBoundary(
+                    channel,
+                    boundary,
+                    body,
+                    this.buffer
+                ).copy();
+            } finally {
+                channel.close();
+            }
+        } catch (final IOException ex) {
+            channel.discard();
+            throw ex;
         }
-        return new RqTemp(file);
+        return channel.request();
     }
 
     /**
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq.multipart;
+
+import java.io.IOException;
+import java.util.Iterator;
+import lombok.EqualsAndHashCode;
+import org.takes.Request;
+import org.takes.rq.RqWrap;
+
+/**
+ * Request decorator, that reads the parts of a
+ * {@code multipart/form-data} body one after another, straight from
+ * the body of the original request.
+ *
+ * <p>Unlike {@link RqMtBase}, this decorator doesn't keep the parts
+ * anywhere, so a large upload can be piped to its destination
+ * while it's being received:
+ *
+ * <pre> final Iterator&lt;Request&gt; parts = new RqMtStream(req).parts();
+ * while (parts.hasNext()) {
+ *     final Request part = parts.next();
+ *     // read part.body() before moving to the next part
+ * }</pre>
+ *
+ * <p>The head of each part starts with the first line of the head
+ * of the original request, followed by the headers of the part.
+ * The body of a part may be read only until the next part is
+ * requested from the iterator. The body of the original request
+ * may be either capped by {@code Content-Length} or chunked.
+ *
+ * <p>The class is immutable and thread-safe, but the iterator
+ * it produces is not.
+ *
+ * @since 2.0
+ * @see RqMtBase
+ */
+@EqualsAndHashCode(callSuper = true)
+public final class RqMtStream extends RqWrap {
+
+    /**
+     * Ctor.
+     * @param req Original request
+     */
+    public RqMtStream(final Request req) {
+        super(req);
+    }
+
+    /**
+     * Start reading the parts. The body of the request
+     * is consumed, so it can be done only once.
+     * @return Iterator of parts
+     * @throws IOException If fails
+     */
+    public Iterator<Request> parts() throws IOException {
+        return new MtParts(
+            this.head().iterator().next(),
+            new MtBoundary(this).bytes(),
+            new MtBody(this).body()
+        );
+    }
+}
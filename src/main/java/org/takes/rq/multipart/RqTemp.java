@@ -25,8 +25,10 @@ package org.takes.rq.multipart;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import lombok.EqualsAndHashCode;
+import org.takes.misc.TempStorage;
 import org.takes.rq.RqLive;
 import org.takes.rq.RqWithHeader;
 import org.takes.rq.RqWrap;
@@ -49,16 +51,37 @@ final class RqTemp extends RqWrap {
      * @throws IOException If fails
      */
     RqTemp(final File file) throws IOException {
+        this(
+            new TempInputStream(Files.newInputStream(file.toPath()), file),
+            file.length()
+        );
+    }
+
+    /**
+     * Creates a {@code RqTemp} with the specified entry of the storage.
+     * The reference to the entry, held by the caller, is passed to the
+     * request and will be released when its body is closed or, if it
+     * never is, when the body is garbage collected.
+     * @param entry The entry
+     * @throws IOException If fails
+     */
+    RqTemp(final TempStorage.Entry entry) throws IOException {
+        this(entry.detached(), entry.length());
+    }
+
+    /**
+     * Ctor.
+     * @param stream The content of the temporary file
+     * @param length Its length
+     * @throws IOException If fails
+     */
+    private RqTemp(final InputStream stream, final long length)
+        throws IOException {
         super(
             new RqWithHeader(
-                new RqLive(
-                    new TempInputStream(
-                        Files.newInputStream(file.toPath()),
-                        file
-                    )
-                ),
+                new RqLive(stream),
                 "Content-Length",
-                String.valueOf(file.length())
+                String.valueOf(length)
             )
         );
     }
@@ -0,0 +1,239 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq.multipart;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import org.takes.Request;
+import org.takes.misc.TempStorage;
+import org.takes.rq.RqLive;
+import org.takes.rq.RqWithHeader;
+
+/**
+ * Channel that keeps the bytes in memory until their amount
+ * exceeds the threshold, and then moves them to a temporary file
+ * in the {@link TempStorage}.
+ *
+ * <p>Once the channel is closed, its content can be turned into
+ * a part of a multipart request with {@link #request()}, or dropped
+ * with {@link #discard()}.
+ *
+ * <p>The class is NOT thread-safe.
+ *
+ * @since 2.0
+ */
+final class SpillChannel implements WritableByteChannel {
+
+    /**
+     * Maximum amount of bytes to keep in memory.
+     */
+    private final int threshold;
+
+    /**
+     * Bytes kept in memory.
+     */
+    private final ByteArrayOutputStream memory;
+
+    /**
+     * Storage of temporary files.
+     */
+    private final TempStorage storage;
+
+    /**
+     * Temporary file, if the bytes are spilled to disk.
+     */
+    private TempStorage.Entry file;
+
+    /**
+     * Channel to the temporary file.
+     */
+    private WritableByteChannel disk;
+
+    /**
+     * Is it still open?
+     */
+    private boolean open;
+
+    /**
+     * Ctor.
+     * @param max Maximum amount of bytes to keep in memory
+     */
+    SpillChannel(final int max) {
+        this(max, TempStorage.shared());
+    }
+
+    /**
+     * Ctor.
+     * @param max Maximum amount of bytes to keep in memory
+     * @param temp Storage of temporary files
+     */
+    SpillChannel(final int max, final TempStorage temp) {
+        this.threshold = max;
+        this.storage = temp;
+        this.memory = new ByteArrayOutputStream();
+        this.open = true;
+    }
+
+    @Override
+    public int write(final ByteBuffer src) throws IOException {
+        final int length = src.remaining();
+        if (this.disk == null
+            && this.memory.size() + length > this.threshold) {
+            this.spill();
+        }
+        if (this.disk == null) {
+            final byte[] bytes = new byte[length];
+            src.get(bytes);
+            this.memory.write(bytes, 0, length);
+        } else {
+            while (src.hasRemaining()) {
+                this.disk.write(src);
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.open = false;
+        if (this.disk != null) {
+            this.disk.close();
+        }
+    }
+
+    /**
+     * Make a request from the bytes written.
+     * @return Request
+     * @throws IOException If fails
+     */
+    Request request() throws IOException {
+        final Request req;
+        if (this.file == null) {
+            final byte[] bytes = this.memory.toByteArray();
+            req = new RqWithHeader(
+                new RqLive(new SpillChannel.Bytes(bytes)),
+                "Content-Length",
+                String.valueOf(bytes.length)
+            );
+        } else {
+            req = new RqTemp(this.file);
+        }
+        return req;
+    }
+
+    /**
+     * Drop the bytes written, if the part can't be made of them,
+     * releasing the temporary file, if any.
+     * @throws IOException If fails
+     */
+    void discard() throws IOException {
+        this.memory.reset();
+        if (this.file != null) {
+            this.file.release();
+        }
+    }
+
+    /**
+     * Move everything written so far to a temporary file.
+     * @throws IOException If fails
+     */
+    private void spill() throws IOException {
+        this.file = this.storage.create();
+        this.disk = Channels.newChannel(this.file.output());
+        this.disk.write(ByteBuffer.wrap(this.memory.toByteArray()));
+        this.memory.reset();
+    }
+
+    /**
+     * Bytes kept in memory, which can't be read after they are closed,
+     * exactly as a file.
+     * @since 2.0
+     */
+    private static final class Bytes extends InputStream {
+
+        /**
+         * The bytes.
+         */
+        private final InputStream origin;
+
+        /**
+         * Is it closed?
+         */
+        private boolean closed;
+
+        /**
+         * Ctor.
+         * @param bytes The bytes
+         */
+        Bytes(final byte[] bytes) {
+            super();
+            this.origin = new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public int read() throws IOException {
+            this.ensure();
+            return this.origin.read();
+        }
+
+        @Override
+        public int read(final byte[] buf, final int off, final int len)
+            throws IOException {
+            this.ensure();
+            return this.origin.read(buf, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            this.ensure();
+            return this.origin.available();
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+
+        /**
+         * Make sure the stream is not closed.
+         * @throws IOException If it is
+         */
+        private void ensure() throws IOException {
+            if (this.closed) {
+                throw new ClosedChannelException();
+            }
+        }
+    }
+}
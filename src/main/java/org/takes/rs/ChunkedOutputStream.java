@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Output stream, which writes chunks of chunked transfer encoding,
+ * according to RFC 7230.
+ *
+ * <p>Bytes are collected into a chunk until it's full or the stream is
+ * flushed. Closing the stream writes the last, empty, chunk, but
+ * doesn't close the original stream.
+ *
+ * <p>The class is NOT thread-safe.
+ *
+ * @since 2.0
+ */
+final class ChunkedOutputStream extends OutputStream {
+
+    /**
+     * End of line.
+     */
+    private static final byte[] EOL = {'\r', '\n'};
+
+    /**
+     * Maximum size of a chunk.
+     */
+    private static final int SIZE = 8192;
+
+    /**
+     * Original stream.
+     */
+    private final OutputStream origin;
+
+    /**
+     * The current chunk.
+     */
+    private final byte[] chunk;
+
+    /**
+     * Bytes in the current chunk.
+     */
+    private int count;
+
+    /**
+     * Ctor.
+     * @param output Original stream
+     */
+    ChunkedOutputStream(final OutputStream output) {
+        super();
+        this.origin = output;
+        this.chunk = new byte[ChunkedOutputStream.SIZE];
+    }
+
+    @Override
+    public void write(final int data) throws IOException {
+        if (this.count == this.chunk.length) {
+            this.send();
+        }
+        this.chunk[this.count] = (byte) data;
+        ++this.count;
+    }
+
+    @Override
+    public void write(final byte[] data, final int off, final int len)
+        throws IOException {
+        if (this.count + len > this.chunk.length) {
+            this.send();
+        }
+        if (len >= this.chunk.length) {
+            this.send(data, off, len);
+        } else {
+            System.arraycopy(data, off, this.chunk, this.count, len);
+            this.count += len;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.send();
+        this.origin.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.send();
+        this.origin.write('0');
+        this.origin.write(ChunkedOutputStream.EOL);
+        this.origin.write(ChunkedOutputStream.EOL);
+    }
+
+    /**
+     * Send the current chunk, if it's not empty.
+     * @throws IOException If fails
+     */
+    private void send() throws IOException {
+        this.send(this.chunk, 0, this.count);
+        this.count = 0;
+    }
+
+    /**
+     * Send a chunk, if it's not empty.
+     * @param data Bytes
+     * @param off Offset of the chunk
+     * @param len Length of the chunk
+     * @throws IOException If fails
+     */
+    private void send(final byte[] data, final int off, final int len)
+        throws IOException {
+        if (len > 0) {
+            this.origin.write(
+                Integer.toHexString(len).getBytes(StandardCharsets.US_ASCII)
+            );
+            this.origin.write(ChunkedOutputStream.EOL);
+            this.origin.write(data, off, len);
+            this.origin.write(ChunkedOutputStream.EOL);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import org.cactoos.Scalar;
+import org.cactoos.scalar.IoChecked;
+import org.takes.Response;
+
+/**
+ * Head of a chain of response decorators, which set the status and
+ * add and remove headers, compiled into one vector of lines.
+ *
+ * <p>Each decorator in the chain adds one step on top of the head
+ * of the response it decorates, sharing the steps below it. The lines
+ * are built once, when the head is asked for the first time, and then
+ * the same unmodifiable list is returned, however deep the chain is
+ * and however many times the head is iterated.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+final class CompiledHead implements Scalar<Iterable<String>> {
+
+    /**
+     * The level below, or NULL at the bottom.
+     */
+    private final CompiledHead parent;
+
+    /**
+     * The original response, at the bottom, or NULL.
+     */
+    private final Response base;
+
+    /**
+     * The step of this level.
+     */
+    private final CompiledHead.Step step;
+
+    /**
+     * The lines, once they are built, or NULL.
+     */
+    @SuppressWarnings("PMD.AvoidUsingVolatile")
+    private volatile List<String> lines;
+
+    /**
+     * Ctor.
+     * @param below The level below, or NULL
+     * @param origin The original response, or NULL
+     * @param stp The step of this level
+     */
+    private CompiledHead(final CompiledHead below, final Response origin,
+        final CompiledHead.Step stp) {
+        this.parent = below;
+        this.base = origin;
+        this.step = stp;
+    }
+
+    @Override
+    public Iterable<String> value() throws IOException {
+        return this.compiled();
+    }
+
+    /**
+     * Head with the status line.
+     * @param res The response
+     * @param status Status code
+     * @param reason Reason
+     * @return Head
+     */
+    static CompiledHead status(final Response res, final int status,
+        final CharSequence reason) {
+        return CompiledHead.of(
+            res,
+            lines -> {
+                // @checkstyle MagicNumberCheck (1 line)
+                if (status < 100 || status > 999) {
+                    throw new IllegalArgumentException(
+                        String.format(
+                            "According to RFC 7230 HTTP status code must have three digits: %d",
+                            status
+                        )
+                    );
+                }
+                lines.removeIf(line -> line.startsWith("HTTP/"));
+                lines.add(0, String.format("HTTP/1.1 %d %s", status, reason));
+            }
+        );
+    }
+
+    /**
+     * Head with more headers.
+     * @param res The response
+     * @param headers Headers to add, each checked by the pattern
+     * @return Head
+     */
+    static CompiledHead with(final Response res,
+        final Iterable<Scalar<CharSequence>> headers) {
+        return CompiledHead.of(
+            res,
+            lines -> {
+                for (final Scalar<CharSequence> header : headers) {
+                    lines.add(
+                        RsWithHeader.checked(
+                            new IoChecked<>(header).value().toString()
+                        )
+                    );
+                }
+            }
+        );
+    }
+
+    /**
+     * Head without headers by the name.
+     * @param res The response
+     * @param name Header name
+     * @return Head
+     */
+    static CompiledHead without(final Response res, final CharSequence name) {
+        return CompiledHead.of(
+            res,
+            lines -> {
+                final String prefix = String.format("%s:", name)
+                    .toLowerCase(Locale.ENGLISH);
+                lines.removeIf(
+                    line -> line.regionMatches(
+                        true, 0, prefix, 0, prefix.length()
+                    )
+                );
+            }
+        );
+    }
+
+    /**
+     * Put one more level on top of the response.
+     *
+     * <p>When the response is a chain of decorators, which is already
+     * compiled, the new level shares its steps; otherwise the response
+     * becomes the bottom.
+     *
+     * @param res The response
+     * @param stp The step
+     * @return Head
+     */
+    private static CompiledHead of(final Response res,
+        final CompiledHead.Step stp) {
+        Response origin = res;
+        while (origin instanceof RsWrap) {
+            origin = ((RsWrap) origin).origin();
+        }
+        CompiledHead below = null;
+        if (origin instanceof ResponseOf) {
+            final Scalar<Iterable<String>> head = ((ResponseOf) origin)
+                .source();
+            if (head instanceof CompiledHead) {
+                below = (CompiledHead) head;
+            }
+        }
+        final CompiledHead result;
+        if (below == null) {
+            result = new CompiledHead(null, res, stp);
+        } else {
+            result = new CompiledHead(below, null, stp);
+        }
+        return result;
+    }
+
+    /**
+     * Build the lines, unless they are built already.
+     * @return Lines
+     * @throws IOException If fails
+     */
+    private List<String> compiled() throws IOException {
+        List<String> result = this.lines;
+        if (result == null) {
+            final Iterable<String> source;
+            if (this.parent == null) {
+                source = this.base.head();
+            } else {
+                source = this.parent.compiled();
+            }
+            final List<String> list = new ArrayList<>(0);
+            for (final String line : source) {
+                list.add(line);
+            }
+            this.step.apply(list);
+            result = Collections.unmodifiableList(list);
+            this.lines = result;
+        }
+        return result;
+    }
+
+    /**
+     * Step, which changes the lines.
+     * @since 2.0
+     */
+    private interface Step {
+        /**
+         * Change the lines.
+         * @param lines The lines
+         * @throws IOException If fails
+         */
+        void apply(List<String> lines) throws IOException;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.takes.misc.Pool;
+
+/**
+ * Input stream, which gzips another stream, while it is being read.
+ *
+ * <p>Nothing is buffered, except one block of the original stream
+ * and what the deflater keeps inside. Deflaters are taken from a shared
+ * pool and given back there when the end of the stream is reached,
+ * or when it is closed.
+ *
+ * <p>The stream reports some bytes as available while the deflater
+ * has input to compress or the original stream has more available,
+ * so that a reader which flushes when nothing is available, like
+ * {@link WritableOf}, doesn't send every small block, including the
+ * header, as a separate chunk.
+ *
+ * <p>The class is NOT thread-safe.
+ *
+ * @link <a href="https://www.rfc-editor.org/rfc/rfc1952">GZIP file format</a>
+ * @since 2.0
+ */
+final class GzipInputStream extends InputStream {
+
+    /**
+     * Pool of deflaters.
+     */
+    private static final Pool<Deflater> DEFLATERS = new Pool<>(
+        32,
+        () -> new Deflater(Deflater.DEFAULT_COMPRESSION, true),
+        Deflater::reset, Deflater::end
+    );
+
+    /**
+     * Gzip header, without modification time and file name.
+     */
+    private static final byte[] HEADER = {
+        (byte) 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0,
+    };
+
+    /**
+     * The original stream.
+     */
+    private final InputStream origin;
+
+    /**
+     * Block of the original stream.
+     */
+    private final byte[] block;
+
+    /**
+     * Checksum of the original stream.
+     */
+    private final CRC32 crc;
+
+    /**
+     * One byte, for {@link #read()}.
+     */
+    private final byte[] one;
+
+    /**
+     * The deflater, or NULL when it's given back.
+     */
+    private Deflater deflater;
+
+    /**
+     * Header or trailer, which is being read now, or NULL.
+     */
+    private byte[] frame;
+
+    /**
+     * Position in the frame.
+     */
+    private int pos;
+
+    /**
+     * Amount of bytes in the original stream.
+     */
+    private long size;
+
+    /**
+     * Ctor.
+     * @param stream The original stream
+     */
+    GzipInputStream(final InputStream stream) {
+        super();
+        this.origin = stream;
+        this.block = new byte[8192];
+        this.crc = new CRC32();
+        this.one = new byte[1];
+        this.deflater = GzipInputStream.DEFLATERS.take();
+        this.frame = GzipInputStream.HEADER;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int result;
+        if (this.read(this.one, 0, 1) < 0) {
+            result = -1;
+        } else {
+            result = this.one[0] & 0xff;
+        }
+        return result;
+    }
+
+    @Override
+    public int read(final byte[] buf, final int off, final int len)
+        throws IOException {
+        int got = 0;
+        while (got == 0 && len > 0
+            && (this.frame != null || this.deflater != null)) {
+            if (this.frame == null) {
+                got = this.deflate(buf, off, len);
+            } else {
+                got = Math.min(len, this.frame.length - this.pos);
+                System.arraycopy(this.frame, this.pos, buf, off, got);
+                this.pos += got;
+                if (this.pos == this.frame.length) {
+                    this.frame = null;
+                }
+            }
+        }
+        if (got == 0 && len > 0) {
+            got = -1;
+        }
+        return got;
+    }
+
+    @Override
+    public int available() throws IOException {
+        int left = 0;
+        if (this.frame != null) {
+            left = this.frame.length - this.pos;
+        } else if (this.deflater != null
+            && (!this.deflater.needsInput() || this.origin.available() > 0)) {
+            left = 1;
+        }
+        return left;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.release();
+        this.origin.close();
+    }
+
+    /**
+     * Deflate next bytes of the original stream.
+     * @param buf Where to put them
+     * @param off Offset
+     * @param len Maximum amount
+     * @return How many bytes are put
+     * @throws IOException If fails
+     */
+    private int deflate(final byte[] buf, final int off, final int len)
+        throws IOException {
+        if (this.deflater.needsInput() && !this.deflater.finished()) {
+            final int read = this.origin.read(this.block);
+            if (read < 0) {
+                this.deflater.finish();
+            } else {
+                this.crc.update(this.block, 0, read);
+                this.size += read;
+                this.deflater.setInput(this.block, 0, read);
+            }
+        }
+        final int got = this.deflater.deflate(buf, off, len);
+        if (got == 0 && this.deflater.finished()) {
+            this.release();
+            this.frame = GzipInputStream.trailer(
+                this.crc.getValue(), this.size
+            );
+            this.pos = 0;
+        }
+        return got;
+    }
+
+    /**
+     * Give the deflater back to the pool.
+     */
+    private void release() {
+        if (this.deflater != null) {
+            GzipInputStream.DEFLATERS.give(this.deflater);
+            this.deflater = null;
+        }
+    }
+
+    /**
+     * Make gzip trailer.
+     * @param sum Checksum
+     * @param size Size of the original stream
+     * @return Trailer
+     */
+    private static byte[] trailer(final long sum, final long size) {
+        final byte[] trailer = new byte[8];
+        // @checkstyle MagicNumberCheck (4 lines)
+        for (int idx = 0; idx < 4; ++idx) {
+            trailer[idx] = (byte) (sum >>> (idx * 8));
+            trailer[idx + 4] = (byte) (size >>> (idx * 8));
+        }
+        return trailer;
+    }
+}
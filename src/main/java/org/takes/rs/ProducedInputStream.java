@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Input stream, which is written in parts, on demand.
+ *
+ * <p>Every time the stream runs out of bytes, it asks the producer to
+ * write the next part into a buffer, which is then read without
+ * copying. Only one part is in memory at any time. Closing the stream
+ * closes the producer.
+ *
+ * <p>The class is NOT thread-safe.
+ *
+ * @since 2.0
+ */
+final class ProducedInputStream extends InputStream {
+
+    /**
+     * The producer.
+     */
+    private final ProducedInputStream.Producer producer;
+
+    /**
+     * The current part.
+     */
+    private final ProducedInputStream.Buffer buffer;
+
+    /**
+     * Position of the next byte to read in the buffer.
+     */
+    private int pos;
+
+    /**
+     * Was the last part produced?
+     */
+    private boolean done;
+
+    /**
+     * Ctor.
+     * @param prod The producer
+     */
+    ProducedInputStream(final ProducedInputStream.Producer prod) {
+        super();
+        this.producer = prod;
+        this.buffer = new ProducedInputStream.Buffer();
+    }
+
+    @Override
+    public int read() throws IOException {
+        this.fill();
+        int next = -1;
+        if (this.available() > 0) {
+            next = this.buffer.data()[this.pos] & 0xff;
+            ++this.pos;
+        }
+        return next;
+    }
+
+    @Override
+    public int read(final byte[] buf, final int off, final int len)
+        throws IOException {
+        int read = 0;
+        if (len > 0) {
+            this.fill();
+            read = Math.min(len, this.available());
+            if (read == 0) {
+                read = -1;
+            } else {
+                System.arraycopy(this.buffer.data(), this.pos, buf, off, read);
+                this.pos += read;
+            }
+        }
+        return read;
+    }
+
+    @Override
+    public int available() {
+        return this.buffer.size() - this.pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.producer.close();
+    }
+
+    /**
+     * Produce parts until there is something to read or nothing left.
+     * @throws IOException If fails
+     */
+    private void fill() throws IOException {
+        while (this.available() == 0 && !this.done) {
+            this.buffer.reset();
+            this.pos = 0;
+            this.done = !this.producer.produce(this.buffer);
+        }
+    }
+
+    /**
+     * Producer of the parts.
+     * @since 2.0
+     */
+    interface Producer extends Closeable {
+        /**
+         * Write the next part.
+         * @param output Where to write, the same for every part
+         * @return FALSE if it was the last part
+         * @throws IOException If fails
+         */
+        boolean produce(OutputStream output) throws IOException;
+    }
+
+    /**
+     * Buffer of a part, which is read without copying.
+     * @since 2.0
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        /**
+         * Bytes written, valid up to {@link #size()}.
+         * @return Bytes
+         */
+        byte[] data() {
+            return this.buf;
+        }
+    }
+}
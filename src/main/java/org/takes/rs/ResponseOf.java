@@ -26,6 +26,7 @@ package org.takes.rs;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Iterator;
 import org.cactoos.Scalar;
 import org.cactoos.bytes.BytesOf;
@@ -40,11 +41,19 @@ import org.takes.Response;
 /**
  * Response of head and body.
  *
+ * <p>When the body comes from another response, it is written the way
+ * that response writes it, see {@link Writable}.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 2.0
  */
-public final class ResponseOf implements Response {
+public final class ResponseOf implements Response, Writable {
+
+    /**
+     * Where the head comes from.
+     */
+    private final Scalar<Iterable<String>> origin;
 
     /**
      * Original head scalar.
@@ -56,6 +65,11 @@ public final class ResponseOf implements Response {
      */
     private final IoChecked<InputStream> sbody;
 
+    /**
+     * How the body is written.
+     */
+    private final Writable writer;
+
     /**
      * Ctor.
      * @param head Iterable head value
@@ -72,8 +86,31 @@ public final class ResponseOf implements Response {
      */
     public ResponseOf(
         final Scalar<Iterable<String>> head, final Scalar<InputStream> body) {
+        this(head, body, new WritableOf(new IoChecked<>(body)::value));
+    }
+
+    /**
+     * Ctor.
+     * @param head Scalar to provide head value
+     * @param body Response to provide body
+     */
+    public ResponseOf(
+        final Scalar<Iterable<String>> head, final Response body) {
+        this(head, body::body, new WritableOf(body));
+    }
+
+    /**
+     * Ctor.
+     * @param head Scalar to provide head value
+     * @param body Scalar to provide body value
+     * @param written How the body is written
+     */
+    private ResponseOf(final Scalar<Iterable<String>> head,
+        final Scalar<InputStream> body, final Writable written) {
+        this.origin = head;
         this.shead = new IoChecked<>(head);
         this.sbody = new IoChecked<>(body);
+        this.writer = written;
     }
 
     @Override
@@ -86,6 +123,19 @@ public final class ResponseOf implements Response {
         return this.sbody.value();
     }
 
+    @Override
+    public void writeTo(final OutputStream output) throws IOException {
+        this.writer.writeTo(output);
+    }
+
+    /**
+     * Where the head comes from.
+     * @return Head
+     */
+    Scalar<Iterable<String>> source() {
+        return this.origin;
+    }
+
     @Override
     @SuppressFBWarnings("EQ_UNUSUAL")
     public boolean equals(final Object that) {
@@ -24,15 +24,12 @@
 package org.takes.rs;
 
 import java.io.ByteArrayInputStream;
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.io.OutputStream;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.cactoos.Input;
+import org.takes.misc.TempStorage;
 
 /**
  * The body of a response used by {@link RsWithBody}.
@@ -176,41 +173,53 @@ interface RsBody extends Input {
      * for large content, for small content use {@link RsBody.ByteArray}
      * instead.</b>
      *
+     * <p>The file is kept in the {@link TempStorage} and is deleted
+     * when this object is garbage collected and all streams opened by
+     * {@link #stream()} are closed.
+     *
      * @since 0.32
      */
     final class TempFile implements RsBody {
 
         /**
-         * The temporary file that contains the content of the body.
+         * The temporary file that contains the content of the body,
+         * created on first use.
          */
-        private final File file;
+        private TempStorage.Entry file;
 
         /**
          * The underlying body.
          */
         private final RsBody body;
 
+        /**
+         * Storage of temporary files.
+         */
+        private final TempStorage storage;
+
         /**
          * Constructs a {@code TempFile} with the specified {@link RsBody}.
-         * @param content The content of the body to store into a temporary file.
+         * @param content The content of the body to store into a temporary
+         *  file.
          */
-        @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
         TempFile(final RsBody content) {
+            this(content, TempStorage.shared());
+        }
+
+        /**
+         * Constructs a {@code TempFile} with the specified {@link RsBody}.
+         * @param content The content of the body to store into a temporary
+         *  file.
+         * @param temp Storage of temporary files
+         */
+        TempFile(final RsBody content, final TempStorage temp) {
             this.body = content;
-            this.file = new File(
-                System.getProperty("java.io.tmpdir"),
-                String.format(
-                    "%s-%s.tmp",
-                    RsBody.TempFile.class.getName(),
-                    UUID.randomUUID().toString()
-                )
-            );
-            this.file.deleteOnExit();
+            this.storage = temp;
         }
 
         @Override
         public InputStream stream() throws IOException {
-            return Files.newInputStream(this.file().toPath());
+            return this.file().input();
         }
 
         @Override
@@ -219,24 +228,30 @@ interface RsBody extends Input {
         }
 
         /**
-         * Gives the {@code File} that contains the content of the underlying
-         * {@code  Body}.
-         * @return The {@code File} in which we stored the content of the
+         * Gives the entry that contains the content of the underlying
+         * {@code Body}.
+         * @return The entry in which we stored the content of the
          *  underlying {@code  Body}.
          * @throws IOException In case the content of the underlying
          *  {@code Body} could not be stored into the file.
          */
-        private File file() throws IOException {
-            synchronized (this.file) {
-                if (!this.file.exists()) {
-                    this.file.deleteOnExit();
-                    try (InputStream content = this.body.stream()) {
-                        Files.copy(
-                            content,
-                            Paths.get(this.file.getAbsolutePath()),
-                            StandardCopyOption.REPLACE_EXISTING
-                        );
+        private TempStorage.Entry file() throws IOException {
+            synchronized (this) {
+                if (this.file == null) {
+                    final TempStorage.Entry entry = this.storage.create();
+                    try (InputStream content = this.body.stream();
+                        OutputStream output = entry.output()) {
+                        final byte[] buf = new byte[8192];
+                        int len = content.read(buf);
+                        while (len >= 0) {
+                            output.write(buf, 0, len);
+                            len = content.read(buf);
+                        }
+                    } catch (final IOException ex) {
+                        entry.release();
+                        throw ex;
                     }
+                    this.file = entry.releasedWith(this);
                 }
                 return this.file;
             }
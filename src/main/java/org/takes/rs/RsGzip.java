@@ -23,13 +23,6 @@
  */
 package org.takes.rs;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.zip.GZIPOutputStream;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.takes.Response;
@@ -37,88 +30,52 @@ import org.takes.Response;
 /**
  * Response compressed with GZIP, according to RFC 1952.
  *
+ * <p>The body is compressed while it is being read, without buffering
+ * it. Since its length is not known in advance, the response loses
+ * its Content-Length header and is sent with chunked transfer encoding,
+ * see {@link RsPrint#print(java.io.OutputStream)}.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.10
  */
-@ToString(of = "origin")
-@EqualsAndHashCode
-public final class RsGzip implements Response {
-
-    /**
-     * Original response.
-     */
-    private final Response origin;
-
-    /**
-     * Compressed and cached response.
-     */
-    private final List<Response> zipped;
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public final class RsGzip extends RsWrap {
 
     /**
      * Ctor.
      * @param res Original response
      */
     public RsGzip(final Response res) {
-        this.zipped = new CopyOnWriteArrayList<>();
-        this.origin = res;
-    }
-
-    @Override
-    public Iterable<String> head() throws IOException {
-        return this.make().head();
-    }
-
-    @Override
-    public InputStream body() throws IOException {
-        return this.make().body();
-    }
-
-    /**
-     * Make a response.
-     * @return Response just made
-     * @throws IOException If fails
-     */
-    private Response make() throws IOException {
-        if (this.zipped.isEmpty()) {
-            this.zipped.add(
-                new RsWithHeader(
-                    new RsWithBody(
-                        this.origin,
-                        RsGzip.gzip(this.origin.body())
+        this(
+            res,
+            new RsWithHeaders(
+                new RsWithoutHeader(
+                    new RsWithoutHeader(
+                        new RsWithoutHeader(res, "Content-Length"),
+                        "Content-Encoding"
                     ),
-                    "Content-Encoding",
-                    "gzip"
-                )
-            );
-        }
-        return this.zipped.get(0);
+                    "Transfer-Encoding"
+                ),
+                "Content-Encoding: gzip",
+                "Transfer-Encoding: chunked"
+            )
+        );
     }
 
     /**
-     * Gzip input stream.
-     * @param input Input stream
-     * @return New input stream
-     * @throws IOException If fails
+     * Ctor.
+     * @param res Original response
+     * @param head Response with the head of the compressed one
      */
-    private static byte[] gzip(final InputStream input)
-        throws IOException {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        final byte[] buf = new byte[4096];
-        final OutputStream gzip = new GZIPOutputStream(baos);
-        try {
-            while (true) {
-                final int len = input.read(buf);
-                if (len < 0) {
-                    break;
-                }
-                gzip.write(buf, 0, len);
-            }
-        } finally {
-            gzip.close();
-            input.close();
-        }
-        return baos.toByteArray();
+    private RsGzip(final Response res, final Response head) {
+        super(
+            new ResponseOf(
+                head::head,
+                () -> new GzipInputStream(res.body())
+            )
+        );
     }
 
 }
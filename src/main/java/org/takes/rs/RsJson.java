@@ -25,9 +25,9 @@ package org.takes.rs;
 
 import jakarta.json.Json;
 import jakarta.json.JsonStructure;
-import jakarta.json.JsonWriter;
-import java.io.ByteArrayOutputStream;
+import jakarta.json.stream.JsonGenerator;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -36,6 +36,14 @@ import org.takes.Response;
 /**
  * Response that converts Java object to JSON.
  *
+ * <p>The JSON is taken from its source once, at construction, and
+ * written straight into the output, when the response is printed, see
+ * {@link Writable}. Since its length is not known in advance, the
+ * response has no Content-Length header and is sent with chunked
+ * transfer encoding, so that it can be delimited on a persistent
+ * connection. For arrays too big to be built in memory, use
+ * {@link RsJsonStream}.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.1
@@ -57,11 +65,15 @@ public final class RsJson extends RsWrap {
 
     /**
      * Ctor.
+     *
+     * <p>The exception is never thrown now, it's declared for
+     * compatibility with the code that catches it.
+     *
      * @param src Source
      * @throws IOException If fails
      */
     public RsJson(final RsJson.Source src) throws IOException {
-        this(new RsWithBody(RsJson.print(src)));
+        this(RsJson.body(src.toJson()));
     }
 
     /**
@@ -77,18 +89,28 @@ public final class RsJson extends RsWrap {
         );
     }
 
+    /**
+     * Response with JSON body, sent in chunks.
+     * @param json JSON
+     * @return Response
+     */
+    private static Response body(final JsonStructure json) {
+        return new RsWritable(
+            () -> new RsWithHeader("Transfer-Encoding", "chunked").head(),
+            output -> RsJson.print(json, output)
+        );
+    }
+
     /**
      * Print JSON.
-     * @param src Source
-     * @return JSON
-     * @throws IOException If fails
+     * @param json JSON
+     * @param output Where to print
      */
-    private static byte[] print(final RsJson.Source src) throws IOException {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (JsonWriter writer = Json.createWriter(baos)) {
-            writer.write(src.toJson());
-        }
-        return baos.toByteArray();
+    private static void print(final JsonStructure json,
+        final OutputStream output) {
+        final JsonGenerator generator = Json.createGenerator(output);
+        generator.write(json);
+        generator.flush();
     }
 
     /**
@@ -0,0 +1,205 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonGeneratorFactory;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Response that streams a JSON array, element by element.
+ *
+ * <p>Use it instead of {@link RsJson} when the array is too big to be
+ * built in memory:
+ *
+ * <pre> return new RsJsonStream(
+ *   users.iterator(),
+ *   (json, user) -> json.writeStartObject()
+ *     .write("name", user.name())
+ *     .writeEnd()
+ * );</pre>
+ *
+ * <p>Elements are taken from the iterator while the body is being read,
+ * and written by {@link JsonGenerator} in batches: by default a hundred
+ * elements, which become one chunk of the body, sent with chunked
+ * transfer encoding. Only one batch is in memory at any time.
+ * {@link RsPrint} flushes the output after each chunk, so the client
+ * gets the elements as soon as they are ready.
+ *
+ * <p>When the body is closed, either because it was read to the end or
+ * because the client disconnected, the iterator is closed too, if it is
+ * {@link AutoCloseable}.
+ *
+ * <p>The body can be read only once.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public final class RsJsonStream extends RsWrap {
+
+    /**
+     * Elements in a batch, by default.
+     */
+    private static final int BATCH = 100;
+
+    /**
+     * Ctor.
+     * @param items Elements of the array
+     * @param item How to write an element
+     * @param <T> Type of elements
+     */
+    public <T> RsJsonStream(final Iterator<T> items,
+        final RsJsonStream.Item<T> item) {
+        this(items, item, RsJsonStream.BATCH);
+    }
+
+    /**
+     * Ctor.
+     * @param items Elements of the array
+     * @param item How to write an element
+     * @param batch How many elements to write before flushing
+     * @param <T> Type of elements
+     */
+    public <T> RsJsonStream(final Iterator<T> items,
+        final RsJsonStream.Item<T> item, final int batch) {
+        super(
+            new ResponseOf(
+                () -> new RsWithHeader(
+                    new RsJson(new RsEmpty()),
+                    "Transfer-Encoding", "chunked"
+                ).head(),
+                () -> new ProducedInputStream(
+                    new RsJsonStream.Batches<>(items, item, batch)
+                )
+            )
+        );
+    }
+
+    /**
+     * Writer of one element of the array.
+     * @param <T> Type of elements
+     * @since 2.0
+     */
+    public interface Item<T> {
+        /**
+         * Write the element.
+         * @param json Generator to write with
+         * @param element The element
+         * @throws IOException If fails
+         */
+        void print(JsonGenerator json, T element) throws IOException;
+    }
+
+    /**
+     * Producer of the array, batch by batch.
+     * @param <T> Type of elements
+     * @since 2.0
+     */
+    private static final class Batches<T>
+        implements ProducedInputStream.Producer {
+
+        /**
+         * Factory of generators.
+         */
+        private static final JsonGeneratorFactory FACTORY =
+            Json.createGeneratorFactory(Collections.emptyMap());
+
+        /**
+         * Elements of the array.
+         */
+        private final Iterator<T> items;
+
+        /**
+         * How to write an element.
+         */
+        private final RsJsonStream.Item<T> item;
+
+        /**
+         * Elements in a batch.
+         */
+        private final int batch;
+
+        /**
+         * Generator, or NULL if the array is not started yet.
+         */
+        private JsonGenerator json;
+
+        /**
+         * Ctor.
+         * @param elements Elements of the array
+         * @param writer How to write an element
+         * @param size Elements in a batch
+         */
+        Batches(final Iterator<T> elements,
+            final RsJsonStream.Item<T> writer, final int size) {
+            this.items = elements;
+            this.item = writer;
+            this.batch = Math.max(1, size);
+        }
+
+        @Override
+        public boolean produce(final OutputStream output) throws IOException {
+            if (this.json == null) {
+                this.json = Batches.FACTORY.createGenerator(output);
+                this.json.writeStartArray();
+            }
+            final JsonGenerator generator = this.json;
+            for (int idx = 0; idx < this.batch && this.items.hasNext();
+                ++idx) {
+                this.item.print(generator, this.items.next());
+            }
+            final boolean more = this.items.hasNext();
+            if (more) {
+                generator.flush();
+            } else {
+                generator.writeEnd();
+                generator.close();
+            }
+            return more;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.items instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) this.items).close();
+                } catch (final IOException ex) {
+                    throw ex;
+                // @checkstyle IllegalCatchCheck (1 line)
+                } catch (final Exception ex) {
+                    throw new IOException(ex);
+                }
+            }
+        }
+    }
+}
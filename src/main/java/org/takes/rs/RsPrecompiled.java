@@ -0,0 +1,156 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.takes.Response;
+
+/**
+ * Response, which is printed to bytes once, at construction.
+ *
+ * <p>The head and the body of the original response are serialized
+ * to one byte array, exactly as {@link RsPrint} prints them, and the
+ * array is written with one call every time the response is printed.
+ * Use it for responses which never change, like health checks,
+ * robots.txt or fixed error pages, and keep the object in a field:
+ *
+ * <pre> final Take take = new TkFixed(
+ *   new RsPrecompiled(new RsText("User-agent: *"))
+ * );</pre>
+ *
+ * <p>The single write happens only when {@link RsPrint} gets this
+ * object itself. A decorator on top of it, for example the one
+ * {@link org.takes.tk.TkWithHeaders} adds, may change the head or
+ * the body, so such a response is printed line by line, as usual.
+ * Decorate the original response before precompiling it instead.
+ *
+ * <p>Since the entire body is known, a response with
+ * {@code Transfer-Encoding: chunked}, like {@link RsGzip} or
+ * {@link RsPrettyJson}, is precompiled without that header and with
+ * {@code Content-Length} instead, so that the bytes written with one
+ * call are framed correctly on the wire.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@ToString(of = "head")
+@EqualsAndHashCode
+public final class RsPrecompiled implements Response {
+
+    /**
+     * Lines of the head.
+     */
+    private final List<String> head;
+
+    /**
+     * The entire response, head and body.
+     */
+    private final byte[] bytes;
+
+    /**
+     * Where the body starts.
+     */
+    private final int start;
+
+    /**
+     * Ctor.
+     * @param res Original response
+     * @throws IOException If fails
+     */
+    public RsPrecompiled(final Response res) throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        new RsPrint(res).printBody(body);
+        Response plain = res;
+        if (RsPrecompiled.chunked(res)) {
+            plain = new RsWithHeader(
+                new RsWithoutHeader(
+                    new RsWithoutHeader(res, "Transfer-Encoding"),
+                    "Content-Length"
+                ),
+                "Content-Length",
+                String.valueOf(body.size())
+            );
+        }
+        final List<String> lines = new ArrayList<>(0);
+        for (final String line : plain.head()) {
+            lines.add(line);
+        }
+        this.head = Collections.unmodifiableList(lines);
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new RsPrint(plain).printHead(baos);
+        this.start = baos.size();
+        body.writeTo(baos);
+        this.bytes = baos.toByteArray();
+    }
+
+    @Override
+    public Iterable<String> head() {
+        return this.head;
+    }
+
+    @Override
+    public InputStream body() {
+        return new ByteArrayInputStream(
+            this.bytes, this.start, this.bytes.length - this.start
+        );
+    }
+
+    /**
+     * Write the entire response, head and body, with one call.
+     * @param output Output to write to
+     * @throws IOException If fails
+     */
+    public void write(final OutputStream output) throws IOException {
+        output.write(this.bytes);
+    }
+
+    /**
+     * Is the body of the response chunked?
+     * @param res Response
+     * @return TRUE if its Transfer-Encoding ends with chunked
+     * @throws IOException If fails
+     */
+    private static boolean chunked(final Response res) throws IOException {
+        final List<String> values = new RsHeaders.Base(res)
+            .header("Transfer-Encoding");
+        boolean chunked = false;
+        for (final String value : values) {
+            if (value.trim().toLowerCase(Locale.ENGLISH).endsWith("chunked")) {
+                chunked = true;
+            }
+        }
+        return chunked;
+    }
+}
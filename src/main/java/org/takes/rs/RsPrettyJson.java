@@ -25,16 +25,14 @@ package org.takes.rs;
 
 import jakarta.json.Json;
 import jakarta.json.JsonException;
-import jakarta.json.JsonObject;
-import jakarta.json.JsonReader;
-import jakarta.json.JsonWriter;
 import jakarta.json.stream.JsonGenerator;
-import java.io.ByteArrayOutputStream;
+import jakarta.json.stream.JsonGeneratorFactory;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParserFactory;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Collections;
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.takes.Response;
@@ -42,80 +40,180 @@ import org.takes.Response;
 /**
  * Response with properly indented JSON body.
  *
+ * <p>The body is reformatted while it is being read: events of the
+ * original JSON go from {@link JsonParser} straight to a pretty printing
+ * {@link JsonGenerator}, so memory consumption doesn't depend on the
+ * size of the body and the first bytes are available immediately.
+ * Any JSON value can be formatted, objects and arrays included. Since
+ * the length of the body is not known in advance, the response loses
+ * its Content-Length header and is sent with chunked transfer encoding.
+ * Broken JSON is reported by {@link IOException} while the body is
+ * being read. When the response is printed, the JSON is formatted
+ * straight into the output, see {@link Writable}.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 1.0
  */
 @ToString(of = "origin")
 @EqualsAndHashCode
-public final class RsPrettyJson implements Response {
+public final class RsPrettyJson implements Response, Writable {
 
     /**
      * Original response.
      */
     private final Response origin;
 
-    /**
-     * Response with properly transformed body.
-     */
-    private final List<Response> transformed;
-
     /**
      * Ctor.
      * @param res Original response
      */
     public RsPrettyJson(final Response res) {
-        this.transformed = new CopyOnWriteArrayList<>();
         this.origin = res;
     }
 
     @Override
     public Iterable<String> head() throws IOException {
-        return this.make().head();
+        return new RsWithHeader(
+            new RsWithoutHeader(
+                new RsWithoutHeader(this.origin, "Content-Length"),
+                "Transfer-Encoding"
+            ),
+            "Transfer-Encoding", "chunked"
+        ).head();
     }
 
     @Override
     public InputStream body() throws IOException {
-        return this.make().body();
+        return new ProducedInputStream(
+            new RsPrettyJson.Events(this.origin.body())
+        );
     }
 
-    /**
-     * Make a response.
-     * @return Response just made
-     * @throws IOException If fails
-     */
-    private Response make() throws IOException {
-        if (this.transformed.isEmpty()) {
-            this.transformed.add(
-                new RsWithBody(
-                    this.origin,
-                    RsPrettyJson.transform(this.origin.body())
-                )
-            );
+    @Override
+    public void writeTo(final OutputStream output) throws IOException {
+        try (RsPrettyJson.Events events =
+            new RsPrettyJson.Events(this.origin.body())) {
+            boolean more = true;
+            while (more) {
+                more = events.produce(output);
+            }
         }
-        return this.transformed.get(0);
     }
 
     /**
-     * Format body with proper indents.
-     * @param body Response body
-     * @return New properly formatted body
-     * @throws IOException If fails
+     * Producer of formatted JSON, from events of the original one.
+     * @since 2.0
      */
-    private static byte[] transform(final InputStream body) throws IOException {
-        final ByteArrayOutputStream res = new ByteArrayOutputStream();
-        try (JsonReader rdr = Json.createReader(body)) {
-            final JsonObject obj = rdr.readObject();
-            try (JsonWriter wrt = Json.createWriterFactory(
+    private static final class Events
+        implements ProducedInputStream.Producer {
+
+        /**
+         * Events in a part.
+         */
+        private static final int PART = 512;
+
+        /**
+         * Factory of parsers.
+         */
+        private static final JsonParserFactory PARSERS =
+            Json.createParserFactory(Collections.emptyMap());
+
+        /**
+         * Factory of pretty printing generators.
+         */
+        private static final JsonGeneratorFactory GENERATORS =
+            Json.createGeneratorFactory(
                 Collections.singletonMap(JsonGenerator.PRETTY_PRINTING, true)
-            )
-                .createWriter(res)
-            ) {
-                wrt.writeObject(obj);
+            );
+
+        /**
+         * Original JSON.
+         */
+        private final InputStream input;
+
+        /**
+         * Parser, or NULL if not started yet.
+         */
+        private JsonParser parser;
+
+        /**
+         * Generator, or NULL if not started yet.
+         */
+        private JsonGenerator generator;
+
+        /**
+         * Ctor.
+         * @param body Original JSON
+         */
+        Events(final InputStream body) {
+            this.input = body;
+        }
+
+        @Override
+        public boolean produce(final OutputStream output) throws IOException {
+            if (this.parser == null) {
+                this.parser = Events.PARSERS.createParser(this.input);
+                this.generator = Events.GENERATORS.createGenerator(output);
+            }
+            final JsonParser json = this.parser;
+            final JsonGenerator pretty = this.generator;
+            final boolean more;
+            try {
+                for (int idx = 0; idx < Events.PART && json.hasNext();
+                    ++idx) {
+                    Events.copy(json, pretty);
+                }
+                more = json.hasNext();
+                pretty.flush();
+            } catch (final JsonException ex) {
+                throw new IOException(ex);
+            }
+            return more;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.input.close();
+        }
+
+        /**
+         * Copy one event from the parser to the generator.
+         * @param json Parser
+         * @param pretty Generator
+         */
+        private static void copy(final JsonParser json,
+            final JsonGenerator pretty) {
+            switch (json.next()) {
+                case START_OBJECT:
+                    pretty.writeStartObject();
+                    break;
+                case START_ARRAY:
+                    pretty.writeStartArray();
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    pretty.writeEnd();
+                    break;
+                case KEY_NAME:
+                    pretty.writeKey(json.getString());
+                    break;
+                case VALUE_STRING:
+                    pretty.write(json.getString());
+                    break;
+                case VALUE_NUMBER:
+                    pretty.write(json.getBigDecimal());
+                    break;
+                case VALUE_TRUE:
+                    pretty.write(true);
+                    break;
+                case VALUE_FALSE:
+                    pretty.write(false);
+                    break;
+                default:
+                    pretty.writeNull();
+                    break;
             }
-        } catch (final JsonException ex) {
-            throw new IOException(ex);
         }
-        return res.toByteArray();
     }
 }
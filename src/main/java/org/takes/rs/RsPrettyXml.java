@@ -24,20 +24,21 @@
 package org.takes.rs;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParserFactory;
+import java.io.OutputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
 import lombok.ToString;
 import org.cactoos.scalar.And;
@@ -45,59 +46,70 @@ import org.cactoos.scalar.HashCode;
 import org.cactoos.scalar.Or;
 import org.cactoos.scalar.Unchecked;
 import org.takes.Response;
-import org.w3c.dom.DocumentType;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
 
 /**
  * Response with properly indented XML body.
  *
+ * <p>The body is reformatted while it is being read: the original XML
+ * is parsed once, with StAX, and its events go to an indenting XML
+ * serializer, so memory consumption doesn't depend on the size of the
+ * body and the output starts as soon as the serializer writes. The
+ * DOCTYPE of the original XML, if any, is kept and external DTDs are
+ * never loaded; HTML5 DOCTYPE makes the output HTML. Since the length
+ * of the body is not known in advance, the response loses its
+ * Content-Length header and is sent with chunked transfer encoding.
+ * Broken XML is reported by {@link IOException} while the body is
+ * being read. When the response is printed, the XML is formatted
+ * straight into the output, see {@link Writable}.
+ *
  * <p>The class is immutable and thread-safe.
  * @since 1.0
  */
 @ToString(of = "origin")
-public final class RsPrettyXml implements Response {
-
-    /**
-     * Xerces feature to disable external DTD validation.
-     */
-    private static final String LOAD_EXTERNAL_DTD =
-        "http://apache.org/xml/features/nonvalidating/load-external-dtd";
+public final class RsPrettyXml implements Response, Writable {
 
     /**
      * Original response.
      */
     private final Response origin;
 
-    /**
-     * Response with properly transformed body.
-     */
-    private final List<Response> transformed;
-
-    /**
-     * Synchronization lock.
-     */
-    private final Object lock;
-
     /**
      * Ctor.
      * @param res Original response
      */
     public RsPrettyXml(final Response res) {
-        this.transformed = new CopyOnWriteArrayList<>();
         this.origin = res;
-        this.lock = new Object();
     }
 
     @Override
     public Iterable<String> head() throws IOException {
-        return this.make().head();
+        return new RsWithHeader(
+            new RsWithoutHeader(
+                new RsWithoutHeader(this.origin, "Content-Length"),
+                "Transfer-Encoding"
+            ),
+            "Transfer-Encoding", "chunked"
+        ).head();
     }
 
     @Override
     public InputStream body() throws IOException {
-        return this.make().body();
+        return new ProducedInputStream(
+            new RsPrettyXml.Events(this.origin.body())
+        );
+    }
+
+    @Override
+    public void writeTo(final OutputStream output) throws IOException {
+        try (RsPrettyXml.Events events =
+            new RsPrettyXml.Events(this.origin.body())) {
+            boolean more = true;
+            while (more) {
+                more = events.produce(output);
+            }
+        }
     }
 
     @Override
@@ -109,13 +121,7 @@ public final class RsPrettyXml implements Response {
                 new And(
                     () -> that != null,
                     () -> RsPrettyXml.class.equals(that.getClass()),
-                    () -> {
-                        final RsPrettyXml other = (RsPrettyXml) that;
-                        return new And(
-                            () -> this.origin.equals(other.origin),
-                            () -> this.transformed.equals(other.transformed)
-                        ).value();
-                    }
+                    () -> this.origin.equals(((RsPrettyXml) that).origin)
                 )
             )
         ).value();
@@ -123,116 +129,339 @@ public final class RsPrettyXml implements Response {
 
     @Override
     public int hashCode() {
-        return new HashCode(this.origin, this.transformed).value();
+        return new HashCode(this.origin).value();
     }
 
     /**
-     * Make a response.
-     * @return Response just made
-     * @throws IOException If fails
+     * Producer of indented XML, from StAX events of the original one.
+     * @since 2.0
      */
-    private Response make() throws IOException {
-        synchronized (this.lock) {
-            if (this.transformed.isEmpty()) {
-                this.transformed.add(
-                    new RsWithBody(
-                        this.origin,
-                        RsPrettyXml.transform(this.origin.body())
-                    )
-                );
+    @SuppressWarnings("PMD.TooManyMethods")
+    private static final class Events
+        implements ProducedInputStream.Producer {
+
+        /**
+         * Events in a part.
+         */
+        private static final int PART = 512;
+
+        /**
+         * Factory of StAX readers, which never load external DTDs.
+         */
+        private static final XMLInputFactory READERS = Events.readers();
+
+        /**
+         * Factory of serializers.
+         */
+        private static final SAXTransformerFactory SERIALIZERS =
+            (SAXTransformerFactory) TransformerFactory.newInstance();
+
+        /**
+         * DOCTYPE declaration: name, public ID and system ID.
+         */
+        private static final Pattern DOCTYPE = Pattern.compile(
+            String.join(
+                "",
+                "<!DOCTYPE\\s+([^\\s\\[>]+)(?:\\s+(?:",
+                "PUBLIC\\s+(\"[^\"]*\"|'[^']*')(?:\\s+(\"[^\"]*\"|'[^']*'))?",
+                "|SYSTEM\\s+(\"[^\"]*\"|'[^']*')))?"
+            )
+        );
+
+        /**
+         * Original XML.
+         */
+        private final InputStream input;
+
+        /**
+         * StAX reader, or NULL if not started yet.
+         */
+        private XMLStreamReader reader;
+
+        /**
+         * Serializer, or NULL if not started yet.
+         */
+        private TransformerHandler handler;
+
+        /**
+         * Was the document started in the serializer?
+         */
+        private boolean started;
+
+        /**
+         * Ctor.
+         * @param body Original XML
+         */
+        Events(final InputStream body) {
+            this.input = body;
+        }
+
+        @Override
+        public boolean produce(final OutputStream output) throws IOException {
+            final boolean more;
+            try {
+                if (this.reader == null) {
+                    this.reader = Events.READERS.createXMLStreamReader(
+                        this.input
+                    );
+                    this.handler = Events.serializer(output);
+                }
+                final XMLStreamReader xml = this.reader;
+                for (int idx = 0; idx < Events.PART && xml.hasNext(); ++idx) {
+                    this.copy(xml, xml.next());
+                }
+                more = xml.hasNext();
+            } catch (final XMLStreamException | SAXException
+                | TransformerConfigurationException ex) {
+                throw new IOException(ex);
             }
+            return more;
         }
-        return this.transformed.get(0);
-    }
 
-    /**
-     * Format body with proper indents using SAX.
-     * @param body Response body
-     * @return New properly formatted body
-     * @throws IOException If fails
-     */
-    private static byte[] transform(final InputStream body) throws IOException {
-        final SAXSource source = new SAXSource(new InputSource(body));
-        final ByteArrayOutputStream result = new ByteArrayOutputStream();
-        try {
-            final XMLReader xmlreader = SAXParserFactory.newInstance()
-                .newSAXParser().getXMLReader();
-            source.setXMLReader(xmlreader);
-            xmlreader.setFeature(
-                RsPrettyXml.LOAD_EXTERNAL_DTD, false
+        @Override
+        public void close() throws IOException {
+            try {
+                if (this.reader != null) {
+                    this.reader.close();
+                }
+            } catch (final XMLStreamException ex) {
+                throw new IOException(ex);
+            } finally {
+                this.input.close();
+            }
+        }
+
+        /**
+         * Send the current event to the serializer.
+         * @param xml StAX reader
+         * @param event Type of the event
+         * @throws SAXException If fails
+         * @checkstyle CyclomaticComplexityCheck (50 lines)
+         */
+        @SuppressWarnings("PMD.CyclomaticComplexity")
+        private void copy(final XMLStreamReader xml, final int event)
+            throws SAXException {
+            final TransformerHandler out = this.handler;
+            if (event == XMLStreamConstants.DTD) {
+                this.doctype(xml.getText());
+            } else if (event != XMLStreamConstants.START_DOCUMENT) {
+                this.start();
+            }
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    Events.element(xml, out);
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    out.endElement(
+                        Events.text(xml.getNamespaceURI()),
+                        xml.getLocalName(),
+                        Events.qualified(xml.getPrefix(), xml.getLocalName())
+                    );
+                    for (int idx = 0; idx < xml.getNamespaceCount(); ++idx) {
+                        out.endPrefixMapping(
+                            Events.text(xml.getNamespacePrefix(idx))
+                        );
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                    out.characters(
+                        xml.getTextCharacters(), xml.getTextStart(),
+                        xml.getTextLength()
+                    );
+                    break;
+                case XMLStreamConstants.CDATA:
+                    out.startCDATA();
+                    out.characters(
+                        xml.getTextCharacters(), xml.getTextStart(),
+                        xml.getTextLength()
+                    );
+                    out.endCDATA();
+                    break;
+                case XMLStreamConstants.COMMENT:
+                    out.comment(
+                        xml.getTextCharacters(), xml.getTextStart(),
+                        xml.getTextLength()
+                    );
+                    break;
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    out.processingInstruction(
+                        xml.getPITarget(), Events.text(xml.getPIData())
+                    );
+                    break;
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    out.skippedEntity(xml.getLocalName());
+                    break;
+                case XMLStreamConstants.END_DOCUMENT:
+                    out.endDocument();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Configure the serializer by the DOCTYPE and start the document.
+         * @param declaration DOCTYPE declaration
+         * @throws SAXException If fails
+         */
+        private void doctype(final String declaration) throws SAXException {
+            final Matcher matcher = Events.DOCTYPE.matcher(declaration);
+            if (matcher.lookingAt() && !this.started) {
+                final String name = matcher.group(1);
+                final String pid = Events.unquoted(matcher.group(2));
+                String sid = Events.unquoted(matcher.group(3));
+                if (sid == null) {
+                    sid = Events.unquoted(matcher.group(4));
+                }
+                final Transformer transformer =
+                    this.handler.getTransformer();
+                if (pid == null && sid == null
+                    && "html".equalsIgnoreCase(name)) {
+                    transformer.setOutputProperty(OutputKeys.METHOD, "html");
+                    transformer.setOutputProperty(OutputKeys.VERSION, "5.0");
+                } else {
+                    if (sid != null) {
+                        transformer.setOutputProperty(
+                            OutputKeys.DOCTYPE_SYSTEM, sid
+                        );
+                    }
+                    if (pid != null) {
+                        transformer.setOutputProperty(
+                            OutputKeys.DOCTYPE_PUBLIC, pid
+                        );
+                    }
+                }
+                this.start();
+                this.handler.startDTD(name, pid, sid);
+                this.handler.endDTD();
+            }
+        }
+
+        /**
+         * Start the document in the serializer, if not yet.
+         * @throws SAXException If fails
+         */
+        private void start() throws SAXException {
+            if (!this.started) {
+                this.handler.startDocument();
+                this.started = true;
+            }
+        }
+
+        /**
+         * Send the start of the element to the serializer.
+         * @param xml StAX reader
+         * @param out Serializer
+         * @throws SAXException If fails
+         */
+        private static void element(final XMLStreamReader xml,
+            final TransformerHandler out) throws SAXException {
+            for (int idx = 0; idx < xml.getNamespaceCount(); ++idx) {
+                out.startPrefixMapping(
+                    Events.text(xml.getNamespacePrefix(idx)),
+                    Events.text(xml.getNamespaceURI(idx))
+                );
+            }
+            final AttributesImpl attrs = new AttributesImpl();
+            for (int idx = 0; idx < xml.getAttributeCount(); ++idx) {
+                attrs.addAttribute(
+                    Events.text(xml.getAttributeNamespace(idx)),
+                    xml.getAttributeLocalName(idx),
+                    Events.qualified(
+                        xml.getAttributePrefix(idx),
+                        xml.getAttributeLocalName(idx)
+                    ),
+                    xml.getAttributeType(idx),
+                    xml.getAttributeValue(idx)
+                );
+            }
+            out.startElement(
+                Events.text(xml.getNamespaceURI()),
+                xml.getLocalName(),
+                Events.qualified(xml.getPrefix(), xml.getLocalName()),
+                attrs
             );
+        }
+
+        /**
+         * Make an indenting serializer.
+         * @param output Where to write
+         * @return Serializer
+         * @throws TransformerConfigurationException If fails
+         */
+        private static TransformerHandler serializer(
+            final OutputStream output)
+            throws TransformerConfigurationException {
+            final TransformerHandler handler;
+            synchronized (Events.SERIALIZERS) {
+                handler = Events.SERIALIZERS.newTransformerHandler();
+            }
             final String yes = "yes";
-            final Transformer transformer = TransformerFactory.newInstance()
-                .newTransformer();
-            transformer.setOutputProperty(
+            handler.getTransformer().setOutputProperty(
                 OutputKeys.OMIT_XML_DECLARATION, yes
             );
-            RsPrettyXml.prepareDocType(body, transformer);
-            transformer.setOutputProperty(OutputKeys.INDENT, yes);
-            transformer.transform(source, new StreamResult(result));
-        } catch (final TransformerException
-            | ParserConfigurationException
-            | SAXException ex) {
-            throw new IOException(ex);
+            handler.getTransformer().setOutputProperty(OutputKeys.INDENT, yes);
+            handler.setResult(new StreamResult(output));
+            return handler;
         }
-        return result.toByteArray();
-    }
 
-    /**
-     * Parses body to get DOCTYPE and configure Transformer
-     * with proper method, public id and system id.
-     * @param body The body to be parsed.
-     * @param transformer Transformer to configure with proper properties.
-     * @throws IOException if something goes wrong.
-     */
-    private static void prepareDocType(final InputStream body,
-        final Transformer transformer) throws IOException {
-        try {
-            final String html = "html";
-            final DocumentType doctype = RsPrettyXml.getDocType(body);
-            if (null != doctype) {
-                if (null == doctype.getSystemId()
-                    && null == doctype.getPublicId()
-                    && html.equalsIgnoreCase(doctype.getName())) {
-                    transformer.setOutputProperty(OutputKeys.METHOD, html);
-                    transformer.setOutputProperty(OutputKeys.VERSION, "5.0");
-                    return;
-                }
-                if (null != doctype.getSystemId()) {
-                    transformer.setOutputProperty(
-                        OutputKeys.DOCTYPE_SYSTEM,
-                        doctype.getSystemId()
-                    );
-                }
-                if (null != doctype.getPublicId()) {
-                    transformer.setOutputProperty(
-                        OutputKeys.DOCTYPE_PUBLIC,
-                        doctype.getPublicId()
-                    );
-                }
+        /**
+         * Make a factory of StAX readers, which never load external DTDs.
+         * @return Factory
+         */
+        private static XMLInputFactory readers() {
+            final XMLInputFactory factory = XMLInputFactory.newFactory();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(
+                XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false
+            );
+            return factory;
+        }
+
+        /**
+         * Qualified name.
+         * @param prefix Prefix, maybe empty or NULL
+         * @param local Local name
+         * @return Name
+         */
+        private static String qualified(final String prefix,
+            final String local) {
+            final String name;
+            if (prefix == null || prefix.isEmpty()) {
+                name = local;
+            } else {
+                name = String.join(":", prefix, local);
             }
-        } finally {
-            body.reset();
+            return name;
         }
-    }
 
-    /**
-     * Parses the input stream and returns DocumentType built without loading
-     * any external DTD schemas.
-     * @param body The body to be parsed.
-     * @return The documents DocumentType.
-     * @throws IOException if something goes wrong.
-     */
-    private static DocumentType getDocType(final InputStream body)
-        throws IOException {
-        final DocumentBuilderFactory factory =
-            DocumentBuilderFactory.newInstance();
-        try {
-            factory.setFeature(RsPrettyXml.LOAD_EXTERNAL_DTD, false);
-            final DocumentBuilder builder = factory.newDocumentBuilder();
-            return builder.parse(body).getDoctype();
-        } catch (final ParserConfigurationException | SAXException ex) {
-            throw new IOException(ex);
+        /**
+         * The text, or empty if it's NULL.
+         * @param text Text
+         * @return Text
+         */
+        private static String text(final String text) {
+            final String txt;
+            if (text == null) {
+                txt = "";
+            } else {
+                txt = text;
+            }
+            return txt;
+        }
+
+        /**
+         * The literal without quotes.
+         * @param literal Quoted literal or NULL
+         * @return Literal or NULL
+         */
+        private static String unquoted(final String literal) {
+            String text = literal;
+            if (text != null) {
+                text = text.substring(1, text.length() - 1);
+            }
+            return text;
         }
     }
 }
@@ -25,11 +25,11 @@ package org.takes.rs;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.Locale;
 import java.util.regex.Pattern;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -110,12 +110,30 @@ public final class RsPrint extends RsWrap implements Text {
 
     /**
      * Print it into output stream.
+     *
+     * <p>A {@link RsPrecompiled} response is written with one call,
+     * but only if it's not decorated, see {@link RsPrecompiled}.
+     * The body is written as the response writes it, see {@link Writable}.
+     * When the head has "Transfer-Encoding: chunked" header, the body is
+     * printed in chunks, as RFC 7230 requires, and a chunk is sent every
+     * time the body flushes the output or, if it's read, has nothing
+     * more available, so that a body which is being produced reaches
+     * the client in parts.
+     *
      * @param output Output to print into
      * @throws IOException If fails
      */
     public void print(final OutputStream output) throws IOException {
-        this.printHead(output);
-        this.printBody(output);
+        if (this.origin() instanceof RsPrecompiled) {
+            ((RsPrecompiled) this.origin()).write(output);
+        } else {
+            this.printHead(output);
+            if (this.chunked()) {
+                this.printChunks(output);
+            } else {
+                this.printBody(output);
+            }
+        }
     }
 
     /**
@@ -160,18 +178,35 @@ public final class RsPrint extends RsWrap implements Text {
      * @throws IOException If fails
      */
     public void printBody(final OutputStream output) throws IOException {
-        final InputStream body = this.body();
-        try {
-            final byte[] buf = new byte[4096];
-            while (true) {
-                final int bytes = body.read(buf);
-                if (bytes < 0) {
-                    break;
-                }
-                output.write(buf, 0, bytes);
+        this.writeTo(output);
+    }
+
+    /**
+     * Print body in chunks.
+     * @param output Output stream to print to
+     * @throws IOException If fails
+     */
+    private void printChunks(final OutputStream output) throws IOException {
+        final OutputStream chunks = new ChunkedOutputStream(output);
+        this.writeTo(chunks);
+        chunks.close();
+    }
+
+    /**
+     * Is the body chunked?
+     * @return TRUE if the head says so
+     * @throws IOException If fails
+     */
+    private boolean chunked() throws IOException {
+        final String prefix = "transfer-encoding:";
+        boolean chunked = false;
+        for (final String line : this.head()) {
+            if (line.regionMatches(true, 0, prefix, 0, prefix.length())
+                && line.trim().toLowerCase(Locale.ENGLISH)
+                    .endsWith("chunked")) {
+                chunked = true;
             }
-        } finally {
-            body.close();
         }
+        return chunked;
     }
 }
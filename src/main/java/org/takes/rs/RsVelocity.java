@@ -23,23 +23,34 @@
  */
 package org.takes.rs;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
 import java.io.Writer;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
-import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.exception.ParseErrorException;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.apache.velocity.runtime.parser.ParseException;
 import org.cactoos.Scalar;
 import org.cactoos.io.InputStreamOf;
-import org.cactoos.io.ReaderOf;
-import org.cactoos.io.WriterTo;
+import org.cactoos.scalar.IoChecked;
+import org.cactoos.text.TextOf;
 
 /**
  * Response that converts Velocity template to text.
@@ -59,14 +70,55 @@ import org.cactoos.io.WriterTo;
  *   }
  * }</pre>
  *
+ * <p>Velocity engines are created once per template folder and shared
+ * by all responses. Templates are parsed once and cached: the ones
+ * given as {@link URL} by their location, all others by their text.
+ * During development, when templates change, use the constructor with
+ * {@code reload} flag: the modification time of the template, if it's
+ * a file or a classpath resource, is checked on every response, and
+ * the template is parsed again if it changed. Macros defined inside
+ * a template are visible only in that template. See {@link #hits()}
+ * and {@link #misses()} for the statistics of the cache.
+ *
+ * <p>The page is rendered straight into the output, when the response
+ * is printed, see {@link Writable}.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.1
  */
 @ToString(callSuper = true)
 @EqualsAndHashCode(callSuper = true)
+@SuppressWarnings("PMD.TooManyMethods")
 public final class RsVelocity extends RsWrap {
 
+    /**
+     * Velocity engines, by template folders.
+     */
+    private static final Map<String, RuntimeInstance> ENGINES =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Parsed templates, by template folders and keys.
+     */
+    private static final Map<String, Map<String, RsVelocity.Parsed>>
+        TEMPLATES = new ConcurrentHashMap<>(0);
+
+    /**
+     * Maximum number of templates cached per folder.
+     */
+    private static final int MAX = 1024;
+
+    /**
+     * Cache hits.
+     */
+    private static final LongAdder HITS = new LongAdder();
+
+    /**
+     * Cache misses.
+     */
+    private static final LongAdder MISSES = new LongAdder();
+
     /**
      * Ctor.
      * @param template Template
@@ -90,7 +142,22 @@ public final class RsVelocity extends RsWrap {
      */
     public RsVelocity(final URL template,
         final RsVelocity.Pair... params) throws IOException {
-        this(template.openStream(), params);
+        this(template, false, params);
+    }
+
+    /**
+     * Ctor.
+     * @param template Template
+     * @param reload Parse the template again, if it was modified
+     * @param params List of params
+     * @since 2.0
+     */
+    public RsVelocity(final URL template, final boolean reload,
+        final RsVelocity.Pair... params) {
+        this(
+            () -> RsVelocity.located(".", template, reload),
+            () -> RsVelocity.convert(RsVelocity.asMap(params))
+        );
     }
 
     /**
@@ -132,40 +199,199 @@ public final class RsVelocity extends RsWrap {
      */
     public RsVelocity(final String folder,
         final InputStream template, final Scalar<Map<String, Object>> params) {
+        this(
+            () -> RsVelocity.inline(folder, new TextOf(template).asString()),
+            params
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param template Parsed template
+     * @param params Map of params
+     */
+    private RsVelocity(final Scalar<Template> template,
+        final Scalar<Map<String, Object>> params) {
         super(
-            new ResponseOf(
+            new RsWritable(
                 () -> new RsEmpty().head(),
-                () -> RsVelocity.render(folder, template, params.value())
+                output -> RsVelocity.render(
+                    new IoChecked<>(template).value(),
+                    new IoChecked<>(params).value(),
+                    output
+                )
             )
         );
     }
 
+    /**
+     * How many responses used templates parsed earlier.
+     * @return Number of cache hits
+     * @since 2.0
+     */
+    public static long hits() {
+        return RsVelocity.HITS.sum();
+    }
+
+    /**
+     * How many times templates were parsed.
+     * @return Number of cache misses
+     * @since 2.0
+     */
+    public static long misses() {
+        return RsVelocity.MISSES.sum();
+    }
+
     /**
      * Render it.
-     * @param folder Template folder
-     * @param template Page template
+     * @param template Parsed template
      * @param params Params for velocity
-     * @return Page body
+     * @param output Where to write the page
      * @throws IOException If fails
      */
-    private static InputStream render(final String folder,
-        final InputStream template,
-        final Map<String, Object> params) throws IOException {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (Writer writer = new WriterTo(baos)) {
-            final VelocityEngine engine = new VelocityEngine();
-            engine.setProperty(
-                "resource.loader.file.path",
-                folder
+    private static void render(final Template template,
+        final Map<String, Object> params, final OutputStream output)
+        throws IOException {
+        final Writer writer =
+            new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        template.merge(new VelocityContext(params), writer);
+        writer.flush();
+    }
+
+    /**
+     * Find parsed template by its text or parse it.
+     * @param folder Template folder
+     * @param text Text of the template
+     * @return Parsed template
+     * @throws Exception If fails
+     */
+    private static Template inline(final String folder, final String text)
+        throws Exception {
+        return RsVelocity.template(folder, text, 0L, "", () -> text);
+    }
+
+    /**
+     * Find parsed template by its location or parse it.
+     * @param folder Template folder
+     * @param url Location of the template
+     * @param reload Parse the template again, if it was modified
+     * @return Parsed template
+     * @throws Exception If fails
+     */
+    private static Template located(final String folder, final URL url,
+        final boolean reload) throws Exception {
+        final long modified;
+        if (reload) {
+            modified = RsVelocity.modified(url);
+        } else {
+            modified = 0L;
+        }
+        final String name = url.toString();
+        return RsVelocity.template(
+            folder, name, modified, name,
+            () -> new TextOf(url.openStream()).asString()
+        );
+    }
+
+    /**
+     * Find parsed template or parse it.
+     * @param folder Template folder
+     * @param key Key of the template in cache
+     * @param modified Modification time of the template, or zero
+     * @param name Name of the template, for error messages
+     * @param text Text of the template
+     * @return Parsed template
+     * @throws Exception If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static Template template(final String folder, final String key,
+        final long modified, final String name, final Scalar<String> text)
+        throws Exception {
+        final Map<String, RsVelocity.Parsed> cache =
+            RsVelocity.TEMPLATES.computeIfAbsent(
+                folder, dir -> new ConcurrentHashMap<>(0)
             );
-            engine.evaluate(
-                new VelocityContext(params),
-                writer,
-                "",
-                new ReaderOf(template)
+        RsVelocity.Parsed parsed = cache.get(key);
+        if (parsed == null || parsed.modified != modified) {
+            if (cache.size() >= RsVelocity.MAX) {
+                cache.clear();
+            }
+            parsed = new RsVelocity.Parsed(
+                RsVelocity.parse(
+                    RsVelocity.engine(folder),
+                    name,
+                    new StringReader(text.value())
+                ),
+                modified
             );
+            cache.put(key, parsed);
+            RsVelocity.MISSES.increment();
+        } else {
+            RsVelocity.HITS.increment();
+        }
+        return parsed.template;
+    }
+
+    /**
+     * Parse the template.
+     * @param engine Velocity engine
+     * @param name Name of the template, for error messages
+     * @param reader Text of the template
+     * @return Parsed template
+     */
+    private static Template parse(final RuntimeInstance engine,
+        final String name, final Reader reader) {
+        final Template template = new Template();
+        template.setName(name);
+        template.setRuntimeServices(engine);
+        try {
+            template.setData(engine.parse(reader, template));
+        } catch (final ParseException ex) {
+            throw new ParseErrorException(ex, name);
+        }
+        template.initDocument();
+        return template;
+    }
+
+    /**
+     * Find Velocity engine for the folder or make it.
+     * @param folder Template folder
+     * @return Engine
+     */
+    private static RuntimeInstance engine(final String folder) {
+        return RsVelocity.ENGINES.computeIfAbsent(
+            folder,
+            dir -> {
+                final RuntimeInstance engine = new RuntimeInstance();
+                engine.setProperty("resource.loader.file.path", dir);
+                engine.setProperty(
+                    RuntimeConstants.VM_PERM_INLINE_LOCAL, true
+                );
+                engine.init();
+                return engine;
+            }
+        );
+    }
+
+    /**
+     * Modification time of the template, if it's a file or
+     * a resource in classpath.
+     * @param url Location of the template
+     * @return Time or zero, if unknown
+     */
+    private static long modified(final URL url) {
+        long modified;
+        try {
+            if ("file".equals(url.getProtocol())) {
+                modified = new File(url.toURI()).lastModified();
+            } else {
+                modified = url.openConnection().getLastModified();
+            }
+        } catch (final IOException | URISyntaxException
+            | IllegalArgumentException ex) {
+            modified = 0L;
         }
-        return new ByteArrayInputStream(baos.toByteArray());
+        return modified;
     }
 
     /**
@@ -219,4 +445,31 @@ public final class RsVelocity extends RsWrap {
         }
     }
 
+    /**
+     * Parsed template.
+     * @since 2.0
+     */
+    private static final class Parsed {
+
+        /**
+         * The template.
+         */
+        private final Template template;
+
+        /**
+         * Its modification time, or zero.
+         */
+        private final long modified;
+
+        /**
+         * Ctor.
+         * @param tpl The template
+         * @param time Its modification time, or zero
+         */
+        Parsed(final Template tpl, final long time) {
+            this.template = tpl;
+            this.modified = time;
+        }
+    }
+
 }
@@ -23,12 +23,11 @@
  */
 package org.takes.rs;
 
+import java.util.Collections;
 import java.util.regex.Pattern;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.cactoos.Scalar;
-import org.cactoos.iterable.IterableOf;
-import org.cactoos.iterable.Joined;
 import org.takes.Response;
 
 /**
@@ -111,20 +110,18 @@ public final class RsWithHeader extends RsWrap {
     public RsWithHeader(final Response res, final Scalar<CharSequence> header) {
         super(
             new ResponseOf(
-                () -> RsWithHeader.extend(res.head(), header.value().toString()),
-                res::body
+                CompiledHead.with(res, Collections.singleton(header)),
+                res
             )
         );
     }
 
     /**
-     * Add to head additional header.
-     * @param head Original head
-     * @param header Value witch will be added to head
-     * @return Head with additional header
+     * Check the header line.
+     * @param header Header line
+     * @return The same header line
      */
-    private static Iterable<String> extend(final Iterable<String> head,
-        final String header) {
+    static String checked(final String header) {
         if (!RsWithHeader.HEADER.matcher(header).matches()) {
             throw new IllegalArgumentException(
                 String.format(
@@ -133,7 +130,7 @@ public final class RsWithHeader extends RsWrap {
                 )
             );
         }
-        return new Joined<String>(head, new IterableOf<>(header));
+        return header;
     }
 
 }
@@ -23,10 +23,10 @@
  */
 package org.takes.rs;
 
-import java.io.IOException;
 import java.util.Arrays;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.cactoos.iterable.Mapped;
 import org.takes.Response;
 
 /**
@@ -66,26 +66,12 @@ public final class RsWithHeaders extends RsWrap {
         final Iterable<? extends CharSequence> headers) {
         super(
             new ResponseOf(
-                () -> RsWithHeaders.extend(res, headers),
-                res::body
+                CompiledHead.with(
+                    res,
+                    new Mapped<>(hdr -> () -> hdr, headers)
+                ),
+                res
             )
         );
     }
-
-    /**
-     * Add to head additional headers.
-     * @param res Original response
-     * @param headers Values witch will be added to head
-     * @return Head with additional headers
-     * @throws IOException If fails
-     */
-    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
-    private static Iterable<String> extend(final Response res,
-        final Iterable<? extends CharSequence> headers) throws IOException {
-        Response resp = res;
-        for (final CharSequence hdr : headers) {
-            resp = new RsWithHeader(resp, hdr);
-        }
-        return resp.head();
-    }
 }
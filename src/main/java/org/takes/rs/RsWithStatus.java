@@ -23,21 +23,12 @@
  */
 package org.takes.rs;
 
-import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.cactoos.Text;
-import org.cactoos.iterable.Filtered;
-import org.cactoos.iterable.Joined;
-import org.cactoos.iterable.Mapped;
-import org.cactoos.scalar.Not;
-import org.cactoos.text.FormattedText;
-import org.cactoos.text.StartsWith;
-import org.cactoos.text.TextOf;
 import org.takes.Response;
 
 /**
@@ -83,47 +74,7 @@ public final class RsWithStatus extends RsWrap {
     public RsWithStatus(final Response res, final int code,
         final CharSequence rsn) {
         super(
-            new ResponseOf(
-                () -> RsWithStatus.head(res, code, rsn),
-                res::body
-            )
-        );
-    }
-
-    /**
-     * Make head.
-     * @param origin Original response
-     * @param status Status
-     * @param reason Reason
-     * @return Head
-     * @throws IOException If fails
-     */
-    private static Iterable<String> head(final Response origin,
-        final int status, final CharSequence reason) throws IOException {
-        if (status < 100 || status > 999) {
-            throw new IllegalArgumentException(
-                String.format(
-                    "According to RFC 7230 HTTP status code must have three digits: %d",
-                    status
-                )
-            );
-        }
-        return new Mapped<>(
-            Text::asString,
-            new Joined<>(
-                new FormattedText(
-                    "HTTP/1.1 %d %s", status, reason
-                ),
-                new Mapped<>(
-                    TextOf::new,
-                    new Filtered<>(
-                        item -> new Not(
-                            new StartsWith(item, "HTTP/")
-                        ).value(),
-                        origin.head()
-                    )
-                )
-            )
+            new ResponseOf(CompiledHead.status(res, code, rsn), res)
         );
     }
 
@@ -179,6 +130,8 @@ public final class RsWithStatus extends RsWrap {
         map.put(
             HttpURLConnection.HTTP_UNSUPPORTED_TYPE, "Unsupported Media Type"
         );
+        // @checkstyle MagicNumberCheck (1 line)
+        map.put(416, "Range Not Satisfiable");
         map.put(HttpURLConnection.HTTP_INTERNAL_ERROR, "Internal Server Error");
         map.put(HttpURLConnection.HTTP_NOT_IMPLEMENTED, "Not Implemented");
         map.put(HttpURLConnection.HTTP_BAD_GATEWAY, "Bad Gateway");
@@ -25,11 +25,6 @@ package org.takes.rs;
 
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.cactoos.iterable.Filtered;
-import org.cactoos.scalar.Not;
-import org.cactoos.text.FormattedText;
-import org.cactoos.text.Lowered;
-import org.cactoos.text.StartsWith;
 import org.takes.Response;
 
 /**
@@ -49,22 +44,6 @@ public final class RsWithoutHeader extends RsWrap {
      * @param name Header name
      */
     public RsWithoutHeader(final Response res, final CharSequence name) {
-        super(
-            new ResponseOf(
-                () -> new Filtered<>(
-                    header -> new Not(
-                        new StartsWith(
-                            new Lowered(header),
-                            new FormattedText(
-                                "%s:",
-                                new Lowered(name.toString())
-                            )
-                        )
-                    ).value(),
-                    res.head()
-                ),
-                res::body
-            )
-        );
+        super(new ResponseOf(CompiledHead.without(res, name), res));
     }
 }
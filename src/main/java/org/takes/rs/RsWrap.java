@@ -25,6 +25,7 @@ package org.takes.rs;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.takes.Response;
@@ -32,13 +33,16 @@ import org.takes.Response;
 /**
  * Response decorator.
  *
+ * <p>The body of the original response is written the way it writes
+ * it, see {@link Writable}.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.1
  */
 @ToString(of = "origin")
 @EqualsAndHashCode
-public class RsWrap implements Response {
+public class RsWrap implements Response, Writable {
 
     /**
      * Original response.
@@ -62,4 +66,17 @@ public class RsWrap implements Response {
     public final InputStream body() throws IOException {
         return this.origin.body();
     }
+
+    @Override
+    public final void writeTo(final OutputStream output) throws IOException {
+        new WritableOf(this.origin).writeTo(output);
+    }
+
+    /**
+     * The original response.
+     * @return Response
+     */
+    final Response origin() {
+        return this.origin;
+    }
 }
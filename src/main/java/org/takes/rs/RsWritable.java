@@ -0,0 +1,162 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.cactoos.Scalar;
+import org.cactoos.scalar.IoChecked;
+import org.takes.Response;
+
+/**
+ * Response of head and a body, which writes itself.
+ *
+ * <p>When the response is printed, the body is written straight into
+ * the output, see {@link Writable}. When it's read, as a stream, it's
+ * written into memory first, unless a stream for reading is given
+ * to the constructor:
+ *
+ * <pre> new RsWritable(
+ *   new RsEmpty()::head,
+ *   output -> template.merge(context, output)
+ * )</pre>
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+public final class RsWritable implements Response, Writable {
+
+    /**
+     * Initial size of the buffer for reading.
+     */
+    private static final int BUFFER = 8192;
+
+    /**
+     * The head.
+     */
+    private final IoChecked<Iterable<String>> shead;
+
+    /**
+     * The body, for reading.
+     */
+    private final IoChecked<InputStream> sbody;
+
+    /**
+     * The body, for writing.
+     */
+    private final Writable writer;
+
+    /**
+     * Ctor.
+     * @param head The head
+     * @param body The body
+     */
+    public RsWritable(final Scalar<Iterable<String>> head,
+        final Writable body) {
+        this(head, () -> RsWritable.read(body), body);
+    }
+
+    /**
+     * Ctor.
+     * @param head The head
+     * @param stream The body, for reading
+     * @param body The same body, for writing
+     */
+    public RsWritable(final Scalar<Iterable<String>> head,
+        final Scalar<InputStream> stream, final Writable body) {
+        this.shead = new IoChecked<>(head);
+        this.sbody = new IoChecked<>(stream);
+        this.writer = body;
+    }
+
+    @Override
+    public Iterable<String> head() throws IOException {
+        return this.shead.value();
+    }
+
+    @Override
+    public InputStream body() throws IOException {
+        return this.sbody.value();
+    }
+
+    @Override
+    public void writeTo(final OutputStream output) throws IOException {
+        this.writer.writeTo(output);
+    }
+
+    @Override
+    public boolean equals(final Object that) {
+        boolean equal = this == that;
+        if (!equal && that instanceof RsWritable) {
+            final Response other = (Response) that;
+            equal = new ResponseOf(this::head, this::body).equals(
+                new ResponseOf(other::head, other::body)
+            );
+        }
+        return equal;
+    }
+
+    @Override
+    public int hashCode() {
+        return new ResponseOf(this::head, this::body).hashCode();
+    }
+
+    /**
+     * Write the body into memory.
+     * @param body The body
+     * @return Stream to read it
+     * @throws IOException If fails
+     */
+    private static InputStream read(final Writable body) throws IOException {
+        final RsWritable.Buffer buffer = new RsWritable.Buffer();
+        body.writeTo(buffer);
+        return buffer.input();
+    }
+
+    /**
+     * Written body, which is read without copying.
+     * @since 2.0
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        /**
+         * Ctor.
+         */
+        Buffer() {
+            super(RsWritable.BUFFER);
+        }
+
+        /**
+         * Read what was written.
+         * @return Stream
+         */
+        InputStream input() {
+            return new ByteArrayInputStream(this.buf, 0, this.count);
+        }
+    }
+}
@@ -23,28 +23,40 @@
  */
 package org.takes.rs;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.xml.XMLConstants;
+import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.URIResolver;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.cactoos.io.InputStreamOf;
+import org.cactoos.Func;
 import org.cactoos.io.ReaderOf;
-import org.cactoos.io.WriterTo;
 import org.cactoos.scalar.Unchecked;
 import org.takes.Response;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
 
 /**
  * Response that converts XML into HTML using attached XSL stylesheet.
@@ -75,6 +87,30 @@ import org.takes.Response;
  *   )
  * )</pre>
  *
+ * <p>Stylesheets are compiled once, into {@link Templates}, which are
+ * cached by the URI resolver and the URI of the stylesheet, and every
+ * response gets a new transformer from them. During development,
+ * when stylesheets change, use the constructor with {@code reload} flag:
+ * the modification time of the stylesheet, if it's a file or a classpath
+ * resource, is checked on every response, and the stylesheet is
+ * compiled again if it changed. Stylesheets it includes or imports
+ * are not checked. See {@link #hits()}, {@link #misses()} and
+ * {@link #compilation()} for the statistics of the cache.
+ *
+ * <p>The XML is parsed once, with SAX: the events go straight to the
+ * transformer, as soon as the stylesheet is found in the prolog. When
+ * the response is printed, the result is written straight into the
+ * output, in the same thread, see {@link Writable}. When the body is
+ * read instead, for example by {@link RsGzip}, the transformation runs
+ * in {@link #body()}, in the same thread, into a buffer in memory, and
+ * its errors are thrown from there.
+ *
+ * <p>The XSLT engine is the default {@link TransformerFactory}, unless
+ * the name of the factory class is given to the constructor, for
+ * example {@code "net.sf.saxon.TransformerFactoryImpl"} for Saxon, when
+ * it is in classpath. The engine must support SAX, as JDK's one and
+ * Saxon do.
+ *
  * <p><strong>Note:</strong> It is highly recommended to use
  * Saxon as a default XSL transformer. All others, including Apache
  * Xalan, won't work correctly in most cases.</p>
@@ -86,14 +122,48 @@ import org.takes.Response;
  */
 @ToString(callSuper = true)
 @EqualsAndHashCode(callSuper = true)
+@SuppressWarnings("PMD.TooManyMethods")
 public final class RsXslt extends RsWrap {
 
     /**
-     * Cached factory.
+     * Cached factories, by engines.
      */
-    private static final Map<URIResolver, TransformerFactory> FACTORIES =
+    private static final Map<RsXslt.Engine, SAXTransformerFactory> FACTORIES =
         new ConcurrentHashMap<>(0);
 
+    /**
+     * Compiled stylesheets, by engines and URIs.
+     */
+    private static final Map<RsXslt.Engine, Map<String, RsXslt.Compiled>>
+        TEMPLATES = new ConcurrentHashMap<>(0);
+
+    /**
+     * Pseudo-attributes of xml-stylesheet processing instruction.
+     */
+    private static final Pattern PSEUDO = Pattern.compile(
+        "([a-zA-Z]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)')"
+    );
+
+    /**
+     * Factory of SAX parsers.
+     */
+    private static final SAXParserFactory SAX = RsXslt.sax();
+
+    /**
+     * How many times compiled stylesheets were used.
+     */
+    private static final LongAdder HITS = new LongAdder();
+
+    /**
+     * How many times stylesheets were compiled.
+     */
+    private static final LongAdder MISSES = new LongAdder();
+
+    /**
+     * Time spent compiling stylesheets, in nanoseconds.
+     */
+    private static final LongAdder NANOS = new LongAdder();
+
     /**
      * Ctor.
      * @param rsp Original response
@@ -108,31 +178,132 @@ public final class RsXslt extends RsWrap {
      * @param resolver URI resolver
      */
     public RsXslt(final Response rsp, final URIResolver resolver) {
+        this(rsp, resolver, false);
+    }
+
+    /**
+     * Ctor.
+     * @param rsp Original response
+     * @param resolver URI resolver
+     * @param reload Compile the stylesheet again, if it was modified
+     */
+    public RsXslt(final Response rsp, final URIResolver resolver,
+        final boolean reload) {
+        this(rsp, resolver, reload, "");
+    }
+
+    /**
+     * Ctor.
+     * @param rsp Original response
+     * @param resolver URI resolver
+     * @param reload Compile the stylesheet again, if it was modified
+     * @param factory Class name of {@link TransformerFactory} to use,
+     *  or empty string for the default one
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public RsXslt(final Response rsp, final URIResolver resolver,
+        final boolean reload, final String factory) {
+        this(rsp, new RsXslt.Engine(resolver, factory), reload);
+    }
+
+    /**
+     * Ctor.
+     * @param rsp Original response
+     * @param engine Engine
+     * @param reload Compile the stylesheet again, if it was modified
+     */
+    private RsXslt(final Response rsp, final RsXslt.Engine engine,
+        final boolean reload) {
         super(
             new RsWithHeader(
-                new ResponseOf(
+                new RsWritable(
                     rsp::head,
-                    () -> RsXslt.transform(rsp.body(), resolver)
+                    () -> RsXslt.transform(rsp.body(), engine, reload),
+                    output -> RsXslt.write(rsp.body(), engine, reload, output)
                 ),
                 () -> String.format(
                     "X-Takes-RsXslt-TransformerFactory: %s",
-                    RsXslt.factory(resolver).getClass().getCanonicalName()
+                    RsXslt.factory(engine).getClass().getCanonicalName()
                 )
             )
         );
     }
 
     /**
-     * Get factory for the given resolver.
-     * @param resolver Resolver
+     * How many responses used stylesheets compiled earlier.
+     * @return Number of cache hits
+     */
+    public static long hits() {
+        return RsXslt.HITS.sum();
+    }
+
+    /**
+     * How many times stylesheets were compiled.
+     * @return Number of cache misses
+     */
+    public static long misses() {
+        return RsXslt.MISSES.sum();
+    }
+
+    /**
+     * Total time spent compiling stylesheets.
+     * @return Nanoseconds
+     */
+    public static long compilation() {
+        return RsXslt.NANOS.sum();
+    }
+
+    /**
+     * Location of XSL stylesheet in xml-stylesheet instruction.
+     * @param data Data of the instruction
+     * @return Location or NULL, if it's not an XSL stylesheet
+     */
+    static String href(final String data) {
+        final Matcher matcher = RsXslt.PSEUDO.matcher(data);
+        String href = null;
+        String type = "text/xsl";
+        while (matcher.find()) {
+            String value = matcher.group(2);
+            if (value == null) {
+                value = matcher.group(3);
+            }
+            if ("href".equals(matcher.group(1))) {
+                href = value;
+            } else if ("type".equals(matcher.group(1))) {
+                type = value;
+            }
+        }
+        if (!type.contains("xsl") && !type.contains("xml")) {
+            href = null;
+        }
+        return href;
+    }
+
+    /**
+     * Get factory for the given engine.
+     * @param engine Engine
      * @return Factory
      */
-    private static TransformerFactory factory(final URIResolver resolver) {
+    private static SAXTransformerFactory factory(final RsXslt.Engine engine) {
         return RsXslt.FACTORIES.computeIfAbsent(
-            resolver,
-            res -> {
-                final TransformerFactory fct = TransformerFactory.newInstance();
-                fct.setURIResolver(res);
+            engine,
+            eng -> {
+                final TransformerFactory fct;
+                if (eng.factory.isEmpty()) {
+                    fct = TransformerFactory.newInstance();
+                } else {
+                    fct = TransformerFactory.newInstance(
+                        eng.factory, RsXslt.class.getClassLoader()
+                    );
+                }
+                if (!(fct instanceof SAXTransformerFactory)) {
+                    throw new IllegalStateException(
+                        String.format(
+                            "%s doesn't support SAX", fct.getClass().getName()
+                        )
+                    );
+                }
+                fct.setURIResolver(eng.resolver);
                 new Unchecked<>(
                     () -> {
                         fct.setFeature(
@@ -141,7 +312,7 @@ public final class RsXslt extends RsWrap {
                         );
                         return 0;
                     }).value();
-                return fct;
+                return (SAXTransformerFactory) fct;
             }
         );
     }
@@ -149,20 +320,40 @@ public final class RsXslt extends RsWrap {
     /**
      * Build body.
      * @param origin Original body
-     * @param resolver Resolver
+     * @param engine Engine
+     * @param reload Compile the stylesheet again, if it was modified
      * @return Body
      * @throws IOException If fails
      */
     private static InputStream transform(final InputStream origin,
-        final URIResolver resolver) throws IOException {
-        final TransformerFactory fct = RsXslt.factory(resolver);
+        final RsXslt.Engine engine, final boolean reload) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        RsXslt.write(origin, engine, reload, output);
+        return new ByteArrayInputStream(output.toByteArray());
+    }
+
+    /**
+     * Transform the body straight into the output.
+     * @param origin Original body
+     * @param engine Engine
+     * @param reload Compile the stylesheet again, if it was modified
+     * @param output Where to write the result
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static void write(final InputStream origin,
+        final RsXslt.Engine engine, final boolean reload,
+        final OutputStream output) throws IOException {
         try {
-            return RsXslt.transform(fct, origin);
-        } catch (final TransformerException ex) {
+            RsXslt.transform(origin, RsXslt.opener(engine, reload, output));
+        } catch (final IOException | RuntimeException ex) {
+            throw ex;
+        // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final Exception ex) {
             throw new IOException(
                 String.format(
                     "Can't transform via %s",
-                    fct.getClass().getName()
+                    RsXslt.factory(engine).getClass().getName()
                 ),
                 ex
             );
@@ -170,109 +361,210 @@ public final class RsXslt extends RsWrap {
     }
 
     /**
-     * Transform XML into HTML.
+     * Make transformers, which write into the output.
+     * @param engine Engine
+     * @param reload Compile the stylesheet again, if it was modified
+     * @param output Where to write the result
+     * @return Transformer for the location of the stylesheet
+     */
+    private static Func<String, TransformerHandler> opener(
+        final RsXslt.Engine engine, final boolean reload,
+        final OutputStream output) {
+        final SAXTransformerFactory fct = RsXslt.factory(engine);
+        return href -> {
+            final TransformerHandler handler = fct.newTransformerHandler(
+                RsXslt.templates(fct, engine, reload, href)
+            );
+            handler.setResult(new StreamResult(output));
+            return handler;
+        };
+    }
+
+    /**
+     * Parse XML and feed it to the transformer.
+     * @param xml The XML
+     * @param open Makes transformer for the location of the stylesheet
+     * @throws Exception If fails
+     */
+    private static void transform(final InputStream xml,
+        final Func<String, TransformerHandler> open) throws Exception {
+        try (InputStream input = xml) {
+            final XMLReader reader = RsXslt.SAX.newSAXParser().getXMLReader();
+            final XsltHandler handler = new XsltHandler(open);
+            reader.setContentHandler(handler);
+            reader.setProperty(
+                "http://xml.org/sax/properties/lexical-handler", handler
+            );
+            reader.parse(new InputSource(input));
+        }
+    }
+
+    /**
+     * Find compiled stylesheet or compile it.
      * @param factory Transformer factory
-     * @param xml XML page to be transformed.
-     * @return Resulting HTML page.
+     * @param engine Engine
+     * @param reload Compile the stylesheet again, if it was modified
+     * @param href Location of the stylesheet
+     * @return Compiled stylesheet
      * @throws TransformerException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
      */
-    private static InputStream transform(final TransformerFactory factory,
-        final InputStream xml) throws TransformerException {
-        final byte[] input;
-        try {
-            input = RsXslt.consume(xml);
-        } catch (final IOException ex) {
-            throw new IllegalStateException(
-                "Failed to consume XML by XSLT",
-                ex
+    private static Templates templates(final TransformerFactory factory,
+        final RsXslt.Engine engine, final boolean reload, final String href)
+        throws TransformerException {
+        final Map<String, RsXslt.Compiled> cache =
+            RsXslt.TEMPLATES.computeIfAbsent(
+                engine, eng -> new ConcurrentHashMap<>(0)
             );
+        final long modified;
+        if (reload) {
+            modified = RsXslt.modified(href);
+        } else {
+            modified = 0L;
         }
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        final Source xsl = RsXslt.stylesheet(
-            factory,
-            new StreamSource(new ReaderOf(input))
-        );
-        RsXslt.transformer(factory, xsl).transform(
-            new StreamSource(
-                new ReaderOf(input)
-            ),
-            new StreamResult(
-                new WriterTo(baos)
-            )
-        );
-        return new InputStreamOf(baos.toByteArray());
+        RsXslt.Compiled compiled = cache.get(href);
+        if (compiled == null || compiled.modified != modified) {
+            final long start = System.nanoTime();
+            Source source = engine.resolver.resolve(href, null);
+            if (source == null) {
+                source = new StreamSource(href);
+            }
+            final Templates templates = factory.newTemplates(source);
+            if (templates == null) {
+                throw new TransformerConfigurationException(
+                    String.format(
+                        "%s failed to compile XSL stylesheet '%s'",
+                        factory.getClass(), href
+                    )
+                );
+            }
+            compiled = new RsXslt.Compiled(templates, modified);
+            cache.put(href, compiled);
+            RsXslt.NANOS.add(System.nanoTime() - start);
+            RsXslt.MISSES.increment();
+        } else {
+            RsXslt.HITS.increment();
+        }
+        return compiled.templates;
     }
 
     /**
-     * Consume input stream.
-     * @param input Input stream
-     * @return Bytes found
-     * @throws IOException If fails
+     * Modification time of the stylesheet, if it's a file or
+     * a resource in classpath.
+     * @param href Location of the stylesheet
+     * @return Time or zero, if unknown
      */
-    private static byte[] consume(final InputStream input) throws IOException {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        final byte[] buf = new byte[4096];
+    private static long modified(final String href) {
+        long modified = 0L;
         try {
-            while (true) {
-                final int bytes = input.read(buf);
-                if (bytes < 0) {
-                    break;
-                }
-                baos.write(buf, 0, bytes);
+            final URI uri = URI.create(href);
+            final URL url;
+            if (uri.isAbsolute()) {
+                url = uri.toURL();
+            } else {
+                url = RsXslt.class.getResource(uri.getPath());
             }
-        } finally {
-            input.close();
+            if (url != null && "file".equals(url.getProtocol())) {
+                modified = new File(url.toURI()).lastModified();
+            } else if (url != null) {
+                modified = url.openConnection().getLastModified();
+            }
+        } catch (final IOException | URISyntaxException
+            | IllegalArgumentException ex) {
+            modified = 0L;
         }
-        return baos.toByteArray();
+        return modified;
     }
 
     /**
-     * Retrieve a stylesheet from this XML (throws an exception if
-     * no stylesheet is attached).
-     * @param factory Transformer factory
-     * @param xml The XML
-     * @return Stylesheet found
-     * @throws TransformerConfigurationException If fails
+     * Make SAX factory, which doesn't load external entities.
+     * @return Factory
      */
-    private static Source stylesheet(final TransformerFactory factory,
-        final Source xml) throws TransformerConfigurationException {
-        final Source stylesheet = factory.getAssociatedStylesheet(
-            xml, null, null, null
-        );
-        if (stylesheet == null) {
-            throw new IllegalArgumentException(
-                "No associated stylesheet found in XML"
-            );
+    private static SAXParserFactory sax() {
+        final SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        new Unchecked<>(
+            () -> {
+                factory.setFeature(
+                    XMLConstants.FEATURE_SECURE_PROCESSING, true
+                );
+                factory.setFeature(
+                    "http://xml.org/sax/features/external-general-entities",
+                    false
+                );
+                factory.setFeature(
+                    "http://xml.org/sax/features/external-parameter-entities",
+                    false
+                );
+                return 0;
+            }
+        ).value();
+        return factory;
+    }
+
+    /**
+     * URI resolver and XSLT engine.
+     * @since 2.0
+     */
+    @EqualsAndHashCode
+    private static final class Engine {
+
+        /**
+         * URI resolver.
+         */
+        private final URIResolver resolver;
+
+        /**
+         * Class name of the factory, or empty for the default one.
+         */
+        private final String factory;
+
+        /**
+         * Ctor.
+         * @param res URI resolver
+         * @param name Class name of the factory, or empty
+         */
+        Engine(final URIResolver res, final String name) {
+            this.resolver = res;
+            this.factory = name;
         }
-        return stylesheet;
     }
 
     /**
-     * Make a transformer from this stylesheet.
-     * @param factory Transformer factory
-     * @param stylesheet The stylesheet
-     * @return Transformer
-     * @throws TransformerConfigurationException If fails
+     * Compiled stylesheet.
+     * @since 2.0
      */
-    private static Transformer transformer(final TransformerFactory factory,
-        final Source stylesheet) throws TransformerConfigurationException {
-        final Transformer tnfr = factory.newTransformer(stylesheet);
-        if (tnfr == null) {
-            throw new TransformerConfigurationException(
-                String.format(
-                    "%s failed to create new XSL transformer for '%s'",
-                    factory.getClass(),
-                    stylesheet.getSystemId()
-                )
-            );
+    private static final class Compiled {
+
+        /**
+         * The stylesheet.
+         */
+        private final Templates templates;
+
+        /**
+         * Its modification time, or zero.
+         */
+        private final long modified;
+
+        /**
+         * Ctor.
+         * @param tpls The stylesheet
+         * @param time Its modification time, or zero
+         */
+        Compiled(final Templates tpls, final long time) {
+            this.templates = tpls;
+            this.modified = time;
         }
-        return tnfr;
     }
 
     /**
      * Classpath URI resolver.
+     *
+     * <p>All instances are equal, so that they share compiled stylesheets.
+     *
      * @since 0.1
      */
+    @EqualsAndHashCode
     private static final class InClasspath implements URIResolver {
         @Override
         public Source resolve(final String href, final String base)
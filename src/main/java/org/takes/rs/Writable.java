@@ -0,0 +1,54 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Body, which writes itself into an output stream.
+ *
+ * <p>It's the push-style alternative to {@link org.takes.Body#body()}.
+ * Responses which naturally write, like templates and serializers,
+ * implement it in order to write straight into the connection, without
+ * buffering the body in memory. {@link RsPrint}, and so
+ * {@link org.takes.http.BkBasic}, and the servlet adapter write bodies
+ * through it. {@link RsWrap} and the decorators built on
+ * {@link ResponseOf} keep it, as long as they don't change the body.
+ * To write the body of any response, use {@link WritableOf}; to make
+ * a response out of a writer, use {@link RsWritable}.
+ *
+ * <p>The bytes written must be the same as the ones the body of the
+ * response would give, if it's a response.
+ *
+ * @since 2.0
+ */
+public interface Writable {
+    /**
+     * Write the body.
+     * @param output Where to write, which must not be closed
+     * @throws IOException If fails
+     */
+    void writeTo(OutputStream output) throws IOException;
+}
@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import lombok.EqualsAndHashCode;
+import org.takes.Body;
+
+/**
+ * Body of any kind, written into an output stream.
+ *
+ * <p>When the body is {@link Writable}, it writes itself. Otherwise, its
+ * stream is read and copied, and closed at the end; the output is
+ * flushed every time the stream has nothing more available, so that
+ * a body produced while being read reaches the client in parts.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@EqualsAndHashCode
+public final class WritableOf implements Writable {
+
+    /**
+     * Size of the buffer for copying.
+     */
+    private static final int BUFFER = 8192;
+
+    /**
+     * The body.
+     */
+    private final Body origin;
+
+    /**
+     * Ctor.
+     * @param body The body, or a response
+     */
+    public WritableOf(final Body body) {
+        this.origin = body;
+    }
+
+    @Override
+    public void writeTo(final OutputStream output) throws IOException {
+        if (this.origin instanceof Writable) {
+            ((Writable) this.origin).writeTo(output);
+        } else {
+            try (InputStream body = this.origin.body()) {
+                final byte[] buf = new byte[WritableOf.BUFFER];
+                for (int read = body.read(buf); read >= 0;
+                    read = body.read(buf)) {
+                    output.write(buf, 0, read);
+                    if (body.available() == 0) {
+                        output.flush();
+                    }
+                }
+            }
+        }
+    }
+}
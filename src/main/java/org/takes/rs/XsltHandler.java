@@ -0,0 +1,246 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.transform.sax.TransformerHandler;
+import org.cactoos.Func;
+import org.xml.sax.Attributes;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.DefaultHandler2;
+
+/**
+ * SAX handler, which finds the XSL stylesheet in the prolog of
+ * the document and then feeds the document to the transformer.
+ *
+ * <p>Events before the root element are kept until the root element
+ * starts. Then the transformer is made for the stylesheet of the
+ * last {@code xml-stylesheet} instruction seen, the kept events are
+ * replayed to it, and all further events go to it directly. The
+ * document is parsed only once.
+ *
+ * <p>The class is NOT thread-safe.
+ *
+ * @since 2.0
+ */
+final class XsltHandler extends DefaultHandler2 {
+
+    /**
+     * Makes transformer for the location of the stylesheet.
+     */
+    private final Func<String, TransformerHandler> open;
+
+    /**
+     * Events of the prolog, to replay.
+     */
+    private final List<XsltHandler.Event> prolog;
+
+    /**
+     * Location of the stylesheet, if found.
+     */
+    private String href;
+
+    /**
+     * Locator of the parser.
+     */
+    private Locator locator;
+
+    /**
+     * The transformer, when the root element starts.
+     */
+    private TransformerHandler target;
+
+    /**
+     * Ctor.
+     * @param transformer Makes transformer for the location of
+     *  the stylesheet; a document without a stylesheet is rejected
+     *  with {@link IllegalArgumentException}
+     */
+    XsltHandler(final Func<String, TransformerHandler> transformer) {
+        super();
+        this.open = transformer;
+        this.prolog = new ArrayList<>(0);
+    }
+
+    @Override
+    public void setDocumentLocator(final Locator loc) {
+        this.locator = loc;
+    }
+
+    @Override
+    public void startDocument() {
+        // nothing to do, the transformer doesn't exist yet
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        this.target.endDocument();
+    }
+
+    @Override
+    public void startPrefixMapping(final String prefix, final String uri)
+        throws SAXException {
+        if (this.target == null) {
+            this.prolog.add(hdl -> hdl.startPrefixMapping(prefix, uri));
+        } else {
+            this.target.startPrefixMapping(prefix, uri);
+        }
+    }
+
+    @Override
+    public void endPrefixMapping(final String prefix) throws SAXException {
+        this.target.endPrefixMapping(prefix);
+    }
+
+    @Override
+    public void startElement(final String uri, final String local,
+        final String name, final Attributes attrs) throws SAXException {
+        if (this.target == null) {
+            this.start();
+        }
+        this.target.startElement(uri, local, name, attrs);
+    }
+
+    @Override
+    public void endElement(final String uri, final String local,
+        final String name) throws SAXException {
+        this.target.endElement(uri, local, name);
+    }
+
+    @Override
+    public void characters(final char[] chars, final int start,
+        final int length) throws SAXException {
+        this.target.characters(chars, start, length);
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] chars, final int start,
+        final int length) throws SAXException {
+        this.target.ignorableWhitespace(chars, start, length);
+    }
+
+    @Override
+    public void processingInstruction(final String name, final String data)
+        throws SAXException {
+        if (this.target == null) {
+            if ("xml-stylesheet".equals(name)) {
+                final String found = RsXslt.href(data);
+                if (found != null) {
+                    this.href = found;
+                }
+            }
+            this.prolog.add(hdl -> hdl.processingInstruction(name, data));
+        } else {
+            this.target.processingInstruction(name, data);
+        }
+    }
+
+    @Override
+    public void skippedEntity(final String name) throws SAXException {
+        if (this.target != null) {
+            this.target.skippedEntity(name);
+        }
+    }
+
+    @Override
+    public void comment(final char[] chars, final int start,
+        final int length) throws SAXException {
+        if (this.target == null) {
+            final String text = new String(chars, start, length);
+            this.prolog.add(
+                hdl -> hdl.comment(text.toCharArray(), 0, text.length())
+            );
+        } else {
+            this.target.comment(chars, start, length);
+        }
+    }
+
+    @Override
+    public void startCDATA() throws SAXException {
+        this.target.startCDATA();
+    }
+
+    @Override
+    public void endCDATA() throws SAXException {
+        this.target.endCDATA();
+    }
+
+    @Override
+    public void startEntity(final String name) throws SAXException {
+        if (this.target != null) {
+            this.target.startEntity(name);
+        }
+    }
+
+    @Override
+    public void endEntity(final String name) throws SAXException {
+        if (this.target != null) {
+            this.target.endEntity(name);
+        }
+    }
+
+    /**
+     * Make the transformer and replay the prolog to it.
+     * @throws SAXException If fails
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void start() throws SAXException {
+        if (this.href == null) {
+            throw new IllegalArgumentException(
+                "No associated stylesheet found in XML"
+            );
+        }
+        try {
+            this.target = this.open.apply(this.href);
+        } catch (final SAXException | RuntimeException ex) {
+            throw ex;
+        // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final Exception ex) {
+            throw new SAXException(ex);
+        }
+        if (this.locator != null) {
+            this.target.setDocumentLocator(this.locator);
+        }
+        this.target.startDocument();
+        for (final XsltHandler.Event event : this.prolog) {
+            event.replay(this.target);
+        }
+        this.prolog.clear();
+    }
+
+    /**
+     * Event of the prolog.
+     * @since 2.0
+     */
+    private interface Event {
+        /**
+         * Send it to the transformer.
+         * @param handler The transformer
+         * @throws SAXException If fails
+         */
+        void replay(TransformerHandler handler) throws SAXException;
+    }
+}
@@ -23,36 +23,40 @@
  */
 package org.takes.rs.xe;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.util.Arrays;
+import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.cactoos.io.WriterTo;
-import org.takes.rs.ResponseOf;
 import org.takes.rs.RsEmpty;
 import org.takes.rs.RsWithStatus;
 import org.takes.rs.RsWithType;
 import org.takes.rs.RsWrap;
+import org.takes.rs.RsWritable;
 import org.w3c.dom.Document;
+import org.w3c.dom.DocumentType;
 import org.w3c.dom.Node;
 import org.xembly.Xembler;
 
 /**
  * Response that converts Xembly object to XML.
  *
+ * <p>The DOM node to build upon is copied for every response, with
+ * {@link Document#importNode(Node, boolean)}, and is never modified.
+ * Document builders and XML serializers are created once per thread
+ * and reused. The XML is serialized straight into the output, when the
+ * response is printed, see {@link org.takes.rs.Writable}.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.1
@@ -61,6 +65,30 @@ import org.xembly.Xembler;
 @EqualsAndHashCode(callSuper = true)
 public final class RsXembly extends RsWrap {
 
+    /**
+     * Factory of XML serializers.
+     */
+    private static final TransformerFactory TRANSFORMERS =
+        TransformerFactory.newInstance();
+
+    /**
+     * Factory of DOM document builders.
+     */
+    private static final DocumentBuilderFactory BUILDERS =
+        DocumentBuilderFactory.newInstance();
+
+    /**
+     * XML serializers, one per thread.
+     */
+    private static final ThreadLocal<Transformer> SERIALIZERS =
+        ThreadLocal.withInitial(RsXembly::serializer);
+
+    /**
+     * DOM document builders, one per thread.
+     */
+    private static final ThreadLocal<DocumentBuilder> DOCUMENTS =
+        ThreadLocal.withInitial(RsXembly::builder);
+
     /**
      * Ctor.
      * @param sources Sources
@@ -110,13 +138,13 @@ public final class RsXembly extends RsWrap {
      */
     public RsXembly(final Node dom, final XeSource src) {
         super(
-            new ResponseOf(
+            new RsWritable(
                 () -> new RsWithType(
                     new RsWithStatus(
                         new RsEmpty(), HttpURLConnection.HTTP_OK
                     ), "text/xml"
                 ).head(),
-                () -> RsXembly.render(dom, src)
+                output -> RsXembly.render(dom, src, output)
             )
         );
     }
@@ -125,29 +153,28 @@ public final class RsXembly extends RsWrap {
      * Render source as XML.
      * @param dom DOM node to build upon
      * @param src Source
-     * @return XML
+     * @param output Where to write the XML
      * @throws IOException If fails
      */
-    private static InputStream render(final Node dom,
-        final XeSource src) throws IOException {
-        final Node copy = cloneNode(dom);
-        final ByteArrayOutputStream baos =
-            new ByteArrayOutputStream();
-        final Node node = new Xembler(src.toXembly()).applyQuietly(copy);
+    private static void render(final Node dom, final XeSource src,
+        final OutputStream output) throws IOException {
+        final Node node = new Xembler(src.toXembly()).applyQuietly(
+            RsXembly.cloneNode(dom)
+        );
+        final Transformer transformer = RsXembly.SERIALIZERS.get();
         try {
-            TransformerFactory.newInstance().newTransformer().transform(
+            transformer.transform(
                 new DOMSource(node),
-                new StreamResult(
-                    new WriterTo(baos)
-                )
+                new StreamResult(output)
             );
         } catch (final TransformerException ex) {
             throw new IllegalStateException(
                 "Failed to transform XML via XSLT",
                 ex
             );
+        } finally {
+            transformer.reset();
         }
-        return new ByteArrayInputStream(baos.toByteArray());
     }
 
     /**
@@ -155,45 +182,58 @@ public final class RsXembly extends RsWrap {
      * @return Document
      */
     private static Document emptyDocument() {
-        try {
-            return DocumentBuilderFactory.newInstance()
-                .newDocumentBuilder()
-                .newDocument();
-        } catch (final ParserConfigurationException ex) {
-            throw new IllegalStateException(
-                "Could not instantiate DocumentBuilderFactory and build empty Document",
-                ex
-            );
-        }
+        return RsXembly.DOCUMENTS.get().newDocument();
     }
 
     /**
-     * Create Node clone.
+     * Create Node clone, in a new Document.
      * @param dom Node to clone
      * @return Cloned Node
      */
     private static Node cloneNode(final Node dom) {
-        final Transformer transformer;
+        final Document doc = RsXembly.emptyDocument();
+        if (dom.getNodeType() == Node.DOCUMENT_NODE) {
+            for (Node child = dom.getFirstChild(); child != null;
+                child = child.getNextSibling()) {
+                if (!(child instanceof DocumentType)) {
+                    doc.appendChild(doc.importNode(child, true));
+                }
+            }
+        } else {
+            doc.appendChild(doc.importNode(dom, true));
+        }
+        return doc;
+    }
+
+    /**
+     * Create new XML serializer.
+     * @return Transformer
+     */
+    private static Transformer serializer() {
         try {
-            transformer = TransformerFactory.newInstance().newTransformer();
+            synchronized (RsXembly.TRANSFORMERS) {
+                return RsXembly.TRANSFORMERS.newTransformer();
+            }
         } catch (final TransformerConfigurationException ex) {
             throw new IllegalStateException(
-                "Could not create new Transformer to clone Node",
+                "Could not create new Transformer to serialize XML",
                 ex
             );
         }
-        final DOMSource source = new DOMSource(dom);
+    }
+
+    /**
+     * Create new DOM document builder.
+     * @return Builder
+     */
+    private static DocumentBuilder builder() {
         try {
-            final DOMResult result = new DOMResult();
-            transformer.transform(source, result);
-            return result.getNode();
-        } catch (final TransformerException ex) {
-            throw new IllegalArgumentException(
-                String.format(
-                    "Could not clone Node %s with Transformer %s",
-                    source,
-                    transformer
-                ),
+            synchronized (RsXembly.BUILDERS) {
+                return RsXembly.BUILDERS.newDocumentBuilder();
+            }
+        } catch (final ParserConfigurationException ex) {
+            throw new IllegalStateException(
+                "Could not instantiate DocumentBuilderFactory and build empty Document",
                 ex
             );
         }
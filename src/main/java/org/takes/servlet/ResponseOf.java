@@ -26,10 +26,13 @@ package org.takes.servlet;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpCookie;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.cactoos.Text;
@@ -40,18 +43,20 @@ import org.cactoos.text.Trimmed;
 import org.cactoos.text.UncheckedText;
 import org.takes.Response;
 import org.takes.misc.Equality;
+import org.takes.rs.WritableOf;
 
 /**
  * Takes response as servlet response.
  *
+ * <p>The body is written straight into the servlet output, the way the
+ * response writes it, see {@link org.takes.rs.Writable}. The container
+ * frames the body on its own, so hop-by-hop headers of the response,
+ * like "Transfer-Encoding: chunked" of {@link org.takes.rs.RsGzip},
+ * are not copied.
+ *
  * @since 2.0
  */
 final class ResponseOf {
-    /**
-     * Buffer size.
-     */
-    private static final int BUFSIZE = 8192;
-
     /**
      * Http response first line head pattern.
      */
@@ -60,6 +65,16 @@ final class ResponseOf {
         Pattern.CANON_EQ | Pattern.DOTALL | Pattern.CASE_INSENSITIVE
     );
 
+    /**
+     * Hop-by-hop headers, in lower case, which the container sets.
+     */
+    private static final Collection<String> HOP = new HashSet<>(
+        Arrays.asList(
+            "connection", "keep-alive", "proxy-connection",
+            "te", "trailer", "transfer-encoding", "upgrade"
+        )
+    );
+
     /**
      * Origin response.
      */
@@ -86,14 +101,8 @@ final class ResponseOf {
             while (head.hasNext()) {
                 ResponseOf.applyHeader(sresp, head.next());
             }
-            try (
-                InputStream body = this.rsp.body();
-                OutputStream out = sresp.getOutputStream()
-            ) {
-                final byte[] buff = new byte[ResponseOf.BUFSIZE];
-                for (int read = body.read(buff); read >= 0; read = body.read(buff)) {
-                    out.write(buff);
-                }
+            try (OutputStream out = sresp.getOutputStream()) {
+                new WritableOf(this.rsp).writeTo(out);
             }
         } else {
             throw new IOException("Invalid response: response code not found");
@@ -121,7 +130,9 @@ final class ResponseOf {
                     new Cookie(cck.getName(), cck.getValue())
                 );
             }
-        } else {
+        } else if (!ResponseOf.HOP.contains(
+            name.asString().toLowerCase(Locale.ENGLISH)
+        )) {
             sresp.setHeader(name.asString(), val.asString());
         }
     }
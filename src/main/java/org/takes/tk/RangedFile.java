@@ -0,0 +1,326 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.tk;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.rq.RqHeaders;
+import org.takes.rq.RqMethod;
+import org.takes.rs.ResponseOf;
+import org.takes.rs.RsWithHeaders;
+import org.takes.rs.RsWithStatus;
+
+/**
+ * File, sent entirely or in byte ranges.
+ *
+ * <p>A {@code GET} request with {@code Range} header gets
+ * "206 Partial Content" with one range or with many of them, in
+ * {@code multipart/byteranges} body. Overlapping and adjacent ranges
+ * are merged. When none of the ranges is satisfiable, the response is
+ * "416 Range Not Satisfiable". When {@code If-Range} header doesn't
+ * match the entity tag or the modification time of the file, or the
+ * {@code Range} header is broken or has too many ranges, the entire
+ * file is sent. The entire file and the ranges are read by
+ * {@link Slices}, with positional reads of the file, and the
+ * {@code Content-Length} is the size of the file, even if it's larger
+ * than 2Gb.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+final class RangedFile {
+
+    /**
+     * Maximum number of ranges in one request.
+     */
+    private static final int MAX = 32;
+
+    /**
+     * One range.
+     */
+    private static final Pattern RANGE = Pattern.compile(
+        "\\s*(\\d*)\\s*-\\s*(\\d*)\\s*"
+    );
+
+    /**
+     * The file.
+     */
+    private final File file;
+
+    /**
+     * Ctor.
+     * @param src The file
+     */
+    RangedFile(final File src) {
+        this.file = src;
+    }
+
+    /**
+     * Make a response.
+     * @param req Request
+     * @return Response
+     * @throws IOException If fails
+     */
+    Response response(final Request req) throws IOException {
+        final long length = this.file.length();
+        final long modified = this.file.lastModified();
+        final RqHeaders headers = new RqHeaders.Base(req);
+        final List<String> range = headers.header("Range");
+        List<long[]> ranges = null;
+        if (RqMethod.GET.equals(new RqMethod.Base(req).method())
+            && range.size() == 1
+            && RangedFile.current(
+                headers.header("If-Range"), length, modified
+            )) {
+            ranges = RangedFile.parsed(range.get(0), length);
+        }
+        final Response response;
+        if (ranges == null) {
+            response = new RsWithHeaders(
+                Sidecars.validated(
+                    new ResponseOf(
+                        () -> Collections.singletonList("HTTP/1.1 200 OK"),
+                        () -> new Slices(
+                            this.file, length, modified,
+                            new long[] {0L}, new long[] {length},
+                            new byte[][] {new byte[0]}, new byte[0]
+                        )
+                    ),
+                    length, modified
+                ),
+                "Accept-Ranges: bytes",
+                String.format("Content-Length: %d", length)
+            );
+        } else if (ranges.isEmpty()) {
+            // @checkstyle MagicNumberCheck (2 lines)
+            response = new RsWithHeaders(
+                new RsWithStatus(416),
+                String.format("Content-Range: bytes */%d", length),
+                "Content-Length: 0"
+            );
+        } else {
+            response = this.partial(ranges, length, modified);
+        }
+        return response;
+    }
+
+    /**
+     * Make "206 Partial Content" response.
+     * @param ranges Ranges, as first and last positions
+     * @param length Size of the file
+     * @param modified Modification time of the file
+     * @return Response
+     */
+    private Response partial(final List<long[]> ranges, final long length,
+        final long modified) {
+        final int count = ranges.size();
+        final long[] starts = new long[count];
+        final long[] ends = new long[count];
+        final byte[][] prefixes = new byte[count][];
+        final List<String> head = new ArrayList<>(0);
+        head.add("HTTP/1.1 206 Partial Content");
+        head.add(String.format("Last-Modified: %s", Sidecars.date(modified)));
+        head.add(String.format("ETag: %s", Sidecars.tag(length, modified)));
+        head.add("Accept-Ranges: bytes");
+        final byte[] suffix;
+        long total = 0L;
+        if (count == 1) {
+            starts[0] = ranges.get(0)[0];
+            ends[0] = ranges.get(0)[1] + 1L;
+            prefixes[0] = new byte[0];
+            suffix = new byte[0];
+            head.add(
+                String.format(
+                    "Content-Range: bytes %d-%d/%d",
+                    starts[0], ends[0] - 1L, length
+                )
+            );
+        } else {
+            final String boundary = String.format(
+                "%016x", ThreadLocalRandom.current().nextLong()
+            );
+            for (int idx = 0; idx < count; ++idx) {
+                starts[idx] = ranges.get(idx)[0];
+                ends[idx] = ranges.get(idx)[1] + 1L;
+                final String sep;
+                if (idx == 0) {
+                    sep = "";
+                } else {
+                    sep = "\r\n";
+                }
+                prefixes[idx] = String.format(
+                    "%s--%s\r\nContent-Range: bytes %d-%d/%d\r\n\r\n",
+                    sep, boundary, starts[idx], ends[idx] - 1L, length
+                ).getBytes(StandardCharsets.US_ASCII);
+                total += prefixes[idx].length;
+            }
+            suffix = String.format("\r\n--%s--\r\n", boundary)
+                .getBytes(StandardCharsets.US_ASCII);
+            total += suffix.length;
+            head.add(
+                String.format(
+                    "Content-Type: multipart/byteranges; boundary=%s",
+                    boundary
+                )
+            );
+        }
+        for (int idx = 0; idx < count; ++idx) {
+            total += ends[idx] - starts[idx];
+        }
+        head.add(String.format("Content-Length: %d", total));
+        return new ResponseOf(
+            () -> head,
+            () -> new Slices(
+                this.file, length, modified, starts, ends, prefixes, suffix
+            )
+        );
+    }
+
+    /**
+     * Does If-Range header, if any, match the file?
+     * @param values Values of If-Range header
+     * @param length Size of the file
+     * @param modified Modification time of the file
+     * @return TRUE if ranges may be sent
+     */
+    private static boolean current(final List<String> values,
+        final long length, final long modified) {
+        boolean current = true;
+        if (!values.isEmpty()) {
+            final String value = values.get(0).trim();
+            current = value.equals(Sidecars.tag(length, modified))
+                || value.equals(Sidecars.date(modified));
+        }
+        return current;
+    }
+
+    /**
+     * Parse the ranges.
+     * @param header Value of Range header
+     * @param length Size of the file
+     * @return Satisfiable ranges, sorted and merged, as first and last
+     *  positions, or NULL if the header can't be used
+     */
+    private static List<long[]> parsed(final String header,
+        final long length) {
+        final String prefix = "bytes=";
+        List<long[]> ranges = null;
+        if (header.trim().startsWith(prefix)) {
+            ranges = new ArrayList<>(0);
+            final String[] specs = header.trim().substring(prefix.length())
+                .split(",");
+            for (final String spec : specs) {
+                final Matcher matcher = RangedFile.RANGE.matcher(spec);
+                if (specs.length > RangedFile.MAX || !matcher.matches()
+                    || matcher.group(1).isEmpty()
+                    && matcher.group(2).isEmpty()) {
+                    ranges = null;
+                    break;
+                }
+                final long[] bounds = RangedFile.bounds(
+                    matcher.group(1), matcher.group(2), length
+                );
+                if (bounds.length > 0) {
+                    ranges.add(bounds);
+                }
+            }
+        }
+        if (ranges != null) {
+            ranges = RangedFile.merged(ranges);
+        }
+        return ranges;
+    }
+
+    /**
+     * First and last positions of one range.
+     * @param first First position, may be empty
+     * @param last Last position, may be empty
+     * @param length Size of the file
+     * @return Positions or an empty array if the range is not satisfiable
+     */
+    private static long[] bounds(final String first, final String last,
+        final long length) {
+        long start;
+        long end = length - 1L;
+        try {
+            if (first.isEmpty()) {
+                start = Math.max(0L, length - Long.parseLong(last));
+            } else {
+                start = Long.parseLong(first);
+                if (!last.isEmpty()) {
+                    end = Math.min(end, Long.parseLong(last));
+                }
+            }
+        } catch (final NumberFormatException ex) {
+            start = length;
+        }
+        final long[] bounds;
+        if (start <= end && start < length) {
+            bounds = new long[] {start, end};
+        } else {
+            bounds = new long[0];
+        }
+        return bounds;
+    }
+
+    /**
+     * Sort the ranges and merge overlapping and adjacent ones.
+     * @param ranges Ranges
+     * @return Merged ranges
+     */
+    private static List<long[]> merged(final List<long[]> ranges) {
+        final List<long[]> merged = new ArrayList<>(ranges.size());
+        if (ranges.size() == 1) {
+            merged.addAll(ranges);
+        } else {
+            final List<long[]> sorted = new ArrayList<>(ranges);
+            sorted.sort(Comparator.comparingLong(range -> range[0]));
+            for (final long[] range : sorted) {
+                final long[] prev;
+                if (merged.isEmpty()) {
+                    prev = null;
+                } else {
+                    prev = merged.get(merged.size() - 1);
+                }
+                if (prev != null && range[0] <= prev[1] + 1L) {
+                    prev[1] = Math.max(prev[1], range[1]);
+                } else {
+                    merged.add(range.clone());
+                }
+            }
+        }
+        return Collections.unmodifiableList(merged);
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.tk;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.cactoos.BiFunc;
+import org.cactoos.Func;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.facets.fork.FkEncoding;
+import org.takes.rs.RsEmpty;
+import org.takes.rs.RsWithHeader;
+import org.takes.rs.RsWithHeaders;
+
+/**
+ * Static resources with precompressed sidecars.
+ *
+ * <p>Next to a resource "app.js" there may be "app.js.br" and
+ * "app.js.gz", compressed at build time with Brotli and GZIP. When
+ * the client accepts one of these encodings, the sidecar is served
+ * instead of the resource, with Content-Encoding header. Brotli is
+ * preferred, since its files are smaller. A resource with sidecars
+ * always gets "Vary: Accept-Encoding" header.
+ *
+ * <p>Which sidecars exist is checked once per resource and
+ * then remembered. Responses carry {@code Last-Modified} and
+ * {@code ETag} headers, made of the modification time and the size
+ * of the resource, see {@link TkConditional}.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 2.0
+ */
+final class Sidecars {
+
+    /**
+     * Maximum amount of resources to remember.
+     */
+    private static final int MAX = 10_000;
+
+    /**
+     * Encodings of sidecars, in the order of preference.
+     */
+    private static final String[] CODINGS = {"br", "gzip"};
+
+    /**
+     * Suffixes of sidecars, for the encodings.
+     */
+    private static final String[] SUFFIXES = {".br", ".gz"};
+
+    /**
+     * Format of HTTP dates.
+     */
+    private static final DateTimeFormatter DATE = DateTimeFormatter
+        .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.ENGLISH)
+        .withZone(ZoneOffset.UTC);
+
+    /**
+     * Does the resource exist?
+     */
+    private final Func<String, Boolean> exists;
+
+    /**
+     * Make a response with the resource or fail with 404.
+     */
+    private final BiFunc<String, Request, Response> open;
+
+    /**
+     * Sidecars of resources, as bit masks of {@link #CODINGS}.
+     */
+    private final Map<String, Integer> cache;
+
+    /**
+     * Ctor.
+     * @param check Does the resource exist?
+     * @param opener Make a response with the resource or fail with 404
+     */
+    Sidecars(final Func<String, Boolean> check,
+        final BiFunc<String, Request, Response> opener) {
+        this.exists = check;
+        this.open = opener;
+        this.cache = new ConcurrentHashMap<>(0);
+    }
+
+    /**
+     * Make a response with the resource or its best sidecar.
+     * @param req Request
+     * @param name Name of the resource
+     * @return Response
+     * @throws Exception If fails
+     */
+    Response response(final Request req, final String name)
+        throws Exception {
+        final int mask = this.available(name);
+        Response response = null;
+        for (int idx = 0; idx < Sidecars.CODINGS.length; ++idx) {
+            if (response == null && (mask & 1 << idx) != 0
+                && new FkEncoding(Sidecars.CODINGS[idx], new RsEmpty())
+                    .route(req).has()) {
+                response = new RsWithHeaders(
+                    this.open.apply(
+                        String.format("%s%s", name, Sidecars.SUFFIXES[idx]),
+                        req
+                    ),
+                    String.format(
+                        "Content-Encoding: %s", Sidecars.CODINGS[idx]
+                    ),
+                    "Vary: Accept-Encoding"
+                );
+            }
+        }
+        if (response == null) {
+            response = this.open.apply(name, req);
+            if (mask != 0) {
+                response = new RsWithHeader(
+                    response, "Vary", "Accept-Encoding"
+                );
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Which sidecars the resource has.
+     * @param name Name of the resource
+     * @return Bit mask of {@link #CODINGS}
+     * @throws Exception If fails
+     */
+    private int available(final String name) throws Exception {
+        Integer mask = this.cache.get(name);
+        if (mask == null) {
+            int bits = 0;
+            for (int idx = 0; idx < Sidecars.SUFFIXES.length; ++idx) {
+                if (this.exists.apply(
+                    String.format("%s%s", name, Sidecars.SUFFIXES[idx])
+                )) {
+                    bits |= 1 << idx;
+                }
+            }
+            if (this.cache.size() >= Sidecars.MAX) {
+                this.cache.clear();
+            }
+            mask = bits;
+            this.cache.put(name, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * Add validators of the resource behind the URL to the response.
+     * @param res Response
+     * @param url Location of the resource
+     * @return Response with validators
+     * @throws IOException If fails
+     */
+    static Response validated(final Response res, final URL url)
+        throws IOException {
+        final Response response;
+        if ("file".equals(url.getProtocol())) {
+            final File file;
+            try {
+                file = new File(url.toURI());
+            } catch (final URISyntaxException ex) {
+                throw new IOException(ex);
+            }
+            response = Sidecars.validated(
+                res, file.length(), file.lastModified()
+            );
+        } else {
+            final URLConnection conn = url.openConnection();
+            response = Sidecars.validated(
+                res, conn.getContentLengthLong(), conn.getLastModified()
+            );
+        }
+        return response;
+    }
+
+    /**
+     * Add validators to the response.
+     * @param res Response
+     * @param length Size of the resource
+     * @param modified Modification time of the resource, zero if unknown
+     * @return Response with validators
+     */
+    static Response validated(final Response res, final long length,
+        final long modified) {
+        Response response = res;
+        if (modified > 0L) {
+            response = new RsWithHeaders(
+                res,
+                String.format("Last-Modified: %s", Sidecars.date(modified)),
+                String.format("ETag: %s", Sidecars.tag(length, modified))
+            );
+        }
+        return response;
+    }
+
+    /**
+     * Entity tag of the resource.
+     * @param length Size of the resource
+     * @param modified Modification time of the resource
+     * @return Strong entity tag, in quotes
+     */
+    static String tag(final long length, final long modified) {
+        return String.format("\"%x-%x\"", modified, length);
+    }
+
+    /**
+     * HTTP date.
+     * @param time Milliseconds since epoch
+     * @return Date
+     */
+    static String date(final long time) {
+        return Sidecars.DATE.format(Instant.ofEpochMilli(time));
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.tk;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Input stream reading slices of a file, each of them after
+ * a fixed prefix, and then a fixed suffix.
+ *
+ * <p>The file is read with positional reads, through a channel which
+ * is shared by all streams reading the same file at the same time and
+ * closed when the last of them is closed. The channel is opened with
+ * the first read, not earlier. Only the streams made for the same
+ * size and modification time of the file share a channel, so that a
+ * file replaced on disk is not read through the channel of the
+ * previous one. If the file opened doesn't have the expected size,
+ * the stream fails, since its headers, made for the expected file,
+ * would not match the content.
+ *
+ * <p>A thread interrupted during a read closes the shared channel for
+ * all its readers, since file channels are interruptible. The other
+ * readers then leave the closed channel and read through a new one,
+ * and a closed channel is never given to a new reader.
+ *
+ * <p>The class is NOT thread-safe.
+ *
+ * @since 2.0
+ */
+final class Slices extends InputStream {
+
+    /**
+     * Channels open now, and the numbers of their readers.
+     */
+    private static final Map<String, Slices.Shared> OPEN = new HashMap<>(0);
+
+    /**
+     * The file.
+     */
+    private final File file;
+
+    /**
+     * Expected size of the file.
+     */
+    private final long size;
+
+    /**
+     * Key of the shared channel: path, size and modification time.
+     */
+    private final String key;
+
+    /**
+     * Where slices start, inclusive.
+     */
+    private final long[] starts;
+
+    /**
+     * Where slices end, exclusive.
+     */
+    private final long[] ends;
+
+    /**
+     * Prefixes of slices.
+     */
+    private final byte[][] prefixes;
+
+    /**
+     * Suffix after all slices.
+     */
+    private final byte[] suffix;
+
+    /**
+     * Channel, when it is open.
+     */
+    private Slices.Shared channel;
+
+    /**
+     * Current part: prefix of a slice at even numbers, the slice
+     * itself at odd ones, the suffix after them.
+     */
+    private int part;
+
+    /**
+     * Position in the current part.
+     */
+    private long pos;
+
+    /**
+     * Is it closed?
+     */
+    private boolean closed;
+
+    /**
+     * Ctor.
+     * @param src The file
+     * @param length Expected size of the file
+     * @param modified Expected modification time of the file
+     * @param from Where slices start, inclusive
+     * @param till Where slices end, exclusive
+     * @param before Prefixes of slices
+     * @param after Suffix after all slices
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Slices(final File src, final long length, final long modified,
+        final long[] from, final long[] till, final byte[][] before,
+        final byte[] after) {
+        super();
+        this.file = src;
+        this.size = length;
+        this.key = String.format(
+            "%s %d %d", src.getAbsolutePath(), length, modified
+        );
+        this.starts = from.clone();
+        this.ends = till.clone();
+        this.prefixes = before.clone();
+        this.suffix = after.clone();
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] buf = new byte[1];
+        int next = -1;
+        if (this.read(buf, 0, 1) > 0) {
+            next = buf[0] & 0xFF;
+        }
+        return next;
+    }
+
+    @Override
+    public int read(final byte[] buf, final int off, final int len)
+        throws IOException {
+        if (this.closed) {
+            throw new IOException("The stream is closed");
+        }
+        int total = 0;
+        while (total == 0 && len > 0 && this.part <= this.starts.length * 2) {
+            if (this.part == this.starts.length * 2) {
+                total = this.copy(this.suffix, buf, off, len);
+            } else if (this.part % 2 == 0) {
+                total = this.copy(this.prefixes[this.part / 2], buf, off, len);
+            } else {
+                total = this.slice(buf, off, len);
+            }
+            if (total == 0) {
+                ++this.part;
+                this.pos = 0L;
+            }
+        }
+        if (total == 0 && len > 0) {
+            total = -1;
+        }
+        return total;
+    }
+
+    @Override
+    public int available() {
+        long left = 0L;
+        if (this.part < this.starts.length * 2 && this.part % 2 == 1) {
+            left = this.ends[this.part / 2] - this.starts[this.part / 2]
+                - this.pos;
+        }
+        return (int) Math.min(left, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!this.closed) {
+            this.closed = true;
+            if (this.channel != null) {
+                Slices.release(this.key, this.channel);
+            }
+        }
+    }
+
+    /**
+     * Copy bytes of a fixed part.
+     * @param bytes Part
+     * @param buf Buffer to copy to
+     * @param off Offset in the buffer
+     * @param len Maximum amount to copy
+     * @return Amount copied, zero if the part is over
+     */
+    private int copy(final byte[] bytes, final byte[] buf, final int off,
+        final int len) {
+        final int total = (int) Math.min(len, bytes.length - this.pos);
+        System.arraycopy(bytes, (int) this.pos, buf, off, total);
+        this.pos += total;
+        return total;
+    }
+
+    /**
+     * Read bytes of the current slice.
+     * @param buf Buffer to read to
+     * @param off Offset in the buffer
+     * @param len Maximum amount to read
+     * @return Amount read, zero if the slice is over
+     * @throws IOException If fails
+     */
+    private int slice(final byte[] buf, final int off, final int len)
+        throws IOException {
+        final int idx = this.part / 2;
+        final long start = this.starts[idx] + this.pos;
+        final int max = (int) Math.min(len, this.ends[idx] - start);
+        int total = 0;
+        if (max > 0) {
+            if (this.channel == null) {
+                this.channel = Slices.acquire(
+                    this.key, this.file, this.size
+                );
+            }
+            try {
+                total = this.channel.channel.read(
+                    ByteBuffer.wrap(buf, off, max), start
+                );
+            } catch (final ClosedChannelException ex) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw ex;
+                }
+                Slices.release(this.key, this.channel);
+                this.channel = null;
+                this.channel = Slices.acquire(
+                    this.key, this.file, this.size
+                );
+                total = this.channel.channel.read(
+                    ByteBuffer.wrap(buf, off, max), start
+                );
+            }
+            if (total < 0) {
+                throw new IOException(
+                    String.format(
+                        "File %s is shorter than %d bytes", this.file, start
+                    )
+                );
+            }
+            this.pos += total;
+        }
+        return total;
+    }
+
+    /**
+     * Open the channel or join its readers.
+     * @param key Key of the channel
+     * @param file The file
+     * @param size Expected size of the file
+     * @return Channel
+     * @throws IOException If fails or the file has another size
+     */
+    private static Slices.Shared acquire(final String key, final File file,
+        final long size) throws IOException {
+        synchronized (Slices.OPEN) {
+            Slices.Shared shared = Slices.OPEN.get(key);
+            if (shared == null || !shared.channel.isOpen()) {
+                final FileChannel channel = FileChannel.open(
+                    file.toPath(), StandardOpenOption.READ
+                );
+                if (channel.size() != size) {
+                    channel.close();
+                    throw new IOException(
+                        String.format(
+                            "File %s has changed, it's not %d bytes anymore",
+                            file, size
+                        )
+                    );
+                }
+                shared = new Slices.Shared(channel);
+                Slices.OPEN.put(key, shared);
+            }
+            ++shared.readers;
+            return shared;
+        }
+    }
+
+    /**
+     * Leave the readers of the channel and close it, if it was the last.
+     * @param key Key of the channel
+     * @param shared The channel
+     * @throws IOException If fails
+     */
+    private static void release(final String key, final Slices.Shared shared)
+        throws IOException {
+        synchronized (Slices.OPEN) {
+            --shared.readers;
+            if (shared.readers == 0) {
+                Slices.OPEN.remove(key, shared);
+                shared.channel.close();
+            }
+        }
+    }
+
+    /**
+     * Channel and the number of its readers.
+     *
+     * @since 2.0
+     */
+    private static final class Shared {
+
+        /**
+         * The channel.
+         */
+        private final FileChannel channel;
+
+        /**
+         * Number of readers.
+         */
+        private int readers;
+
+        /**
+         * Ctor.
+         * @param chnl The channel
+         */
+        Shared(final FileChannel chnl) {
+            this.channel = chnl;
+        }
+    }
+}
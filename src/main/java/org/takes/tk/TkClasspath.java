@@ -23,15 +23,11 @@
  */
 package org.takes.tk;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.net.URL;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.takes.HttpException;
-import org.takes.Request;
-import org.takes.Response;
-import org.takes.Take;
 import org.takes.rq.RqHref;
 import org.takes.rs.RsWithBody;
 
@@ -52,6 +48,11 @@ import org.takes.rs.RsWithBody;
  * <p>If such a resource is not found, {@link org.takes.HttpException}
  * will be thrown.
  *
+ * <p>If there is a precompressed {@code "style.css.br"} or
+ * {@code "style.css.gz"} in classpath next to the resource and the client
+ * accepts its encoding, it is served instead, with
+ * {@code Content-Encoding} header.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.1
@@ -84,24 +85,37 @@ public final class TkClasspath extends TkWrap {
      * @param prefix Prefix
      */
     public TkClasspath(final String prefix) {
-        super(
-            new Take() {
-                @Override
-                public Response act(final Request request) throws IOException {
-                    final String name = String.format(
-                        "%s%s", prefix, new RqHref.Base(request).href().path()
-                    );
-                    final InputStream input = this.getClass()
-                        .getResourceAsStream(name);
-                    if (input == null) {
+        this(
+            prefix,
+            new Sidecars(
+                name -> TkClasspath.class.getResource(name) != null,
+                (name, req) -> {
+                    final URL url = TkClasspath.class.getResource(name);
+                    if (url == null) {
                         throw new HttpException(
                             HttpURLConnection.HTTP_NOT_FOUND,
                             String.format("%s not found in classpath", name)
                         );
                     }
-                    return new RsWithBody(input);
+                    return Sidecars.validated(new RsWithBody(url), url);
                 }
-            }
+            )
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param prefix Prefix
+     * @param resources Resources with their sidecars
+     */
+    private TkClasspath(final String prefix, final Sidecars resources) {
+        super(
+            request -> resources.response(
+                request,
+                String.format(
+                    "%s%s", prefix, new RqHref.Base(request).href().path()
+                )
+            )
         );
     }
 
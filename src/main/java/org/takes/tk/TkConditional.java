@@ -0,0 +1,279 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.tk;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.HttpURLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.cactoos.list.ListOf;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.rq.RqHeaders;
+import org.takes.rq.RqMethod;
+import org.takes.rs.ResponseOf;
+import org.takes.rs.RsHeaders;
+import org.takes.rs.RsStatus;
+import org.takes.rs.RsWithHeader;
+import org.takes.rs.RsWithHeaders;
+import org.takes.rs.RsWithStatus;
+
+/**
+ * Take that handles conditional requests.
+ *
+ * <p>When the client has a copy of the resource and asks for it with
+ * {@code If-None-Match} or {@code If-Modified-Since} header, and the copy
+ * is still current, the response is replaced with "304 Not Modified",
+ * without a body:
+ *
+ * <pre> new TkConditional(new TkFiles("/var/www"));</pre>
+ *
+ * <p>Responses with their own {@code ETag} or {@code Last-Modified}
+ * header, like the ones of {@link TkFiles} and {@link TkClasspath},
+ * made of file metadata, are compared by these headers, and their
+ * bodies are neither read nor sent. Other successful responses to
+ * {@code GET} and {@code HEAD} requests get a strong {@code ETag},
+ * a digest of the body, which is read once, computing the digest
+ * and keeping the bytes to send them later. Bodies larger than the
+ * limit are sent without {@code ETag}.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public final class TkConditional extends TkWrap {
+
+    /**
+     * Headers a "304 Not Modified" response keeps, in lower case.
+     */
+    private static final Collection<String> KEPT = new HashSet<>(
+        Arrays.asList(
+            "etag", "last-modified", "cache-control", "content-location",
+            "date", "expires", "vary"
+        )
+    );
+
+    /**
+     * Ctor.
+     * @param take Original take
+     */
+    public TkConditional(final Take take) {
+        // @checkstyle MagicNumberCheck (1 line)
+        this(take, 1 << 20);
+    }
+
+    /**
+     * Ctor.
+     * @param take Original take
+     * @param max Maximum size of a body to compute a digest of
+     */
+    public TkConditional(final Take take, final int max) {
+        super(
+            req -> {
+                final String method = new RqMethod.Base(req).method();
+                Response res = take.act(req);
+                if ((RqMethod.GET.equals(method)
+                    || RqMethod.HEAD.equals(method))
+                    && new RsStatus.Base(res).status()
+                    == HttpURLConnection.HTTP_OK) {
+                    res = TkConditional.checked(req, res, max);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Replace the response with 304, if the client's copy is current.
+     * @param req Request
+     * @param res Successful response
+     * @param max Maximum size of a body to compute a digest of
+     * @return Response
+     * @throws IOException If fails
+     */
+    private static Response checked(final Request req, final Response res,
+        final int max) throws IOException {
+        final RsHeaders headers = new RsHeaders.Base(res);
+        List<String> tags = headers.header("ETag");
+        final List<String> modified = headers.header("Last-Modified");
+        Response response = res;
+        if (tags.isEmpty() && modified.isEmpty()) {
+            final List<String> head = new ListOf<>(res.head());
+            final InputStream body = res.body();
+            final MessageDigest digest = TkConditional.digest();
+            final byte[] bytes = TkConditional.prefix(body, max + 1, digest);
+            if (bytes.length > max) {
+                response = new ResponseOf(
+                    head,
+                    new SequenceInputStream(
+                        new ByteArrayInputStream(bytes), body
+                    )
+                );
+            } else {
+                body.close();
+                final StringBuilder tag = new StringBuilder(0);
+                tag.append('"');
+                // @checkstyle MagicNumberCheck (1 line)
+                for (final byte part : Arrays.copyOf(digest.digest(), 16)) {
+                    tag.append(String.format("%02x", part));
+                }
+                tag.append('"');
+                tags = new ListOf<>(tag.toString());
+                response = new RsWithHeader(
+                    new ResponseOf(head, new ByteArrayInputStream(bytes)),
+                    "ETag", tag
+                );
+            }
+        }
+        if (TkConditional.current(new RqHeaders.Base(req), tags, modified)) {
+            final List<String> kept = new ArrayList<>(0);
+            for (final String line : response.head()) {
+                final int colon = line.indexOf(':');
+                if (colon > 0 && TkConditional.KEPT.contains(
+                    line.substring(0, colon).trim().toLowerCase(Locale.ENGLISH)
+                )) {
+                    kept.add(line);
+                }
+            }
+            response = new RsWithHeaders(
+                new RsWithStatus(HttpURLConnection.HTTP_NOT_MODIFIED), kept
+            );
+        }
+        return response;
+    }
+
+    /**
+     * Is the copy of the client current?
+     * @param headers Headers of the request
+     * @param tags ETag of the response, if any
+     * @param modified Last-Modified of the response, if any
+     * @return TRUE if it is
+     * @throws IOException If fails
+     */
+    private static boolean current(final RqHeaders headers,
+        final List<String> tags, final List<String> modified)
+        throws IOException {
+        final List<String> matches = headers.header("If-None-Match");
+        final List<String> since = headers.header("If-Modified-Since");
+        boolean current = false;
+        if (!matches.isEmpty()) {
+            for (final String value : matches) {
+                for (final String token : value.split(",")) {
+                    final String tag = TkConditional.opaque(token);
+                    current |= "*".equals(tag) || !tags.isEmpty()
+                        && tag.equals(TkConditional.opaque(tags.get(0)));
+                }
+            }
+        } else if (!since.isEmpty() && !modified.isEmpty()) {
+            try {
+                current = !TkConditional.date(modified.get(0))
+                    .isAfter(TkConditional.date(since.get(0)));
+            } catch (final DateTimeParseException ex) {
+                current = false;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Entity tag without the weakness indicator, for weak comparison.
+     * @param tag Entity tag
+     * @return Opaque tag
+     */
+    private static String opaque(final String tag) {
+        String opaque = tag.trim();
+        if (opaque.startsWith("W/")) {
+            opaque = opaque.substring(2);
+        }
+        return opaque;
+    }
+
+    /**
+     * Parse HTTP date.
+     * @param text Date
+     * @return Date
+     */
+    private static ZonedDateTime date(final String text) {
+        return ZonedDateTime.parse(
+            text.trim(), DateTimeFormatter.RFC_1123_DATE_TIME
+        );
+    }
+
+    /**
+     * Digest for entity tags.
+     * @return Digest
+     * @throws IOException If there is no such algorithm
+     */
+    private static MessageDigest digest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Read the beginning of the stream, updating the digest.
+     * @param input Stream
+     * @param limit Maximum amount of bytes to read
+     * @param digest Digest
+     * @return Bytes, less than the limit only if the stream is over
+     * @throws IOException If fails
+     */
+    private static byte[] prefix(final InputStream input, final int limit,
+        final MessageDigest digest) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        // @checkstyle MagicNumberCheck (1 line)
+        final byte[] buf = new byte[8192];
+        int total = 0;
+        int len = 0;
+        while (len >= 0 && total < limit) {
+            len = input.read(buf, 0, Math.min(buf.length, limit - total));
+            if (len > 0) {
+                output.write(buf, 0, len);
+                digest.update(buf, 0, len);
+                total += len;
+            }
+        }
+        return output.toByteArray();
+    }
+}
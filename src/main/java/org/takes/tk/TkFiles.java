@@ -27,10 +27,8 @@ import java.io.File;
 import java.net.HttpURLConnection;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.cactoos.io.InputOf;
 import org.takes.HttpException;
 import org.takes.rq.RqHref;
-import org.takes.rs.RsWithBody;
 
 /**
  * Take reading resources from directory.
@@ -49,6 +47,14 @@ import org.takes.rs.RsWithBody;
  * <p>If such a resource is not found, {@link HttpException}
  * will be thrown.
  *
+ * <p>If there is a precompressed {@code "style.css.br"} or
+ * {@code "style.css.gz"} on disc next to the resource and the client
+ * accepts its encoding, it is served instead, with
+ * {@code Content-Encoding} header.
+ *
+ * <p>Byte ranges are supported: a request with {@code Range} header gets
+ * "206 Partial Content" with the requested parts of the file.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.1
@@ -70,21 +76,34 @@ public final class TkFiles extends TkWrap {
      * @param base Base directory
      */
     public TkFiles(final File base) {
-        super(
-            request -> {
-                final File file = new File(
-                    base, new RqHref.Base(request).href().path()
-                );
-                if (!file.exists()) {
-                    throw new HttpException(
-                        HttpURLConnection.HTTP_NOT_FOUND,
-                        String.format(
-                            "%s not found", file.getAbsolutePath()
-                        )
-                    );
+        this(
+            new Sidecars(
+                name -> new File(base, name).isFile(),
+                (name, req) -> {
+                    final File file = new File(base, name);
+                    if (!file.isFile()) {
+                        throw new HttpException(
+                            HttpURLConnection.HTTP_NOT_FOUND,
+                            String.format(
+                                "%s not found", file.getAbsolutePath()
+                            )
+                        );
+                    }
+                    return new RangedFile(file).response(req);
                 }
-                return new RsWithBody(new InputOf(file).stream());
-            }
+            )
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param files Files with their sidecars
+     */
+    private TkFiles(final Sidecars files) {
+        super(
+            request -> files.response(
+                request, new RqHref.Base(request).href().path()
+            )
         );
     }
 
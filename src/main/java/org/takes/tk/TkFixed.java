@@ -26,7 +26,9 @@ package org.takes.tk;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.cactoos.Scalar;
+import org.cactoos.scalar.Solid;
 import org.takes.Response;
+import org.takes.rs.RsPrecompiled;
 import org.takes.rs.RsText;
 
 /**
@@ -49,7 +51,7 @@ public final class TkFixed extends TkWrap {
      * @since 0.23
      */
     public TkFixed(final String text) {
-        this(new RsText(text));
+        this(new Solid<>(() -> new RsPrecompiled(new RsText(text))));
     }
 
     /**
@@ -23,17 +23,44 @@
  */
 package org.takes.tk;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.takes.Request;
 import org.takes.Response;
 import org.takes.Take;
 import org.takes.facets.fork.FkEncoding;
 import org.takes.facets.fork.RsFork;
+import org.takes.rq.RqMethod;
+import org.takes.rs.ResponseOf;
 import org.takes.rs.RsGzip;
+import org.takes.rs.RsWithHeader;
 
 /**
  * Take that compresses responses with GZIP.
  *
+ * <p>A response is compressed, while it is being sent, only when
+ * the client accepts "gzip" encoding, with a positive quality value.
+ * Responses which are not worth compressing are sent as they are:
+ * those with a body shorter than the threshold, according to their
+ * Content-Length header, those which are encoded already, partial
+ * ones, with status 206 or a Content-Range header, since their range
+ * refers to the identity body, and those with a content type, which
+ * is not known to be compressible, like images or archives. A response
+ * without a content type is compressed, as it always was. A compressible
+ * response gets "Vary: Accept-Encoding" header, in any case.
+ *
+ * <p>The compressed response is not byte-for-byte the same as the
+ * original, so its strong ETag, if any, becomes weak: it still matches
+ * If-None-Match, but never If-Range.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.10
@@ -42,21 +69,184 @@ import org.takes.rs.RsGzip;
 @EqualsAndHashCode(callSuper = true)
 public final class TkGzip extends TkWrap {
 
+    /**
+     * Default minimum length of a body to compress, in bytes.
+     */
+    private static final long THRESHOLD = 1024L;
+
+    /**
+     * Content types, besides "text/*", "*+xml" and "*+json", which
+     * are worth compressing.
+     */
+    private static final Collection<String> TYPES = new HashSet<>(
+        Arrays.asList(
+            "application/json",
+            "application/javascript",
+            "application/x-javascript",
+            "application/ecmascript",
+            "application/xml",
+            "application/wasm",
+            "application/manifest+json",
+            "application/x-font-ttf",
+            "application/vnd.ms-fontobject",
+            "font/ttf",
+            "font/otf",
+            "image/svg+xml",
+            "image/x-icon",
+            "image/bmp"
+        )
+    );
+
     /**
      * Ctor.
      * @param take Original take
      */
     public TkGzip(final Take take) {
+        this(take, TkGzip.THRESHOLD);
+    }
+
+    /**
+     * Ctor.
+     * @param take Original take
+     * @param threshold Minimum length of a body to compress, in bytes
+     * @since 2.0
+     */
+    public TkGzip(final Take take, final long threshold) {
         super(
-            req -> {
-                final Response response = take.act(req);
-                return new RsFork(
+            req -> TkGzip.gzip(req, take.act(req), threshold)
+        );
+    }
+
+    /**
+     * Compress the response, if it's worth it and the client accepts it.
+     * @param req Request
+     * @param response Response
+     * @param threshold Minimum length of a body to compress
+     * @return Response
+     * @throws IOException If fails
+     */
+    private static Response gzip(final Request req, final Response response,
+        final long threshold) throws IOException {
+        final Response result;
+        if (TkGzip.compressible(response, threshold)
+            && !RqMethod.HEAD.equals(new RqMethod.Base(req).method())) {
+            result = new RsWithHeader(
+                new RsFork(
                     req,
-                    new FkEncoding("gzip", new RsGzip(response)),
+                    new FkEncoding("gzip", TkGzip.weak(new RsGzip(response))),
                     new FkEncoding("", response)
-                );
+                ),
+                "Vary", "Accept-Encoding"
+            );
+        } else {
+            result = response;
+        }
+        return result;
+    }
+
+    /**
+     * Is the response worth compressing?
+     * @param response Response
+     * @param threshold Minimum length of a body to compress
+     * @return TRUE if it is
+     * @throws IOException If fails
+     */
+    private static boolean compressible(final Response response,
+        final long threshold) throws IOException {
+        final Iterator<String> lines = response.head().iterator();
+        boolean worth = lines.hasNext() && TkGzip.status(lines.next());
+        while (worth && lines.hasNext()) {
+            final String line = lines.next();
+            final int colon = line.indexOf(':');
+            if (colon > 0) {
+                final String name = line.substring(0, colon).trim()
+                    .toLowerCase(Locale.ENGLISH);
+                final String value = line.substring(colon + 1).trim()
+                    .toLowerCase(Locale.ENGLISH);
+                if ("content-type".equals(name)) {
+                    worth = TkGzip.type(value);
+                } else if ("content-encoding".equals(name)) {
+                    worth = "identity".equals(value);
+                } else if ("content-length".equals(name)) {
+                    worth = TkGzip.length(value) >= threshold;
+                } else if ("content-range".equals(name)) {
+                    worth = false;
+                }
             }
+        }
+        return worth;
+    }
+
+    /**
+     * Does the status allow a body?
+     * @param line Status line
+     * @return TRUE if it does
+     */
+    private static boolean status(final String line) {
+        final String[] parts = line.split(" ", 3);
+        return parts.length > 1
+            && !"204".equals(parts[1]) && !"206".equals(parts[1])
+            && !"304".equals(parts[1]) && !parts[1].startsWith("1");
+    }
+
+    /**
+     * Make the strong ETag of the response weak.
+     * @param response Response
+     * @return Response with a weak ETag, if it has any
+     */
+    private static Response weak(final Response response) {
+        return new ResponseOf(
+            () -> {
+                final List<String> head = new LinkedList<>();
+                for (final String line : response.head()) {
+                    final int colon = line.indexOf(':');
+                    String hdr = line;
+                    if (colon > 0 && "etag".equalsIgnoreCase(
+                        line.substring(0, colon).trim()
+                    )) {
+                        final String tag = line.substring(colon + 1).trim();
+                        if (!tag.startsWith("W/")) {
+                            hdr = String.format("ETag: W/%s", tag);
+                        }
+                    }
+                    head.add(hdr);
+                }
+                return head;
+            },
+            response
         );
     }
 
+    /**
+     * Is the content type worth compressing?
+     * @param value Content-Type header value, in lower case
+     * @return TRUE if it is
+     */
+    private static boolean type(final String value) {
+        final int semi = value.indexOf(';');
+        final String type;
+        if (semi < 0) {
+            type = value;
+        } else {
+            type = value.substring(0, semi).trim();
+        }
+        return type.startsWith("text/") || type.endsWith("+xml")
+            || type.endsWith("+json") || TkGzip.TYPES.contains(type);
+    }
+
+    /**
+     * Parse the length.
+     * @param value Content-Length header value
+     * @return Length or MAX_VALUE if it's broken
+     */
+    private static long length(final String value) {
+        long length;
+        try {
+            length = Long.parseLong(value);
+        } catch (final NumberFormatException ex) {
+            length = Long.MAX_VALUE;
+        }
+        return length;
+    }
+
 }
@@ -28,7 +28,9 @@ import java.net.URL;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.cactoos.Scalar;
+import org.cactoos.scalar.Solid;
 import org.takes.rs.RsHtml;
+import org.takes.rs.RsPrecompiled;
 
 /**
  * HTML take.
@@ -36,6 +38,10 @@ import org.takes.rs.RsHtml;
  * <p>This take returns an HTML response by wrapping the provided
  * content into {@link org.takes.rs.RsHtml}.
  *
+ * <p>A response made of a string or bytes never changes, so it is
+ * printed once, with {@link RsPrecompiled}, when it's needed for
+ * the first time.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.1
@@ -50,7 +56,9 @@ public final class TkHtml extends TkWrap {
      */
     public TkHtml(final String body) {
         super(
-            req -> new RsHtml(body)
+            new TkFixed(
+                new Solid<>(() -> new RsPrecompiled(new RsHtml(body)))
+            )
         );
     }
 
@@ -71,7 +79,9 @@ public final class TkHtml extends TkWrap {
      */
     public TkHtml(final byte[] body) {
         super(
-            req -> new RsHtml(body)
+            new TkFixed(
+                new Solid<>(() -> new RsPrecompiled(new RsHtml(body)))
+            )
         );
     }
 
@@ -31,9 +31,13 @@ import org.takes.rq.RqGreedy;
 /**
  * Take with a read-only-once request.
  *
+ * <p>The body of the request is read before the take acts, and
+ * the take can read it any number of times.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.26
+ * @see org.takes.rq.RqGreedy
  */
 @ToString(callSuper = true)
 @EqualsAndHashCode(callSuper = true)
@@ -24,7 +24,8 @@
 package org.takes.tk;
 
 import com.jcabi.http.request.JdkRequest;
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.Collection;
 import java.util.LinkedList;
@@ -35,10 +36,9 @@ import org.cactoos.text.UncheckedText;
 import org.takes.Request;
 import org.takes.Response;
 import org.takes.Take;
+import org.takes.rq.RqGreedy;
 import org.takes.rq.RqHeaders;
-import org.takes.rq.RqLengthAware;
 import org.takes.rq.RqMethod;
-import org.takes.rq.RqPrint;
 import org.takes.rq.RqRequestLine;
 import org.takes.rs.RsWithBody;
 import org.takes.rs.RsWithHeaders;
@@ -115,7 +115,7 @@ public final class TkProxy implements Take {
         final URI output = this.target.resolve(URI.create(input));
         return this.response(
             input, output,
-            this.request(req, output).fetch()
+            this.request(req, output).fetch(TkProxy.body(req))
         );
     }
 
@@ -149,13 +149,29 @@ public final class TkProxy implements Take {
                 proxied = proxied.header(name, value);
             }
         }
+        return proxied;
+    }
+
+    /**
+     * Body of the request to be forwarded to the target host.
+     *
+     * <p>The body is streamed from a replayable copy, which keeps
+     * a large body in a temporary file, not in memory.
+     *
+     * @param req Original request
+     * @return Body to forward
+     * @throws Exception If some problem inside
+     */
+    private static InputStream body(final Request req) throws Exception {
+        final RqHeaders headers = new RqHeaders.Base(req);
+        final InputStream body;
         if (headers.header("Content-Length").iterator().hasNext()
             || headers.header("Transfer-Encoding").iterator().hasNext()) {
-            final ByteArrayOutputStream output = new ByteArrayOutputStream();
-            new RqPrint(new RqLengthAware(req)).printBody(output);
-            proxied = proxied.body().set(output.toByteArray()).back();
+            body = new RqGreedy(req).body();
+        } else {
+            body = new ByteArrayInputStream(new byte[0]);
         }
-        return proxied;
+        return body;
     }
 
     /**
@@ -28,6 +28,8 @@ import java.net.URL;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.cactoos.Scalar;
+import org.cactoos.scalar.Solid;
+import org.takes.rs.RsPrecompiled;
 import org.takes.rs.RsText;
 
 /**
@@ -36,6 +38,10 @@ import org.takes.rs.RsText;
  * <p>This take returns an HTML response by wrapping the provided
  * content into {@link RsText}.
  *
+ * <p>A response made of a string or bytes never changes, so it is
+ * printed once, with {@link RsPrecompiled}, when it's needed for
+ * the first time.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.1
@@ -58,7 +64,9 @@ public final class TkText extends TkWrap {
      */
     public TkText(final String body) {
         super(
-            req -> new RsText(body)
+            new TkFixed(
+                new Solid<>(() -> new RsPrecompiled(new RsText(body)))
+            )
         );
     }
 
@@ -79,7 +87,9 @@ public final class TkText extends TkWrap {
      */
     public TkText(final byte[] body) {
         super(
-            req -> new RsText(body)
+            new TkFixed(
+                new Solid<>(() -> new RsPrecompiled(new RsText(body)))
+            )
         );
     }
 
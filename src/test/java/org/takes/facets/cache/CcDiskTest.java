@@ -0,0 +1,145 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.takes.rs.RsPrint;
+
+/**
+ * Test case for {@link CcDisk}.
+ * @since 2.0
+ */
+final class CcDiskTest {
+
+    @Test
+    void keepsEntriesAfterRestart(@TempDir final Path temp) throws Exception {
+        final File dir = temp.toFile();
+        try (CcDisk cache = new CcDisk(dir, 100, 1 << 16)) {
+            cache.put(
+                "GET http://localhost/",
+                CcDiskTest.entry("hello, disk", 60_000L)
+            );
+        }
+        final Cached entry = new CcDisk(dir, 100, 1 << 16)
+            .get("GET http://localhost/").get();
+        MatcherAssert.assertThat(
+            entry.head(),
+            Matchers.hasItem("Content-Type: text/plain")
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(entry.response(entry.created())).printBody(),
+            Matchers.equalTo("hello, disk")
+        );
+    }
+
+    @Test
+    void dropsStaleEntries(@TempDir final Path temp) throws Exception {
+        final Cache cache = new CcDisk(temp.toFile(), 100, 1 << 16);
+        cache.put("a", CcDiskTest.entry("stale", -1L));
+        cache.put("b", CcDiskTest.entry("fresh", 60_000L));
+        MatcherAssert.assertThat(cache.get("a").has(), Matchers.is(false));
+        MatcherAssert.assertThat(cache.get("b").has(), Matchers.is(true));
+    }
+
+    @Test
+    void compactsWhenFull(@TempDir final Path temp) throws Exception {
+        final Cache cache = new CcDisk(temp.toFile(), 16, 1 << 12);
+        for (int idx = 0; idx < 500; ++idx) {
+            cache.put(
+                String.format("key-%d", idx % 40),
+                CcDiskTest.entry(String.format("body #%d", idx), 60_000L)
+            );
+        }
+        MatcherAssert.assertThat(
+            new RsPrint(
+                cache.get("key-19").get().response(0L)
+            ).printBody(),
+            Matchers.equalTo("body #499")
+        );
+        MatcherAssert.assertThat(
+            Arrays.asList(temp.toFile().list()),
+            Matchers.hasSize(2)
+        );
+    }
+
+    @Test
+    void startsOverWithAnotherCapacity(@TempDir final Path temp)
+        throws Exception {
+        final File dir = temp.toFile();
+        try (CcDisk cache = new CcDisk(dir, 100, 1 << 16)) {
+            for (int idx = 0; idx < 50; ++idx) {
+                cache.put(
+                    String.format("key-%d", idx),
+                    CcDiskTest.entry("some body", 60_000L)
+                );
+            }
+        }
+        try (CcDisk cache = new CcDisk(dir, 100, 1 << 10)) {
+            MatcherAssert.assertThat(
+                cache.get("key-49").has(), Matchers.is(false)
+            );
+        }
+    }
+
+    @Test
+    void locksDirectory(@TempDir final Path temp) throws Exception {
+        final File dir = temp.toFile();
+        try (CcDisk cache = new CcDisk(dir, 100, 1 << 16)) {
+            cache.put("a", CcDiskTest.entry("first", 60_000L));
+            Assertions.assertThrows(
+                IOException.class,
+                () -> new CcDisk(dir, 100, 1 << 16)
+            );
+        }
+        try (CcDisk cache = new CcDisk(dir, 100, 1 << 16)) {
+            MatcherAssert.assertThat(cache.get("a").has(), Matchers.is(true));
+        }
+    }
+
+    /**
+     * Make an entry.
+     * @param body Body
+     * @param ttl Time to live
+     * @return Entry
+     */
+    private static Cached entry(final String body, final long ttl) {
+        final long now = System.currentTimeMillis();
+        return new Cached(
+            now, now + ttl, Collections.emptyList(),
+            Arrays.asList("HTTP/1.1 200 OK", "Content-Type: text/plain"),
+            ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link CcMemory}.
+ * @since 2.0
+ */
+final class CcMemoryTest {
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        final CcMemory cache = new CcMemory(2, 1L << 20, 1);
+        cache.put("a", CcMemoryTest.entry("first", 60_000L));
+        cache.put("b", CcMemoryTest.entry("second", 60_000L));
+        cache.get("a");
+        cache.put("c", CcMemoryTest.entry("third", 60_000L));
+        MatcherAssert.assertThat(cache.get("b").has(), Matchers.is(false));
+        MatcherAssert.assertThat(cache.get("a").has(), Matchers.is(true));
+        MatcherAssert.assertThat(cache.evictions(), Matchers.equalTo(1L));
+    }
+
+    @Test
+    void boundsTotalSize() {
+        final CcMemory cache = new CcMemory(100, 64L, 1);
+        for (int idx = 0; idx < 10; ++idx) {
+            cache.put(
+                String.valueOf(idx),
+                CcMemoryTest.entry("0123456789", 60_000L)
+            );
+        }
+        MatcherAssert.assertThat(
+            cache.bytes(),
+            Matchers.lessThanOrEqualTo(64L)
+        );
+        MatcherAssert.assertThat(cache.size(), Matchers.greaterThan(0));
+    }
+
+    @Test
+    void dropsStaleEntries() {
+        final CcMemory cache = new CcMemory();
+        cache.put("x", CcMemoryTest.entry("old", -1L));
+        MatcherAssert.assertThat(cache.get("x").has(), Matchers.is(false));
+        MatcherAssert.assertThat(cache.size(), Matchers.equalTo(0));
+    }
+
+    /**
+     * Make an entry.
+     * @param body Body
+     * @param ttl Time to live
+     * @return Entry
+     */
+    private static Cached entry(final String body, final long ttl) {
+        final long now = System.currentTimeMillis();
+        return new Cached(
+            now, now + ttl, Collections.emptyList(),
+            Collections.singletonList("HTTP/1.1 200 OK"),
+            ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link CcTiered}.
+ * @since 2.0
+ */
+final class CcTieredTest {
+
+    @Test
+    void promotesEntriesFromSecondCache(@TempDir final Path temp)
+        throws Exception {
+        final CcMemory memory = new CcMemory();
+        final Cache disk = new CcDisk(temp.toFile(), 100, 1 << 16);
+        final long now = System.currentTimeMillis();
+        disk.put(
+            "GET /",
+            new Cached(
+                now, now + 60_000L, Collections.emptyList(),
+                Collections.singletonList("HTTP/1.1 204 No Content"),
+                ByteBuffer.allocate(0)
+            )
+        );
+        final Cache cache = new CcTiered(memory, disk);
+        MatcherAssert.assertThat(cache.get("GET /").has(), Matchers.is(true));
+        MatcherAssert.assertThat(cache.get("GET /").has(), Matchers.is(true));
+        MatcherAssert.assertThat(memory.hits(), Matchers.equalTo(1L));
+        MatcherAssert.assertThat(memory.misses(), Matchers.equalTo(1L));
+    }
+}
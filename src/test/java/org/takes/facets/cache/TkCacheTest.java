@@ -0,0 +1,199 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.rq.RqFake;
+import org.takes.rq.RqHeaders;
+import org.takes.rs.RsPrint;
+import org.takes.rs.RsText;
+import org.takes.rs.RsWithHeaders;
+
+/**
+ * Test case for {@link TkCache}.
+ * @since 2.0
+ */
+final class TkCacheTest {
+
+    @Test
+    void servesRepeatedRequestFromCache() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final CcMemory cache = new CcMemory();
+        final Take take = new TkCache(
+            req -> new RsWithHeaders(
+                new RsText(String.format("page #%d", calls.incrementAndGet())),
+                "Cache-Control: public, max-age=60"
+            ),
+            cache, 0L
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(take.act(new RqFake("GET", "/a"))).printBody(),
+            Matchers.equalTo("page #1")
+        );
+        final Response second = take.act(new RqFake("GET", "/a"));
+        MatcherAssert.assertThat(
+            new RsPrint(second).printBody(),
+            Matchers.equalTo("page #1")
+        );
+        MatcherAssert.assertThat(
+            second.head(),
+            Matchers.hasItem("Age: 0")
+        );
+        MatcherAssert.assertThat(cache.hits(), Matchers.equalTo(1L));
+        MatcherAssert.assertThat(cache.misses(), Matchers.equalTo(1L));
+    }
+
+    @Test
+    void skipsResponsesWithoutFreshness() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final Take take = new TkCache(
+            req -> new RsWithHeaders(
+                new RsText(String.format("%d", calls.incrementAndGet())),
+                "Cache-Control: no-store"
+            ),
+            60_000L
+        );
+        take.act(new RqFake("GET", "/b"));
+        take.act(new RqFake("GET", "/b"));
+        take.act(new RqFake("POST", "/b"));
+        MatcherAssert.assertThat(calls.get(), Matchers.equalTo(3));
+    }
+
+    @Test
+    void keysVariantsByVaryHeaders() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final Take take = new TkCache(
+            req -> {
+                calls.incrementAndGet();
+                return new RsWithHeaders(
+                    new RsText(
+                        new RqHeaders.Smart(req).single("Accept-Language")
+                    ),
+                    "Vary: Accept-Language"
+                );
+            },
+            60_000L
+        );
+        for (final String lang : Arrays.asList("en", "fr", "en", "fr")) {
+            MatcherAssert.assertThat(
+                new RsPrint(
+                    take.act(
+                        new RqFake(
+                            Arrays.asList(
+                                "GET /c",
+                                "Host: www.example.com",
+                                String.format("Accept-Language: %s", lang)
+                            ),
+                            ""
+                        )
+                    )
+                ).printBody(),
+                Matchers.equalTo(lang)
+            );
+        }
+        MatcherAssert.assertThat(calls.get(), Matchers.equalTo(2));
+    }
+
+    @Test
+    void bypassesCacheForAuthorizedRequests() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final Take take = new TkCache(
+            req -> new RsWithHeaders(
+                new RsText(String.format("page #%d", calls.incrementAndGet())),
+                "Cache-Control: public, max-age=60"
+            ),
+            0L
+        );
+        take.act(new RqFake("GET", "/d"));
+        for (int idx = 0; idx < 2; ++idx) {
+            MatcherAssert.assertThat(
+                new RsPrint(
+                    take.act(
+                        new RqFake(
+                            Arrays.asList(
+                                "GET /d",
+                                "Host: www.example.com",
+                                "Authorization: Basic dXNlcjpwYXNz"
+                            ),
+                            ""
+                        )
+                    )
+                ).printBody(),
+                Matchers.equalTo(String.format("page #%d", idx + 2))
+            );
+        }
+    }
+
+    @Test
+    void skipsPrivateResponses() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final CcMemory cache = new CcMemory();
+        for (final String header : Arrays.asList(
+            "Cache-Control: private, max-age=60",
+            "Set-Cookie: session=secret"
+        )) {
+            final Take take = new TkCache(
+                req -> new RsWithHeaders(
+                    new RsText(String.format("%d", calls.incrementAndGet())),
+                    header
+                ),
+                cache, 60_000L
+            );
+            take.act(new RqFake("GET", "/e"));
+            take.act(new RqFake("GET", "/e"));
+        }
+        MatcherAssert.assertThat(calls.get(), Matchers.equalTo(4));
+        MatcherAssert.assertThat(cache.hits(), Matchers.equalTo(0L));
+    }
+
+    @Test
+    void streamsBodiesOverLimitUncached() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final char[] body = new char[100];
+        Arrays.fill(body, 'z');
+        final Take take = new TkCache(
+            req -> {
+                calls.incrementAndGet();
+                return new RsWithHeaders(
+                    new RsText(new String(body)),
+                    "Cache-Control: max-age=60"
+                );
+            },
+            new CcMemory(), 0L, 16
+        );
+        for (int idx = 0; idx < 2; ++idx) {
+            MatcherAssert.assertThat(
+                new RsPrint(take.act(new RqFake("GET", "/f"))).printBody(),
+                Matchers.equalTo(new String(body))
+            );
+        }
+        MatcherAssert.assertThat(calls.get(), Matchers.equalTo(2));
+    }
+}
@@ -25,10 +25,13 @@ package org.takes.facets.cookies;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
+import org.takes.Request;
 import org.takes.rq.RqBuffered;
+import org.takes.rq.RequestOf;
 import org.takes.rq.RqFake;
 
 /**
@@ -93,4 +96,101 @@ final class RqCookiesTest {
         );
     }
 
+    @Test
+    void keepsNamesCaseSensitive() throws IOException {
+        final RqCookies cookies = new RqCookies.Base(
+            new RqFake(
+                Arrays.asList(
+                    "GET /",
+                    "Cookie: SID=upper; sid=lower"
+                ),
+                ""
+            )
+        );
+        MatcherAssert.assertThat(
+            cookies.cookie("SID"),
+            Matchers.contains("upper")
+        );
+        MatcherAssert.assertThat(
+            cookies.cookie("sid"),
+            Matchers.contains("lower")
+        );
+        MatcherAssert.assertThat(
+            cookies.cookie("Sid"),
+            Matchers.emptyIterable()
+        );
+    }
+
+    @Test
+    void lowersNamesInCompatibilityMode() throws IOException {
+        final RqCookies cookies = new RqCookies.Base(
+            new RqFake(
+                Arrays.asList(
+                    "GET /",
+                    "cookie: Session=first; SESSION=second"
+                ),
+                ""
+            ),
+            true
+        );
+        MatcherAssert.assertThat(
+            cookies.cookie("SeSsIoN"),
+            Matchers.contains("second")
+        );
+        MatcherAssert.assertThat(
+            cookies.names(),
+            Matchers.contains("session")
+        );
+    }
+
+    @Test
+    void parsesQuotedValuesAndBlanks() throws IOException {
+        final RqCookies cookies = new RqCookies.Base(
+            new RqFake(
+                Arrays.asList(
+                    "GET /",
+                    "Cookie: \ta = \"x=1\" ;;  b=2=3;c;d=",
+                    "Cookie: b=4"
+                ),
+                ""
+            )
+        );
+        MatcherAssert.assertThat(
+            cookies.cookie("a"),
+            Matchers.contains("\"x=1\"")
+        );
+        MatcherAssert.assertThat(
+            cookies.cookie("b"),
+            Matchers.contains("4")
+        );
+        MatcherAssert.assertThat(
+            cookies.names(),
+            Matchers.contains("a", "b")
+        );
+    }
+
+    @Test
+    void readsHeadOnlyOnce() throws IOException {
+        final AtomicInteger reads = new AtomicInteger();
+        final Request req = new RqFake(
+            Arrays.asList(
+                "GET /h",
+                "Cookie: a=1; b=2"
+            ),
+            ""
+        );
+        final RqCookies cookies = new RqCookies.Base(
+            new RequestOf(
+                () -> {
+                    reads.incrementAndGet();
+                    return req.head();
+                },
+                req::body
+            )
+        );
+        cookies.cookie("a");
+        cookies.cookie("b");
+        cookies.names();
+        MatcherAssert.assertThat(reads.get(), Matchers.equalTo(1));
+    }
 }
@@ -23,12 +23,20 @@
  */
 package org.takes.facets.flash;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
+import org.takes.Request;
 import org.takes.Take;
+import org.takes.facets.auth.PsCookie;
+import org.takes.facets.auth.TkAuth;
+import org.takes.facets.auth.codecs.CcPlain;
+import org.takes.rq.RequestOf;
 import org.takes.rq.RqFake;
 import org.takes.rq.RqWithHeader;
+import org.takes.rs.RsEmpty;
 import org.takes.tk.TkEmpty;
 
 /**
@@ -58,4 +66,38 @@ final class TkFlashTest {
             )
         );
     }
+
+    @Test
+    void parsesCookiesOnlyOnce() throws Exception {
+        final AtomicInteger reads = new AtomicInteger();
+        final Request req = new RqFake(
+            Arrays.asList(
+                "GET /",
+                "Cookie: RsFlash=Hello!/INFO"
+            ),
+            ""
+        );
+        new TkFlash(
+            new TkAuth(
+                request -> {
+                    new XeFlash(request).toXembly();
+                    return new RsEmpty();
+                },
+                new PsCookie(new CcPlain())
+            )
+        ).act(
+            new RequestOf(
+                () -> {
+                    reads.incrementAndGet();
+                    return req.head();
+                },
+                req::body
+            )
+        );
+        MatcherAssert.assertThat(
+            "Must parse cookies once for TkFlash, PsCookie and XeFlash",
+            reads.get(),
+            Matchers.equalTo(1)
+        );
+    }
 }
@@ -60,4 +60,33 @@ final class FkEncodingTest {
         );
     }
 
+    @Test
+    void respectsQualityValues() throws IOException {
+        final String header = "Accept-Encoding";
+        MatcherAssert.assertThat(
+            new FkEncoding("gzip", new RsEmpty()).route(
+                new RqWithHeader(new RqFake(), header, "br, gzip;q=0")
+            ).has(),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            new FkEncoding("gzip", new RsEmpty()).route(
+                new RqWithHeader(new RqFake(), header, "br;q=1.0, *;q=0.1")
+            ).has(),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            new FkEncoding("gzip", new RsEmpty()).route(
+                new RqWithHeader(new RqFake(), header, "GZIP ; q=0.5")
+            ).has(),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            new FkEncoding("gzip", new RsEmpty()).route(
+                new RqWithHeader(new RqFake(), header, "gzip;q=0, *")
+            ).has(),
+            Matchers.is(false)
+        );
+    }
+
 }
@@ -0,0 +1,58 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.fork;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.takes.rq.RqFake;
+import org.takes.tk.TkEmpty;
+
+/**
+ * Test case for {@link FkRoute}.
+ * @since 2.0
+ */
+final class FkRouteTest {
+
+    @Test
+    void matchesByMethodAndPath() throws Exception {
+        MatcherAssert.assertThat(
+            new FkRoute("PUT,GET", "/h[a-z]+", new TkEmpty()).route(
+                new RqFake("GET", "/hel?a=1")
+            ).has(),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void ignoresOtherMethods() throws Exception {
+        MatcherAssert.assertThat(
+            new FkRoute("PUT", "/hello", new TkEmpty()).route(
+                new RqFake("GET", "/hello")
+            ).has(),
+            Matchers.is(false)
+        );
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.facets.fork;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.takes.Request;
+import org.takes.rq.RqFake;
+import org.takes.rs.RsBodyPrint;
+import org.takes.rs.RsText;
+import org.takes.tk.TkText;
+
+/**
+ * Test case for {@link FkRouter}.
+ * @since 2.0
+ */
+final class FkRouterTest {
+
+    @Test
+    void routesByLiteralPath() throws Exception {
+        MatcherAssert.assertThat(
+            FkRouterTest.body(
+                new FkRouter(
+                    new FkRegex("/", "index"),
+                    new FkRegex("/robots\\.txt", "robots"),
+                    new FkRegex("/about/team", "team")
+                ),
+                new RqFake("GET", "/About/Team/?x=1")
+            ),
+            Matchers.equalTo("team")
+        );
+    }
+
+    @Test
+    void keepsGroupsOfPatterns() throws Exception {
+        MatcherAssert.assertThat(
+            FkRouterTest.body(
+                new FkRouter(
+                    new FkRegex("/user/(\\d+)", "digits"),
+                    new FkRegex(
+                        "/user/([^/]+)/(?<tab>[a-z]+)",
+                        (TkRegex) req -> new RsText(
+                            String.format(
+                                "%s:%s",
+                                req.matcher().group(1),
+                                req.matcher().group("tab")
+                            )
+                        )
+                    )
+                ),
+                new RqFake("GET", "/user/jeff/posts")
+            ),
+            Matchers.equalTo("jeff:posts")
+        );
+    }
+
+    @Test
+    void keepsOrderOfForks() throws Exception {
+        MatcherAssert.assertThat(
+            FkRouterTest.body(
+                new FkRouter(
+                    new FkRegex("/file(.*)", "files"),
+                    new FkRegex("/user/([^/]+)", "user"),
+                    new FkRegex("/user/me", "me"),
+                    new FkFixed(new TkText("default"))
+                ),
+                new RqFake("GET", "/user/me")
+            ),
+            Matchers.equalTo("user")
+        );
+    }
+
+    @Test
+    void dispatchesByMethod() throws Exception {
+        final Fork fork = new FkRouter(
+            new FkRoute("GET", "/item/([^/]+)", new TkText("read")),
+            new FkRoute("PUT,POST", "/item/([^/]+)", new TkText("save")),
+            new FkFixed(new TkText("other"))
+        );
+        MatcherAssert.assertThat(
+            FkRouterTest.body(fork, new RqFake("POST", "/item/1")),
+            Matchers.equalTo("save")
+        );
+        MatcherAssert.assertThat(
+            FkRouterTest.body(fork, new RqFake("DELETE", "/item/1")),
+            Matchers.equalTo("other")
+        );
+    }
+
+    @Test
+    void fallsBackToRegularExpressions() throws Exception {
+        MatcherAssert.assertThat(
+            FkRouterTest.body(
+                new FkRouter(
+                    new FkRegex("/a\\.b", "dot"),
+                    new FkRegex("/a.b", "any"),
+                    new FkRegex(Pattern.compile("/A/B"), new TkText("exact")),
+                    new FkRegex("/(a|b)/c", "either")
+                ),
+                new RqFake("GET", "/b/c")
+            ),
+            Matchers.equalTo("either")
+        );
+    }
+
+    @Test
+    void skipsPatternsOfOtherPaths() throws Exception {
+        MatcherAssert.assertThat(
+            new FkRouter(
+                new FkRegex("/a/([^/]+)", "a"),
+                new FkRegex(
+                    Pattern.compile("/b", Pattern.COMMENTS), new TkText("b")
+                )
+            ).route(new RqFake("GET", "/a/b/c")).has(),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    @Tag("performance")
+    void routesFasterThanChainAmongManyForks() throws Exception {
+        // @checkstyle MagicNumberCheck (1 line)
+        for (final int total : new int[] {10, 100, 1000}) {
+            final List<Fork> forks = new ArrayList<>(total);
+            for (int idx = 0; idx < total; ++idx) {
+                forks.add(
+                    new FkRoute(
+                        "GET",
+                        String.format("/api/v1/resource%d/([^/]+)", idx),
+                        new TkText("found")
+                    )
+                );
+            }
+            forks.add(new FkRegex("/static/(.*)", "static"));
+            final Request req = new RqFake(
+                "GET", String.format("/api/v1/resource%d/42", total - 1)
+            );
+            // @checkstyle MagicNumberCheck (2 lines)
+            MatcherAssert.assertThat(
+                String.format("router is slower with %d routes", total),
+                FkRouterTest.nanos(new FkRouter(forks), req, 20_000),
+                Matchers.lessThan(
+                    FkRouterTest.nanos(new FkChain(forks), req, 200)
+                )
+            );
+        }
+    }
+
+    /**
+     * Average time of routing one request.
+     * @param fork Fork
+     * @param req Request
+     * @param times How many times to route it
+     * @return Nanoseconds per request
+     * @throws Exception If fails
+     */
+    private static long nanos(final Fork fork, final Request req,
+        final int times) throws Exception {
+        final long start = System.nanoTime();
+        for (int idx = 0; idx < times; ++idx) {
+            new RsBodyPrint(fork.route(req).get()).asString();
+        }
+        return (System.nanoTime() - start) / times;
+    }
+
+    /**
+     * Body of the response of the fork.
+     * @param fork Fork
+     * @param req Request
+     * @return Body
+     * @throws Exception If fails
+     */
+    private static String body(final Fork fork, final Request req)
+        throws Exception {
+        return new RsBodyPrint(fork.route(req).get()).asString();
+    }
+
+}
@@ -99,4 +99,30 @@ final class FkTypesTest {
             Matchers.is(true)
         );
     }
+
+    @Test
+    void ignoresRejectedTypes() throws Exception {
+        MatcherAssert.assertThat(
+            new FkTypes("application/json", new RsEmpty()).route(
+                new RqWithHeader(
+                    new RqFake(), "Accept", "application/json;q=0, */*"
+                )
+            ).has(),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void reusesParsedHeaders() throws Exception {
+        final String accept = "text/html, application/xml;q=0.9, */*;q=0.8";
+        MatcherAssert.assertThat(
+            FkTypes.accepted(new RqWithHeader(new RqFake(), "Accept", accept)),
+            Matchers.sameInstance(
+                FkTypes.accepted(
+                    new RqWithHeader(new RqFake(), "Accept", accept)
+                )
+            )
+        );
+    }
+
 }
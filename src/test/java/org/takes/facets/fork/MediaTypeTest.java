@@ -75,4 +75,16 @@ final class MediaTypeTest {
         new MediaType("\n\n\t\r\u20ac00");
     }
 
+    @Test
+    void readsQualityParameter() {
+        MatcherAssert.assertThat(
+            new MediaType("text/html;level=1;q=0.5").priority(),
+            Matchers.equalTo(0.5d)
+        );
+        MatcherAssert.assertThat(
+            new MediaType("text/html;charset=utf-8").priority(),
+            Matchers.equalTo(1.0d)
+        );
+    }
+
 }
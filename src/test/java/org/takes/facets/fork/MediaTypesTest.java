@@ -92,4 +92,41 @@ final class MediaTypesTest {
         new MediaTypes("\n\n\t\r\u20ac00");
     }
 
+    @Test
+    void ranksByMostSpecificType() {
+        final MediaTypes accepted = new MediaTypes(
+            "text/*;q=0.3,text/html;q=0.7,*/*;q=0.1,text/csv;q=0"
+        );
+        MatcherAssert.assertThat(
+            accepted.quality(new MediaTypes("text/html")),
+            Matchers.equalTo(0.7d)
+        );
+        MatcherAssert.assertThat(
+            accepted.quality(new MediaTypes("text/plain")),
+            Matchers.equalTo(0.3d)
+        );
+        MatcherAssert.assertThat(
+            accepted.quality(new MediaTypes("image/png")),
+            Matchers.equalTo(0.1d)
+        );
+        MatcherAssert.assertThat(
+            accepted.quality(new MediaTypes("text/csv")),
+            Matchers.equalTo(0.0d)
+        );
+    }
+
+    @Test
+    void ranksTypesSeparatedBySpaces() {
+        final MediaTypes accepted = new MediaTypes(
+            "text/plain;q=0.5, application/json"
+        );
+        MatcherAssert.assertThat(
+            accepted.quality(new MediaTypes("application/json")),
+            Matchers.equalTo(1.0d)
+        );
+        MatcherAssert.assertThat(
+            accepted.quality(new MediaTypes("text/plain")),
+            Matchers.equalTo(0.5d)
+        );
+    }
 }
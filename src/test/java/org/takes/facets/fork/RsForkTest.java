@@ -111,4 +111,47 @@ final class RsForkTest {
         );
     }
 
+    @Test
+    void negotiatesByQuality() throws IOException {
+        MatcherAssert.assertThat(
+            new RsBodyPrint(
+                new RsFork(
+                    new RqFake(
+                        Arrays.asList(
+                            "GET /page",
+                            "Accept: application/json, */*;q=0.1"
+                        ),
+                        ""
+                    ),
+                    new FkTypes("text/html", new RsText("html")),
+                    new FkTypes("application/json", new RsText("json")),
+                    new FkTypes("*/*", new RsText("any"))
+                )
+            ).asString(),
+            Matchers.equalTo("json")
+        );
+    }
+
+    @Test
+    void negotiatesAmongForksInOrder() throws IOException {
+        MatcherAssert.assertThat(
+            new RsBodyPrint(
+                new RsFork(
+                    new RqFake(
+                        Arrays.asList(
+                            "GET /page",
+                            "Accept: text/plain;q=0.5, application/json"
+                        ),
+                        ""
+                    ),
+                    new FkMethods("POST", new RsText("post")),
+                    new FkTypes("text/plain", new RsText("text")),
+                    new FkTypes("application/json", new RsText("json")),
+                    new FkMethods("GET", new RsText("get"))
+                )
+            ).asString(),
+            Matchers.equalTo("json")
+        );
+    }
+
 }
@@ -0,0 +1,177 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.misc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.cactoos.text.TextOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link TempStorage}.
+ * @since 2.0
+ */
+final class TempStorageTest {
+
+    @Test
+    void deletesFileWhenLastReferenceIsReleased(@TempDir final Path temp)
+        throws Exception {
+        try (TempStorage storage = new TempStorage(temp, 1024L, false)) {
+            final TempStorage.Entry entry = storage.create();
+            try (OutputStream out = entry.output()) {
+                out.write("hello".getBytes(StandardCharsets.UTF_8));
+            }
+            final InputStream input = entry.input();
+            entry.release();
+            MatcherAssert.assertThat(
+                "file must exist while the stream is open",
+                entry.file().exists(),
+                Matchers.is(true)
+            );
+            MatcherAssert.assertThat(
+                new TextOf(input).asString(),
+                Matchers.equalTo("hello")
+            );
+            input.close();
+            MatcherAssert.assertThat(
+                "file must be deleted after the stream is closed",
+                entry.file().exists(),
+                Matchers.is(false)
+            );
+            MatcherAssert.assertThat(storage.used(), Matchers.equalTo(0L));
+        }
+    }
+
+    @Test
+    void releasesDetachedStreamOnlyOnce(@TempDir final Path temp)
+        throws Exception {
+        try (TempStorage storage = new TempStorage(temp, 1024L, false)) {
+            final TempStorage.Entry entry = storage.create();
+            try (OutputStream out = entry.output()) {
+                out.write("once".getBytes(StandardCharsets.UTF_8));
+            }
+            entry.retain();
+            TempStorageTest.readAndClose(entry);
+            // @checkstyle MagicNumberCheck (1 line)
+            for (int idx = 0; idx < 10; ++idx) {
+                System.gc();
+                Thread.sleep(20L);
+            }
+            MatcherAssert.assertThat(
+                "file must survive the garbage collection of a closed stream",
+                entry.file().exists(),
+                Matchers.is(true)
+            );
+            entry.release();
+            MatcherAssert.assertThat(
+                "file must be deleted with the last reference",
+                entry.file().exists(),
+                Matchers.is(false)
+            );
+        }
+    }
+
+    @Test
+    void enforcesQuota(@TempDir final Path temp) throws Exception {
+        try (TempStorage storage = new TempStorage(temp, 8L, false)) {
+            final TempStorage.Entry first = storage.create();
+            try (OutputStream out = first.output()) {
+                out.write(new byte[6]);
+            }
+            final TempStorage.Entry second = storage.create();
+            Assertions.assertThrows(
+                IOException.class,
+                () -> {
+                    try (OutputStream out = second.output()) {
+                        out.write(new byte[3]);
+                    }
+                }
+            );
+            first.release();
+            try (OutputStream out = second.output()) {
+                out.write(new byte[3]);
+            }
+            MatcherAssert.assertThat(storage.used(), Matchers.equalTo(3L));
+        }
+    }
+
+    @Test
+    void deletesOrphans(@TempDir final Path temp) throws Exception {
+        final Path orphan = temp.resolve("orphan");
+        Files.createDirectories(orphan);
+        Files.createFile(orphan.resolve(".lock"));
+        Files.createFile(orphan.resolve("left.tmp"));
+        try (TempStorage storage = new TempStorage(temp, 1024L, false)) {
+            final TempStorage.Entry entry = storage.create();
+            storage.orphans();
+            MatcherAssert.assertThat(
+                Files.exists(orphan),
+                Matchers.is(false)
+            );
+            MatcherAssert.assertThat(
+                entry.file().exists(),
+                Matchers.is(true)
+            );
+        }
+    }
+
+    @Test
+    void readsThroughMappedBuffer(@TempDir final Path temp) throws Exception {
+        try (TempStorage storage = new TempStorage(temp, 1024L, true)) {
+            final TempStorage.Entry entry = storage.create();
+            try (OutputStream out = entry.output()) {
+                out.write("mapped".getBytes(StandardCharsets.UTF_8));
+            }
+            try (InputStream input = entry.input()) {
+                MatcherAssert.assertThat(
+                    new TextOf(input).asString(),
+                    Matchers.equalTo("mapped")
+                );
+            }
+        }
+    }
+
+    /**
+     * Read the entry through a detached stream and close it.
+     * @param entry The entry
+     * @throws Exception If fails
+     */
+    private static void readAndClose(final TempStorage.Entry entry)
+        throws Exception {
+        try (InputStream input = entry.detached()) {
+            MatcherAssert.assertThat(
+                new TextOf(input).asString(),
+                Matchers.equalTo("once")
+            );
+        }
+    }
+}
@@ -23,14 +23,22 @@
  */
 package org.takes.rq;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
 import org.apache.commons.io.IOUtils;
 import org.cactoos.text.Joined;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.takes.HttpException;
 
 /**
  * Test case for {@link ChunkedInputStream}.
@@ -163,4 +171,158 @@ final class ChunkedInputStreamTest {
         MatcherAssert.assertThat(stream.available(), Matchers.equalTo(0));
         stream.close();
     }
+
+    @Test
+    void collectsTrailers() throws IOException {
+        final List<String> trailers = new LinkedList<>();
+        final InputStream stream = new ChunkedInputStream(
+            IOUtils.toInputStream(
+                new Joined(
+                    ChunkedInputStreamTest.CRLF,
+                    "5",
+                    "hello",
+                    ChunkedInputStreamTest.END_OF_CHUNK,
+                    "Expires: never",
+                    "X-Checksum: 42",
+                    "",
+                    ""
+                ).toString(),
+                StandardCharsets.UTF_8
+            ),
+            Long.MAX_VALUE,
+            Long.MAX_VALUE,
+            trailers
+        );
+        MatcherAssert.assertThat(
+            IOUtils.toString(stream, StandardCharsets.UTF_8),
+            Matchers.equalTo("hello")
+        );
+        MatcherAssert.assertThat(
+            trailers,
+            Matchers.contains("Expires: never", "X-Checksum: 42")
+        );
+    }
+
+    @Test
+    void rejectsTooLargeChunk() {
+        final HttpException error = Assertions.assertThrows(
+            HttpException.class,
+            () -> IOUtils.toByteArray(
+                new ChunkedInputStream(
+                    IOUtils.toInputStream(
+                        new Joined(
+                            ChunkedInputStreamTest.CRLF,
+                            "ffffffff",
+                            "never read",
+                            ChunkedInputStreamTest.END_OF_CHUNK,
+                            ""
+                        ).toString(),
+                        StandardCharsets.UTF_8
+                    ),
+                    1024L,
+                    Long.MAX_VALUE,
+                    new LinkedList<>()
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            error.code(),
+            Matchers.equalTo(HttpURLConnection.HTTP_ENTITY_TOO_LARGE)
+        );
+    }
+
+    @Test
+    void rejectsTooLargeBody() {
+        Assertions.assertThrows(
+            HttpException.class,
+            () -> IOUtils.toByteArray(
+                new ChunkedInputStream(
+                    IOUtils.toInputStream(
+                        new Joined(
+                            ChunkedInputStreamTest.CRLF,
+                            "4",
+                            "1234",
+                            "4",
+                            "5678",
+                            ChunkedInputStreamTest.END_OF_CHUNK,
+                            ""
+                        ).toString(),
+                        StandardCharsets.UTF_8
+                    ),
+                    Long.MAX_VALUE,
+                    6L,
+                    new LinkedList<>()
+                )
+            )
+        );
+    }
+
+    @Test
+    void readsManyTinyChunks() throws IOException {
+        final int count = 100_000;
+        MatcherAssert.assertThat(
+            IOUtils.toByteArray(
+                new ChunkedInputStream(
+                    ChunkedInputStreamTest.chunked(count, 1)
+                )
+            ).length,
+            Matchers.equalTo(count)
+        );
+    }
+
+    @Test
+    @Tag("performance")
+    void decodesLargeBodyInTime() throws IOException {
+        final int length = 32 * 1024 * 1024;
+        final int[] sizes = {16, 1024, 64 * 1024};
+        for (final int size : sizes) {
+            final InputStream input = ChunkedInputStreamTest.chunked(
+                length / size, size
+            );
+            final long start = System.currentTimeMillis();
+            final InputStream stream = new ChunkedInputStream(input);
+            final byte[] buf = new byte[8192];
+            long total = 0L;
+            int read = stream.read(buf);
+            while (read >= 0) {
+                total += read;
+                read = stream.read(buf);
+            }
+            MatcherAssert.assertThat(total, Matchers.equalTo((long) length));
+            MatcherAssert.assertThat(
+                String.format("too slow with %d-byte chunks", size),
+                System.currentTimeMillis() - start,
+                // @checkstyle MagicNumberCheck (1 line)
+                Matchers.lessThan(2_000L)
+            );
+        }
+    }
+
+    /**
+     * Make a chunked body.
+     * @param count How many chunks
+     * @param size Size of each chunk
+     * @return Chunked body
+     */
+    private static InputStream chunked(final int count, final int size) {
+        final byte[] line = String.format("%x\r\n", size)
+            .getBytes(StandardCharsets.UTF_8);
+        final byte[] body = new byte[
+            count * (line.length + size + 2) + 5
+        ];
+        int pos = 0;
+        for (int idx = 0; idx < count; ++idx) {
+            System.arraycopy(line, 0, body, pos, line.length);
+            pos += line.length;
+            Arrays.fill(body, pos, pos + size, (byte) 'x');
+            pos += size;
+            body[pos] = '\r';
+            body[pos + 1] = '\n';
+            pos += 2;
+        }
+        System.arraycopy(
+            "0\r\n\r\n".getBytes(StandardCharsets.UTF_8), 0, body, pos, 5
+        );
+        return new ByteArrayInputStream(body);
+    }
 }
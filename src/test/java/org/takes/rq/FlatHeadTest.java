@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.takes.Request;
+
+/**
+ * Test case for {@link FlatHead}.
+ * @since 2.0
+ */
+final class FlatHeadTest {
+
+    @Test
+    void composesDeepChainOfDecorators() throws Exception {
+        MatcherAssert.assertThat(
+            new RqWithDefaultHeader(
+                new RqWithDefaultHeader(
+                    new RqWithoutHeader(
+                        new RqWithHeaders(
+                            new RqWithHeader(
+                                new RqFake(
+                                    Arrays.asList(
+                                        "GET /",
+                                        "Host: www.example.com",
+                                        "X-Old: 1"
+                                    ),
+                                    ""
+                                ),
+                                "X-First", "a"
+                            ),
+                            "  X-Second: b  ", "x-old: 2"
+                        ),
+                        "X-OLD"
+                    ),
+                    "Host", "ignored.example.com"
+                ),
+                "Accept", "text/plain"
+            ).head(),
+            Matchers.contains(
+                "GET /",
+                "Host: www.example.com",
+                "X-First: a",
+                "X-Second: b",
+                "Accept: text/plain"
+            )
+        );
+    }
+
+    @Test
+    void buildsVectorOnlyOnce() throws Exception {
+        final Request req = new RqWithoutHeader(
+            new RqWithHeader(new RqFake(), "X-Test", "1"),
+            "Host"
+        );
+        MatcherAssert.assertThat(
+            req.head(),
+            Matchers.sameInstance(req.head())
+        );
+    }
+
+    @Test
+    void rebuildsVectorWhenOriginalHeadChanges() throws Exception {
+        final List<String> head = new ArrayList<>(Arrays.asList("GET /"));
+        final Request req = new RqWithHeader(
+            new RequestOf(() -> new ArrayList<>(head), new RqFake()::body),
+            "X-Test: 1"
+        );
+        MatcherAssert.assertThat(
+            req.head(),
+            Matchers.contains("GET /", "X-Test: 1")
+        );
+        head.add("X-Trailer: 2");
+        MatcherAssert.assertThat(
+            req.head(),
+            Matchers.contains("GET /", "X-Trailer: 2", "X-Test: 1")
+        );
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Random;
+import org.cactoos.bytes.BytesOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.takes.misc.TempStorage;
+
+/**
+ * Test case for {@link ReplayBody}.
+ * @since 2.0
+ */
+final class ReplayBodyTest {
+
+    @Test
+    void replaysSmallBodyFromMemory(@TempDir final Path temp)
+        throws Exception {
+        final byte[] bytes = ReplayBodyTest.random(100);
+        try (TempStorage storage = new TempStorage(temp, 1024L, false)) {
+            final ReplayBody body = new ReplayBody(
+                new ReplayBodyTest.Once(bytes), 100, storage
+            );
+            for (int idx = 0; idx < 3; ++idx) {
+                MatcherAssert.assertThat(
+                    new BytesOf(body.body()).asBytes(),
+                    Matchers.equalTo(bytes)
+                );
+            }
+            MatcherAssert.assertThat(storage.used(), Matchers.equalTo(0L));
+        }
+    }
+
+    @Test
+    void replaysLargeBodyFromFile(@TempDir final Path temp)
+        throws Exception {
+        final byte[] bytes = ReplayBodyTest.random(100_000);
+        try (TempStorage storage = new TempStorage(temp, 1L << 20, false)) {
+            final ReplayBody body = new ReplayBody(
+                new ReplayBodyTest.Once(bytes), 1000, storage
+            );
+            for (int idx = 0; idx < 3; ++idx) {
+                try (InputStream stream = body.body()) {
+                    MatcherAssert.assertThat(
+                        new BytesOf(stream).asBytes(),
+                        Matchers.equalTo(bytes)
+                    );
+                }
+            }
+            MatcherAssert.assertThat(
+                storage.used(),
+                Matchers.equalTo((long) bytes.length)
+            );
+        }
+    }
+
+    /**
+     * Make random bytes.
+     * @param size How many
+     * @return Bytes
+     */
+    private static byte[] random(final int size) {
+        final byte[] bytes = new byte[size];
+        new Random().nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Body that can be read only once.
+     * @since 2.0
+     */
+    private static final class Once implements org.takes.Body {
+
+        /**
+         * The stream.
+         */
+        private final InputStream stream;
+
+        /**
+         * Is it read already?
+         */
+        private boolean read;
+
+        /**
+         * Ctor.
+         * @param bytes The bytes
+         */
+        Once(final byte[] bytes) {
+            this.stream = new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public InputStream body() {
+            if (this.read) {
+                throw new IllegalStateException("body is read already");
+            }
+            this.read = true;
+            return this.stream;
+        }
+    }
+}
@@ -27,9 +27,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import org.cactoos.text.Joined;
+import org.cactoos.text.TextOf;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
+import org.takes.Request;
 
 /**
  * Test case for {@link RqChunk}.
@@ -147,4 +149,75 @@ final class RqChunkTest {
         MatcherAssert.assertThat(buf, Matchers.equalTo(data.getBytes()));
         MatcherAssert.assertThat(stream.available(), Matchers.equalTo(0));
     }
+
+    @Test
+    void addsTrailersToHead() throws Exception {
+        final Request req = new RqChunk(
+            new RqFake(
+                Arrays.asList(
+                    "POST /trailers HTTP/1.1",
+                    "Host: www.example.com",
+                    RqChunkTest.CHUNKED_HEADER
+                ),
+                new Joined(
+                    RqChunkTest.CRLF,
+                    "3",
+                    "abc",
+                    RqChunkTest.END_OF_CHUNK,
+                    "Content-Digest: sha-256=:abc=:",
+                    "",
+                    ""
+                ).toString()
+            )
+        );
+        MatcherAssert.assertThat(
+            new TextOf(req.body()).asString(),
+            Matchers.equalTo("abc")
+        );
+        MatcherAssert.assertThat(
+            new RqHeaders.Base(req).header("Content-Digest"),
+            Matchers.contains("sha-256=:abc=:")
+        );
+    }
+
+    @Test
+    void keepsUnsafeTrailersOutOfHead() throws Exception {
+        final RqChunk req = new RqChunk(
+            new RqFake(
+                Arrays.asList(
+                    "POST /trailers HTTP/1.1",
+                    "Host: www.example.com",
+                    RqChunkTest.CHUNKED_HEADER
+                ),
+                new Joined(
+                    RqChunkTest.CRLF,
+                    "3",
+                    "xyz",
+                    RqChunkTest.END_OF_CHUNK,
+                    "Host: evil.example.com",
+                    "Authorization: Basic YWRtaW46YWRtaW4=",
+                    "",
+                    ""
+                ).toString()
+            ),
+            Long.MAX_VALUE,
+            Long.MAX_VALUE
+        );
+        new TextOf(req.body()).asString();
+        MatcherAssert.assertThat(
+            new RqHeaders.Base(req).header("Host"),
+            Matchers.contains("www.example.com")
+        );
+        MatcherAssert.assertThat(
+            new RqHeaders.Base(req).header("Authorization"),
+            Matchers.emptyIterable()
+        );
+        MatcherAssert.assertThat(
+            req.trailers(),
+            Matchers.contains(
+                "Host: evil.example.com",
+                "Authorization: Basic YWRtaW46YWRtaW4="
+            )
+        );
+    }
 }
@@ -0,0 +1,290 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.cactoos.text.TextOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.takes.HttpException;
+
+/**
+ * Test case for {@link RqInflated}.
+ *
+ * @since 2.0
+ */
+final class RqInflatedTest {
+
+    /**
+     * Text to compress.
+     */
+    private static final String TEXT = "Hello, compressed world!";
+
+    @Test
+    void inflatesGzipBody() throws Exception {
+        final byte[] body = RqInflatedTest.gzip(RqInflatedTest.TEXT);
+        MatcherAssert.assertThat(
+            "Must decode gzip body",
+            new TextOf(
+                new RqInflated(
+                    new RqFake(
+                        Arrays.asList(
+                            "POST / HTTP/1.1",
+                            "Content-Encoding: gzip",
+                            String.format("Content-Length: %d", body.length)
+                        ),
+                        body
+                    )
+                ).body()
+            ).asString(),
+            Matchers.equalTo(RqInflatedTest.TEXT)
+        );
+    }
+
+    @Test
+    void inflatesConcatenatedGzipMembers() throws Exception {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(RqInflatedTest.gzip("first "));
+        body.write(RqInflatedTest.gzip("second"));
+        MatcherAssert.assertThat(
+            "Must decode all gzip members",
+            new TextOf(
+                new RqInflated(
+                    new RqFake(
+                        Arrays.asList(
+                            "POST / HTTP/1.1",
+                            "Content-Encoding: x-gzip"
+                        ),
+                        body.toByteArray()
+                    )
+                ).body()
+            ).asString(),
+            Matchers.equalTo("first second")
+        );
+    }
+
+    @Test
+    void inflatesZlibAndRawDeflateBodies() throws Exception {
+        for (final boolean raw : new boolean[] {false, true}) {
+            MatcherAssert.assertThat(
+                "Must decode deflate body",
+                new TextOf(
+                    new RqInflated(
+                        new RqFake(
+                            Arrays.asList(
+                                "POST / HTTP/1.1",
+                                "Content-Encoding: deflate"
+                            ),
+                            RqInflatedTest.deflate(RqInflatedTest.TEXT, raw)
+                        )
+                    ).body()
+                ).asString(),
+                Matchers.equalTo(RqInflatedTest.TEXT)
+            );
+        }
+    }
+
+    @Test
+    void inflatesChunkedBodyOfGreedyRequest() throws Exception {
+        final byte[] gzip = RqInflatedTest.gzip(RqInflatedTest.TEXT);
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(
+            String.format("%x\r\n", gzip.length)
+                .getBytes(StandardCharsets.US_ASCII)
+        );
+        body.write(gzip);
+        body.write("\r\n0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+        MatcherAssert.assertThat(
+            "Must decode chunked gzip body only once",
+            new TextOf(
+                new RqInflated(
+                    new RqGreedy(
+                        new RqFake(
+                            Arrays.asList(
+                                "POST / HTTP/1.1",
+                                "Content-Encoding: gzip",
+                                "Transfer-Encoding: chunked"
+                            ),
+                            body.toByteArray()
+                        )
+                    )
+                ).body()
+            ).asString(),
+            Matchers.equalTo(RqInflatedTest.TEXT)
+        );
+    }
+
+    @Test
+    void removesCodingHeaders() throws IOException {
+        MatcherAssert.assertThat(
+            "Must drop headers of the coded body",
+            new RqInflated(
+                new RqFake(
+                    Arrays.asList(
+                        "POST / HTTP/1.1",
+                        "Host: www.example.com",
+                        "Content-Encoding: gzip",
+                        "Content-Length: 10"
+                    ),
+                    ""
+                )
+            ).head(),
+            Matchers.contains("POST / HTTP/1.1", "Host: www.example.com")
+        );
+    }
+
+    @Test
+    void passesPlainBodyThrough() throws Exception {
+        MatcherAssert.assertThat(
+            "Must not touch plain body",
+            new TextOf(
+                new RqInflated(
+                    new RqFake(
+                        Arrays.asList(
+                            "POST / HTTP/1.1",
+                            "Content-Encoding: identity"
+                        ),
+                        RqInflatedTest.TEXT
+                    )
+                ).body()
+            ).asString(),
+            Matchers.equalTo(RqInflatedTest.TEXT)
+        );
+    }
+
+    @Test
+    void rejectsDecompressionBomb() throws IOException {
+        final byte[] body = RqInflatedTest.gzip(
+            new String(new char[1 << 20]).replace('\0', 'a')
+        );
+        final InputStream stream = new RqInflated(
+            new RqFake(
+                Arrays.asList(
+                    "POST / HTTP/1.1",
+                    "Content-Encoding: gzip"
+                ),
+                body
+            ),
+            // @checkstyle MagicNumberCheck (1 line)
+            1000L
+        ).body();
+        MatcherAssert.assertThat(
+            "Must fail with 413",
+            Assertions.assertThrows(
+                HttpException.class,
+                () -> new TextOf(stream).asString()
+            ).code(),
+            Matchers.equalTo(HttpURLConnection.HTTP_ENTITY_TOO_LARGE)
+        );
+    }
+
+    @Test
+    void rejectsBrokenGzipBody() throws IOException {
+        final byte[] body = RqInflatedTest.gzip(RqInflatedTest.TEXT);
+        body[body.length - 5] ^= 1;
+        final InputStream stream = new RqInflated(
+            new RqFake(
+                Arrays.asList(
+                    "POST / HTTP/1.1",
+                    "Content-Encoding: gzip"
+                ),
+                body
+            )
+        ).body();
+        MatcherAssert.assertThat(
+            "Must fail with 400",
+            Assertions.assertThrows(
+                HttpException.class,
+                () -> new TextOf(stream).asString()
+            ).code(),
+            Matchers.equalTo(HttpURLConnection.HTTP_BAD_REQUEST)
+        );
+    }
+
+    @Test
+    void rejectsUnknownCoding() {
+        MatcherAssert.assertThat(
+            "Must fail with 415",
+            Assertions.assertThrows(
+                HttpException.class,
+                () -> new RqInflated(
+                    new RqFake(
+                        Arrays.asList(
+                            "POST / HTTP/1.1",
+                            "Content-Encoding: br"
+                        ),
+                        ""
+                    )
+                ).body()
+            ).code(),
+            Matchers.equalTo(HttpURLConnection.HTTP_UNSUPPORTED_TYPE)
+        );
+    }
+
+    /**
+     * Gzip the text.
+     * @param text Text
+     * @return Compressed bytes
+     * @throws IOException If fails
+     */
+    private static byte[] gzip(final String text) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Deflate the text.
+     * @param text Text
+     * @param raw Without zlib wrapper?
+     * @return Compressed bytes
+     * @throws IOException If fails
+     */
+    private static byte[] deflate(final String text, final boolean raw)
+        throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Deflater deflater = new Deflater(
+            Deflater.DEFAULT_COMPRESSION, raw
+        );
+        try (DeflaterOutputStream zip =
+            new DeflaterOutputStream(out, deflater)) {
+            zip.write(text.getBytes(StandardCharsets.UTF_8));
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+}
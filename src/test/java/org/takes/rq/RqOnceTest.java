@@ -23,7 +23,9 @@
  */
 package org.takes.rq;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import org.cactoos.bytes.BytesOf;
 import org.cactoos.io.InputStreamOf;
 import org.cactoos.iterable.IterableOf;
 import org.cactoos.text.Randomized;
@@ -72,4 +74,25 @@ final class RqOnceTest {
         ).affirm();
     }
 
+    @Test
+    void keepsBinaryBodyAsItIs() throws Exception {
+        final byte[] bytes = {(byte) 0xff, (byte) 0xfe, 0, (byte) 0x80};
+        final Request req = new RqOnce(
+            new RequestOf(
+                new IterableOf<>("POST / HTTP/1.1"),
+                new ByteArrayInputStream(bytes)
+            )
+        );
+        new Assertion<>(
+            "the body must be kept byte by byte",
+            new BytesOf(req.body()).asBytes(),
+            new IsEqual<>(new BytesOf(req.body()).asBytes())
+        ).affirm();
+        new Assertion<>(
+            "the body must not be decoded",
+            new BytesOf(req.body()).asBytes(),
+            new IsEqual<>(bytes)
+        ).affirm();
+    }
+
 }
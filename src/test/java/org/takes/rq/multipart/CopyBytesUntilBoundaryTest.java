@@ -23,15 +23,16 @@
  */
 package org.takes.rq.multipart;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import org.apache.commons.io.input.ClosedInputStream;
 import org.hamcrest.core.IsEqual;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.llorllale.cactoos.matchers.Assertion;
 
@@ -43,10 +44,11 @@ import org.llorllale.cactoos.matchers.Assertion;
 final class CopyBytesUntilBoundaryTest {
 
     @Test
-    @Disabled
     void copiesLastRepeatedBytes() throws IOException {
-        final ReadableByteChannel src = Channels.newChannel(new ClosedInputStream());
-        final WritableByteChannel target = Channels.newChannel(new ByteArrayOutputStream());
+        final ReadableByteChannel src =
+            Channels.newChannel(new ClosedInputStream());
+        final WritableByteChannel target =
+            Channels.newChannel(new ByteArrayOutputStream());
         final ByteBuffer buffer = ByteBuffer.allocate(5);
         buffer.put(new byte[] {0, 0, 0, 13, 13});
         buffer.position(3);
@@ -65,4 +67,38 @@ final class CopyBytesUntilBoundaryTest {
             new IsEqual<>(new byte[] {13, 13})
         ).affirm();
     }
+
+    @Test
+    void findsBoundaryAcrossRefills() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.flip();
+        final ReadableByteChannel src = Channels.newChannel(
+            new ByteArrayInputStream(
+                "first\r\n-second\r\n--zz!rest"
+                    .getBytes(StandardCharsets.UTF_8)
+            )
+        );
+        new CopyBytesUntilBoundary(
+            Channels.newChannel(out),
+            "\r\n--zz".getBytes(StandardCharsets.UTF_8),
+            src,
+            buffer
+        ).copy();
+        new Assertion<>(
+            "Must copy bytes up to the boundary",
+            new String(out.toByteArray(), StandardCharsets.UTF_8),
+            new IsEqual<>("first\r\n-second")
+        ).affirm();
+        if (!buffer.hasRemaining()) {
+            buffer.clear();
+            src.read(buffer);
+            buffer.flip();
+        }
+        new Assertion<>(
+            "Must stop right after the boundary",
+            (char) buffer.get(),
+            new IsEqual<>('!')
+        ).affirm();
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq.multipart;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Delimiter}.
+ * @since 2.0
+ */
+final class DelimiterTest {
+
+    @Test
+    void findsDelimiter() {
+        final byte[] buf = "abc\r\n--xyz\r\n--AaB03xdef"
+            .getBytes(StandardCharsets.UTF_8);
+        MatcherAssert.assertThat(
+            new Delimiter("\r\n--AaB03x".getBytes(StandardCharsets.UTF_8))
+                .find(buf, 0, buf.length),
+            Matchers.equalTo(10)
+        );
+    }
+
+    @Test
+    void findsNothingBeyondLimit() {
+        final byte[] buf = "0123456789--x".getBytes(StandardCharsets.UTF_8);
+        MatcherAssert.assertThat(
+            new Delimiter("--x".getBytes(StandardCharsets.UTF_8))
+                .find(buf, 0, buf.length - 1),
+            Matchers.equalTo(-1)
+        );
+    }
+
+    @Test
+    void findsSelfOverlappingDelimiter() {
+        final byte[] buf = "aaaab".getBytes(StandardCharsets.UTF_8);
+        MatcherAssert.assertThat(
+            new Delimiter("aab".getBytes(StandardCharsets.UTF_8))
+                .find(buf, 1, buf.length),
+            Matchers.equalTo(2)
+        );
+    }
+
+    @Test
+    @Tag("performance")
+    void findsFasterThanByteByByteScan() {
+        final Random random = new Random(42L);
+        final byte[] buf = new byte[16 * 1024 * 1024];
+        random.nextBytes(buf);
+        final int[] lengths = {16, 40, 70};
+        for (final int length : lengths) {
+            final byte[] pattern = new byte[length];
+            random.nextBytes(pattern);
+            System.arraycopy(pattern, 0, buf, buf.length - length, length);
+            final Delimiter delimiter = new Delimiter(pattern);
+            long naive = Long.MAX_VALUE;
+            long fast = Long.MAX_VALUE;
+            for (int attempt = 0; attempt < 5; ++attempt) {
+                long start = System.nanoTime();
+                final int expected = DelimiterTest.scan(buf, pattern);
+                naive = Math.min(naive, System.nanoTime() - start);
+                start = System.nanoTime();
+                final int actual = delimiter.find(buf, 0, buf.length);
+                fast = Math.min(fast, System.nanoTime() - start);
+                MatcherAssert.assertThat(actual, Matchers.equalTo(expected));
+            }
+            MatcherAssert.assertThat(
+                String.format(
+                    "skip table must beat byte by byte scan for %d bytes",
+                    length
+                ),
+                fast,
+                Matchers.lessThan(naive)
+            );
+        }
+    }
+
+    /**
+     * Byte by byte scan, the way boundaries were found before.
+     * @param buf Where to search
+     * @param pattern What to find
+     * @return Position or -1
+     */
+    private static int scan(final byte[] buf, final byte[] pattern) {
+        int match = 0;
+        int found = -1;
+        for (int pos = 0; pos < buf.length; ++pos) {
+            if (buf[pos] == pattern[match]) {
+                ++match;
+            } else if (buf[pos] == pattern[0]) {
+                match = 1;
+            } else {
+                match = 0;
+            }
+            if (match == pattern.length) {
+                found = pos - match + 1;
+                break;
+            }
+        }
+        return found;
+    }
+}
@@ -33,6 +33,8 @@ import org.junit.jupiter.api.Test;
 import org.takes.Request;
 import org.takes.facets.hamcrest.HmHeader;
 import org.takes.rq.RqFake;
+import org.takes.rq.RqGreedy;
+import org.takes.rq.RqPrint;
 import org.takes.rq.RqWithHeaders;
 
 /**
@@ -182,6 +184,83 @@ final class RqMtBaseTest {
         }
     }
 
+    @Test
+    void parsesChunkedBody() throws IOException {
+        final String part = "t3";
+        final RqMtBase multipart = new RqMtBase(RqMtBaseTest.chunked(part));
+        try {
+            MatcherAssert.assertThat(
+                new RqPrint(multipart.part(part).iterator().next())
+                    .printBody(),
+                Matchers.equalTo("Chunked value")
+            );
+        } finally {
+            multipart.body().close();
+        }
+    }
+
+    @Test
+    void parsesChunkedBodyOfGreedyRequest() throws IOException {
+        final String part = "t4";
+        final RqMtBase multipart = new RqMtBase(
+            new RqGreedy(RqMtBaseTest.chunked(part))
+        );
+        try {
+            MatcherAssert.assertThat(
+                new RqPrint(multipart.part(part).iterator().next())
+                    .printBody(),
+                Matchers.equalTo("Chunked value")
+            );
+        } finally {
+            multipart.body().close();
+        }
+    }
+
+    @Test
+    void keepsSameContentInMemoryAndOnDisk() throws IOException {
+        final String part = "t4";
+        final String body = new Joined(
+            RqMtBaseTest.CRLF,
+            RqMtBaseTest.BODY_ELEMENT,
+            String.format(RqMtBaseTest.CONTENT, part),
+            "",
+            "Some value, which is longer than ten bytes",
+            "--AaB01x--"
+        ).toString();
+        final Request req = new RqFake(
+            Arrays.asList(
+                "POST /h?a=7 HTTP/1.1",
+                RqMtBaseTest.CONTENT_TYPE,
+                RqMtBaseTest.contentLengthHeader((long) body.length())
+            ),
+            body
+        );
+        final RqMtBase memory = new RqMtBase(req);
+        final RqMtBase disk = new RqMtBase(
+            new RqFake(
+                Arrays.asList(
+                    "POST /h?a=7 HTTP/1.1",
+                    RqMtBaseTest.CONTENT_TYPE,
+                    RqMtBaseTest.contentLengthHeader((long) body.length())
+                ),
+                body
+            ),
+            10
+        );
+        try {
+            MatcherAssert.assertThat(
+                new RqPrint(disk.part(part).iterator().next()).printBody(),
+                Matchers.equalTo(
+                    new RqPrint(memory.part(part).iterator().next())
+                        .printBody()
+                )
+            );
+        } finally {
+            memory.body().close();
+            disk.body().close();
+        }
+    }
+
     /**
      * Format Content-Disposition header.
      * @param dsp Disposition
@@ -199,4 +278,36 @@ final class RqMtBaseTest {
     private static String contentLengthHeader(final long length) {
         return String.format("Content-Length: %d", length);
     }
+
+    /**
+     * Multipart request with a chunked body.
+     * @param part Name of the only part
+     * @return Request
+     */
+    private static Request chunked(final String part) {
+        final String body = new Joined(
+            RqMtBaseTest.CRLF,
+            RqMtBaseTest.BODY_ELEMENT,
+            String.format(RqMtBaseTest.CONTENT, part),
+            "",
+            "Chunked value",
+            "--AaB01x--"
+        ).toString();
+        return new RqFake(
+            Arrays.asList(
+                "POST /h?a=6 HTTP/1.1",
+                RqMtBaseTest.CONTENT_TYPE,
+                "Transfer-Encoding: chunked"
+            ),
+            new Joined(
+                RqMtBaseTest.CRLF,
+                Integer.toHexString(10),
+                body.substring(0, 10),
+                Integer.toHexString(body.length() - 10),
+                body.substring(10),
+                "0",
+                ""
+            ).toString()
+        );
+    }
 }
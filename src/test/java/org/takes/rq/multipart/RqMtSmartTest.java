@@ -154,7 +154,7 @@ final class RqMtSmartTest {
         try {
             MatcherAssert.assertThat(
                 regsmart.single(part).body().available(),
-                Matchers.equalTo(length)
+                Matchers.equalTo(length + RqMtSmartTest.CRLF.length())
             );
         } finally {
             req.body().close();
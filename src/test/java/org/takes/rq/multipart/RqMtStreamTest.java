@@ -0,0 +1,182 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq.multipart;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import org.cactoos.text.Joined;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.takes.Request;
+import org.takes.facets.hamcrest.HmHeader;
+import org.takes.rq.RqFake;
+import org.takes.rq.RqPrint;
+
+/**
+ * Test case for {@link RqMtStream}.
+ * @since 2.0
+ */
+final class RqMtStreamTest {
+
+    /**
+     * Carriage return constant.
+     */
+    private static final String CRLF = "\r\n";
+
+    /**
+     * Content type.
+     */
+    private static final String CONTENT_TYPE =
+        "Content-Type: multipart/form-data; boundary=AaB03x";
+
+    /**
+     * Multipart body with two parts.
+     */
+    private static final String BODY = new Joined(
+        RqMtStreamTest.CRLF,
+        "--AaB03x",
+        "Content-Disposition: form-data; name=\"first\"",
+        "",
+        "Hello, world!",
+        "--AaB03x",
+        "Content-Disposition: form-data; name=\"second\"",
+        "Content-Type: text/plain",
+        "",
+        "--AaB03 is not a boundary",
+        "--AaB03x--",
+        ""
+    ).toString();
+
+    @Test
+    void readsPartsOneByOne() throws IOException {
+        final Iterator<Request> parts = new RqMtStream(
+            new RqFake(
+                Arrays.asList(
+                    "POST /upload HTTP/1.1",
+                    RqMtStreamTest.CONTENT_TYPE,
+                    String.format(
+                        "Content-Length: %d",
+                        RqMtStreamTest.BODY.length()
+                    )
+                ),
+                RqMtStreamTest.BODY
+            )
+        ).parts();
+        final Request first = parts.next();
+        MatcherAssert.assertThat(
+            new RqPrint(first).printBody(),
+            Matchers.equalTo("Hello, world!")
+        );
+        final Request second = parts.next();
+        MatcherAssert.assertThat(
+            second,
+            new HmHeader<>("Content-Type", "text/plain")
+        );
+        MatcherAssert.assertThat(
+            new RqPrint(second).printBody(),
+            Matchers.equalTo("--AaB03 is not a boundary")
+        );
+        MatcherAssert.assertThat(parts.hasNext(), Matchers.is(false));
+    }
+
+    @Test
+    void skipsUnreadParts() throws IOException {
+        final Iterator<Request> parts = new RqMtStream(
+            new RqFake(
+                Arrays.asList(
+                    "POST /skip HTTP/1.1",
+                    RqMtStreamTest.CONTENT_TYPE
+                ),
+                RqMtStreamTest.BODY
+            )
+        ).parts();
+        final Request first = parts.next();
+        final Request second = parts.next();
+        MatcherAssert.assertThat(
+            second,
+            new HmHeader<>(
+                "Content-Disposition",
+                "form-data; name=\"second\""
+            )
+        );
+        MatcherAssert.assertThat(first.body().read(), Matchers.equalTo(-1));
+    }
+
+    @Test
+    void readsChunkedBody() throws IOException {
+        final String body = RqMtStreamTest.BODY;
+        final int half = body.length() / 2;
+        final Iterator<Request> parts = new RqMtStream(
+            new RqFake(
+                Arrays.asList(
+                    "POST /chunked HTTP/1.1",
+                    RqMtStreamTest.CONTENT_TYPE,
+                    "Transfer-Encoding: chunked"
+                ),
+                new Joined(
+                    RqMtStreamTest.CRLF,
+                    Integer.toHexString(half),
+                    body.substring(0, half),
+                    Integer.toHexString(body.length() - half),
+                    body.substring(half),
+                    "0",
+                    ""
+                ).toString()
+            )
+        ).parts();
+        parts.next();
+        MatcherAssert.assertThat(
+            new RqPrint(parts.next()).printBody(),
+            Matchers.equalTo("--AaB03 is not a boundary")
+        );
+    }
+
+    @Test
+    void failsWithoutClosingBoundary() {
+        Assertions.assertThrows(
+            IOException.class,
+            () -> {
+                final Iterator<Request> parts = new RqMtStream(
+                    new RqFake(
+                        Arrays.asList(
+                            "POST /broken HTTP/1.1",
+                            RqMtStreamTest.CONTENT_TYPE
+                        ),
+                        new Joined(
+                            RqMtStreamTest.CRLF,
+                            "--AaB03x",
+                            "Content-Disposition: form-data; name=\"x\"",
+                            "",
+                            "never ends"
+                        ).toString()
+                    )
+                ).parts();
+                new RqPrint(parts.next()).printBody();
+            }
+        );
+    }
+}
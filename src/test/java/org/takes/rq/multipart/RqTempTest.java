@@ -24,12 +24,17 @@
 package org.takes.rq.multipart;
 
 import java.io.File;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import org.cactoos.bytes.BytesOf;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.takes.Request;
+import org.takes.misc.TempStorage;
 
 /**
  * Test case for {@link RqTemp}.
@@ -63,4 +68,30 @@ final class RqTempTest {
             Matchers.is(false)
         );
     }
+
+    @Test
+    void releasesFileOfAbandonedBody(@TempDir final Path temp)
+        throws Exception {
+        try (TempStorage storage = new TempStorage(temp, 1024L, false)) {
+            final TempStorage.Entry entry = storage.create();
+            try (OutputStream out = entry.output()) {
+                out.write("never read".getBytes(StandardCharsets.UTF_8));
+            }
+            new RqTemp(entry).body();
+            // @checkstyle MagicNumberCheck (1 line)
+            for (int attempt = 0; attempt < 100; ++attempt) {
+                if (!entry.file().exists()) {
+                    break;
+                }
+                System.gc();
+                // @checkstyle MagicNumberCheck (1 line)
+                Thread.sleep(50L);
+            }
+            MatcherAssert.assertThat(
+                "file must be deleted once the request is garbage collected",
+                entry.file().exists(),
+                Matchers.is(false)
+            );
+        }
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rq.multipart;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.takes.misc.TempStorage;
+
+/**
+ * Test case for {@link SpillChannel}.
+ * @since 2.0
+ */
+final class SpillChannelTest {
+
+    @Test
+    void releasesSpilledFileWhenDiscarded(@TempDir final Path temp)
+        throws Exception {
+        try (TempStorage storage = new TempStorage(temp, 16L, false)) {
+            final SpillChannel channel = new SpillChannel(4, storage);
+            channel.write(ByteBuffer.wrap(new byte[10]));
+            Assertions.assertThrows(
+                IOException.class,
+                () -> channel.write(ByteBuffer.wrap(new byte[10]))
+            );
+            channel.close();
+            channel.discard();
+            MatcherAssert.assertThat(storage.used(), Matchers.equalTo(0L));
+            try (Stream<Path> files = Files.walk(temp)) {
+                MatcherAssert.assertThat(
+                    files.filter(Files::isRegularFile)
+                        .filter(path -> !path.endsWith(".lock"))
+                        .count(),
+                    Matchers.equalTo(0L)
+                );
+            }
+        }
+    }
+
+}
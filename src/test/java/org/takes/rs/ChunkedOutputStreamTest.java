@@ -0,0 +1,73 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link ChunkedOutputStream}.
+ * @since 2.0
+ */
+final class ChunkedOutputStreamTest {
+
+    @Test
+    void collectsWritesIntoChunk() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final OutputStream chunks = new ChunkedOutputStream(output);
+        chunks.write('a');
+        chunks.write("bcd".getBytes(StandardCharsets.UTF_8));
+        chunks.flush();
+        chunks.flush();
+        chunks.close();
+        MatcherAssert.assertThat(
+            new String(output.toByteArray(), StandardCharsets.UTF_8),
+            Matchers.equalTo("4\r\nabcd\r\n0\r\n\r\n")
+        );
+    }
+
+    @Test
+    void splitsBigWrites() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final OutputStream chunks = new ChunkedOutputStream(output);
+        final byte[] big = new byte[10_000];
+        Arrays.fill(big, (byte) 'x');
+        chunks.write('y');
+        chunks.write(big);
+        chunks.close();
+        MatcherAssert.assertThat(
+            new String(output.toByteArray(), StandardCharsets.UTF_8),
+            Matchers.allOf(
+                Matchers.startsWith("1\r\ny\r\n2710\r\nxxx"),
+                Matchers.endsWith("xxx\r\n0\r\n\r\n")
+            )
+        );
+    }
+}
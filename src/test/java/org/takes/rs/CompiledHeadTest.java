@@ -0,0 +1,121 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.takes.Response;
+
+/**
+ * Test case for {@link CompiledHead}.
+ * @since 2.0
+ */
+final class CompiledHeadTest {
+
+    @Test
+    void compilesDeepChainIntoOneHead() throws Exception {
+        MatcherAssert.assertThat(
+            CompiledHeadTest.chain().head(),
+            Matchers.contains(
+                "HTTP/1.1 404 Not Found",
+                "Content-Length: 5",
+                "X-First: 1",
+                "X-Third: 3",
+                "Content-Type: text/plain; charset=UTF-8",
+                "X-Fourth: 4",
+                "X-Fifth: 5",
+                "X-Sixth: 6"
+            )
+        );
+    }
+
+    @Test
+    void buildsHeadOnlyOnce() throws Exception {
+        final Response res = CompiledHeadTest.chain();
+        MatcherAssert.assertThat(
+            res.head(),
+            Matchers.sameInstance(res.head())
+        );
+    }
+
+    @Test
+    @Tag("performance")
+    void iteratesDeepChainsInTime() throws Exception {
+        final long start = System.currentTimeMillis();
+        long lines = 0L;
+        // @checkstyle MagicNumberCheck (1 line)
+        for (int idx = 0; idx < 100_000; ++idx) {
+            final Response res = CompiledHeadTest.chain();
+            // @checkstyle MagicNumberCheck (1 line)
+            for (int pass = 0; pass < 4; ++pass) {
+                for (final String line : res.head()) {
+                    lines += line.length();
+                }
+            }
+        }
+        MatcherAssert.assertThat(lines, Matchers.greaterThan(0L));
+        MatcherAssert.assertThat(
+            "uncompiled 10-deep chains took about 9.5s here",
+            System.currentTimeMillis() - start,
+            // @checkstyle MagicNumberCheck (1 line)
+            Matchers.lessThan(6_000L)
+        );
+    }
+
+    /**
+     * Make a chain of ten decorators.
+     * @return Response
+     */
+    private static Response chain() {
+        return new RsWithHeader(
+            new RsWithHeaders(
+                new RsWithType(
+                    new RsWithoutHeader(
+                        new RsWithHeader(
+                            new RsWithHeader(
+                                new RsWithStatus(
+                                    new RsWithHeader(
+                                        new RsText("hello"),
+                                        "X-First", "1"
+                                    ),
+                                    HttpURLConnection.HTTP_NOT_FOUND
+                                ),
+                                "X-Second", "2"
+                            ),
+                            "X-Third", "3"
+                        ),
+                        "x-second"
+                    ),
+                    "text/plain", StandardCharsets.UTF_8
+                ),
+                "X-Fourth: 4", "X-Fifth: 5"
+            ),
+            "X-Sixth", "6"
+        );
+    }
+}
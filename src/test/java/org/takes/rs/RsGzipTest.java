@@ -27,6 +27,7 @@ import java.awt.image.BufferedImage;
 import java.awt.image.RenderedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.zip.GZIPInputStream;
 import javax.imageio.ImageIO;
@@ -82,18 +83,37 @@ final class RsGzipTest {
     }
 
     @Test
-    void reportsCorrectContentLength() throws IOException {
+    void streamsBodyInChunks() throws IOException {
         final String text = "some text to encode";
         final Response response = new RsGzip(new RsText(text));
         MatcherAssert.assertThat(
             new RsHeadPrint(response).asString(),
-            Matchers.containsString(
-                String.format(
-                    "Content-Length: %d",
-                    new RsBodyPrint(response).asString().length()
-                )
+            Matchers.allOf(
+                Matchers.containsString("Transfer-Encoding: chunked"),
+                Matchers.not(Matchers.containsString("Content-Length"))
             )
         );
+        MatcherAssert.assertThat(
+            new RsPrint(response).print(),
+            Matchers.endsWith("\r\n0\r\n\r\n")
+        );
+    }
+
+    @Test
+    void reportsAvailableBytesAfterHeader() throws IOException {
+        try (InputStream body = new RsGzip(
+            new RsText(new String(new char[4096]).replace('\0', 'x'))
+        ).body()) {
+            MatcherAssert.assertThat(
+                body.read(new byte[10]),
+                Matchers.equalTo(10)
+            );
+            MatcherAssert.assertThat(
+                "Must not look drained while there is more to compress",
+                body.available(),
+                Matchers.greaterThan(0)
+            );
+        }
     }
 
 }
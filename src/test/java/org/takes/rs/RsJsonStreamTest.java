@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import jakarta.json.Json;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link RsJsonStream}.
+ * @since 2.0
+ */
+final class RsJsonStreamTest {
+
+    @Test
+    void streamsBigArray() throws IOException {
+        final int size = 100_000;
+        MatcherAssert.assertThat(
+            Json.createReader(
+                new RsJsonStream(
+                    IntStream.range(0, size).iterator(),
+                    (json, num) -> json.writeStartObject()
+                        .write("number", num)
+                        .writeEnd()
+                ).body()
+            ).readArray().size(),
+            Matchers.equalTo(size)
+        );
+    }
+
+    @Test
+    void printsEmptyArray() throws IOException {
+        MatcherAssert.assertThat(
+            new RsBodyPrint(
+                new RsJsonStream(
+                    Collections.emptyIterator(),
+                    (json, obj) -> json.write(obj.toString())
+                )
+            ).asString(),
+            Matchers.equalTo("[]")
+        );
+    }
+
+    @Test
+    void sendsChunkPerBatch() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new RsPrint(
+            new RsJsonStream(
+                IntStream.range(0, 5).iterator(),
+                (json, num) -> json.write(num),
+                2
+            )
+        ).print(output);
+        MatcherAssert.assertThat(
+            new String(output.toByteArray(), StandardCharsets.UTF_8),
+            Matchers.allOf(
+                Matchers.containsString("Content-Type: application/json"),
+                Matchers.containsString("Transfer-Encoding: chunked"),
+                Matchers.endsWith(
+                    "\r\n\r\n4\r\n[0,1\r\n4\r\n,2,3\r\n3\r\n,4]\r\n0\r\n\r\n"
+                )
+            )
+        );
+    }
+
+    @Test
+    void closesIteratorWhenBodyIsClosed() throws IOException {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final InputStream body = new RsJsonStream(
+            new RsJsonStreamTest.Closeable(closed),
+            (json, num) -> json.write(num)
+        ).body();
+        MatcherAssert.assertThat(body.read(), Matchers.equalTo((int) '['));
+        body.close();
+        MatcherAssert.assertThat(closed.get(), Matchers.is(true));
+    }
+
+    /**
+     * Endless closeable iterator.
+     * @since 2.0
+     */
+    private static final class Closeable
+        implements Iterator<Integer>, AutoCloseable {
+
+        /**
+         * Is it closed?
+         */
+        private final AtomicBoolean closed;
+
+        /**
+         * Ctor.
+         * @param flag Is it closed
+         */
+        Closeable(final AtomicBoolean flag) {
+            this.closed = flag;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.closed.get();
+        }
+
+        @Override
+        public Integer next() {
+            return 1;
+        }
+
+        @Override
+        public void close() {
+            this.closed.set(true);
+        }
+    }
+}
@@ -27,9 +27,11 @@ import jakarta.json.Json;
 import jakarta.json.JsonArrayBuilder;
 import jakarta.json.JsonStructure;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
+import org.takes.Response;
 
 /**
  * Test case for {@link RsJson}.
@@ -68,4 +70,32 @@ final class RsJsonTest {
         );
     }
 
+    @Test
+    void sendsJsonInChunks() throws IOException {
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new RsJson(Json.createArrayBuilder().add(1).build())
+            ).print(),
+            Matchers.allOf(
+                Matchers.containsString("Transfer-Encoding: chunked"),
+                Matchers.containsString("\r\n3\r\n[1]\r\n"),
+                Matchers.endsWith("\r\n0\r\n\r\n")
+            )
+        );
+    }
+
+    @Test
+    void takesJsonFromSourceOnce() throws IOException {
+        final AtomicInteger calls = new AtomicInteger();
+        final Response res = new RsJson(
+            () -> {
+                calls.incrementAndGet();
+                return Json.createArrayBuilder().build();
+            }
+        );
+        new RsPrint(res).print();
+        new RsPrint(res).print();
+        MatcherAssert.assertThat(calls.get(), Matchers.equalTo(1));
+    }
+
 }
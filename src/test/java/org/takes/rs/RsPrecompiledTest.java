@@ -0,0 +1,131 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import org.cactoos.text.TextOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.takes.Response;
+
+/**
+ * Test case for {@link RsPrecompiled}.
+ * @since 2.0
+ */
+final class RsPrecompiledTest {
+
+    @Test
+    void printsExactlyAsOriginal() throws Exception {
+        final Response origin = new RsWithHeader(
+            new RsText("User-agent: *"), "X-Robots", "yes"
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(new RsPrecompiled(origin)).print(),
+            Matchers.equalTo(new RsPrint(origin).print())
+        );
+    }
+
+    @Test
+    void replaysHeadAndBody() throws Exception {
+        final Response res = new RsPrecompiled(new RsHtml("<p>hi</p>"));
+        for (int idx = 0; idx < 2; ++idx) {
+            MatcherAssert.assertThat(
+                res.head(),
+                Matchers.hasItem("Content-Type: text/html")
+            );
+            MatcherAssert.assertThat(
+                new TextOf(res.body()).asString(),
+                Matchers.equalTo("<p>hi</p>")
+            );
+        }
+    }
+
+    @Test
+    void writesWithOneCall() throws IOException {
+        final AtomicInteger calls = new AtomicInteger();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void write(final byte[] buf, final int off, final int len) {
+                calls.incrementAndGet();
+                super.write(buf, off, len);
+            }
+
+            @Override
+            public void write(final int data) {
+                calls.incrementAndGet();
+                super.write(data);
+            }
+        };
+        new RsPrint(new RsPrecompiled(new RsText("ok"))).print(output);
+        MatcherAssert.assertThat(calls.get(), Matchers.equalTo(1));
+        MatcherAssert.assertThat(
+            output.toString("UTF-8"),
+            Matchers.endsWith("\r\n\r\nok")
+        );
+    }
+
+    @Test
+    void precompilesChunkedResponseWithLength() throws Exception {
+        final Response res = new RsPrecompiled(
+            new RsGzip(new RsText("compressed once"))
+        );
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new RsPrint(res).print(output);
+        final byte[] bytes = output.toByteArray();
+        final String head = new RsPrint(res).printHead();
+        MatcherAssert.assertThat(
+            "Must not claim chunked framing it doesn't have",
+            res.head(),
+            Matchers.allOf(
+                Matchers.not(
+                    Matchers.hasItem(
+                        Matchers.startsWith("Transfer-Encoding")
+                    )
+                ),
+                Matchers.hasItem(
+                    String.format(
+                        "Content-Length: %d",
+                        bytes.length - head.length()
+                    )
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Must keep the body intact",
+            new TextOf(
+                new GZIPInputStream(
+                    new ByteArrayInputStream(
+                        bytes, head.length(), bytes.length - head.length()
+                    )
+                )
+            ).asString(),
+            Matchers.equalTo("compressed once")
+        );
+    }
+}
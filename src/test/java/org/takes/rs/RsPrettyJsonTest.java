@@ -23,10 +23,10 @@
  */
 package org.takes.rs;
 
-import java.io.ByteArrayOutputStream;
+import jakarta.json.Json;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.hamcrest.core.IsEqual;
@@ -63,28 +63,59 @@ final class RsPrettyJsonTest {
     }
 
     @Test
-    void reportsCorrectContentLength() throws Exception {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (Writer w = new OutputStreamWriter(baos)) {
-            w.write(
-                new RsBodyPrint(
+    void formatsJsonArray() throws Exception {
+        MatcherAssert.assertThat(
+            new RsBodyPrint(
+                new RsPrettyJson(
+                    new RsWithBody("[1, {\"a\": [true, null]}, 2.5]")
+                )
+            ).asString(),
+            Matchers.is(
+                String.join(
+                    "\n",
+                    "[",
+                    "    1,",
+                    "    {",
+                    "        \"a\": [",
+                    "            true,",
+                    "            null",
+                    "        ]",
+                    "    },",
+                    "    2.5",
+                    "]"
+                )
+            )
+        );
+    }
+
+    @Test
+    void formatsBigJsonArray() throws Exception {
+        final int size = 100_000;
+        MatcherAssert.assertThat(
+            Json.createReader(
+                new RsPrettyJson(
                     new RsWithBody(
-                        "{\n    \"test\": {\n        \"test\": \"test\"\n    }\n}"
+                        IntStream.range(0, size)
+                            .mapToObj(Integer::toString)
+                            .collect(Collectors.joining(",", "[", "]"))
                     )
-                ).asString()
-            );
-        }
+                ).body()
+            ).readArray().size(),
+            Matchers.equalTo(size)
+        );
+    }
+
+    @Test
+    void sendsBodyInChunks() throws Exception {
         MatcherAssert.assertThat(
             new RsHeadPrint(
                 new RsPrettyJson(
                     new RsWithBody("{\"test\": {\"test\": \"test\" }}")
                 )
             ).asString(),
-            Matchers.containsString(
-                String.format(
-                    "Content-Length: %d",
-                    baos.toByteArray().length
-                )
+            Matchers.allOf(
+                Matchers.containsString("Transfer-Encoding: chunked"),
+                Matchers.not(Matchers.containsString("Content-Length"))
             )
         );
     }
@@ -156,23 +156,56 @@ final class RsPrettyXmlTest {
     }
 
     @Test
-    void reportsCorrectContentLength() throws IOException {
-        final int clength = new RsBodyPrint(
-            new RsWithBody(
-                "<test>\n   <a>test</a>\n</test>\n"
-            )
-        ).asString().length();
+    void sendsBodyInChunks() throws IOException {
         MatcherAssert.assertThat(
             new RsHeadPrint(
                 new RsPrettyXml(
                     new RsWithBody("<test><a>test</a></test>")
                 )
             ).asString(),
-            Matchers.containsString(
-                String.format(
-                    "Content-Length: %d",
-                    clength
+            Matchers.allOf(
+                Matchers.containsString("Transfer-Encoding: chunked"),
+                Matchers.not(Matchers.containsString("Content-Length"))
+            )
+        );
+    }
+
+    @Test
+    void formatsNamespacesAndComments() throws IOException {
+        MatcherAssert.assertThat(
+            new RsBodyPrint(
+                new RsPrettyXml(
+                    new RsWithBody(
+                        "<x:a xmlns:x='urn:x'><!--c--><x:b x:i='1'/></x:a>"
+                    )
                 )
+            ).asString(),
+            Matchers.is(
+                String.join(
+                    "\n",
+                    "<x:a xmlns:x=\"urn:x\"><!--c-->",
+                    "   <x:b x:i=\"1\"/>",
+                    "</x:a>",
+                    ""
+                )
+            )
+        );
+    }
+
+    @Test
+    void formatsBigXml() throws IOException {
+        final int size = 100_000;
+        final StringBuilder xml = new StringBuilder("<list>");
+        for (int idx = 0; idx < size; ++idx) {
+            xml.append("<item>").append(idx).append("</item>");
+        }
+        xml.append("</list>");
+        MatcherAssert.assertThat(
+            new RsBodyPrint(
+                new RsPrettyXml(new RsWithBody(xml))
+            ).asString(),
+            Matchers.endsWith(
+                String.format("   <item>%d</item>\n</list>\n", size - 1)
             )
         );
     }
@@ -25,12 +25,17 @@ package org.takes.rs;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import org.apache.commons.io.IOUtils;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.takes.misc.StateAwareInputStream;
 
 /**
@@ -90,4 +95,108 @@ final class RsVelocityTest {
             Matchers.equalTo("Hello World!\n")
         );
     }
+
+    @Test
+    void parsesTemplateOnce() throws IOException {
+        final String template = "parsed once, ${name}!";
+        final long misses = RsVelocity.misses();
+        for (int idx = 0; idx < 3; ++idx) {
+            MatcherAssert.assertThat(
+                IOUtils.toString(
+                    new RsVelocity(
+                        template,
+                        new RsVelocity.Pair("name", idx)
+                    ).body(),
+                    StandardCharsets.UTF_8
+                ),
+                Matchers.equalTo(String.format("parsed once, %d!", idx))
+            );
+        }
+        MatcherAssert.assertThat(
+            RsVelocity.misses() - misses,
+            Matchers.equalTo(1L)
+        );
+    }
+
+    @Test
+    void keepsMacrosInTheirTemplates() throws IOException {
+        MatcherAssert.assertThat(
+            IOUtils.toString(
+                new RsVelocity("#macro(m)first#end#m()").body(),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo("first")
+        );
+        MatcherAssert.assertThat(
+            IOUtils.toString(
+                new RsVelocity("#macro(m)second#end#m()").body(),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo("second")
+        );
+    }
+
+    @Test
+    void reloadsModifiedTemplate(@TempDir final Path dir) throws IOException {
+        final Path file = dir.resolve("page.vm");
+        Files.write(file, "old ${x}".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            IOUtils.toString(
+                new RsVelocity(
+                    file.toUri().toURL(), true, new RsVelocity.Pair("x", 1)
+                ).body(),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo("old 1")
+        );
+        Files.write(file, "new ${x}".getBytes(StandardCharsets.UTF_8));
+        file.toFile().setLastModified(
+            // @checkstyle MagicNumberCheck (1 line)
+            file.toFile().lastModified() + 10_000L
+        );
+        MatcherAssert.assertThat(
+            IOUtils.toString(
+                new RsVelocity(
+                    file.toUri().toURL(), true, new RsVelocity.Pair("x", 2)
+                ).body(),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo("new 2")
+        );
+    }
+
+    @Test
+    @Tag("performance")
+    void rendersTypicalPageInTime() throws IOException {
+        final String template = String.join(
+            "\n",
+            "<html><head><title>${title}</title></head><body>",
+            "#foreach($item in $items)",
+            "#if($item == $title)<p class='title'>#else<p>#end",
+            "${item}</p>",
+            "#end",
+            "</body></html>"
+        );
+        final Object[] items = new Object[50];
+        Arrays.fill(items, "an item of the list");
+        final long start = System.currentTimeMillis();
+        long bytes = 0L;
+        // @checkstyle MagicNumberCheck (1 line)
+        for (int idx = 0; idx < 20_000; ++idx) {
+            bytes += IOUtils.toByteArray(
+                new RsVelocity(
+                    template,
+                    new RsVelocity.Pair("title", "Page"),
+                    new RsVelocity.Pair("items", Arrays.asList(items))
+                ).body()
+            ).length;
+        }
+        MatcherAssert.assertThat(bytes, Matchers.greaterThan(0L));
+        MatcherAssert.assertThat(
+            "a fresh engine per page took about 13s here",
+            System.currentTimeMillis() - start,
+            // @checkstyle MagicNumberCheck (1 line)
+            Matchers.lessThan(6_000L)
+        );
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.rs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.takes.Response;
+
+/**
+ * Test case for {@link RsWritable}.
+ * @since 2.0
+ */
+final class RsWritableTest {
+
+    @Test
+    void readsWrittenBody() throws IOException {
+        MatcherAssert.assertThat(
+            new RsBodyPrint(
+                new RsWritable(
+                    () -> new RsEmpty().head(),
+                    output -> output.write(
+                        "written".getBytes(StandardCharsets.UTF_8)
+                    )
+                )
+            ).asString(),
+            Matchers.equalTo("written")
+        );
+    }
+
+    @Test
+    void printsThroughDecoratorsWithoutReading() throws IOException {
+        final Response res = new RsWithType(
+            new RsWithHeader(
+                new RsWithStatus(
+                    RsWritableTest.unreadable("pushed"),
+                    HttpURLConnection.HTTP_OK
+                ),
+                "X-Pushed", "yes"
+            ),
+            "text/plain"
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(res).print(),
+            Matchers.allOf(
+                Matchers.startsWith("HTTP/1.1 200 OK\r\n"),
+                Matchers.containsString("X-Pushed: yes\r\n"),
+                Matchers.endsWith("\r\n\r\npushed")
+            )
+        );
+    }
+
+    @Test
+    void printsChunksOfWrittenBody() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new RsPrint(
+            new RsWithHeader(
+                new RsWritable(
+                    () -> new RsEmpty().head(),
+                    out -> {
+                        out.write("first".getBytes(StandardCharsets.UTF_8));
+                        out.flush();
+                        out.write("2nd".getBytes(StandardCharsets.UTF_8));
+                    }
+                ),
+                "Transfer-Encoding", "chunked"
+            )
+        ).print(output);
+        MatcherAssert.assertThat(
+            new String(output.toByteArray(), StandardCharsets.UTF_8),
+            Matchers.endsWith(
+                "\r\n\r\n5\r\nfirst\r\n3\r\n2nd\r\n0\r\n\r\n"
+            )
+        );
+    }
+
+    @Test
+    void writesBodyOfAnyResponse() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new WritableOf(new RsWithBody("pulled")).writeTo(output);
+        MatcherAssert.assertThat(
+            new String(output.toByteArray(), StandardCharsets.UTF_8),
+            Matchers.equalTo("pulled")
+        );
+    }
+
+    /**
+     * Response, which can only be written.
+     * @param text Body
+     * @return Response
+     */
+    private static Response unreadable(final String text) {
+        return new RsWritable(
+            () -> new RsEmpty().head(),
+            () -> {
+                throw new IllegalStateException("must not be read");
+            },
+            output -> output.write(text.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+}
@@ -24,10 +24,17 @@
 package org.takes.rs;
 
 import com.jcabi.matchers.XhtmlMatchers;
+import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.xml.transform.URIResolver;
 import javax.xml.transform.stream.StreamSource;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.cactoos.Text;
 import org.cactoos.io.InputStreamOf;
@@ -37,8 +44,10 @@ import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.llorllale.cactoos.matchers.EndsWith;
 import org.llorllale.cactoos.matchers.Throws;
+import org.takes.Response;
 import org.takes.misc.StateAwareInputStream;
 
 /**
@@ -263,4 +272,149 @@ final class RsXsltTest {
         );
     }
 
+    @Test
+    void compilesStylesheetOnce() throws IOException {
+        final AtomicInteger resolved = new AtomicInteger();
+        final URIResolver resolver = (href, base) -> {
+            resolved.incrementAndGet();
+            return new StreamSource(
+                new InputStreamOf(
+                    new Joined(
+                        " ",
+                        "<stylesheet version='2.0'",
+                        " xmlns='http://www.w3.org/1999/XSL/Transform'>",
+                        "<output method='text'/><template match='/'>",
+                        "<value-of select='/n'/></template></stylesheet>"
+                    )
+                )
+            );
+        };
+        final long hits = RsXslt.hits();
+        for (int idx = 0; idx < 3; ++idx) {
+            MatcherAssert.assertThat(
+                new RsPrint(
+                    new RsXslt(
+                        new RsText(
+                            String.format(
+                                "<?xml-stylesheet href='/n.xsl'?><n>%d</n>",
+                                idx
+                            )
+                        ),
+                        resolver
+                    )
+                ).printBody(),
+                Matchers.equalTo(String.valueOf(idx))
+            );
+        }
+        MatcherAssert.assertThat(resolved.get(), Matchers.equalTo(1));
+        MatcherAssert.assertThat(
+            RsXslt.hits() - hits,
+            Matchers.greaterThanOrEqualTo(2L)
+        );
+    }
+
+    @Test
+    void reloadsModifiedStylesheet(@TempDir final Path temp)
+        throws IOException {
+        final File file = temp.resolve("r.xsl").toFile();
+        final String xsl = String.join(
+            "",
+            "<stylesheet version='2.0'",
+            " xmlns='http://www.w3.org/1999/XSL/Transform'>",
+            "<output method='text'/>",
+            "<template match='/'>%s</template></stylesheet>"
+        );
+        final URIResolver resolver = (href, base) -> new StreamSource(href);
+        final String xml = String.format(
+            "<?xml-stylesheet href='%s'?><r/>", file.toURI()
+        );
+        FileUtils.write(
+            file, String.format(xsl, "before"), StandardCharsets.UTF_8
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new RsXslt(new RsText(xml), resolver, true)
+            ).printBody(),
+            Matchers.equalTo("before")
+        );
+        FileUtils.write(
+            file, String.format(xsl, "after"), StandardCharsets.UTF_8
+        );
+        file.setLastModified(file.lastModified() + 60_000L);
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new RsXslt(new RsText(xml), resolver, true)
+            ).printBody(),
+            Matchers.equalTo("after")
+        );
+    }
+
+    @Test
+    void readsLargeOutputOfChosenEngine() throws IOException {
+        final StringBuilder xml = new StringBuilder(
+            "<?xml-stylesheet href='/big.xsl'?><list>"
+        );
+        for (int idx = 0; idx < 20_000; ++idx) {
+            xml.append("<i>item</i>");
+        }
+        xml.append("</list>");
+        final Response response = new RsXslt(
+            new RsText(xml.toString()),
+            (href, base) -> new StreamSource(
+                new InputStreamOf(
+                    new Joined(
+                        " ",
+                        "<stylesheet version='2.0'",
+                        " xmlns='http://www.w3.org/1999/XSL/Transform'>",
+                        "<output method='text'/><template match='i'>",
+                        "<value-of select='.'/>;</template></stylesheet>"
+                    )
+                )
+            ),
+            false,
+            "net.sf.saxon.TransformerFactoryImpl"
+        );
+        MatcherAssert.assertThat(
+            response.head(),
+            Matchers.hasItem(
+                String.join(
+                    "",
+                    "X-Takes-RsXslt-TransformerFactory: ",
+                    "net.sf.saxon.TransformerFactoryImpl"
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            IOUtils.toString(response.body(), StandardCharsets.UTF_8).length(),
+            Matchers.equalTo(20_000 * "item;".length())
+        );
+    }
+
+    @Test
+    void transformsBodyInCallingThread() throws IOException {
+        final List<Thread> threads = new ArrayList<>(1);
+        final Joined xsl = new Joined(
+            " ",
+            "<stylesheet version='1.0'",
+            " xmlns='http://www.w3.org/1999/XSL/Transform'>",
+            "<output method='text'/>",
+            "<template match='/'>done</template>",
+            "</stylesheet>"
+        );
+        IOUtils.toString(
+            new RsXslt(
+                new RsText("<?xml-stylesheet href='/t.xsl'?><x/>"),
+                (href, base) -> {
+                    threads.add(Thread.currentThread());
+                    return new StreamSource(new InputStreamOf(xsl));
+                },
+                false
+            ).body(),
+            StandardCharsets.UTF_8
+        );
+        MatcherAssert.assertThat(
+            threads,
+            Matchers.contains(Thread.currentThread())
+        );
+    }
 }
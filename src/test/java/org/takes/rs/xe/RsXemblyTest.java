@@ -32,6 +32,7 @@ import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.xembly.Directives;
 
 /**
@@ -92,4 +93,46 @@ final class RsXemblyTest {
             )
         );
     }
+
+    @Test
+    void buildsUponElement() throws Exception {
+        final Document dom = DocumentBuilderFactory.newInstance()
+            .newDocumentBuilder()
+            .newDocument();
+        final Element base = dom.createElement("base");
+        base.appendChild(dom.createElement("a"));
+        MatcherAssert.assertThat(
+            IOUtils.toString(
+                new RsXembly(
+                    base,
+                    new XeDirectives(
+                        new Directives().xpath("/base").add("b")
+                    )
+                ).body(),
+                StandardCharsets.UTF_8
+            ),
+            XhtmlMatchers.hasXPaths("/base/a", "/base/b")
+        );
+        MatcherAssert.assertThat(
+            base.getChildNodes().getLength(),
+            Matchers.is(1)
+        );
+    }
+
+    @Test
+    void rendersSameXmlRepeatedly() throws IOException {
+        final XeSource src = new XeAppend(
+            "page", new XeAppend("title", "hi")
+        );
+        MatcherAssert.assertThat(
+            IOUtils.toString(
+                new RsXembly(src).body(), StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo(
+                IOUtils.toString(
+                    new RsXembly(src).body(), StandardCharsets.UTF_8
+                )
+            )
+        );
+    }
 }
@@ -24,6 +24,7 @@
 package org.takes.servlet;
 
 import jakarta.servlet.http.HttpServletResponse;
+import org.cactoos.iterable.Joined;
 import org.cactoos.text.FormattedText;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
@@ -59,6 +60,27 @@ final class ResponseOfTest {
         );
     }
 
+    @Test
+    void skipsFramingHeaders() throws Exception {
+        final HttpServletResponse sresp = new HttpServletResponseFake(
+            new RsEmpty()
+        );
+        new ResponseOf(
+            new RsWithHeader(
+                new RsWithHeader("Transfer-Encoding", "chunked"),
+                "Connection", "close"
+            )
+        ).applyTo(sresp);
+        MatcherAssert.assertThat(
+            "Can't skip hop-by-hop headers of the response",
+            new Joined<String>(
+                sresp.getHeaders("transfer-encoding"),
+                sresp.getHeaders("connection")
+            ),
+            Matchers.emptyIterable()
+        );
+    }
+
     @Test
     void cookie() throws Exception {
         final String name = "paulo";
@@ -0,0 +1,92 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.tk;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Slices}.
+ * @since 2.0
+ */
+final class SlicesTest {
+
+    @Test
+    void survivesInterruptOfAnotherReader(@TempDir final Path temp)
+        throws Exception {
+        final File file = temp.resolve("shared.txt").toFile();
+        FileUtils.write(file, "0123456789", StandardCharsets.UTF_8);
+        try (InputStream first = SlicesTest.slices(file);
+            InputStream second = SlicesTest.slices(file)) {
+            final byte[] head = new byte[2];
+            MatcherAssert.assertThat(first.read(head), Matchers.equalTo(2));
+            Thread.currentThread().interrupt();
+            try {
+                Assertions.assertThrows(
+                    ClosedByInterruptException.class,
+                    second::read
+                );
+            } finally {
+                Thread.interrupted();
+            }
+            MatcherAssert.assertThat(
+                "Must go on reading through a new channel",
+                IOUtils.toString(first, StandardCharsets.UTF_8),
+                Matchers.equalTo("23456789")
+            );
+        }
+        try (InputStream third = SlicesTest.slices(file)) {
+            MatcherAssert.assertThat(
+                "Must not get the closed channel",
+                IOUtils.toString(third, StandardCharsets.UTF_8),
+                Matchers.equalTo("0123456789")
+            );
+        }
+    }
+
+    /**
+     * The entire file, as one slice.
+     * @param file The file
+     * @return Stream
+     * @throws IOException If fails
+     */
+    private static InputStream slices(final File file) throws IOException {
+        return new Slices(
+            file, file.length(), file.lastModified(),
+            new long[] {0L}, new long[] {file.length()},
+            new byte[][] {new byte[0]}, new byte[0]
+        );
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2025 Yegor Bugayenko
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.takes.tk;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.apache.commons.io.FileUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.rq.RqFake;
+import org.takes.rs.RsHeaders;
+import org.takes.rs.RsPrint;
+import org.takes.rs.RsStatus;
+import org.takes.rs.RsText;
+
+/**
+ * Test case for {@link TkConditional}.
+ * @since 2.0
+ */
+final class TkConditionalTest {
+
+    @Test
+    void repliesNotModifiedToMatchingEntityTag() throws Exception {
+        final Take take = new TkConditional(req -> new RsText("dynamic"));
+        final String tag = new RsHeaders.Base(
+            take.act(new RqFake("GET", "/"))
+        ).header("ETag").get(0);
+        final Response response = take.act(
+            new RqFake(
+                Arrays.asList(
+                    "GET /",
+                    "Host: localhost",
+                    String.format("If-None-Match: \"x\", %s", tag)
+                ),
+                ""
+            )
+        );
+        MatcherAssert.assertThat(
+            new RsStatus.Base(response).status(),
+            Matchers.equalTo(304)
+        );
+        MatcherAssert.assertThat(
+            response.head(),
+            Matchers.hasItem(String.format("ETag: %s", tag))
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(response).printBody(),
+            Matchers.emptyString()
+        );
+    }
+
+    @Test
+    void sendsBodyWhenEntityTagDiffers() throws Exception {
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new TkConditional(req -> new RsText("fresh")).act(
+                    new RqFake(
+                        Arrays.asList(
+                            "GET /",
+                            "Host: localhost",
+                            "If-None-Match: \"stale\""
+                        ),
+                        ""
+                    )
+                )
+            ).printBody(),
+            Matchers.equalTo("fresh")
+        );
+    }
+
+    @Test
+    void comparesModificationTimeOfFiles(@TempDir final Path temp)
+        throws Exception {
+        final File file = temp.resolve("logo.svg").toFile();
+        FileUtils.write(file, "<svg/>", StandardCharsets.UTF_8);
+        final Take take = new TkConditional(new TkFiles(temp.toFile()));
+        final String modified = new RsHeaders.Base(
+            take.act(new RqFake("GET", "/logo.svg"))
+        ).header("Last-Modified").get(0);
+        MatcherAssert.assertThat(
+            new RsStatus.Base(
+                take.act(
+                    new RqFake(
+                        Arrays.asList(
+                            "GET /logo.svg",
+                            "Host: localhost",
+                            String.format("If-Modified-Since: %s", modified)
+                        ),
+                        ""
+                    )
+                )
+            ).status(),
+            Matchers.equalTo(304)
+        );
+        file.setLastModified(file.lastModified() + 60_000L);
+        MatcherAssert.assertThat(
+            new RsStatus.Base(
+                take.act(
+                    new RqFake(
+                        Arrays.asList(
+                            "GET /logo.svg",
+                            "Host: localhost",
+                            String.format("If-Modified-Since: %s", modified)
+                        ),
+                        ""
+                    )
+                )
+            ).status(),
+            Matchers.equalTo(200)
+        );
+    }
+}
@@ -24,10 +24,15 @@
 package org.takes.tk;
 
 import java.io.File;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
 import org.apache.commons.io.FileUtils;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
@@ -35,8 +40,11 @@ import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.io.TempDir;
 import org.llorllale.cactoos.matchers.StartsWith;
 import org.takes.HttpException;
+import org.takes.Response;
+import org.takes.Take;
 import org.takes.rq.RqFake;
 import org.takes.rs.RsHeadPrint;
+import org.takes.rs.RsPrint;
 
 /**
  * Test case for {@link TkFiles}.
@@ -74,4 +82,214 @@ final class TkFilesTest {
             )
         );
     }
+
+    @Test
+    void servesPrecompressedSidecar(@TempDir final Path temp)
+        throws Exception {
+        FileUtils.write(
+            temp.resolve("app.js").toFile(), "alert(1);",
+            StandardCharsets.UTF_8
+        );
+        FileUtils.write(
+            temp.resolve("app.js.gz").toFile(), "compressed",
+            StandardCharsets.UTF_8
+        );
+        final Take take = new TkFiles(temp.toFile());
+        MatcherAssert.assertThat(
+            new RsPrint(
+                take.act(
+                    new RqFake(
+                        Arrays.asList(
+                            "GET /app.js",
+                            "Host: www.example.com",
+                            "Accept-Encoding: gzip, br"
+                        ),
+                        ""
+                    )
+                )
+            ).printBody(),
+            Matchers.equalTo("compressed")
+        );
+        final Response plain = take.act(new RqFake("GET", "/app.js"));
+        MatcherAssert.assertThat(
+            new RsPrint(plain).printBody(),
+            Matchers.equalTo("alert(1);")
+        );
+        MatcherAssert.assertThat(
+            plain.head(),
+            Matchers.hasItem("Vary: Accept-Encoding")
+        );
+    }
+
+    @Test
+    void prefersBrotliSidecar(@TempDir final Path temp) throws Exception {
+        FileUtils.write(
+            temp.resolve("s.css").toFile(), "a{}", StandardCharsets.UTF_8
+        );
+        FileUtils.write(
+            temp.resolve("s.css.gz").toFile(), "gz", StandardCharsets.UTF_8
+        );
+        FileUtils.write(
+            temp.resolve("s.css.br").toFile(), "br", StandardCharsets.UTF_8
+        );
+        final Response response = new TkFiles(temp.toFile()).act(
+            new RqFake(
+                Arrays.asList(
+                    "GET /s.css",
+                    "Host: localhost",
+                    "Accept-Encoding: gzip, deflate, br"
+                ),
+                ""
+            )
+        );
+        MatcherAssert.assertThat(
+            response.head(),
+            Matchers.hasItem("Content-Encoding: br")
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(response).printBody(),
+            Matchers.equalTo("br")
+        );
+    }
+
+    @Test
+    void servesByteRanges(@TempDir final Path temp) throws Exception {
+        FileUtils.write(
+            temp.resolve("video.bin").toFile(), "0123456789",
+            StandardCharsets.UTF_8
+        );
+        final Take take = new TkFiles(temp.toFile());
+        final Response single = take.act(
+            TkFilesTest.ranged("/video.bin", "bytes=2-4")
+        );
+        MatcherAssert.assertThat(
+            single.head(),
+            Matchers.hasItems(
+                "HTTP/1.1 206 Partial Content",
+                "Content-Range: bytes 2-4/10",
+                "Content-Length: 3"
+            )
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(single).printBody(),
+            Matchers.equalTo("234")
+        );
+        final String multi = new RsPrint(
+            take.act(TkFilesTest.ranged("/video.bin", "bytes=0-1, -2"))
+        ).printBody();
+        MatcherAssert.assertThat(
+            multi,
+            Matchers.allOf(
+                Matchers.containsString(
+                    "Content-Range: bytes 0-1/10\r\n\r\n01\r\n--"
+                ),
+                Matchers.containsString(
+                    "Content-Range: bytes 8-9/10\r\n\r\n89\r\n--"
+                )
+            )
+        );
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange(@TempDir final Path temp)
+        throws Exception {
+        FileUtils.write(
+            temp.resolve("small.txt").toFile(), "abc", StandardCharsets.UTF_8
+        );
+        MatcherAssert.assertThat(
+            TkFilesTest.unsatisfiable(temp).head(),
+            Matchers.hasItems(
+                "HTTP/1.1 416 Range Not Satisfiable",
+                "Content-Range: bytes */3"
+            )
+        );
+    }
+
+    @Test
+    void sendsEntireFileWhenIfRangeDiffers(@TempDir final Path temp)
+        throws Exception {
+        FileUtils.write(
+            temp.resolve("doc.txt").toFile(), "document",
+            StandardCharsets.UTF_8
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new TkFiles(temp.toFile()).act(
+                    new RqFake(
+                        Arrays.asList(
+                            "GET /doc.txt",
+                            "Host: localhost",
+                            "Range: bytes=0-2",
+                            "If-Range: \"outdated\""
+                        ),
+                        ""
+                    )
+                )
+            ).printBody(),
+            Matchers.equalTo("document")
+        );
+    }
+
+    @Test
+    void readsReplacedFileAfresh(@TempDir final Path temp) throws Exception {
+        final Path file = temp.resolve("app.js");
+        FileUtils.write(file.toFile(), "old content", StandardCharsets.UTF_8);
+        final Take take = new TkFiles(temp.toFile());
+        try (InputStream old = take.act(
+            TkFilesTest.ranged("/app.js", "bytes=0-2")
+        ).body()) {
+            MatcherAssert.assertThat(old.read(), Matchers.equalTo((int) 'o'));
+            final Path next = temp.resolve("app.js.next");
+            FileUtils.write(
+                next.toFile(), "new content!", StandardCharsets.UTF_8
+            );
+            next.toFile().setLastModified(
+                // @checkstyle MagicNumberCheck (1 line)
+                file.toFile().lastModified() + 10_000L
+            );
+            Files.move(next, file, StandardCopyOption.REPLACE_EXISTING);
+            final Response fresh = take.act(new RqFake("GET", "/app.js"));
+            MatcherAssert.assertThat(
+                fresh.head(),
+                Matchers.hasItems(
+                    "HTTP/1.1 200 OK",
+                    "Accept-Ranges: bytes",
+                    "Content-Length: 12"
+                )
+            );
+            MatcherAssert.assertThat(
+                new RsPrint(fresh).printBody(),
+                Matchers.equalTo("new content!")
+            );
+        }
+    }
+
+    /**
+     * Request a range of small.txt.
+     * @param temp Directory
+     * @return Response
+     * @throws Exception If fails
+     */
+    private static Response unsatisfiable(final Path temp) throws Exception {
+        return new TkFiles(temp.toFile()).act(
+            TkFilesTest.ranged("/small.txt", "bytes=5-")
+        );
+    }
+
+    /**
+     * Request with Range header.
+     * @param path Path
+     * @param range Value of Range header
+     * @return Request
+     */
+    private static RqFake ranged(final String path, final String range) {
+        return new RqFake(
+            Arrays.asList(
+                String.format("GET %s", path),
+                "Host: localhost",
+                String.format("Range: %s", range)
+            ),
+            ""
+        );
+    }
 }
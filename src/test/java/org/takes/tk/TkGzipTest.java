@@ -35,12 +35,17 @@ import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.llorllale.cactoos.matchers.StartsWith;
+import org.takes.Response;
 import org.takes.http.FtRemote;
 import org.takes.rq.RqFake;
 import org.takes.rq.RqWithHeader;
 import org.takes.rs.RsGzip;
 import org.takes.rs.RsPrint;
 import org.takes.rs.RsText;
+import org.takes.rs.RsWithBody;
+import org.takes.rs.RsWithHeader;
+import org.takes.rs.RsWithStatus;
+import org.takes.rs.RsWithType;
 
 /**
  * Test case for {@link TkGzip}.
@@ -54,7 +59,7 @@ final class TkGzipTest {
         MatcherAssert.assertThat(
             new BytesOf(
                 new RsPrint(
-                    new TkGzip(new TkText(body)).act(
+                    new TkGzip(new TkText(body), 0L).act(
                         new RqWithHeader(
                             new RqFake("GET", "/"),
                             "Accept-Encoding", "gzip"
@@ -76,7 +81,7 @@ final class TkGzipTest {
             new TextOf(
                 new GZIPInputStream(
                     new RsPrint(
-                        new TkGzip(new TkText("привет, world!")).act(
+                        new TkGzip(new TkText("привет, world!"), 0L).act(
                             new RqWithHeader(
                                 new RqFake("GET", "/"),
                                 "Accept-Encoding", "gzip"
@@ -129,7 +134,7 @@ final class TkGzipTest {
     @Test
     void returnsExactlyGzipBody() throws Exception {
         final String body = "Halo, Siñor!";
-        new FtRemote(new TkGzip(req -> new RsText(body))).exec(
+        new FtRemote(new TkGzip(req -> new RsText(body), 0L)).exec(
             home -> MatcherAssert.assertThat(
                 new JdkRequest(home)
                     .method("GET")
@@ -149,7 +154,7 @@ final class TkGzipTest {
 
     @Test
     void compressesOverHttp() throws Exception {
-        new FtRemote(new TkGzip(req -> new RsText("Hi, dude!"))).exec(
+        new FtRemote(new TkGzip(req -> new RsText("Hi, dude!"), 0L)).exec(
             home -> MatcherAssert.assertThat(
                 new TextOf(
                     new GZIPInputStream(
@@ -168,4 +173,143 @@ final class TkGzipTest {
             )
         );
     }
+
+    @Test
+    void doesntCompressSmallBody() throws Exception {
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new TkGzip(new TkText("tiny")).act(
+                    new RqWithHeader(
+                        new RqFake("GET", "/"),
+                        "Accept-Encoding", "gzip"
+                    )
+                )
+            ).print(),
+            Matchers.allOf(
+                Matchers.not(Matchers.containsString("Content-Encoding")),
+                Matchers.endsWith("tiny")
+            )
+        );
+    }
+
+    @Test
+    void doesntCompressImages() throws Exception {
+        MatcherAssert.assertThat(
+            new TkGzip(
+                req -> new RsWithType(
+                    new RsWithBody(new byte[4096]), "image/png"
+                )
+            ).act(
+                new RqWithHeader(
+                    new RqFake("GET", "/"),
+                    "Accept-Encoding", "gzip"
+                )
+            ).head(),
+            Matchers.not(Matchers.hasItem("Content-Encoding: gzip"))
+        );
+    }
+
+    @Test
+    void compressesUntypedBody() throws Exception {
+        MatcherAssert.assertThat(
+            new TkGzip(
+                req -> new RsWithBody(new byte[4096])
+            ).act(
+                new RqWithHeader(
+                    new RqFake("GET", "/"),
+                    "Accept-Encoding", "gzip"
+                )
+            ).head(),
+            Matchers.hasItem("Content-Encoding: gzip")
+        );
+    }
+
+    @Test
+    void doesntCompressPartialContent() throws Exception {
+        MatcherAssert.assertThat(
+            new TkGzip(
+                req -> new RsWithHeader(
+                    new RsWithStatus(
+                        new RsWithBody(new byte[6000]),
+                        HttpURLConnection.HTTP_PARTIAL
+                    ),
+                    "Content-Range", "bytes 0-5999/6756"
+                )
+            ).act(
+                new RqWithHeader(
+                    new RqFake("GET", "/"),
+                    "Accept-Encoding", "gzip"
+                )
+            ).head(),
+            Matchers.allOf(
+                Matchers.not(Matchers.hasItem("Content-Encoding: gzip")),
+                Matchers.hasItem("Content-Range: bytes 0-5999/6756")
+            )
+        );
+    }
+
+    @Test
+    void weakensEntityTagOfCompressedBody() throws Exception {
+        MatcherAssert.assertThat(
+            new TkGzip(
+                req -> new RsWithHeader(
+                    new RsWithBody(new byte[4096]),
+                    "ETag", "\"1a-2b\""
+                )
+            ).act(
+                new RqWithHeader(
+                    new RqFake("GET", "/"),
+                    "Accept-Encoding", "gzip"
+                )
+            ).head(),
+            Matchers.allOf(
+                Matchers.hasItem("Content-Encoding: gzip"),
+                Matchers.hasItem("ETag: W/\"1a-2b\"")
+            )
+        );
+    }
+
+    @Test
+    void respectsZeroQuality() throws Exception {
+        MatcherAssert.assertThat(
+            new TkGzip(new TkText("refused"), 0L).act(
+                new RqWithHeader(
+                    new RqFake("GET", "/"),
+                    "Accept-Encoding", "gzip;q=0, *;q=1"
+                )
+            ).head(),
+            Matchers.allOf(
+                Matchers.not(Matchers.hasItem("Content-Encoding: gzip")),
+                Matchers.hasItem("Vary: Accept-Encoding")
+            )
+        );
+    }
+
+    @Test
+    void streamsLargeBodyInChunks() throws Exception {
+        final byte[] body = new byte[100_000];
+        Arrays.fill(body, (byte) 'z');
+        final Response response = new TkGzip(
+            req -> new RsWithType(new RsWithBody(body), "text/plain")
+        ).act(
+            new RqWithHeader(
+                new RqFake("GET", "/"),
+                "Accept-Encoding", "deflate, gzip;q=0.5"
+            )
+        );
+        MatcherAssert.assertThat(
+            response.head(),
+            Matchers.allOf(
+                Matchers.hasItem("Content-Encoding: gzip"),
+                Matchers.hasItem("Transfer-Encoding: chunked"),
+                Matchers.not(
+                    Matchers.hasItem(Matchers.startsWith("Content-Length"))
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            new BytesOf(new GZIPInputStream(response.body())).asBytes(),
+            Matchers.equalTo(body)
+        );
+    }
 }